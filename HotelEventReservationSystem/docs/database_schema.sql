@@ -24,6 +24,7 @@ CREATE TABLE users (
     first_name VARCHAR(100) NOT NULL,
     last_name VARCHAR(100) NOT NULL,
     phone VARCHAR(20),
+    preferred_locale VARCHAR(20),
     is_active BOOLEAN DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
@@ -141,6 +142,131 @@ CREATE TABLE notifications (
     FOREIGN KEY (sender_user_id) REFERENCES users(user_id) ON DELETE SET NULL
 );
 
+-- Email dead-letter table (messages that exhausted their delivery attempts)
+CREATE TABLE email_dead_letters (
+    dead_letter_id INT PRIMARY KEY AUTO_INCREMENT,
+    recipient_email VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    attempts INT NOT NULL,
+    last_error TEXT,
+    first_queued_at TIMESTAMP NULL,
+    failed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Per-user notification channel preferences (absent rows mean every channel is on)
+CREATE TABLE notification_preferences (
+    preference_id INT PRIMARY KEY AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    alert_type ENUM('GUEST_ARRIVAL', 'BOOKING_CHANGE', 'COORDINATION_ALERT', 'PAYMENT_REMINDER', 'EVENT_REMINDER', 'BOOKING_CONFIRMATION', 'BOOKING_CANCELLATION', 'SETUP_COMPLETE', 'CATERING_CONFIRMED') NOT NULL,
+    email_enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    sms_enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+    UNIQUE KEY uk_notification_preferences_user_alert (user_id, alert_type)
+);
+
+-- Staff notifications waiting in a digest; deleted when the digest is sent
+CREATE TABLE notification_digest_items (
+    digest_item_id INT PRIMARY KEY AUTO_INCREMENT,
+    recipient_user_id INT NOT NULL,
+    alert_type ENUM('GUEST_ARRIVAL', 'BOOKING_CHANGE', 'COORDINATION_ALERT', 'PAYMENT_REMINDER', 'EVENT_REMINDER', 'BOOKING_CONFIRMATION', 'BOOKING_CANCELLATION', 'SETUP_COMPLETE', 'CATERING_CONFIRMED') NOT NULL,
+    message_content TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (recipient_user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+-- Reminders already sent; the unique key dedupes across restarts and nodes
+CREATE TABLE reminder_log (
+    reminder_log_id INT PRIMARY KEY AUTO_INCREMENT,
+    booking_id INT NOT NULL,
+    reminder_type ENUM('EVENT_REMINDER', 'PAYMENT_REMINDER') NOT NULL,
+    sent_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE,
+    UNIQUE KEY uk_reminder_log_booking_type (booking_id, reminder_type)
+);
+
+-- SMS outbox (persistent dispatch and retry queue)
+CREATE TABLE sms_outbox (
+    sms_id INT PRIMARY KEY AUTO_INCREMENT,
+    phone_number VARCHAR(20) NOT NULL,
+    content TEXT NOT NULL,
+    provider VARCHAR(50) NOT NULL,
+    status ENUM('QUEUED', 'SENDING', 'DELIVERED', 'FAILED') NOT NULL DEFAULT 'QUEUED',
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    next_attempt_at TIMESTAMP NOT NULL,
+    claim_token VARCHAR(36) NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    delivered_at TIMESTAMP NULL
+);
+
+-- Booking totals per event date, venue, event type and status, maintained as bookings change
+CREATE TABLE booking_daily_rollups (
+    rollup_id INT PRIMARY KEY AUTO_INCREMENT,
+    event_date DATE NOT NULL,
+    venue_id INT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    booking_status ENUM('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED') NOT NULL,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    guest_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    utilization_total DOUBLE NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (venue_id) REFERENCES venues(venue_id),
+    UNIQUE KEY uk_booking_daily_rollups_key (event_date, venue_id, event_type, booking_status)
+);
+
+-- Sketches of non-cancelled bookings per event date and venue, merged for distinct guests and percentiles
+CREATE TABLE booking_daily_sketches (
+    sketch_id INT PRIMARY KEY AUTO_INCREMENT,
+    event_date DATE NOT NULL,
+    venue_id INT NOT NULL,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    guest_hll BLOB NOT NULL,
+    guest_count_sketch BLOB NOT NULL,
+    revenue_sketch BLOB NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (venue_id) REFERENCES venues(venue_id),
+    UNIQUE KEY uk_booking_daily_sketches_key (event_date, venue_id)
+);
+
+-- Event dates whose rollups (ROLLUP) or sketches (SKETCH) missed a booking change, until recounted
+CREATE TABLE booking_summary_dirty_days (
+    dirty_day_id INT PRIMARY KEY AUTO_INCREMENT,
+    summary VARCHAR(20) NOT NULL,
+    event_date DATE NOT NULL,
+    marked_at TIMESTAMP NOT NULL
+);
+
+-- Report exports run on a cron schedule; next_run_at includes the stagger offset
+CREATE TABLE report_schedules (
+    schedule_id INT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    report_type VARCHAR(50) NOT NULL,
+    export_format VARCHAR(20) NOT NULL,
+    report_period VARCHAR(20),
+    cron_expression VARCHAR(100) NOT NULL,
+    lookback_days INT NOT NULL,
+    recipient_role VARCHAR(50),
+    owner_id INT NOT NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    next_run_at TIMESTAMP NULL,
+    last_run_at TIMESTAMP NULL,
+    last_job_id VARCHAR(36),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (owner_id) REFERENCES users(user_id)
+);
+
+-- Deleted bookings, so the booking change feed can report deletions
+CREATE TABLE booking_tombstones (
+    tombstone_id INT PRIMARY KEY AUTO_INCREMENT,
+    booking_id INT NOT NULL,
+    reference_code VARCHAR(50) NOT NULL,
+    event_date DATE,
+    deleted_at TIMESTAMP NOT NULL
+);
+
 -- 5. Insert Initial Data
 
 -- Insert default roles
@@ -184,6 +310,18 @@ CREATE INDEX idx_bookings_guest_id ON bookings(guest_id);
 CREATE INDEX idx_bookings_venue_id ON bookings(venue_id);
 CREATE INDEX idx_bookings_event_date ON bookings(event_date);
 CREATE INDEX idx_bookings_status ON bookings(booking_status);
+CREATE INDEX idx_bookings_status_created_at ON bookings(booking_status, created_at);
+-- Covers the daily report aggregation, so it is answered from the index alone
+CREATE INDEX idx_bookings_report_daily ON bookings(event_date, event_type, booking_status, guest_count, total_cost);
+-- Keyset pages of the booking change feed
+CREATE INDEX idx_bookings_updated_at ON bookings(updated_at, booking_id);
+CREATE INDEX idx_booking_summary_dirty_days_summary ON booking_summary_dirty_days(summary, event_date);
+CREATE INDEX idx_booking_tombstones_deleted_at ON booking_tombstones(deleted_at, tombstone_id);
+CREATE INDEX idx_report_schedules_next_run ON report_schedules(enabled, next_run_at);
 CREATE INDEX idx_venue_availability_date ON venue_availability(date);
 CREATE INDEX idx_notifications_recipient ON notifications(recipient_user_id);
 CREATE INDEX idx_notifications_unread ON notifications(recipient_user_id, is_read);
+CREATE INDEX idx_notifications_created_at ON notifications(created_at);
+CREATE INDEX idx_notification_digest_items_group ON notification_digest_items(recipient_user_id, alert_type, digest_item_id);
+CREATE FULLTEXT INDEX idx_notifications_message_ft ON notifications(message_content);
+CREATE INDEX idx_sms_outbox_status_next_attempt ON sms_outbox(status, next_attempt_at);
@@ -4,6 +4,7 @@ import com.hotel.eventreservation.model.Booking;
 import com.hotel.eventreservation.model.User;
 import com.hotel.eventreservation.service.AvailabilityService;
 import com.hotel.eventreservation.service.BookingService;
+import com.hotel.eventreservation.service.RoleDirectoryService;
 import com.hotel.eventreservation.service.UserService;
 import com.hotel.eventreservation.service.NotificationService;
 import com.hotel.eventreservation.service.VenueService;
@@ -35,6 +36,9 @@ public class CoordinatorController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
     @Autowired
     private AvailabilityService availabilityService;
     
@@ -206,12 +210,12 @@ public class CoordinatorController {
                 count = 1;
             } else if ("ROLE".equalsIgnoreCase(targetType)) {
                 if (roleName == null || roleName.isBlank()) throw new RuntimeException("Role is required");
-                for (User u : userService.getUsersByRole(roleName)) {
+                for (User u : roleDirectoryService.getRecipientUsers(roleName)) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
             } else if ("ALL_GUESTS".equalsIgnoreCase(targetType)) {
-                for (User u : userService.getUsersByRole("GUEST")) {
+                for (User u : roleDirectoryService.getRecipientUsers("GUEST")) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
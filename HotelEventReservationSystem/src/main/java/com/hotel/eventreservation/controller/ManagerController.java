@@ -1,5 +1,6 @@
 package com.hotel.eventreservation.controller;
 
+import com.hotel.eventreservation.dto.RecipientDTO;
 import com.hotel.eventreservation.model.Booking;
 import com.hotel.eventreservation.model.User;
 import com.hotel.eventreservation.service.*;
@@ -11,7 +12,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/manager")
@@ -23,6 +27,9 @@ public class ManagerController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
     @Autowired
     private VenueService venueService;
     
@@ -32,6 +39,21 @@ public class ManagerController {
     @Autowired
     private com.hotel.eventreservation.service.AvailabilityService availabilityService;
     
+    @Autowired
+    private EmailDeliveryService emailDeliveryService;
+    
+    @Autowired
+    private SmsDispatchService smsDispatchService;
+    
+    @Autowired
+    private VenueAllocationService venueAllocationService;
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Autowired
+    private BookingSketchService bookingSketchService;
+    
     @GetMapping("/dashboard")
     public String dashboard(Authentication authentication, Model model) {
         User user = getCurrentUser(authentication);
@@ -93,13 +115,64 @@ public class ManagerController {
         return "redirect:/manager/bookings";
     }
     
+    @PostMapping("/bookings/{bookingId}/delete")
+    public String deleteBooking(@PathVariable Long bookingId, RedirectAttributes redirectAttributes) {
+        try {
+            bookingService.deleteBooking(bookingId);
+            redirectAttributes.addFlashAttribute("success", "Booking deleted successfully!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/manager/bookings";
+    }
+    
+    /**
+     * Preview of venues for the pending bookings in a date range, placed for revenue and capacity fit
+     */
+    @GetMapping("/bookings/pending/allocation")
+    public String previewVenueAllocation(@RequestParam(required = false) String startDate,
+                                         @RequestParam(required = false) String endDate,
+                                         Model model) {
+        LocalDate start = startDate != null && !startDate.isEmpty() ? LocalDate.parse(startDate) : LocalDate.now();
+        LocalDate end = endDate != null && !endDate.isEmpty() ? LocalDate.parse(endDate) : start.plusDays(30);
+        model.addAttribute("startDate", start);
+        model.addAttribute("endDate", end);
+        try {
+            model.addAttribute("allocation", venueAllocationService.preview(start, end));
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage());
+        }
+        return "manager/venue-allocation";
+    }
+    
+    /**
+     * Confirm every placed booking of a preview in its proposed venue, in one batch
+     */
+    @PostMapping("/bookings/pending/allocation/apply")
+    public String applyVenueAllocation(@RequestParam String startDate,
+                                       @RequestParam String endDate,
+                                       @RequestParam(required = false) List<Long> bookingId,
+                                       @RequestParam(required = false) List<Long> venueId,
+                                       RedirectAttributes redirectAttributes) {
+        try {
+            int confirmed = venueAllocationService.apply(LocalDate.parse(startDate), LocalDate.parse(endDate),
+                    bookingId != null ? bookingId : List.of(), venueId != null ? venueId : List.of());
+            redirectAttributes.addFlashAttribute("success", confirmed + " bookings confirmed in their proposed venues.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        redirectAttributes.addAttribute("startDate", startDate);
+        redirectAttributes.addAttribute("endDate", endDate);
+        return "redirect:/manager/bookings/pending/allocation";
+    }
+    
     @GetMapping("/staff")
     public String manageStaff(Model model) {
-        List<User> staff = userService.getUsersByRole("GENERAL_MANAGER");
-        staff.addAll(userService.getUsersByRole("EVENT_COORDINATOR"));
-        staff.addAll(userService.getUsersByRole("CATERING_TEAM_LEADER"));
-        staff.addAll(userService.getUsersByRole("MARKETING_EXECUTIVE"));
-        staff.addAll(userService.getUsersByRole("RECEPTIONIST"));
+        List<RecipientDTO> staff = new ArrayList<>(roleDirectoryService.getRecipients("GENERAL_MANAGER"));
+        staff.addAll(roleDirectoryService.getRecipients("EVENT_COORDINATOR"));
+        staff.addAll(roleDirectoryService.getRecipients("CATERING_TEAM_LEADER"));
+        staff.addAll(roleDirectoryService.getRecipients("MARKETING_EXECUTIVE"));
+        staff.addAll(roleDirectoryService.getRecipients("RECEPTIONIST"));
         
         model.addAttribute("staff", staff);
         return "manager/staff";
@@ -228,6 +301,38 @@ public class ManagerController {
         return "redirect:/manager/venues";
     }
     
+    /**
+     * Delivery pipeline counters for email and SMS
+     */
+    @GetMapping("/notifications/delivery-stats")
+    @ResponseBody
+    public Map<String, Object> getDeliveryStats() {
+        Map<String, Object> email = new HashMap<>();
+        email.put("queued", emailDeliveryService.getQueuedCount());
+        email.put("sent", emailDeliveryService.getSentCount());
+        email.put("retried", emailDeliveryService.getRetryCount());
+        email.put("deadLettered", emailDeliveryService.getDeadLetterCount());
+        email.put("circuitState", emailDeliveryService.getCircuitState());
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("email", email);
+        stats.put("sms", smsDispatchService.getDispatchStats());
+        return stats;
+    }
+    
+    /**
+     * Recompute the booking rollups and sketches from bookings without a restart,
+     * e.g. after bookings were changed directly in the database
+     */
+    @PostMapping("/reports/rebuild-summaries")
+    @ResponseBody
+    public Map<String, Object> rebuildBookingSummaries() {
+        Map<String, Object> rebuilt = new HashMap<>();
+        rebuilt.put("rollupRows", bookingRollupService.rebuildAll());
+        rebuilt.put("sketchCells", bookingSketchService.rebuildAll());
+        return rebuilt;
+    }
+    
     @GetMapping("/notifications")
     public String viewNotifications(@RequestParam(required = false, defaultValue = "ALL") String status,
                                     Authentication authentication, Model model) {
@@ -322,12 +427,12 @@ public class ManagerController {
                 count = 1;
             } else if ("ROLE".equalsIgnoreCase(targetType)) {
                 if (roleName == null || roleName.isBlank()) throw new RuntimeException("Role is required");
-                for (User u : userService.getUsersByRole(roleName)) {
+                for (User u : roleDirectoryService.getRecipientUsers(roleName)) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
             } else if ("ALL_GUESTS".equalsIgnoreCase(targetType)) {
-                for (User u : userService.getUsersByRole("GUEST")) {
+                for (User u : roleDirectoryService.getRecipientUsers("GUEST")) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
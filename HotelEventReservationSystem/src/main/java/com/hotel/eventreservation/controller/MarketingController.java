@@ -1,21 +1,46 @@
 package com.hotel.eventreservation.controller;
 
+import com.hotel.eventreservation.dto.BookingDistributionDTO;
+import com.hotel.eventreservation.dto.BookingKpiDTO;
+import com.hotel.eventreservation.dto.CapacitySimulationDTO;
+import com.hotel.eventreservation.dto.OccupancyHeatmapDTO;
 import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.service.BookingChangeFeedService;
+import com.hotel.eventreservation.service.BookingSketchService;
+import com.hotel.eventreservation.service.CapacitySimulationService;
+import com.hotel.eventreservation.service.VenueOccupancyService;
+import com.hotel.eventreservation.service.ReportJob;
+import com.hotel.eventreservation.service.ReportJobService;
+import com.hotel.eventreservation.service.ReportScheduleService;
 import com.hotel.eventreservation.service.ReportService;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import com.hotel.eventreservation.strategy.ReportExportStrategy;
+import com.hotel.eventreservation.service.RoleDirectoryService;
 import com.hotel.eventreservation.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import com.hotel.eventreservation.service.NotificationService;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -23,15 +48,41 @@ import java.util.Map;
 @RequestMapping("/marketing")
 public class MarketingController {
     
+    private static final Logger logger = LoggerFactory.getLogger(MarketingController.class);
+    
+    // Where a change feed response tells the consumer what to pass as since next time
+    private static final String CHANGE_WATERMARK_HEADER = "X-Change-Watermark";
+    
     @Autowired
     private ReportService reportService;
     
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    @Autowired
+    private ReportScheduleService reportScheduleService;
+    
+    @Autowired
+    private BookingChangeFeedService bookingChangeFeedService;
+    
+    @Autowired
+    private BookingSketchService bookingSketchService;
+    
+    @Autowired
+    private VenueOccupancyService venueOccupancyService;
+    
+    @Autowired
+    private CapacitySimulationService capacitySimulationService;
+    
     @Autowired
     private NotificationService notificationService;
     
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
     @GetMapping("/dashboard")
     public String dashboard(Authentication authentication, Model model) {
         User user = getCurrentUser(authentication);
@@ -40,45 +91,94 @@ public class MarketingController {
         LocalDate startDate = LocalDate.now().minusDays(90); // Look back 3 months
         LocalDate endDate = LocalDate.now().plusDays(90);    // Look forward 3 months
         
-        List<Map<String, Object>> bookingAnalytics = reportService.generateBookingAnalytics(startDate, endDate, null, null);
-        List<Map<String, Object>> revenueData = reportService.generateRevenueReport(startDate, endDate);
-        List<Map<String, Object>> eventTypeTrends = reportService.generateEventTypeTrendsReport(startDate, endDate);
-        
-        // Calculate additional metrics
-        double totalRevenue = calculateTotalRevenue(revenueData);
-        double cancellationRate = calculateCancellationRate(bookingAnalytics);
-        double venueOccupancy = calculateVenueOccupancy(bookingAnalytics);
+        // Every figure is aggregated in the database; no bookings are loaded
+        BookingKpiDTO kpis = reportService.getDashboardKpis(startDate, endDate);
+        List<Map<String, Object>> revenueData = reportService.generateRevenueReport(startDate, endDate, ReportService.ReportPeriod.MONTH);
+        List<Map<String, Object>> eventTypeTrends = reportService.generateEventTypeTrendsReport(startDate, endDate, ReportService.ReportPeriod.MONTH);
+        // Distinct guests and percentiles come from merged daily sketches, within the error bounds they carry
+        BookingDistributionDTO bookingDistribution = bookingSketchService.summarize(startDate, endDate);
         
-        // Debug logging
-        System.out.println("Dashboard Data Debug:");
-        System.out.println("Date Range: " + startDate + " to " + endDate);
-        System.out.println("Total Bookings: " + bookingAnalytics.size());
-        System.out.println("Revenue Data Size: " + revenueData.size());
-        System.out.println("Event Type Trends Size: " + eventTypeTrends.size());
-        System.out.println("Total Revenue: " + totalRevenue);
-        System.out.println("Cancellation Rate: " + cancellationRate);
-        System.out.println("Venue Occupancy: " + venueOccupancy);
-        
-        // Log sample data for debugging
-        if (!bookingAnalytics.isEmpty()) {
-            System.out.println("Sample Booking Data: " + bookingAnalytics.get(0));
-        }
-        if (!revenueData.isEmpty()) {
-            System.out.println("Sample Revenue Data: " + revenueData.get(0));
-        }
+        logger.debug("Dashboard {} to {}: {} bookings, revenue {}, cancellation rate {}%, occupancy {}%",
+                     startDate, endDate, kpis.totalBookings(), kpis.revenue(), kpis.cancellationRate(), kpis.averageUtilization());
         
         model.addAttribute("user", user);
-        model.addAttribute("totalBookings", bookingAnalytics.size());
+        model.addAttribute("totalBookings", kpis.totalBookings());
         model.addAttribute("revenueData", revenueData);
         model.addAttribute("eventTypeTrends", eventTypeTrends);
-        model.addAttribute("totalRevenue", totalRevenue);
-        model.addAttribute("cancellationRate", cancellationRate);
-        model.addAttribute("venueOccupancy", venueOccupancy);
+        model.addAttribute("totalRevenue", kpis.revenue() != null ? kpis.revenue().doubleValue() : 0.0);
+        model.addAttribute("cancellationRate", kpis.cancellationRate());
+        model.addAttribute("venueOccupancy", kpis.averageUtilization() != null ? kpis.averageUtilization() : 0.0);
+        model.addAttribute("bookingDistribution", bookingDistribution);
         model.addAttribute("availableFormats", reportService.getAvailableExportFormats());
         
         return "marketing/dashboard";
     }
     
+    /**
+     * Approximate distinct guests and percentiles for any date range, with their error bounds
+     */
+    @GetMapping("/distributions")
+    @ResponseBody
+    public ResponseEntity<BookingDistributionDTO> bookingDistribution(@RequestParam(required = false) String startDate,
+                                                                      @RequestParam(required = false) String endDate) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = startDate != null && !startDate.isEmpty() ? LocalDate.parse(startDate) : LocalDate.now().minusDays(365);
+            end = endDate != null && !endDate.isEmpty() ? LocalDate.parse(endDate) : LocalDate.now();
+        } catch (java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (end.isBefore(start)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bookingSketchService.summarize(start, end));
+    }
+    
+    /**
+     * Occupancy by venue and hour of week. Tagged with the matrix version, so a client polling with
+     * If-None-Match gets 304 until a booking or availability change moves a figure.
+     */
+    @GetMapping("/occupancy-heatmap")
+    @ResponseBody
+    public ResponseEntity<OccupancyHeatmapDTO> occupancyHeatmap(@RequestParam(required = false) Long venueId) {
+        OccupancyHeatmapDTO heatmap = venueOccupancyService.getHeatmap();
+        if (venueId != null) {
+            heatmap = new OccupancyHeatmapDTO(heatmap.windowStart(), heatmap.windowEnd(), heatmap.version(),
+                    heatmap.venues().stream().filter(venue -> venue.venueId().equals(venueId)).toList());
+            if (heatmap.venues().isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+        return ResponseEntity.ok()
+                .eTag("occupancy-" + heatmap.version() + (venueId != null ? "-" + venueId : ""))
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate().mustRevalidate())
+                .body(heatmap);
+    }
+    
+    /**
+     * Simulated rejection rates and utilization if venues were closed (closeVenueId) or added (addCapacity),
+     * against the current inventory. Pass a seed to repeat a run exactly.
+     */
+    @GetMapping("/capacity-simulation")
+    @ResponseBody
+    public ResponseEntity<?> capacitySimulation(@RequestParam(required = false) List<Long> closeVenueId,
+                                                @RequestParam(required = false) List<Integer> addCapacity,
+                                                @RequestParam(required = false) Integer trials,
+                                                @RequestParam(required = false) Integer horizonWeeks,
+                                                @RequestParam(required = false) Double demandScale,
+                                                @RequestParam(required = false) Long seed) {
+        CapacitySimulationService.Scenario scenario = new CapacitySimulationService.Scenario(
+                closeVenueId != null ? new LinkedHashSet<>(closeVenueId) : null, addCapacity, trials, horizonWeeks,
+                demandScale, seed);
+        try {
+            CapacitySimulationDTO simulation = capacitySimulationService.simulate(scenario);
+            return ResponseEntity.ok(simulation);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/reports")
     public String reports(Model model) {
         model.addAttribute("availableFormats", reportService.getAvailableExportFormats());
@@ -103,6 +203,7 @@ public class MarketingController {
         model.addAttribute("reportData", reportData);
         model.addAttribute("reportType", "Booking Analytics");
         model.addAttribute("availableFormats", reportService.getAvailableExportFormats());
+        addExportParameters(model, start, end, eventType, bookingStatus, null);
         
         return "marketing/report-results";
     }
@@ -118,6 +219,7 @@ public class MarketingController {
         model.addAttribute("reportData", reportData);
         model.addAttribute("reportType", "Venue Utilization");
         model.addAttribute("availableFormats", reportService.getAvailableExportFormats());
+        addExportParameters(model, start, end, null, null, null);
         
         return "marketing/report-results";
     }
@@ -125,14 +227,17 @@ public class MarketingController {
     @PostMapping("/reports/revenue")
     public String generateRevenueReport(@RequestParam(required = false) String startDate,
                                       @RequestParam(required = false) String endDate,
+                                      @RequestParam(required = false) String period,
                                       Model model) {
         LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusDays(30);
         LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now().plusDays(30);
+        ReportService.ReportPeriod reportPeriod = ReportService.ReportPeriod.fromParameter(period, ReportService.ReportPeriod.WEEK);
         
-        List<Map<String, Object>> reportData = reportService.generateRevenueReport(start, end);
+        List<Map<String, Object>> reportData = reportService.generateRevenueReport(start, end, reportPeriod);
         model.addAttribute("reportData", reportData);
         model.addAttribute("reportType", "Revenue Report");
         model.addAttribute("availableFormats", reportService.getAvailableExportFormats());
+        addExportParameters(model, start, end, null, null, reportPeriod);
         
         return "marketing/report-results";
     }
@@ -140,85 +245,264 @@ public class MarketingController {
     @PostMapping("/reports/event-trends")
     public String generateEventTrendsReport(@RequestParam(required = false) String startDate,
                                           @RequestParam(required = false) String endDate,
+                                          @RequestParam(required = false) String period,
                                           Model model) {
         LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusDays(30);
         LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now().plusDays(30);
+        ReportService.ReportPeriod reportPeriod = ReportService.ReportPeriod.fromParameter(period, ReportService.ReportPeriod.WEEK);
         
-        List<Map<String, Object>> reportData = reportService.generateEventTypeTrendsReport(start, end);
+        List<Map<String, Object>> reportData = reportService.generateEventTypeTrendsReport(start, end, reportPeriod);
         model.addAttribute("reportData", reportData);
         model.addAttribute("reportType", "Event Type Trends");
         model.addAttribute("availableFormats", reportService.getAvailableExportFormats());
+        addExportParameters(model, start, end, null, null, reportPeriod);
         
         return "marketing/report-results";
     }
     
+    /**
+     * Parameters the export links repeat, so an export has the rows on screen and can reuse them
+     */
+    private void addExportParameters(Model model, LocalDate start, LocalDate end, String eventType,
+                                     com.hotel.eventreservation.model.Booking.BookingStatus status,
+                                     ReportService.ReportPeriod period) {
+        model.addAttribute("startDate", start);
+        model.addAttribute("endDate", end);
+        model.addAttribute("eventType", eventType != null && !eventType.isEmpty() ? eventType : null);
+        model.addAttribute("status", status);
+        model.addAttribute("period", period);
+    }
+    
     @GetMapping("/export/{format}")
-    public ResponseEntity<ByteArrayResource> exportReport(@PathVariable String format,
-                                                        @RequestParam String reportType,
-                                                        @RequestParam(required = false) String startDate,
-                                                        @RequestParam(required = false) String endDate,
-                                                        @RequestParam(required = false) String eventType,
-                                                        @RequestParam(required = false) String status) {
+    public ResponseEntity<StreamingResponseBody> exportReport(@PathVariable String format,
+                                                            @RequestParam String reportType,
+                                                            @RequestParam(required = false) String startDate,
+                                                            @RequestParam(required = false) String endDate,
+                                                            @RequestParam(required = false) String eventType,
+                                                            @RequestParam(required = false) String status,
+                                                            @RequestParam(required = false) String period,
+                                                            @RequestParam(required = false) String compression) {
+        LocalDate start;
+        LocalDate end;
+        ReportService.ReportType type;
+        com.hotel.eventreservation.model.Booking.BookingStatus bookingStatus = null;
+        ReportService.ReportPeriod reportPeriod;
+        ReportExportStrategy strategy;
+        ExportCompression exportCompression;
         try {
-            LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusDays(30);
-            LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now().plusDays(30);
-            
-            com.hotel.eventreservation.model.Booking.BookingStatus bookingStatus = null;
+            start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusDays(30);
+            end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now().plusDays(30);
             if (status != null && !status.isEmpty()) {
                 bookingStatus = com.hotel.eventreservation.model.Booking.BookingStatus.valueOf(status);
             }
-            
-            List<Map<String, Object>> reportData;
-            String filename;
-            
-            switch (reportType.toLowerCase()) {
-                case "booking analytics":
-                    reportData = reportService.generateBookingAnalytics(start, end, eventType, bookingStatus);
-                    filename = "booking_analytics";
-                    break;
-                case "venue utilization":
-                    reportData = reportService.generateVenueUtilizationReport(start, end);
-                    filename = "venue_utilization";
-                    break;
-                case "revenue report":
-                    reportData = reportService.generateRevenueReport(start, end);
-                    filename = "revenue_report";
-                    break;
-                case "event type trends":
-                    reportData = reportService.generateEventTypeTrendsReport(start, end);
-                    filename = "event_trends";
-                    break;
-                default:
-                    throw new RuntimeException("Unknown report type: " + reportType);
+            type = ReportService.ReportType.fromLabel(reportType);
+            reportPeriod = ReportService.ReportPeriod.fromParameter(period, ReportService.ReportPeriod.WEEK);
+            strategy = reportService.getExportStrategy(format);
+            exportCompression = ExportCompression.fromParameter(compression);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            logger.warn("Rejected export request: {}", e.getMessage());
+            return badRequest(e.getMessage());
+        }
+        
+        // Rows are written to the response as they are read; nothing is buffered in full
+        String filterEventType = eventType != null && !eventType.isEmpty() ? eventType : null;
+        com.hotel.eventreservation.model.Booking.BookingStatus filterStatus = bookingStatus;
+        StreamingResponseBody body = outputStream ->
+            reportService.exportReport(format, type, start, end, filterEventType, filterStatus, reportPeriod,
+                                       exportCompression, outputStream);
+        
+        String filename = type.getFilename() + strategy.getFileExtension() + exportCompression.getFileSuffix();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType(exportCompression.getMimeType(strategy.getMimeType())))
+                .body(body);
+    }
+    
+    @GetMapping("/export-bundle")
+    public ResponseEntity<StreamingResponseBody> exportReportBundle(@RequestParam(required = false) String startDate,
+                                                                  @RequestParam(required = false) String endDate) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusDays(30);
+            end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now().plusDays(30);
+        } catch (java.time.format.DateTimeParseException e) {
+            return badRequest(e.getMessage());
+        }
+        
+        StreamingResponseBody body = outputStream -> reportService.exportReportBundle(start, end, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=marketing_reports.pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+    
+    /**
+     * Bookings changed or deleted since a watermark, for incremental syncs. The response carries the next
+     * watermark in a header; without since, every booking is sent. NDJSON suits streaming consumers best.
+     */
+    @GetMapping("/changes/{format}")
+    public ResponseEntity<StreamingResponseBody> exportBookingChanges(@PathVariable String format,
+                                                                    @RequestParam(required = false) String since,
+                                                                    @RequestParam(required = false) String compression) {
+        LocalDateTime sinceWatermark;
+        ReportExportStrategy strategy;
+        ExportCompression exportCompression;
+        try {
+            sinceWatermark = since != null && !since.isEmpty() ? LocalDateTime.parse(since) : null;
+            strategy = reportService.getExportStrategy(format);
+            exportCompression = ExportCompression.fromParameter(compression);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            logger.warn("Rejected change feed request: {}", e.getMessage());
+            return badRequest(e.getMessage());
+        }
+        
+        LocalDateTime until = bookingChangeFeedService.currentWatermark();
+        LocalDateTime nextWatermark = sinceWatermark != null && sinceWatermark.isAfter(until) ? sinceWatermark : until;
+        StreamingResponseBody body = outputStream ->
+            bookingChangeFeedService.exportChanges(format, sinceWatermark, until, exportCompression, outputStream);
+        
+        String filename = "booking_changes" + strategy.getFileExtension() + exportCompression.getFileSuffix();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .header(CHANGE_WATERMARK_HEADER, nextWatermark.toString())
+                .contentType(MediaType.parseMediaType(exportCompression.getMimeType(strategy.getMimeType())))
+                .body(body);
+    }
+    
+    /**
+     * Queue an export to run in the background; without a report type the PDF bundle of all reports is queued
+     */
+    @PostMapping("/report-jobs")
+    public String submitReportJob(@RequestParam(required = false, defaultValue = "PDF") String format,
+                                  @RequestParam(required = false) String reportType,
+                                  @RequestParam(required = false) String startDate,
+                                  @RequestParam(required = false) String endDate,
+                                  @RequestParam(required = false) String eventType,
+                                  @RequestParam(required = false) String status,
+                                  @RequestParam(required = false) String period,
+                                  @RequestParam(required = false) String compression,
+                                  Authentication authentication,
+                                  RedirectAttributes redirectAttributes) {
+        try {
+            LocalDate start = startDate != null && !startDate.isEmpty() ? LocalDate.parse(startDate) : LocalDate.now().minusDays(30);
+            LocalDate end = endDate != null && !endDate.isEmpty() ? LocalDate.parse(endDate) : LocalDate.now().plusDays(30);
+            ReportJob.Request request;
+            if (reportType == null || reportType.isEmpty()) {
+                request = ReportJob.Request.bundle(start, end);
+            } else {
+                com.hotel.eventreservation.model.Booking.BookingStatus bookingStatus = status != null && !status.isEmpty()
+                        ? com.hotel.eventreservation.model.Booking.BookingStatus.valueOf(status) : null;
+                request = new ReportJob.Request(format, ReportService.ReportType.fromLabel(reportType), start, end,
+                        eventType, bookingStatus, ReportService.ReportPeriod.fromParameter(period, ReportService.ReportPeriod.WEEK),
+                        ExportCompression.fromParameter(compression));
             }
-            
-            byte[] exportData = reportService.exportReport(format, reportData, filename);
-            String fileExtension = reportService.getAvailableExportFormats().get(format);
-            
-            ByteArrayResource resource = new ByteArrayResource(exportData);
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename + fileExtension)
-                    .contentType(MediaType.parseMediaType(getMimeType(format)))
-                    .contentLength(exportData.length)
-                    .body(resource);
-                    
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+            ReportJob job = reportJobService.submit(request, getCurrentUser(authentication).getUserId());
+            redirectAttributes.addFlashAttribute("success", job.getRequest().getLabel() + " is being prepared as "
+                    + job.getFilename() + ". It will be ready to download below.");
+        } catch (IllegalArgumentException | IllegalStateException | java.time.format.DateTimeParseException e) {
+            logger.warn("Rejected report job: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
         }
+        return "redirect:/marketing/report-jobs";
     }
     
-    private String getMimeType(String format) {
-        switch (format.toUpperCase()) {
-            case "PDF":
-                return "application/pdf";
-            case "CSV":
-                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            case "JSON":
-                return "application/json";
-            default:
-                return "application/octet-stream";
+    @GetMapping("/report-jobs")
+    public String reportJobs(Model model) {
+        List<ReportJob> jobs = reportJobService.getJobs();
+        model.addAttribute("jobs", jobs);
+        model.addAttribute("hasPendingJobs", jobs.stream().anyMatch(job -> !job.isFinished()));
+        return "marketing/report-jobs";
+    }
+    
+    /**
+     * Job status for polling
+     */
+    @GetMapping("/report-jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> reportJobStatus(@PathVariable String jobId) {
+        return reportJobService.getJob(jobId).map(job -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("jobId", job.getJobId());
+            body.put("report", job.getRequest().getLabel());
+            body.put("format", job.getRequest().format());
+            body.put("status", job.getStatus());
+            body.put("submittedAt", job.getSubmittedAt());
+            body.put("finishedAt", job.getFinishedAt());
+            body.put("filename", job.getFilename());
+            body.put("size", job.getArtifactSize());
+            body.put("error", job.getErrorMessage());
+            return ResponseEntity.ok(body);
+        }).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/report-jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String jobId) {
+        ReportJob job = reportJobService.getJob(jobId).orElse(null);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFilename())
+                .contentType(MediaType.parseMediaType(job.getMimeType()))
+                .contentLength(job.getArtifactSize())
+                .body(new FileSystemResource(job.getArtifact()));
+    }
+    
+    @GetMapping("/report-schedules")
+    public String reportSchedules(Model model) {
+        model.addAttribute("schedules", reportScheduleService.getSchedules());
+        model.addAttribute("reportTypes", ReportService.ReportType.values());
+        model.addAttribute("availableFormats", reportService.getAvailableExportFormats());
+        model.addAttribute("roles", ReportScheduleService.RECIPIENT_ROLES);
+        return "marketing/report-schedules";
+    }
+    
+    /**
+     * Schedule a report to be exported in the background on a cron expression, e.g. "0 0 5 * * MON"
+     */
+    @PostMapping("/report-schedules")
+    public String createReportSchedule(@RequestParam String name,
+                                       @RequestParam String reportType,
+                                       @RequestParam(required = false, defaultValue = "PDF") String format,
+                                       @RequestParam(required = false) String period,
+                                       @RequestParam String cronExpression,
+                                       @RequestParam(required = false, defaultValue = "7") int lookbackDays,
+                                       @RequestParam(required = false) String recipientRole,
+                                       Authentication authentication,
+                                       RedirectAttributes redirectAttributes) {
+        try {
+            com.hotel.eventreservation.model.ReportSchedule schedule = reportScheduleService.createSchedule(name, reportType,
+                    format, period, cronExpression, lookbackDays, recipientRole, getCurrentUser(authentication));
+            redirectAttributes.addFlashAttribute("success", "Report schedule \"" + schedule.getName()
+                    + "\" created. First run: " + schedule.getNextRunAt());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected report schedule: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/marketing/report-schedules";
+    }
+    
+    @PostMapping("/report-schedules/{scheduleId}/enabled")
+    public String setReportScheduleEnabled(@PathVariable Long scheduleId, @RequestParam boolean enabled,
+                                           RedirectAttributes redirectAttributes) {
+        try {
+            reportScheduleService.setEnabled(scheduleId, enabled);
+            redirectAttributes.addFlashAttribute("success", enabled ? "Report schedule resumed." : "Report schedule paused.");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
         }
+        return "redirect:/marketing/report-schedules";
+    }
+    
+    @PostMapping("/report-schedules/{scheduleId}/delete")
+    public String deleteReportSchedule(@PathVariable Long scheduleId, RedirectAttributes redirectAttributes) {
+        reportScheduleService.deleteSchedule(scheduleId);
+        redirectAttributes.addFlashAttribute("success", "Report schedule deleted.");
+        return "redirect:/marketing/report-schedules";
     }
     
     @GetMapping("/notifications")
@@ -272,12 +556,12 @@ public class MarketingController {
                 count = 1;
             } else if ("ROLE".equalsIgnoreCase(targetType)) {
                 if (roleName == null || roleName.isBlank()) throw new RuntimeException("Role is required");
-                for (User u : userService.getUsersByRole(roleName)) {
+                for (User u : roleDirectoryService.getRecipientUsers(roleName)) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
             } else if ("ALL_GUESTS".equalsIgnoreCase(targetType)) {
-                for (User u : userService.getUsersByRole("GUEST")) {
+                for (User u : roleDirectoryService.getRecipientUsers("GUEST")) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
@@ -368,74 +652,15 @@ public class MarketingController {
         return "redirect:/marketing/notifications";
     }
     
+    private static ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        byte[] text = (message != null ? message : "Invalid export request").getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(outputStream -> outputStream.write(text));
+    }
+    
     private User getCurrentUser(Authentication authentication) {
         return ((com.hotel.eventreservation.service.CustomUserDetailsService.CustomUserPrincipal) 
                 authentication.getPrincipal()).getUser();
     }
-    
-    /**
-     * Calculate total revenue from revenue data
-     */
-    private double calculateTotalRevenue(List<Map<String, Object>> revenueData) {
-        return revenueData.stream()
-                .mapToDouble(item -> {
-                    Object revenue = item.get("Revenue");
-                    if (revenue instanceof Number) {
-                        return ((Number) revenue).doubleValue();
-                    } else if (revenue instanceof String) {
-                        try {
-                            return Double.parseDouble((String) revenue);
-                        } catch (NumberFormatException e) {
-                            return 0.0;
-                        }
-                    }
-                    return 0.0;
-                })
-                .sum();
-    }
-    
-    /**
-     * Calculate cancellation rate from booking analytics
-     */
-    private double calculateCancellationRate(List<Map<String, Object>> bookingAnalytics) {
-        if (bookingAnalytics.isEmpty()) {
-            return 0.0;
-        }
-        
-        long cancelledCount = bookingAnalytics.stream()
-                .mapToLong(item -> {
-                    Object status = item.get("Status");
-                    return "CANCELLED".equals(status.toString()) ? 1 : 0;
-                })
-                .sum();
-        
-        return (double) cancelledCount / bookingAnalytics.size() * 100;
-    }
-    
-    /**
-     * Calculate average venue occupancy from booking analytics
-     */
-    private double calculateVenueOccupancy(List<Map<String, Object>> bookingAnalytics) {
-        if (bookingAnalytics.isEmpty()) {
-            return 0.0;
-        }
-        
-        double totalOccupancy = bookingAnalytics.stream()
-                .mapToDouble(item -> {
-                    Object guestCount = item.get("Guest Count");
-                    
-                    // This is a simplified calculation
-                    // In a real implementation, you'd need venue capacity data
-                    if (guestCount instanceof Number) {
-                        return ((Number) guestCount).doubleValue();
-                    }
-                    return 0.0;
-                })
-                .average()
-                .orElse(0.0);
-        
-        // Assuming average venue capacity of 100 for calculation
-        // In a real implementation, you'd get actual venue capacity
-        return Math.min(totalOccupancy / 100.0 * 100, 100.0);
-    }
 }
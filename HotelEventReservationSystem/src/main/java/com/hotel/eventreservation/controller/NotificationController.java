@@ -0,0 +1,106 @@
+package com.hotel.eventreservation.controller;
+
+import com.hotel.eventreservation.dto.NotificationEventDTO;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationPreference;
+import com.hotel.eventreservation.service.CustomUserDetailsService;
+import com.hotel.eventreservation.service.NotificationPreferenceService;
+import com.hotel.eventreservation.service.NotificationPushService;
+import com.hotel.eventreservation.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Notification endpoints shared by every role: live stream, search and channel preferences
+ */
+@Controller
+@RequestMapping("/notifications")
+public class NotificationController {
+    
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private NotificationPreferenceService notificationPreferenceService;
+    
+    /**
+     * Live notification stream for the signed-in user
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter stream(Authentication authentication) {
+        return notificationPushService.subscribe(getCurrentUserId(authentication));
+    }
+    
+    /**
+     * Search the signed-in user's notifications, best matches first
+     */
+    @GetMapping("/search")
+    @ResponseBody
+    public Map<String, Object> search(@RequestParam String q,
+                                      @RequestParam(required = false) Notification.AlertType alertType,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "20") int size,
+                                      Authentication authentication) {
+        Page<Notification> results = notificationService.searchNotificationsForUser(
+                getCurrentUserId(authentication), q, alertType, page, size);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results.map(NotificationEventDTO::new).getContent());
+        response.put("page", results.getNumber());
+        response.put("size", results.getSize());
+        response.put("totalResults", results.getTotalElements());
+        response.put("totalPages", results.getTotalPages());
+        return response;
+    }
+    
+    /**
+     * Channel settings of the signed-in user for every alert type
+     */
+    @GetMapping("/preferences")
+    @ResponseBody
+    public Map<Notification.AlertType, Map<NotificationPreference.Channel, Boolean>> getPreferences(Authentication authentication) {
+        return notificationPreferenceService.getPreferences(getCurrentUserId(authentication));
+    }
+    
+    /**
+     * Turn one channel on or off for one alert type
+     */
+    @PostMapping("/preferences")
+    @ResponseBody
+    public Map<Notification.AlertType, Map<NotificationPreference.Channel, Boolean>> updatePreference(
+            @RequestParam Notification.AlertType alertType,
+            @RequestParam NotificationPreference.Channel channel,
+            @RequestParam boolean enabled,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        notificationPreferenceService.updatePreference(userId, alertType, channel, enabled);
+        return notificationPreferenceService.getPreferences(userId);
+    }
+    
+    private Long getCurrentUserId(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetailsService.CustomUserPrincipal)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        CustomUserDetailsService.CustomUserPrincipal principal =
+                (CustomUserDetailsService.CustomUserPrincipal) authentication.getPrincipal();
+        return principal.getUser().getUserId();
+    }
+}
@@ -4,6 +4,7 @@ import com.hotel.eventreservation.model.Booking;
 import com.hotel.eventreservation.model.User;
 import com.hotel.eventreservation.service.BookingService;
 import com.hotel.eventreservation.service.NotificationService;
+import com.hotel.eventreservation.service.RoleDirectoryService;
 import com.hotel.eventreservation.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -28,6 +29,9 @@ public class ReceptionController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
     @GetMapping("/dashboard")
     public String dashboard(Authentication authentication, Model model) {
         User user = getCurrentUser(authentication);
@@ -175,12 +179,12 @@ public class ReceptionController {
                 count = 1;
             } else if ("ROLE".equalsIgnoreCase(targetType)) {
                 if (roleName == null || roleName.isBlank()) throw new RuntimeException("Role is required");
-                for (User u : userService.getUsersByRole(roleName)) {
+                for (User u : roleDirectoryService.getRecipientUsers(roleName)) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
             } else if ("ALL_GUESTS".equalsIgnoreCase(targetType)) {
-                for (User u : userService.getUsersByRole("GUEST")) {
+                for (User u : roleDirectoryService.getRecipientUsers("GUEST")) {
                     notificationService.sendNotification(u, sender, message, alertType);
                     count++;
                 }
@@ -0,0 +1,39 @@
+package com.hotel.eventreservation.dto;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.BookingTombstone;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One entry of the booking change feed: the booking as it now is, or the fact that it was deleted.
+ * Deletions carry only the booking's identity and event date.
+ */
+public record BookingChangeDTO(Operation operation, LocalDateTime changedAt, Long bookingId, String referenceCode,
+                               String guestName, String eventType, LocalDate eventDate, LocalTime startTime,
+                               LocalTime endTime, Integer guestCount, Long venueId, String venueName,
+                               BigDecimal totalCost, Booking.BookingStatus bookingStatus, LocalDateTime createdAt) {
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+
+    /**
+     * A changed booking as it now is, selected by BookingRepository.findChangedAfter
+     */
+    public BookingChangeDTO(LocalDateTime changedAt, Long bookingId, String referenceCode, String guestName,
+                            String eventType, LocalDate eventDate, LocalTime startTime, LocalTime endTime,
+                            Integer guestCount, Long venueId, String venueName, BigDecimal totalCost,
+                            Booking.BookingStatus bookingStatus, LocalDateTime createdAt) {
+        this(Operation.UPSERT, changedAt, bookingId, referenceCode, guestName, eventType, eventDate, startTime,
+             endTime, guestCount, venueId, venueName, totalCost, bookingStatus, createdAt);
+    }
+
+    public static BookingChangeDTO deletion(BookingTombstone tombstone) {
+        return new BookingChangeDTO(Operation.DELETE, tombstone.getDeletedAt(), tombstone.getBookingId(),
+                tombstone.getReferenceCode(), null, null, tombstone.getEventDate(), null, null, null, null, null,
+                null, null, null);
+    }
+}
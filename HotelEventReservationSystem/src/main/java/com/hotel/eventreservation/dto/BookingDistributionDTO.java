@@ -0,0 +1,19 @@
+package com.hotel.eventreservation.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Distinct guests and percentiles of non-cancelled bookings over a date range, read from sketches.
+ * distinctGuestsError is the relative standard error of distinctGuests; rankError bounds (with 99%
+ * confidence) how far a percentile may be off in rank, e.g. 0.0165 means a "p90" lies between p88.35
+ * and p91.65. Percentiles are null when there are no bookings.
+ */
+public record BookingDistributionDTO(LocalDate startDate, LocalDate endDate, long bookings, long distinctGuests,
+                                     double distinctGuestsError, Double revenueMedian, Double revenueP90,
+                                     Double revenueP99, double rankError, List<VenueDistribution> venues) {
+
+    public record VenueDistribution(Long venueId, String venueName, long bookings, long distinctGuests,
+                                    Double guestCountMedian, Double guestCountP90, Double guestCountMax) {
+    }
+}
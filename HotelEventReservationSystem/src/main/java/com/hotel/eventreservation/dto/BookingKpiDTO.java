@@ -0,0 +1,19 @@
+package com.hotel.eventreservation.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Headline figures for the marketing dashboard. Revenue and utilization exclude cancelled bookings;
+ * utilization is the average of guest count over venue capacity, in percent.
+ */
+public record BookingKpiDTO(Long totalBookings, Long cancelledBookings, BigDecimal revenue, Double averageUtilization) {
+    
+    public static final BookingKpiDTO EMPTY = new BookingKpiDTO(0L, 0L, BigDecimal.ZERO, 0.0);
+    
+    public double cancellationRate() {
+        if (totalBookings == null || totalBookings == 0) {
+            return 0.0;
+        }
+        return (cancelledBookings != null ? cancelledBookings : 0) * 100.0 / totalBookings;
+    }
+}
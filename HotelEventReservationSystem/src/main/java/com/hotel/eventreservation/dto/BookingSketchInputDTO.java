@@ -0,0 +1,11 @@
+package com.hotel.eventreservation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The columns of a booking that go into the daily sketches
+ */
+public record BookingSketchInputDTO(LocalDate eventDate, Long venueId, Long guestId, Integer guestCount,
+                                    BigDecimal totalCost) {
+}
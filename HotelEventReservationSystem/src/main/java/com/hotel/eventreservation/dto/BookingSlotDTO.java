@@ -0,0 +1,70 @@
+package com.hotel.eventreservation.dto;
+
+import com.hotel.eventreservation.model.Booking;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Scheduling view of a booking: when and where it takes place, without guest, venue or preference entities
+ */
+public class BookingSlotDTO {
+    private final Long bookingId;
+    private final Long venueId;
+    private final LocalDate eventDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Booking.BookingStatus bookingStatus;
+    private final LocalDateTime createdAt;
+    
+    public BookingSlotDTO(Long bookingId, Long venueId, LocalDate eventDate, LocalTime startTime, LocalTime endTime,
+                          Booking.BookingStatus bookingStatus, LocalDateTime createdAt) {
+        this.bookingId = bookingId;
+        this.venueId = venueId;
+        this.eventDate = eventDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.bookingStatus = bookingStatus;
+        this.createdAt = createdAt;
+    }
+    
+    public BookingSlotDTO(Booking booking) {
+        this(booking.getBookingId(),
+             booking.getVenue() != null ? booking.getVenue().getVenueId() : null,
+             booking.getEventDate(), booking.getStartTime(), booking.getEndTime(),
+             booking.getBookingStatus(), booking.getCreatedAt());
+    }
+    
+    public LocalDateTime getEventStart() {
+        return eventDate.atTime(startTime);
+    }
+    
+    // Getters
+    public Long getBookingId() {
+        return bookingId;
+    }
+    
+    public Long getVenueId() {
+        return venueId;
+    }
+    
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public Booking.BookingStatus getBookingStatus() {
+        return bookingStatus;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hotel.eventreservation.dto;
+
+import java.util.List;
+
+/**
+ * Simulated rejection rate and utilization for the current venue inventory and for a changed one, in percent.
+ * Both inventories face the same sampled demand in each trial, so the changes are estimated from per-trial
+ * differences. scenario and the changes are null when no venue was added or closed.
+ */
+public record CapacitySimulationDTO(int trials, int horizonWeeks, double demandScale, long seed,
+                                    int historicalBookings, double requestsPerDay, long elapsedMillis,
+                                    Outcome baseline, Outcome scenario, Estimate rejectionRateChange,
+                                    Estimate utilizationChange) {
+
+    public record Outcome(Estimate rejectionRate, Estimate utilization, List<VenueUtilization> venues,
+                          List<EventTypeRejection> eventTypes) {
+    }
+
+    /**
+     * Mean over trials with the 95% confidence interval of the mean, and the 5th and 95th percentile trial
+     */
+    public record Estimate(double mean, double lower, double upper, double p05, double p95) {
+    }
+
+    /**
+     * venueId is null for a venue added by the scenario
+     */
+    public record VenueUtilization(Long venueId, String venueName, int capacity, double utilization) {
+    }
+
+    public record EventTypeRejection(String eventType, double requestsPerTrial, double rejectionRate) {
+    }
+}
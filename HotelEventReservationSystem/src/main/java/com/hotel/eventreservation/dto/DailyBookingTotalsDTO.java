@@ -0,0 +1,12 @@
+package com.hotel.eventreservation.dto;
+
+import com.hotel.eventreservation.model.Booking;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Booking count, guests and revenue for one event date, event type and status
+ */
+public record DailyBookingTotalsDTO(LocalDate eventDate, String eventType, Booking.BookingStatus bookingStatus,
+                                    Long bookingCount, Long guestCount, BigDecimal revenue) {
+}
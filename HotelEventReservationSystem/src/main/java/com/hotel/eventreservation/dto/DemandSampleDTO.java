@@ -0,0 +1,12 @@
+package com.hotel.eventreservation.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * The columns of a booking that describe it as a request for a venue, for demand simulation
+ */
+public record DemandSampleDTO(String eventType, Integer guestCount, LocalDate eventDate, LocalTime startTime,
+                              LocalTime endTime, LocalDateTime createdAt) {
+}
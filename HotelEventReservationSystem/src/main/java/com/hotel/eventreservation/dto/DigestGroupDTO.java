@@ -0,0 +1,9 @@
+package com.hotel.eventreservation.dto;
+
+import com.hotel.eventreservation.model.Notification;
+
+/**
+ * The pending digest items of one recipient and alert type
+ */
+public record DigestGroupDTO(Long recipientUserId, Notification.AlertType alertType, long itemCount) {
+}
@@ -0,0 +1,63 @@
+package com.hotel.eventreservation.dto;
+
+import com.hotel.eventreservation.model.Notification;
+import java.time.LocalDateTime;
+
+public class NotificationEventDTO {
+    private Long notificationId;
+    private Long recipientUserId;
+    private String messageContent;
+    private String alertType;
+    private LocalDateTime createdAt;
+    
+    public NotificationEventDTO() {}
+    
+    public NotificationEventDTO(Notification notification) {
+        this.notificationId = notification.getNotificationId();
+        this.recipientUserId = notification.getRecipientUser().getUserId();
+        this.messageContent = notification.getMessageContent();
+        this.alertType = notification.getAlertType().name();
+        this.createdAt = notification.getCreatedAt();
+    }
+    
+    // Getters and Setters
+    public Long getNotificationId() {
+        return notificationId;
+    }
+    
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+    
+    public Long getRecipientUserId() {
+        return recipientUserId;
+    }
+    
+    public void setRecipientUserId(Long recipientUserId) {
+        this.recipientUserId = recipientUserId;
+    }
+    
+    public String getMessageContent() {
+        return messageContent;
+    }
+    
+    public void setMessageContent(String messageContent) {
+        this.messageContent = messageContent;
+    }
+    
+    public String getAlertType() {
+        return alertType;
+    }
+    
+    public void setAlertType(String alertType) {
+        this.alertType = alertType;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
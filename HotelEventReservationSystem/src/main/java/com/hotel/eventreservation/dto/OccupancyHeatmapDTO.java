@@ -0,0 +1,16 @@
+package com.hotel.eventreservation.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Occupancy by venue and hour of week over a window of days: booked hours over available hours, in
+ * percent. occupancy[day][hour] has Monday as day 0 and is null for hours the venue was never available.
+ * version changes whenever any figure does.
+ */
+public record OccupancyHeatmapDTO(LocalDate windowStart, LocalDate windowEnd, long version, List<VenueHeatmap> venues) {
+
+    public record VenueHeatmap(Long venueId, String venueName, double bookedHours, double availableHours,
+                               Double[][] occupancy) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.hotel.eventreservation.dto;
+
+import com.hotel.eventreservation.model.User;
+
+/**
+ * Lightweight view of an active user's membership in one role, used for notification fan-out
+ */
+public class RecipientDTO {
+    private final Long userId;
+    private final String username;
+    private final String email;
+    private final String phone;
+    private final String firstName;
+    private final String lastName;
+    private final String roleName;
+    private final String preferredLocale;
+    
+    public RecipientDTO(Long userId, String username, String email, String phone,
+                        String firstName, String lastName, String roleName) {
+        this(userId, username, email, phone, firstName, lastName, roleName, null);
+    }
+    
+    public RecipientDTO(Long userId, String username, String email, String phone,
+                        String firstName, String lastName, String roleName, String preferredLocale) {
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.phone = phone;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.roleName = roleName;
+        this.preferredLocale = preferredLocale;
+    }
+    
+    /**
+     * Build a detached User carrying only the contact fields, usable as a notification recipient.
+     * The returned object is not managed and has no roles loaded.
+     */
+    public User toUserReference() {
+        User user = new User();
+        user.setUserId(userId);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setPreferredLocale(preferredLocale);
+        return user;
+    }
+    
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+    
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public String getRoleName() {
+        return roleName;
+    }
+    
+    public String getPreferredLocale() {
+        return preferredLocale;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotel.eventreservation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A proposed venue for every pending booking in a date range, next to the outcome of confirming them in
+ * the order they arrived into the venues they asked for. Fit is guests over capacity, in percent.
+ */
+public record VenueAllocationDTO(LocalDate startDate, LocalDate endDate, int pendingCount,
+                                 Outcome proposed, Outcome firstComeFirstServed, int movedCount,
+                                 long elapsedMillis, boolean budgetExhausted, List<Proposal> proposals) {
+
+    public record Outcome(int confirmedCount, BigDecimal revenue, double averageFit) {
+    }
+
+    /**
+     * proposedVenueId is null when the booking cannot be placed and stays pending
+     */
+    public record Proposal(Long bookingId, String referenceCode, String guestName, String eventType,
+                           LocalDate eventDate, LocalTime startTime, LocalTime endTime, Integer guestCount,
+                           BigDecimal totalCost, Long requestedVenueId, String requestedVenueName,
+                           Long proposedVenueId, String proposedVenueName, Integer proposedCapacity) {
+
+        public boolean isMoved() {
+            return proposedVenueId != null && !proposedVenueId.equals(requestedVenueId);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.hotel.eventreservation.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A stretch of time a venue cannot be booked, e.g. maintenance, without the availability entity
+ */
+public record VenueTimeBlockDTO(Long venueId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+}
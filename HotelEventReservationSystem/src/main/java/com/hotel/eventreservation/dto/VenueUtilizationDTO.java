@@ -0,0 +1,21 @@
+package com.hotel.eventreservation.dto;
+
+import com.hotel.eventreservation.model.Venue;
+import java.math.BigDecimal;
+
+/**
+ * Per-venue booking totals for a date range, aggregated in the database
+ */
+public record VenueUtilizationDTO(Long venueId, String venueName, Venue.VenueType venueType, Integer capacity,
+                                  Long bookingCount, Long totalGuests, Double averageGuests, BigDecimal revenue) {
+    
+    /**
+     * Average guests per booking as a percentage of the venue's capacity
+     */
+    public double utilizationPercent() {
+        if (capacity == null || capacity == 0 || averageGuests == null) {
+            return 0.0;
+        }
+        return Math.round(averageGuests / capacity * 10000.0) / 100.0;
+    }
+}
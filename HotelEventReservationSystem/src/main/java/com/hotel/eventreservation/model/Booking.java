@@ -8,7 +8,11 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_status_created_at", columnList = "booking_status, created_at"),
+    @Index(name = "idx_bookings_report_daily", columnList = "event_date, event_type, booking_status, guest_count, total_cost"),
+    @Index(name = "idx_bookings_updated_at", columnList = "updated_at, booking_id")
+})
 public class Booking {
     
     @Id
@@ -93,11 +97,22 @@ public class Booking {
     @Column(name = "catering_status", length = 50)
     private String cateringStatus;
     
+    // What the daily rollups currently count for this booking; captured on load, advanced by BookingRollupService
+    @Transient
+    private ReportedState reportedState;
+    
     // Enums
     public enum BookingStatus {
         PENDING, CONFIRMED, CANCELLED, COMPLETED
     }
     
+    /**
+     * The fields that decide where and how a booking is counted in the daily rollups
+     */
+    public record ReportedState(LocalDate eventDate, Venue venue, String eventType, BookingStatus bookingStatus,
+                                Integer guestCount, BigDecimal totalCost) {
+    }
+    
     // Constructors
     public Booking() {
         this.createdAt = LocalDateTime.now();
@@ -294,6 +309,23 @@ public class Booking {
         this.cateringStatus = cateringStatus;
     }
     
+    public ReportedState currentReportedState() {
+        return new ReportedState(eventDate, venue, eventType, bookingStatus, guestCount, totalCost);
+    }
+    
+    public ReportedState getReportedState() {
+        return reportedState;
+    }
+    
+    public void setReportedState(ReportedState reportedState) {
+        this.reportedState = reportedState;
+    }
+    
+    @PostLoad
+    public void postLoad() {
+        this.reportedState = currentReportedState();
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,138 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Booking totals for one event date, venue, event type and status.
+ * Maintained incrementally by BookingRollupService as bookings are created and changed, so reports
+ * read at most one row per key and day instead of every booking. utilizationTotal is the sum of
+ * guest count over venue capacity (in percent) for the counted bookings, for averaging.
+ */
+@Entity
+@Table(name = "booking_daily_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_booking_daily_rollups_key",
+                                             columnNames = {"event_date", "venue_id", "event_type", "booking_status"}))
+public class BookingDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDate eventDate;
+
+    @Column(name = "venue_id", nullable = false)
+    private Long venueId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_status", nullable = false)
+    private Booking.BookingStatus bookingStatus;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount = 0L;
+
+    @Column(name = "guest_count", nullable = false)
+    private Long guestCount = 0L;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "utilization_total", nullable = false)
+    private Double utilizationTotal = 0.0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public BookingDailyRollup() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getRollupId() {
+        return rollupId;
+    }
+
+    public void setRollupId(Long rollupId) {
+        this.rollupId = rollupId;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public Long getVenueId() {
+        return venueId;
+    }
+
+    public void setVenueId(Long venueId) {
+        this.venueId = venueId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Booking.BookingStatus getBookingStatus() {
+        return bookingStatus;
+    }
+
+    public void setBookingStatus(Booking.BookingStatus bookingStatus) {
+        this.bookingStatus = bookingStatus;
+    }
+
+    public Long getBookingCount() {
+        return bookingCount;
+    }
+
+    public void setBookingCount(Long bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+
+    public Long getGuestCount() {
+        return guestCount;
+    }
+
+    public void setGuestCount(Long guestCount) {
+        this.guestCount = guestCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public Double getUtilizationTotal() {
+        return utilizationTotal;
+    }
+
+    public void setUtilizationTotal(Double utilizationTotal) {
+        this.utilizationTotal = utilizationTotal;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,119 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized sketches of the non-cancelled bookings of one event date and venue: a HyperLogLog of guest
+ * ids and KLL sketches of guest counts and of revenue. Maintained by BookingSketchService; a date range is
+ * answered by merging its rows, so distinct guests and percentiles over long windows never scan bookings.
+ */
+@Entity
+@Table(name = "booking_daily_sketches",
+       uniqueConstraints = @UniqueConstraint(name = "uk_booking_daily_sketches_key",
+                                             columnNames = {"event_date", "venue_id"}))
+public class BookingDailySketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sketch_id")
+    private Long sketchId;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDate eventDate;
+
+    @Column(name = "venue_id", nullable = false)
+    private Long venueId;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount = 0L;
+
+    @Column(name = "guest_hll", nullable = false, columnDefinition = "BLOB")
+    private byte[] guestHll;
+
+    @Column(name = "guest_count_sketch", nullable = false, columnDefinition = "BLOB")
+    private byte[] guestCountSketch;
+
+    @Column(name = "revenue_sketch", nullable = false, columnDefinition = "BLOB")
+    private byte[] revenueSketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public BookingDailySketch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public BookingDailySketch(LocalDate eventDate, Long venueId) {
+        this();
+        this.eventDate = eventDate;
+        this.venueId = venueId;
+    }
+
+    // Getters and Setters
+    public Long getSketchId() {
+        return sketchId;
+    }
+
+    public void setSketchId(Long sketchId) {
+        this.sketchId = sketchId;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public Long getVenueId() {
+        return venueId;
+    }
+
+    public void setVenueId(Long venueId) {
+        this.venueId = venueId;
+    }
+
+    public Long getBookingCount() {
+        return bookingCount;
+    }
+
+    public void setBookingCount(Long bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+
+    public byte[] getGuestHll() {
+        return guestHll;
+    }
+
+    public void setGuestHll(byte[] guestHll) {
+        this.guestHll = guestHll;
+    }
+
+    public byte[] getGuestCountSketch() {
+        return guestCountSketch;
+    }
+
+    public void setGuestCountSketch(byte[] guestCountSketch) {
+        this.guestCountSketch = guestCountSketch;
+    }
+
+    public byte[] getRevenueSketch() {
+        return revenueSketch;
+    }
+
+    public void setRevenueSketch(byte[] revenueSketch) {
+        this.revenueSketch = revenueSketch;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
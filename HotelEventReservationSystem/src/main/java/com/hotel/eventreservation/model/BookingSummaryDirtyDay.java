@@ -0,0 +1,78 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An event date whose booking rollups or sketches may have missed a booking change, because applying it
+ * after the booking committed failed. Kept in the database so every node stops reading that summary, and
+ * so the repair job recounts the date even after a restart; the row is removed once the date is recounted.
+ */
+@Entity
+@Table(name = "booking_summary_dirty_days", indexes = {
+    @Index(name = "idx_booking_summary_dirty_days_summary", columnList = "summary, event_date")
+})
+public class BookingSummaryDirtyDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "dirty_day_id")
+    private Long dirtyDayId;
+
+    /**
+     * Which table needs the recount, e.g. ROLLUP or SKETCH
+     */
+    @Column(name = "summary", nullable = false, length = 20)
+    private String summary;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDate eventDate;
+
+    @Column(name = "marked_at", nullable = false)
+    private LocalDateTime markedAt;
+
+    // Constructors
+    public BookingSummaryDirtyDay() {
+        this.markedAt = LocalDateTime.now();
+    }
+
+    public BookingSummaryDirtyDay(String summary, LocalDate eventDate) {
+        this();
+        this.summary = summary;
+        this.eventDate = eventDate;
+    }
+
+    // Getters and Setters
+    public Long getDirtyDayId() {
+        return dirtyDayId;
+    }
+
+    public void setDirtyDayId(Long dirtyDayId) {
+        this.dirtyDayId = dirtyDayId;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public LocalDateTime getMarkedAt() {
+        return markedAt;
+    }
+
+    public void setMarkedAt(LocalDateTime markedAt) {
+        this.markedAt = markedAt;
+    }
+}
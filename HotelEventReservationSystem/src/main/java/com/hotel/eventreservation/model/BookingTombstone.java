@@ -0,0 +1,87 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted booking, so the change feed can tell downstream systems to drop it.
+ * Written by BookingService in the transaction that deletes the booking; kept for the
+ * tombstone retention period, which bounds how long a consumer may go without syncing.
+ */
+@Entity
+@Table(name = "booking_tombstones", indexes = {
+    @Index(name = "idx_booking_tombstones_deleted_at", columnList = "deleted_at, tombstone_id")
+})
+public class BookingTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "tombstone_id")
+    private Long tombstoneId;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "reference_code", nullable = false, length = 50)
+    private String referenceCode;
+
+    @Column(name = "event_date")
+    private LocalDate eventDate;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public BookingTombstone() {
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    public BookingTombstone(Booking booking) {
+        this();
+        this.bookingId = booking.getBookingId();
+        this.referenceCode = booking.getReferenceCode();
+        this.eventDate = booking.getEventDate();
+    }
+
+    // Getters and Setters
+    public Long getTombstoneId() {
+        return tombstoneId;
+    }
+
+    public void setTombstoneId(Long tombstoneId) {
+        this.tombstoneId = tombstoneId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getReferenceCode() {
+        return referenceCode;
+    }
+
+    public void setReferenceCode(String referenceCode) {
+        this.referenceCode = referenceCode;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
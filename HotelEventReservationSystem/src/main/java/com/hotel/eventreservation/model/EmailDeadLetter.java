@@ -0,0 +1,114 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_dead_letters")
+public class EmailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "dead_letter_id")
+    private Long deadLetterId;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "first_queued_at")
+    private LocalDateTime firstQueuedAt;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    // Constructors
+    public EmailDeadLetter() {
+        this.failedAt = LocalDateTime.now();
+    }
+
+    public EmailDeadLetter(String recipientEmail, String subject, String body, Integer attempts, String lastError) {
+        this();
+        this.recipientEmail = recipientEmail;
+        this.subject = subject;
+        this.body = body;
+        this.attempts = attempts;
+        this.lastError = lastError;
+    }
+
+    // Getters and Setters
+    public Long getDeadLetterId() {
+        return deadLetterId;
+    }
+
+    public void setDeadLetterId(Long deadLetterId) {
+        this.deadLetterId = deadLetterId;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public void setRecipientEmail(String recipientEmail) {
+        this.recipientEmail = recipientEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getFirstQueuedAt() {
+        return firstQueuedAt;
+    }
+
+    public void setFirstQueuedAt(LocalDateTime firstQueuedAt) {
+        this.firstQueuedAt = firstQueuedAt;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+}
@@ -6,7 +6,8 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+       indexes = @Index(name = "idx_notifications_created_at", columnList = "created_at"))
 public class Notification {
     
     @Id
@@ -0,0 +1,87 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A staff notification waiting in its recipient's digest. Written in the transaction that produced the
+ * notification and deleted in the transaction that sends the digest, so an open window survives restarts.
+ */
+@Entity
+@Table(name = "notification_digest_items", indexes = {
+    @Index(name = "idx_notification_digest_items_group", columnList = "recipient_user_id, alert_type, digest_item_id")
+})
+public class NotificationDigestItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "digest_item_id")
+    private Long digestItemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipient_user_id", nullable = false)
+    private User recipientUser;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false)
+    private Notification.AlertType alertType;
+
+    @Column(name = "message_content", nullable = false, columnDefinition = "TEXT")
+    private String messageContent;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public NotificationDigestItem() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public NotificationDigestItem(User recipientUser, String messageContent, Notification.AlertType alertType) {
+        this();
+        this.recipientUser = recipientUser;
+        this.messageContent = messageContent;
+        this.alertType = alertType;
+    }
+
+    // Getters and Setters
+    public Long getDigestItemId() {
+        return digestItemId;
+    }
+
+    public void setDigestItemId(Long digestItemId) {
+        this.digestItemId = digestItemId;
+    }
+
+    public User getRecipientUser() {
+        return recipientUser;
+    }
+
+    public void setRecipientUser(User recipientUser) {
+        this.recipientUser = recipientUser;
+    }
+
+    public Notification.AlertType getAlertType() {
+        return alertType;
+    }
+
+    public void setAlertType(Notification.AlertType alertType) {
+        this.alertType = alertType;
+    }
+
+    public String getMessageContent() {
+        return messageContent;
+    }
+
+    public void setMessageContent(String messageContent) {
+        this.messageContent = messageContent;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
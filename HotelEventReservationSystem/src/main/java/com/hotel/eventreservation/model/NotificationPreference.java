@@ -0,0 +1,112 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_preferences",
+       uniqueConstraints = @UniqueConstraint(name = "uk_notification_preferences_user_alert", columnNames = {"user_id", "alert_type"}))
+public class NotificationPreference {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "preference_id")
+    private Long preferenceId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false)
+    private Notification.AlertType alertType;
+
+    @Column(name = "email_enabled", nullable = false)
+    private Boolean emailEnabled = true;
+
+    @Column(name = "sms_enabled", nullable = false)
+    private Boolean smsEnabled = true;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public NotificationPreference() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public NotificationPreference(Long userId, Notification.AlertType alertType) {
+        this();
+        this.userId = userId;
+        this.alertType = alertType;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isChannelEnabled(Channel channel) {
+        return channel == Channel.EMAIL ? Boolean.TRUE.equals(emailEnabled) : Boolean.TRUE.equals(smsEnabled);
+    }
+
+    public void setChannelEnabled(Channel channel, boolean enabled) {
+        if (channel == Channel.EMAIL) {
+            this.emailEnabled = enabled;
+        } else {
+            this.smsEnabled = enabled;
+        }
+    }
+
+    // Getters and Setters
+    public Long getPreferenceId() {
+        return preferenceId;
+    }
+
+    public void setPreferenceId(Long preferenceId) {
+        this.preferenceId = preferenceId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Notification.AlertType getAlertType() {
+        return alertType;
+    }
+
+    public void setAlertType(Notification.AlertType alertType) {
+        this.alertType = alertType;
+    }
+
+    public Boolean getEmailEnabled() {
+        return emailEnabled;
+    }
+
+    public void setEmailEnabled(Boolean emailEnabled) {
+        this.emailEnabled = emailEnabled;
+    }
+
+    public Boolean getSmsEnabled() {
+        return smsEnabled;
+    }
+
+    public void setSmsEnabled(Boolean smsEnabled) {
+        this.smsEnabled = smsEnabled;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public enum Channel {
+        EMAIL, SMS
+    }
+}
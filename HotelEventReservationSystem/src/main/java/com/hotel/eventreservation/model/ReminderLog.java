@@ -0,0 +1,63 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reminder_log",
+       uniqueConstraints = @UniqueConstraint(name = "uk_reminder_log_booking_type", columnNames = {"booking_id", "reminder_type"}))
+public class ReminderLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reminder_log_id")
+    private Long reminderLogId;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reminder_type", nullable = false)
+    private Notification.AlertType reminderType;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    // Constructors
+    public ReminderLog() {
+        this.sentAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getReminderLogId() {
+        return reminderLogId;
+    }
+
+    public void setReminderLogId(Long reminderLogId) {
+        this.reminderLogId = reminderLogId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Notification.AlertType getReminderType() {
+        return reminderType;
+    }
+
+    public void setReminderType(Notification.AlertType reminderType) {
+        this.reminderType = reminderType;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
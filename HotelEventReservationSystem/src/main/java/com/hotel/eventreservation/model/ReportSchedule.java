@@ -0,0 +1,179 @@
+package com.hotel.eventreservation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A report exported on a cron schedule, covering the lookbackDays days before each run.
+ * reportType and period hold ReportService.ReportType and ReportPeriod names. The owner and, when set,
+ * the active members of recipientRole are notified when each run's file is ready. nextRunAt is the
+ * cron time plus the stagger offset the scheduler picked, so schedules on the same cron do not start together.
+ */
+@Entity
+@Table(name = "report_schedules",
+       indexes = @Index(name = "idx_report_schedules_next_run", columnList = "enabled, next_run_at"))
+public class ReportSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "schedule_id")
+    private Long scheduleId;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "report_type", nullable = false, length = 50)
+    private String reportType;
+
+    @Column(name = "export_format", nullable = false, length = 20)
+    private String exportFormat;
+
+    @Column(name = "report_period", length = 20)
+    private String period;
+
+    @Column(name = "cron_expression", nullable = false, length = 100)
+    private String cronExpression;
+
+    @Column(name = "lookback_days", nullable = false)
+    private Integer lookbackDays;
+
+    @Column(name = "recipient_role", length = 50)
+    private String recipientRole;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+
+    @Column(name = "enabled", nullable = false)
+    private Boolean enabled = true;
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_job_id", length = 36)
+    private String lastJobId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ReportSchedule() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getScheduleId() {
+        return scheduleId;
+    }
+
+    public void setScheduleId(Long scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getReportType() {
+        return reportType;
+    }
+
+    public void setReportType(String reportType) {
+        this.reportType = reportType;
+    }
+
+    public String getExportFormat() {
+        return exportFormat;
+    }
+
+    public void setExportFormat(String exportFormat) {
+        this.exportFormat = exportFormat;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public String getCronExpression() {
+        return cronExpression;
+    }
+
+    public void setCronExpression(String cronExpression) {
+        this.cronExpression = cronExpression;
+    }
+
+    public Integer getLookbackDays() {
+        return lookbackDays;
+    }
+
+    public void setLookbackDays(Integer lookbackDays) {
+        this.lookbackDays = lookbackDays;
+    }
+
+    public String getRecipientRole() {
+        return recipientRole;
+    }
+
+    public void setRecipientRole(String recipientRole) {
+        this.recipientRole = recipientRole;
+    }
+
+    public User getOwner() {
+        return owner;
+    }
+
+    public void setOwner(User owner) {
+        this.owner = owner;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastJobId() {
+        return lastJobId;
+    }
+
+    public void setLastJobId(String lastJobId) {
+        this.lastJobId = lastJobId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
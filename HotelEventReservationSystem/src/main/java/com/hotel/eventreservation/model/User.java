@@ -47,6 +47,11 @@ public class User {
     @Column(name = "phone", length = 20)
     private String phone;
     
+    // Language tag such as "fr" or "fr-CA"; null means the system default
+    @Size(max = 20)
+    @Column(name = "preferred_locale", length = 20)
+    private String preferredLocale;
+    
     @Column(name = "is_active")
     private Boolean isActive = true;
     
@@ -142,6 +147,14 @@ public class User {
         this.phone = phone;
     }
     
+    public String getPreferredLocale() {
+        return preferredLocale;
+    }
+    
+    public void setPreferredLocale(String preferredLocale) {
+        this.preferredLocale = preferredLocale;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
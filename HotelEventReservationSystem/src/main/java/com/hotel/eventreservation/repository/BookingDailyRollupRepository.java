@@ -0,0 +1,94 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.dto.BookingKpiDTO;
+import com.hotel.eventreservation.dto.DailyBookingTotalsDTO;
+import com.hotel.eventreservation.dto.VenueUtilizationDTO;
+import com.hotel.eventreservation.model.BookingDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingDailyRollupRepository extends JpaRepository<BookingDailyRollup, Long> {
+
+    /**
+     * Add a (possibly negative) delta to one rollup row, creating it on first use.
+     * A single statement, so concurrent booking changes on the same key cannot lose updates.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_daily_rollups (event_date, venue_id, event_type, booking_status, " +
+                   "booking_count, guest_count, revenue, utilization_total, updated_at) " +
+                   "VALUES (:eventDate, :venueId, :eventType, :bookingStatus, :bookings, :guests, :revenue, :utilization, :updatedAt) " +
+                   "ON DUPLICATE KEY UPDATE booking_count = booking_count + VALUES(booking_count), " +
+                   "guest_count = guest_count + VALUES(guest_count), revenue = revenue + VALUES(revenue), " +
+                   "utilization_total = utilization_total + VALUES(utilization_total), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int applyDelta(@Param("eventDate") LocalDate eventDate,
+                   @Param("venueId") Long venueId,
+                   @Param("eventType") String eventType,
+                   @Param("bookingStatus") String bookingStatus,
+                   @Param("bookings") long bookings,
+                   @Param("guests") long guests,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("utilization") double utilization,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("DELETE FROM BookingDailyRollup r WHERE r.eventDate BETWEEN :startDate AND :endDate")
+    int deleteByEventDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Recompute the rollups of a date range from the bookings table; the range must have been deleted first
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_daily_rollups (event_date, venue_id, event_type, booking_status, " +
+                   "booking_count, guest_count, revenue, utilization_total, updated_at) " +
+                   "SELECT b.event_date, b.venue_id, b.event_type, b.booking_status, COUNT(*), SUM(b.guest_count), " +
+                   "SUM(b.total_cost), SUM(b.guest_count * 100.0 / v.capacity), :updatedAt " +
+                   "FROM bookings b JOIN venues v ON v.venue_id = b.venue_id " +
+                   "WHERE b.event_date BETWEEN :startDate AND :endDate " +
+                   "GROUP BY b.event_date, b.venue_id, b.event_type, b.booking_status",
+           nativeQuery = true)
+    int insertFromBookings(@Param("startDate") LocalDate startDate,
+                           @Param("endDate") LocalDate endDate,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Same rows as BookingRepository.findDailyTotals, summed over venues
+     */
+    @Query("SELECT new com.hotel.eventreservation.dto.DailyBookingTotalsDTO(r.eventDate, r.eventType, r.bookingStatus, " +
+           "SUM(r.bookingCount), SUM(r.guestCount), SUM(r.revenue)) " +
+           "FROM BookingDailyRollup r WHERE r.eventDate BETWEEN :startDate AND :endDate AND r.bookingCount > 0 " +
+           "GROUP BY r.eventDate, r.eventType, r.bookingStatus " +
+           "ORDER BY r.eventDate")
+    List<DailyBookingTotalsDTO> findDailyTotals(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.hotel.eventreservation.dto.VenueUtilizationDTO(v.venueId, v.venueName, v.venueType, v.capacity, " +
+           "SUM(r.bookingCount), SUM(r.guestCount), SUM(r.guestCount) * 1.0 / SUM(r.bookingCount), SUM(r.revenue)) " +
+           "FROM BookingDailyRollup r JOIN Venue v ON v.venueId = r.venueId " +
+           "WHERE r.eventDate BETWEEN :startDate AND :endDate AND r.bookingStatus <> 'CANCELLED' AND r.bookingCount > 0 " +
+           "GROUP BY v.venueId, v.venueName, v.venueType, v.capacity " +
+           "ORDER BY SUM(r.revenue) DESC")
+    List<VenueUtilizationDTO> findVenueUtilization(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingKpiDTO(SUM(r.bookingCount), " +
+           "SUM(CASE WHEN r.bookingStatus = 'CANCELLED' THEN r.bookingCount ELSE 0L END), " +
+           "SUM(CASE WHEN r.bookingStatus <> 'CANCELLED' THEN r.revenue END), " +
+           "SUM(CASE WHEN r.bookingStatus <> 'CANCELLED' THEN r.utilizationTotal END) / " +
+           "SUM(CASE WHEN r.bookingStatus <> 'CANCELLED' THEN r.bookingCount END)) " +
+           "FROM BookingDailyRollup r WHERE r.eventDate BETWEEN :startDate AND :endDate")
+    BookingKpiDTO findKpis(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT MIN(r.eventDate) FROM BookingDailyRollup r")
+    LocalDate findEarliestEventDate();
+
+    @Query("SELECT MAX(r.eventDate) FROM BookingDailyRollup r")
+    LocalDate findLatestEventDate();
+}
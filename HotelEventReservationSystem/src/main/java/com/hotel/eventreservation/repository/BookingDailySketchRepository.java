@@ -0,0 +1,71 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.BookingDailySketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingDailySketchRepository extends JpaRepository<BookingDailySketch, Long> {
+
+    @Query("SELECT s FROM BookingDailySketch s WHERE s.eventDate BETWEEN :startDate AND :endDate")
+    List<BookingDailySketch> findByEventDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Replace the sketches of one date and venue, creating the row on first use.
+     * A single statement, so two refreshes of the same cell cannot collide on the unique key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_daily_sketches (event_date, venue_id, booking_count, guest_hll, " +
+                   "guest_count_sketch, revenue_sketch, updated_at) " +
+                   "VALUES (:eventDate, :venueId, :bookings, :guestHll, :guestCountSketch, :revenueSketch, :updatedAt) " +
+                   "ON DUPLICATE KEY UPDATE booking_count = VALUES(booking_count), guest_hll = VALUES(guest_hll), " +
+                   "guest_count_sketch = VALUES(guest_count_sketch), revenue_sketch = VALUES(revenue_sketch), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int upsert(@Param("eventDate") LocalDate eventDate,
+               @Param("venueId") Long venueId,
+               @Param("bookings") long bookings,
+               @Param("guestHll") byte[] guestHll,
+               @Param("guestCountSketch") byte[] guestCountSketch,
+               @Param("revenueSketch") byte[] revenueSketch,
+               @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Lock the row of one date and venue until the transaction ends, creating it empty first if it is missing,
+     * so that concurrent refreshes of the cell read its bookings one after the other. An existing row is left
+     * as it is.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_daily_sketches (event_date, venue_id, booking_count, guest_hll, " +
+                   "guest_count_sketch, revenue_sketch, updated_at) " +
+                   "VALUES (:eventDate, :venueId, 0, :guestHll, :guestCountSketch, :revenueSketch, :updatedAt) " +
+                   "ON DUPLICATE KEY UPDATE sketch_id = sketch_id",
+           nativeQuery = true)
+    int lockCell(@Param("eventDate") LocalDate eventDate,
+                 @Param("venueId") Long venueId,
+                 @Param("guestHll") byte[] guestHll,
+                 @Param("guestCountSketch") byte[] guestCountSketch,
+                 @Param("revenueSketch") byte[] revenueSketch,
+                 @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("DELETE FROM BookingDailySketch s WHERE s.eventDate = :eventDate AND s.venueId = :venueId")
+    int deleteCell(@Param("eventDate") LocalDate eventDate, @Param("venueId") Long venueId);
+
+    @Modifying
+    @Query("DELETE FROM BookingDailySketch s WHERE s.eventDate BETWEEN :startDate AND :endDate")
+    int deleteByEventDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT MIN(s.eventDate) FROM BookingDailySketch s")
+    LocalDate findEarliestEventDate();
+
+    @Query("SELECT MAX(s.eventDate) FROM BookingDailySketch s")
+    LocalDate findLatestEventDate();
+}
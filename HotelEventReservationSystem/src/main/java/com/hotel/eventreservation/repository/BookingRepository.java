@@ -1,14 +1,27 @@
 package com.hotel.eventreservation.repository;
 
+import com.hotel.eventreservation.dto.BookingChangeDTO;
+import com.hotel.eventreservation.dto.BookingKpiDTO;
+import com.hotel.eventreservation.dto.BookingSketchInputDTO;
+import com.hotel.eventreservation.dto.BookingSlotDTO;
+import com.hotel.eventreservation.dto.DailyBookingTotalsDTO;
+import com.hotel.eventreservation.dto.DemandSampleDTO;
+import com.hotel.eventreservation.dto.VenueUtilizationDTO;
 import com.hotel.eventreservation.model.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -30,6 +43,96 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.eventDate BETWEEN :startDate AND :endDate ORDER BY b.eventDate, b.startTime")
     List<Booking> findByEventDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    /**
+     * Stream bookings for export with guest and venue fetched in the same row. Needs an open transaction;
+     * rows are read from a server-side cursor in fetch-size batches (useCursorFetch on the JDBC URL).
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.guest JOIN FETCH b.venue " +
+           "WHERE b.eventDate BETWEEN :startDate AND :endDate " +
+           "AND (:eventType IS NULL OR b.eventType = :eventType) AND (:status IS NULL OR b.bookingStatus = :status) " +
+           "ORDER BY b.eventDate, b.startTime")
+    Stream<Booking> streamForExport(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                    @Param("eventType") String eventType, @Param("status") Booking.BookingStatus status);
+    
+    /**
+     * What the daily sketches are built from: non-cancelled bookings of a date range, by date and venue
+     */
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingSketchInputDTO(b.eventDate, b.venue.venueId, b.guest.userId, " +
+           "b.guestCount, b.totalCost) FROM Booking b " +
+           "WHERE b.eventDate BETWEEN :startDate AND :endDate AND b.bookingStatus <> 'CANCELLED' " +
+           "ORDER BY b.eventDate, b.venue.venueId")
+    List<BookingSketchInputDTO> findSketchInputs(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingSketchInputDTO(b.eventDate, b.venue.venueId, b.guest.userId, " +
+           "b.guestCount, b.totalCost) FROM Booking b " +
+           "WHERE b.eventDate = :eventDate AND b.venue.venueId = :venueId AND b.bookingStatus <> 'CANCELLED'")
+    List<BookingSketchInputDTO> findSketchInputsForCell(@Param("eventDate") LocalDate eventDate, @Param("venueId") Long venueId);
+    
+    /**
+     * One keyset page of bookings changed after the (updatedAt, bookingId) cursor, up to and including until.
+     * Served by idx_bookings_updated_at; new bookings are included since updated_at is set on insert.
+     * Selected straight into feed entries, so a long sync never fills the persistence context with bookings.
+     */
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingChangeDTO(b.updatedAt, b.bookingId, b.referenceCode, " +
+           "CONCAT(g.firstName, ' ', g.lastName), b.eventType, b.eventDate, b.startTime, b.endTime, b.guestCount, " +
+           "v.venueId, v.venueName, b.totalCost, b.bookingStatus, b.createdAt) " +
+           "FROM Booking b JOIN b.guest g JOIN b.venue v WHERE b.updatedAt <= :until " +
+           "AND (b.updatedAt > :afterUpdatedAt OR (b.updatedAt = :afterUpdatedAt AND b.bookingId > :afterId)) " +
+           "ORDER BY b.updatedAt, b.bookingId")
+    List<BookingChangeDTO> findChangedAfter(@Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                   @Param("afterId") Long afterId,
+                                   @Param("until") LocalDateTime until,
+                                   Pageable pageable);
+    
+    /**
+     * The same rows as streamForExport, loaded at once for the on-screen booking analytics report
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.guest JOIN FETCH b.venue " +
+           "WHERE b.eventDate BETWEEN :startDate AND :endDate " +
+           "AND (:eventType IS NULL OR b.eventType = :eventType) AND (:status IS NULL OR b.bookingStatus = :status) " +
+           "ORDER BY b.eventDate, b.startTime")
+    List<Booking> findForReport(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                @Param("eventType") String eventType, @Param("status") Booking.BookingStatus status);
+    
+    /**
+     * Per-venue totals over non-cancelled bookings, highest revenue first
+     */
+    @Query("SELECT new com.hotel.eventreservation.dto.VenueUtilizationDTO(v.venueId, v.venueName, v.venueType, v.capacity, " +
+           "COUNT(b), SUM(b.guestCount), AVG(b.guestCount), SUM(b.totalCost)) " +
+           "FROM Booking b JOIN b.venue v " +
+           "WHERE b.eventDate BETWEEN :startDate AND :endDate AND b.bookingStatus <> 'CANCELLED' " +
+           "GROUP BY v.venueId, v.venueName, v.venueType, v.capacity " +
+           "ORDER BY SUM(b.totalCost) DESC")
+    List<VenueUtilizationDTO> findVenueUtilization(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Totals per event date, event type and status; small enough to roll up into weeks or months in memory
+     */
+    @Query("SELECT new com.hotel.eventreservation.dto.DailyBookingTotalsDTO(b.eventDate, b.eventType, b.bookingStatus, " +
+           "COUNT(b), SUM(b.guestCount), SUM(b.totalCost)) " +
+           "FROM Booking b WHERE b.eventDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY b.eventDate, b.eventType, b.bookingStatus " +
+           "ORDER BY b.eventDate")
+    List<DailyBookingTotalsDTO> findDailyTotals(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingKpiDTO(COUNT(b), " +
+           "SUM(CASE WHEN b.bookingStatus = 'CANCELLED' THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN b.bookingStatus <> 'CANCELLED' THEN b.totalCost END), " +
+           "AVG(CASE WHEN b.bookingStatus <> 'CANCELLED' THEN b.guestCount * 100.0 / v.capacity END)) " +
+           "FROM Booking b JOIN b.venue v WHERE b.eventDate BETWEEN :startDate AND :endDate")
+    BookingKpiDTO findKpis(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT MIN(b.eventDate) FROM Booking b")
+    LocalDate findEarliestEventDate();
+    
+    @Query("SELECT MAX(b.eventDate) FROM Booking b")
+    LocalDate findLatestEventDate();
+    
     @Query("SELECT b FROM Booking b WHERE b.venue.venueId = :venueId AND b.eventDate = :date AND b.bookingStatus IN ('PENDING', 'CONFIRMED')")
     List<Booking> findByVenueAndDateAndActiveStatus(@Param("venueId") Long venueId, @Param("date") LocalDate date);
     
@@ -48,4 +151,36 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByAssignedCoordinatorId(Long coordinatorId);
     
     List<Booking> findByCateringPreferencesIsNotNull();
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingSlotDTO(b.bookingId, b.venue.venueId, b.eventDate, b.startTime, b.endTime, b.bookingStatus, b.createdAt) " +
+           "FROM Booking b WHERE b.bookingStatus = :status AND b.eventDate BETWEEN :startDate AND :endDate")
+    List<BookingSlotDTO> findSlotsByStatusAndEventDateBetween(@Param("status") Booking.BookingStatus status,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingSlotDTO(b.bookingId, b.venue.venueId, b.eventDate, b.startTime, b.endTime, b.bookingStatus, b.createdAt) " +
+           "FROM Booking b WHERE b.bookingStatus = :status AND b.createdAt > :from AND b.createdAt <= :to")
+    List<BookingSlotDTO> findSlotsByStatusAndCreatedAtBetween(@Param("status") Booking.BookingStatus status,
+                                                              @Param("from") java.time.LocalDateTime from,
+                                                              @Param("to") java.time.LocalDateTime to);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingSlotDTO(b.bookingId, b.venue.venueId, b.eventDate, b.startTime, b.endTime, b.bookingStatus, b.createdAt) " +
+           "FROM Booking b WHERE b.bookingStatus <> 'CANCELLED' AND b.eventDate BETWEEN :startDate AND :endDate")
+    List<BookingSlotDTO> findActiveSlotsByEventDateBetween(@Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.BookingSlotDTO(b.bookingId, b.venue.venueId, b.eventDate, b.startTime, b.endTime, b.bookingStatus, b.createdAt) " +
+           "FROM Booking b WHERE b.bookingStatus <> 'CANCELLED' AND b.venue.venueId = :venueId AND b.eventDate = :eventDate")
+    List<BookingSlotDTO> findActiveSlotsByVenueAndEventDate(@Param("venueId") Long venueId,
+                                                            @Param("eventDate") LocalDate eventDate);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.DemandSampleDTO(b.eventType, b.guestCount, b.eventDate, b.startTime, b.endTime, b.createdAt) " +
+           "FROM Booking b WHERE b.bookingStatus <> 'CANCELLED' AND b.createdAt >= :since")
+    List<DemandSampleDTO> findDemandSamplesCreatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT b FROM Booking b JOIN FETCH b.guest JOIN FETCH b.venue " +
+           "WHERE b.bookingStatus = 'PENDING' AND b.eventDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY b.createdAt, b.bookingId")
+    List<Booking> findPendingWithDetailsByEventDateBetween(@Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
 }
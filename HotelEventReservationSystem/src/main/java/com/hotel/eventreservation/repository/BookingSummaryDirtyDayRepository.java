@@ -0,0 +1,19 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.BookingSummaryDirtyDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookingSummaryDirtyDayRepository extends JpaRepository<BookingSummaryDirtyDay, Long> {
+
+    @Query("SELECT d FROM BookingSummaryDirtyDay d WHERE d.summary = :summary ORDER BY d.eventDate")
+    List<BookingSummaryDirtyDay> findBySummary(@Param("summary") String summary);
+
+    @Query("SELECT COUNT(d) > 0 FROM BookingSummaryDirtyDay d WHERE d.summary = :summary")
+    boolean existsBySummary(@Param("summary") String summary);
+}
@@ -0,0 +1,31 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.BookingTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingTombstoneRepository extends JpaRepository<BookingTombstone, Long> {
+
+    /**
+     * One keyset page of deletions after the (deletedAt, tombstoneId) cursor, up to and including until
+     */
+    @Query("SELECT t FROM BookingTombstone t WHERE t.deletedAt <= :until " +
+           "AND (t.deletedAt > :afterDeletedAt OR (t.deletedAt = :afterDeletedAt AND t.tombstoneId > :afterId)) " +
+           "ORDER BY t.deletedAt, t.tombstoneId")
+    List<BookingTombstone> findDeletedAfter(@Param("afterDeletedAt") LocalDateTime afterDeletedAt,
+                                            @Param("afterId") Long afterId,
+                                            @Param("until") LocalDateTime until,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM BookingTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
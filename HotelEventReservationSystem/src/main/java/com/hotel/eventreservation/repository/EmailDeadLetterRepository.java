@@ -0,0 +1,13 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+
+    List<EmailDeadLetter> findByRecipientEmailOrderByFailedAtDesc(String recipientEmail);
+}
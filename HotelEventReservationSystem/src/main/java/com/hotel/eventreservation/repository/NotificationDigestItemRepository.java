@@ -0,0 +1,37 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.dto.DigestGroupDTO;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationDigestItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationDigestItemRepository extends JpaRepository<NotificationDigestItem, Long> {
+
+    /**
+     * Digests to send: the oldest item has waited since windowStart, or the digest is full
+     */
+    @Query("SELECT new com.hotel.eventreservation.dto.DigestGroupDTO(i.recipientUser.userId, i.alertType, COUNT(i)) " +
+           "FROM NotificationDigestItem i GROUP BY i.recipientUser.userId, i.alertType " +
+           "HAVING MIN(i.createdAt) <= :windowStart OR COUNT(i) >= :maxEntries")
+    List<DigestGroupDTO> findDueGroups(@Param("windowStart") LocalDateTime windowStart,
+                                       @Param("maxEntries") long maxEntries);
+
+    /**
+     * The items of one digest, locked until the sending transaction ends. A second node flushing the
+     * same digest waits here and then finds the items already deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM NotificationDigestItem i WHERE i.recipientUser.userId = :userId AND i.alertType = :alertType " +
+           "ORDER BY i.digestItemId")
+    List<NotificationDigestItem> lockGroup(@Param("userId") Long userId,
+                                           @Param("alertType") Notification.AlertType alertType);
+}
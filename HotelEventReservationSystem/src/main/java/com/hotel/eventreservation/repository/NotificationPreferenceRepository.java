@@ -0,0 +1,17 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, Long> {
+
+    List<NotificationPreference> findByUserId(Long userId);
+
+    Optional<NotificationPreference> findByUserIdAndAlertType(Long userId, Notification.AlertType alertType);
+}
@@ -1,7 +1,10 @@
 package com.hotel.eventreservation.repository;
 
 import com.hotel.eventreservation.model.Notification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -33,4 +36,64 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByRecipientUserAndDateRange(@Param("userId") Long userId, 
                                                       @Param("startDate") LocalDateTime startDate, 
                                                       @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.createdAt < :cutoff")
+    Long countNotificationsBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT MIN(n.createdAt) FROM Notification n WHERE n.createdAt < :cutoff")
+    LocalDateTime findOldestCreatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT MIN(n.notificationId) FROM Notification n WHERE n.createdAt < :cutoff")
+    Long findMinIdBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT MAX(n.notificationId) FROM Notification n WHERE n.createdAt < :cutoff")
+    Long findMaxIdBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * First id at or after fromId of a notification created before the cutoff, to skip gaps in the id range
+     */
+    @Query("SELECT MIN(n.notificationId) FROM Notification n WHERE n.notificationId >= :fromId AND n.createdAt < :cutoff")
+    Long findMinIdFromBefore(@Param("fromId") Long fromId, @Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT n FROM Notification n WHERE n.notificationId BETWEEN :fromId AND :toId AND n.createdAt < :cutoff ORDER BY n.notificationId")
+    List<Notification> findExpiredInIdRange(@Param("fromId") Long fromId,
+                                            @Param("toId") Long toId,
+                                            @Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.notificationId BETWEEN :fromId AND :toId AND n.createdAt < :cutoff")
+    int deleteExpiredInIdRange(@Param("fromId") Long fromId,
+                               @Param("toId") Long toId,
+                               @Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT MAX(n.notificationId) FROM Notification n")
+    Long findMaxNotificationId();
+    
+    @Query("SELECT n FROM Notification n WHERE n.notificationId > :afterId ORDER BY n.notificationId ASC")
+    List<Notification> findCreatedAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Ranked search over the FULLTEXT index on message_content, scoped to one recipient.
+     * The query must be in MySQL boolean-mode syntax.
+     */
+    @Query(value = "SELECT * FROM notifications n WHERE n.recipient_user_id = :userId " +
+                   "AND (:alertType IS NULL OR n.alert_type = :alertType) " +
+                   "AND MATCH(n.message_content) AGAINST (:query IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(n.message_content) AGAINST (:query IN BOOLEAN MODE) DESC, n.created_at DESC",
+           countQuery = "SELECT COUNT(*) FROM notifications n WHERE n.recipient_user_id = :userId " +
+                        "AND (:alertType IS NULL OR n.alert_type = :alertType) " +
+                        "AND MATCH(n.message_content) AGAINST (:query IN BOOLEAN MODE)",
+           nativeQuery = true)
+    Page<Notification> searchFullText(@Param("userId") Long userId,
+                                      @Param("query") String query,
+                                      @Param("alertType") String alertType,
+                                      Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.recipientUser.userId = :userId " +
+           "AND (:alertType IS NULL OR n.alertType = :alertType) " +
+           "AND LOWER(n.messageContent) LIKE LOWER(CONCAT('%', :term, '%')) ORDER BY n.createdAt DESC")
+    Page<Notification> searchBySubstring(@Param("userId") Long userId,
+                                         @Param("term") String term,
+                                         @Param("alertType") Notification.AlertType alertType,
+                                         Pageable pageable);
 }
@@ -0,0 +1,25 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.ReminderLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReminderLogRepository extends JpaRepository<ReminderLog, Long> {
+
+    /**
+     * Claim a reminder for sending. The unique key on (booking_id, reminder_type) makes this the
+     * cross-node dedupe point: only the node whose insert succeeds gets 1 back.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO reminder_log (booking_id, reminder_type, sent_at) VALUES (:bookingId, :reminderType, :sentAt)",
+           nativeQuery = true)
+    int claim(@Param("bookingId") Long bookingId,
+              @Param("reminderType") String reminderType,
+              @Param("sentAt") LocalDateTime sentAt);
+}
@@ -0,0 +1,40 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.ReportSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReportScheduleRepository extends JpaRepository<ReportSchedule, Long> {
+
+    @Query("SELECT s FROM ReportSchedule s JOIN FETCH s.owner WHERE s.enabled = true AND s.nextRunAt <= :now " +
+           "ORDER BY s.nextRunAt, s.scheduleId")
+    List<ReportSchedule> findDue(@Param("now") LocalDateTime now);
+
+    /**
+     * Move a schedule's next run from the due time that was read to another time. The update re-checks the
+     * due time, so when several nodes poll the same due schedule only one of them moves it and runs it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportSchedule s SET s.nextRunAt = :nextRunAt WHERE s.scheduleId = :scheduleId AND s.nextRunAt = :dueAt")
+    int moveNextRun(@Param("scheduleId") Long scheduleId,
+                    @Param("dueAt") LocalDateTime dueAt,
+                    @Param("nextRunAt") LocalDateTime nextRunAt);
+
+    /**
+     * Upcoming runs of enabled schedules in a window, for picking a stagger slot that is still free
+     */
+    @Query("SELECT s FROM ReportSchedule s WHERE s.enabled = true AND s.nextRunAt BETWEEN :from AND :to")
+    List<ReportSchedule> findPlannedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT s FROM ReportSchedule s JOIN FETCH s.owner ORDER BY s.name")
+    List<ReportSchedule> findAllWithOwner();
+}
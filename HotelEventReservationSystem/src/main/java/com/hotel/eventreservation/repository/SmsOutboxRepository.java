@@ -0,0 +1,44 @@
+package com.hotel.eventreservation.repository;
+
+import com.hotel.eventreservation.model.SmsOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SmsOutboxRepository extends JpaRepository<SmsOutboxMessage, Long> {
+
+    /**
+     * Queued messages that are due, and claimed messages whose claim has lapsed because their dispatcher died
+     */
+    @Query("SELECT s FROM SmsOutboxMessage s WHERE s.status IN ('QUEUED', 'SENDING') AND s.provider = :provider AND s.nextAttemptAt <= :now ORDER BY s.nextAttemptAt ASC")
+    List<SmsOutboxMessage> findDueMessages(@Param("provider") String provider,
+                                           @Param("now") LocalDateTime now,
+                                           Pageable pageable);
+
+    /**
+     * Claim due messages for one dispatcher until leaseUntil. The update re-checks that each row is still
+     * due, so when dispatchers race for the same rows each row goes to exactly one claim token.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SmsOutboxMessage s SET s.status = 'SENDING', s.claimToken = :claimToken, s.nextAttemptAt = :leaseUntil " +
+           "WHERE s.smsId IN :ids AND s.nextAttemptAt <= :now AND s.status IN ('QUEUED', 'SENDING')")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT s FROM SmsOutboxMessage s WHERE s.claimToken = :claimToken AND s.status = 'SENDING' ORDER BY s.smsId ASC")
+    List<SmsOutboxMessage> findClaimed(@Param("claimToken") String claimToken);
+
+    long countByStatus(SmsOutboxMessage.SmsStatus status);
+}
@@ -1,5 +1,6 @@
 package com.hotel.eventreservation.repository;
 
+import com.hotel.eventreservation.dto.RecipientDTO;
 import com.hotel.eventreservation.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -30,4 +31,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.firstName LIKE %:name% OR u.lastName LIKE %:name%")
     List<User> findByNameContaining(@Param("name") String name);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.RecipientDTO(u.userId, u.username, u.email, u.phone, u.firstName, u.lastName, r.roleName, u.preferredLocale) " +
+           "FROM User u JOIN u.roles r WHERE u.isActive = true ORDER BY r.roleName, u.userId")
+    List<RecipientDTO> findActiveRoleMemberships();
 }
@@ -1,7 +1,9 @@
 package com.hotel.eventreservation.repository;
 
+import com.hotel.eventreservation.dto.VenueTimeBlockDTO;
 import com.hotel.eventreservation.model.VenueAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -48,4 +50,27 @@ public interface VenueAvailabilityRepository extends JpaRepository<VenueAvailabi
                                                           @Param("startTime") LocalTime startTime,
                                                           @Param("endTime") LocalTime endTime);
     
+    /**
+     * Free the slots held by a booking that is being deleted
+     */
+    @Modifying
+    @Query("UPDATE VenueAvailability va SET va.status = :status, va.bookingId = NULL WHERE va.bookingId = :bookingId")
+    int releaseBooking(@Param("bookingId") Long bookingId,
+                       @Param("status") VenueAvailability.AvailabilityStatus status);
+    
+    /**
+     * Slots in the given statuses as plain time blocks, e.g. maintenance and blocked time for occupancy
+     */
+    @Query("SELECT new com.hotel.eventreservation.dto.VenueTimeBlockDTO(va.venue.venueId, va.date, va.startTime, va.endTime) " +
+           "FROM VenueAvailability va WHERE va.status IN :statuses AND va.date BETWEEN :startDate AND :endDate")
+    List<VenueTimeBlockDTO> findTimeBlocks(@Param("statuses") List<VenueAvailability.AvailabilityStatus> statuses,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.hotel.eventreservation.dto.VenueTimeBlockDTO(va.venue.venueId, va.date, va.startTime, va.endTime) " +
+           "FROM VenueAvailability va WHERE va.status IN :statuses AND va.venue.venueId = :venueId AND va.date = :date")
+    List<VenueTimeBlockDTO> findTimeBlocksForVenueDay(@Param("statuses") List<VenueAvailability.AvailabilityStatus> statuses,
+                                                      @Param("venueId") Long venueId,
+                                                      @Param("date") LocalDate date);
+    
 }
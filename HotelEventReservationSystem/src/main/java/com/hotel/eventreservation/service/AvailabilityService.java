@@ -32,6 +32,9 @@ public class AvailabilityService {
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private VenueOccupancyService venueOccupancyService;
+    
     /**
      * Create availability slots for a venue
      */
@@ -58,6 +61,7 @@ public class AvailabilityService {
         availability.setStatus(VenueAvailability.AvailabilityStatus.BLOCKED); // Set as BLOCKED (not available)
         
         availability = availabilityRepository.save(availability);
+        venueOccupancyService.onAvailabilityChanged(venueId, date);
         logger.info("Availability slot created (BLOCKED) for venue {} on {}", venueId, date);
         return availability;
     }
@@ -111,6 +115,7 @@ public class AvailabilityService {
         availability.setMaintenanceReason(maintenanceReason);
         
         availability = availabilityRepository.save(availability);
+        venueOccupancyService.onAvailabilityChanged(availability.getVenue().getVenueId(), availability.getDate());
         logger.info("Availability status updated for slot {}", availabilityId);
         return availability;
     }
@@ -133,6 +138,7 @@ public class AvailabilityService {
         availability.setNotes(notes);
         
         availability = availabilityRepository.save(availability);
+        venueOccupancyService.onAvailabilityChanged(venueId, date);
         logger.info("Venue {} blocked for maintenance on {}", venueId, date);
         return availability;
     }
@@ -287,6 +293,7 @@ public class AvailabilityService {
         }
         
         availabilityRepository.deleteById(availabilityId);
+        venueOccupancyService.onAvailabilityChanged(availability.getVenue().getVenueId(), availability.getDate());
         logger.info("Availability slot deleted: {}", availabilityId);
     }
     
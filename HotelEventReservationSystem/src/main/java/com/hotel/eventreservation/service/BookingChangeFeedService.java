@@ -0,0 +1,225 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingChangeDTO;
+import com.hotel.eventreservation.model.BookingTombstone;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.BookingTombstoneRepository;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import com.hotel.eventreservation.strategy.ReportExportStrategy;
+import com.hotel.eventreservation.strategy.ReportSchema;
+import com.hotel.eventreservation.strategy.StreamingReportExportStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Change feed of bookings for downstream systems that sync incrementally.
+ *
+ * A sync asks for the changes after the watermark it got last time, up to a new watermark returned with
+ * the feed: bookings whose updated_at falls in between, then deletions from booking tombstones. Both are
+ * read in keyset pages on (timestamp, id), so each page is an index range scan however far the feed goes.
+ * The new watermark lags the clock by settle-seconds, so a transaction that stamped a booking just before
+ * it but had not committed yet is still picked up by the next sync.
+ */
+@Service
+public class BookingChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingChangeFeedService.class);
+
+    // Watermark of a first sync, which receives every booking
+    static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public static final ReportSchema<BookingChangeDTO> CHANGE_SCHEMA = ReportSchema.<BookingChangeDTO>builder()
+            .enumValue("Operation", BookingChangeDTO::operation)
+            .dateTime("Changed At", BookingChangeDTO::changedAt)
+            .integer("Booking ID", BookingChangeDTO::bookingId)
+            .text("Reference Code", BookingChangeDTO::referenceCode)
+            .text("Guest Name", BookingChangeDTO::guestName)
+            .text("Event Type", BookingChangeDTO::eventType)
+            .date("Event Date", BookingChangeDTO::eventDate)
+            .time("Start Time", BookingChangeDTO::startTime)
+            .time("End Time", BookingChangeDTO::endTime)
+            .integer("Guest Count", BookingChangeDTO::guestCount)
+            .integer("Venue ID", BookingChangeDTO::venueId)
+            .text("Venue", BookingChangeDTO::venueName)
+            .decimal("Total Cost", BookingChangeDTO::totalCost)
+            .enumValue("Status", BookingChangeDTO::bookingStatus)
+            .dateTime("Created At", BookingChangeDTO::createdAt)
+            .build();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingTombstoneRepository bookingTombstoneRepository;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Value("${app.report.changes.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.report.changes.settle-seconds:60}")
+    private long settleSeconds;
+
+    @Value("${app.report.changes.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    /**
+     * The watermark a sync starting now runs up to
+     */
+    public LocalDateTime currentWatermark() {
+        return LocalDateTime.now().minusSeconds(settleSeconds).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Changes after since (exclusive) up to until (inclusive): changed bookings first, then deletions.
+     * Pages are fetched as the iterator advances; a null since starts from the beginning.
+     */
+    public Iterator<BookingChangeDTO> changesBetween(LocalDateTime since, LocalDateTime until) {
+        LocalDateTime from = since != null ? since : BEGINNING;
+        if (!from.isBefore(until)) {
+            return Collections.emptyIterator();
+        }
+        Iterator<BookingChangeDTO> upserts = new KeysetIterator<>(from,
+                (afterAt, afterId) -> bookingRepository.findChangedAfter(afterAt, afterId, until, PageRequest.of(0, batchSize)),
+                BookingChangeDTO::changedAt, BookingChangeDTO::bookingId, Function.identity());
+        Iterator<BookingChangeDTO> deletions = new KeysetIterator<>(from,
+                (afterAt, afterId) -> bookingTombstoneRepository.findDeletedAfter(afterAt, afterId, until, PageRequest.of(0, batchSize)),
+                BookingTombstone::getDeletedAt, BookingTombstone::getTombstoneId, BookingChangeDTO::deletion);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return upserts.hasNext() || deletions.hasNext();
+            }
+
+            @Override
+            public BookingChangeDTO next() {
+                return upserts.hasNext() ? upserts.next() : deletions.next();
+            }
+        };
+    }
+
+    /**
+     * Write the changes between two watermarks with an export strategy; streaming strategies write
+     * page by page, others get the rows collected first. Returns the number of changes written.
+     */
+    public long exportChanges(String strategyType, LocalDateTime since, LocalDateTime until,
+                              ExportCompression compression, OutputStream outputStream) throws IOException {
+        ReportExportStrategy strategy = reportService.getExportStrategy(strategyType);
+        long started = System.currentTimeMillis();
+        CountingIterator changes = new CountingIterator(changesBetween(since, until));
+        try (OutputStream target = compression.wrap(outputStream)) {
+            if (strategy instanceof StreamingReportExportStrategy streamingStrategy) {
+                streamingStrategy.writeData(CHANGE_SCHEMA, changes, target);
+            } else {
+                List<Map<String, Object>> data = new ArrayList<>();
+                while (changes.hasNext()) {
+                    data.add(CHANGE_SCHEMA.toMap(changes.next()));
+                }
+                target.write(strategy.exportData(data, "booking_changes"));
+            }
+            target.flush();
+        }
+        logger.info("Exported {} booking changes after {} up to {} as {} in {} ms", changes.count, since, until,
+                    strategy.getStrategyType(), System.currentTimeMillis() - started);
+        return changes.count;
+    }
+
+    /**
+     * Drop tombstones older than the retention period; consumers must sync more often than that
+     */
+    @Scheduled(fixedDelayString = "${app.report.changes.tombstone-purge-interval-ms:86400000}")
+    @Transactional
+    public int purgeExpiredTombstones() {
+        int purged = bookingTombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} booking tombstones older than {} days", purged, tombstoneRetentionDays);
+        }
+        return purged;
+    }
+
+    /**
+     * Walks one table in keyset pages: each page starts after the (timestamp, id) of the last row returned
+     */
+    private final class KeysetIterator<T> implements Iterator<BookingChangeDTO> {
+        private final BiFunction<LocalDateTime, Long, List<T>> fetchPage;
+        private final Function<T, LocalDateTime> changedAt;
+        private final Function<T, Long> id;
+        private final Function<T, BookingChangeDTO> mapper;
+        private LocalDateTime afterAt;
+        // Nothing at exactly the starting watermark: the previous sync already covered it
+        private long afterId = Long.MAX_VALUE;
+        private Iterator<T> page = Collections.emptyIterator();
+        private boolean lastPage;
+
+        KeysetIterator(LocalDateTime since, BiFunction<LocalDateTime, Long, List<T>> fetchPage,
+                       Function<T, LocalDateTime> changedAt, Function<T, Long> id, Function<T, BookingChangeDTO> mapper) {
+            this.afterAt = since;
+            this.fetchPage = fetchPage;
+            this.changedAt = changedAt;
+            this.id = id;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !lastPage) {
+                List<T> rows = fetchPage.apply(afterAt, afterId);
+                lastPage = rows.size() < batchSize;
+                page = rows.iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public BookingChangeDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T row = page.next();
+            afterAt = changedAt.apply(row);
+            afterId = id.apply(row);
+            return mapper.apply(row);
+        }
+    }
+
+    private static final class CountingIterator implements Iterator<BookingChangeDTO> {
+        private final Iterator<BookingChangeDTO> changes;
+        private long count;
+
+        CountingIterator(Iterator<BookingChangeDTO> changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return changes.hasNext();
+        }
+
+        @Override
+        public BookingChangeDTO next() {
+            BookingChangeDTO change = changes.next();
+            count++;
+            return change;
+        }
+    }
+}
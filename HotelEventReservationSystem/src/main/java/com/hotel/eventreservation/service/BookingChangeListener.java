@@ -0,0 +1,26 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Booking;
+
+/**
+ * Callback for components that keep derived state about bookings.
+ * Invoked by BookingService inside the transaction that changed the booking. A listener that writes to the
+ * database does so after commit, in a transaction of its own (see TransactionCallbacks): an exception thrown
+ * here is only logged, but a failed statement would already have marked the booking's transaction rollback-only.
+ */
+public interface BookingChangeListener {
+    
+    /**
+     * Called after a booking has been created or changed
+     * @param booking The saved booking
+     * @param previousStatus The status before the change, or null for a new booking
+     */
+    void onBookingChanged(Booking booking, Booking.BookingStatus previousStatus);
+    
+    /**
+     * Called after a booking has been deleted
+     * @param booking The deleted booking, as it was loaded
+     */
+    default void onBookingDeleted(Booking booking) {
+    }
+}
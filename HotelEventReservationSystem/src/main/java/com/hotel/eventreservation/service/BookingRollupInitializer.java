@@ -0,0 +1,52 @@
+package com.hotel.eventreservation.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the booking rollups and daily sketches on startup when they are empty, then recounts the days
+ * that missed a booking change before the last shutdown.
+ * Starting the application with --rebuild-booking-rollups recomputes both from bookings instead,
+ * e.g. after bookings were changed directly in the database or the sketch settings changed.
+ */
+@Component
+public class BookingRollupInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingRollupInitializer.class);
+
+    static final String REBUILD_OPTION = "rebuild-booking-rollups";
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Autowired
+    private BookingSketchService bookingSketchService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (args.containsOption(REBUILD_OPTION)) {
+                bookingRollupService.rebuildAll();
+            } else {
+                bookingRollupService.backfillIfEmpty();
+                bookingRollupService.repairDirtyDays();
+            }
+        } catch (Exception e) {
+            logger.warn("Could not prepare booking rollups, reports will aggregate bookings directly: {}", e.getMessage());
+        }
+        try {
+            if (args.containsOption(REBUILD_OPTION)) {
+                bookingSketchService.rebuildAll();
+            } else {
+                bookingSketchService.backfillIfEmpty();
+                bookingSketchService.repairDirtyDays();
+            }
+        } catch (Exception e) {
+            logger.warn("Could not prepare booking sketches, distributions will read bookings directly: {}", e.getMessage());
+        }
+    }
+}
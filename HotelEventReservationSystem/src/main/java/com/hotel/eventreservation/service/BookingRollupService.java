@@ -0,0 +1,173 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.repository.BookingDailyRollupRepository;
+import com.hotel.eventreservation.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the booking_daily_rollups table in step with bookings.
+ *
+ * Each booking change moves the booking's contribution from the key it is currently counted under
+ * (Booking.getReportedState, captured when the booking was loaded) to the key of its current state,
+ * with single-statement upserts. A changed booking that was not loaded through JPA has no reported state;
+ * its event date is recounted from the bookings table instead.
+ *
+ * The upserts run once the booking change has committed, in a transaction of their own, so a failed upsert
+ * never rolls the booking back. Reports only read the rollups once they are known to be complete: after the
+ * startup backfill or a rebuild, and while no event date is waiting to be recounted after a failed change.
+ */
+@Service
+public class BookingRollupService extends DailyBookingSummaryService implements BookingChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingRollupService.class);
+
+    @Autowired
+    private BookingDailyRollupRepository rollupRepository;
+
+    @Value("${app.report.rollups.enabled:true}")
+    private boolean rollupsEnabled;
+
+    @Value("${app.report.rollups.rebuild-chunk-days:31}")
+    private int rebuildChunkDays;
+
+    @Override
+    public void onBookingChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        if (!rollupsEnabled) {
+            return;
+        }
+        Booking.ReportedState reported = booking.getReportedState();
+        Booking.ReportedState current = booking.currentReportedState();
+        if (previousStatus == null) {
+            applyAfterCommit(() -> apply(current, 1), current.eventDate());
+        } else if (reported == null) {
+            applyAfterCommit(() -> recountDay(current.eventDate()), current.eventDate());
+        } else if (!sameContribution(reported, current)) {
+            applyAfterCommit(() -> {
+                apply(reported, -1);
+                apply(current, 1);
+            }, reported.eventDate(), current.eventDate());
+        }
+        booking.setReportedState(current);
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        if (!rollupsEnabled) {
+            return;
+        }
+        Booking.ReportedState reported = booking.getReportedState();
+        LocalDate eventDate = booking.getEventDate();
+        if (reported != null) {
+            applyAfterCommit(() -> apply(reported, -1), reported.eventDate());
+        } else {
+            applyAfterCommit(() -> recountDay(eventDate), eventDate);
+        }
+        booking.setReportedState(null);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return rollupsEnabled;
+    }
+
+    @Override
+    protected int getRebuildChunkDays() {
+        return rebuildChunkDays;
+    }
+
+    @Override
+    protected String getSummaryName() {
+        return "ROLLUP";
+    }
+
+    @Override
+    protected String describeRows() {
+        return "booking rollup rows";
+    }
+
+    @Override
+    protected long countRows() {
+        return rollupRepository.count();
+    }
+
+    @Override
+    protected LocalDate findEarliestRowDate() {
+        return rollupRepository.findEarliestEventDate();
+    }
+
+    @Override
+    protected LocalDate findLatestRowDate() {
+        return rollupRepository.findLatestEventDate();
+    }
+
+    @Override
+    protected int rebuildChunk(LocalDate startDate, LocalDate endDate) {
+        rollupRepository.deleteByEventDateBetween(startDate, endDate);
+        return rollupRepository.insertFromBookings(startDate, endDate, LocalDateTime.now());
+    }
+
+    /**
+     * Apply a change once the booking commits; if it fails, the event dates it touches are marked for a recount
+     */
+    private void applyAfterCommit(Runnable change, LocalDate... eventDates) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                newTransaction.executeWithoutResult(status -> change.run());
+            } catch (RuntimeException e) {
+                // The rollups may now miss this change; report from bookings until the dates are recounted
+                Set<LocalDate> dirty = new TreeSet<>();
+                for (LocalDate eventDate : eventDates) {
+                    if (eventDate != null) {
+                        dirty.add(eventDate);
+                    }
+                }
+                logger.warn("Could not update booking rollups for {}: {}", dirty, e.getMessage());
+                markDirty(dirty);
+            }
+        });
+    }
+
+    private void recountDay(LocalDate eventDate) {
+        rollupRepository.deleteByEventDateBetween(eventDate, eventDate);
+        rollupRepository.insertFromBookings(eventDate, eventDate, LocalDateTime.now());
+    }
+
+    private void apply(Booking.ReportedState state, int sign) {
+        if (state.eventDate() == null || state.venue() == null || state.bookingStatus() == null) {
+            return;
+        }
+        int guests = state.guestCount() != null ? state.guestCount() : 0;
+        BigDecimal revenue = state.totalCost() != null ? state.totalCost() : BigDecimal.ZERO;
+        Integer capacity = state.venue().getCapacity();
+        double utilization = capacity != null && capacity > 0 ? guests * 100.0 / capacity : 0.0;
+        rollupRepository.applyDelta(state.eventDate(), state.venue().getVenueId(), state.eventType(),
+                                    state.bookingStatus().name(), sign, (long) sign * guests,
+                                    sign < 0 ? revenue.negate() : revenue, sign * utilization, LocalDateTime.now());
+    }
+
+    private static boolean sameContribution(Booking.ReportedState a, Booking.ReportedState b) {
+        return Objects.equals(a.eventDate(), b.eventDate())
+            && Objects.equals(venueId(a), venueId(b))
+            && Objects.equals(a.eventType(), b.eventType())
+            && a.bookingStatus() == b.bookingStatus()
+            && Objects.equals(a.guestCount(), b.guestCount())
+            && (a.totalCost() == null ? b.totalCost() == null
+                                      : b.totalCost() != null && a.totalCost().compareTo(b.totalCost()) == 0);
+    }
+
+    private static Long venueId(Booking.ReportedState state) {
+        return state.venue() != null ? state.venue().getVenueId() : null;
+    }
+}
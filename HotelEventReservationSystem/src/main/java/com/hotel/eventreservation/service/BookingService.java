@@ -2,6 +2,7 @@ package com.hotel.eventreservation.service;
 
 import com.hotel.eventreservation.model.*;
 import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.BookingTombstoneRepository;
 import com.hotel.eventreservation.repository.VenueAvailabilityRepository;
 import com.hotel.eventreservation.repository.VenueRepository;
 import com.hotel.eventreservation.strategy.BookingStatusStrategy;
@@ -29,6 +30,9 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private BookingTombstoneRepository bookingTombstoneRepository;
+    
     @Autowired
     private VenueAvailabilityRepository venueAvailabilityRepository;
     
@@ -44,6 +48,9 @@ public class BookingService {
     @Autowired
     private Map<String, BookingStatusStrategy> bookingStatusStrategies;
     
+    @Autowired
+    private List<BookingChangeListener> bookingChangeListeners;
+    
     /**
      * Create a new booking
      */
@@ -93,6 +100,7 @@ public class BookingService {
         
         // Process booking using strategy pattern
         processBookingStatus(booking);
+        notifyBookingChanged(booking, null);
         
         logger.info("Booking created successfully: {}", booking.getReferenceCode());
         return booking;
@@ -108,11 +116,13 @@ public class BookingService {
         }
         
         Booking booking = bookingOpt.get();
+        Booking.BookingStatus previousStatus = booking.getBookingStatus();
         booking.setBookingStatus(newStatus);
         booking = bookingRepository.save(booking);
         
         // Process booking using strategy pattern
         processBookingStatus(booking);
+        notifyBookingChanged(booking, previousStatus);
         
         logger.info("Booking status updated to {} for booking: {}", newStatus, booking.getReferenceCode());
         return booking;
@@ -132,6 +142,34 @@ public class BookingService {
         return updateBookingStatus(bookingId, Booking.BookingStatus.CONFIRMED);
     }
     
+    /**
+     * Confirm a pending booking in a venue, moving its venue slot there first if it asked for another one.
+     * The quoted cost is kept, so a guest moved to a different venue pays what was agreed.
+     */
+    public Booking confirmInVenue(Long bookingId, Venue venue) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (booking.getBookingStatus() != Booking.BookingStatus.PENDING) {
+            throw new RuntimeException("Booking " + booking.getReferenceCode() + " is no longer pending");
+        }
+        
+        Booking.BookingStatus previousStatus = booking.getBookingStatus();
+        if (!booking.getVenue().getVenueId().equals(venue.getVenueId())) {
+            venueAvailabilityRepository.releaseBooking(bookingId, VenueAvailability.AvailabilityStatus.AVAILABLE);
+            booking.setVenue(venue);
+            blockVenueAvailability(venue.getVenueId(), booking.getEventDate(), booking.getStartTime(),
+                                   booking.getEndTime(), bookingId);
+        }
+        booking.setBookingStatus(Booking.BookingStatus.CONFIRMED);
+        booking = bookingRepository.save(booking);
+        
+        processBookingStatus(booking);
+        notifyBookingChanged(booking, previousStatus);
+        
+        logger.info("Booking {} confirmed in venue {}", booking.getReferenceCode(), venue.getVenueId());
+        return booking;
+    }
+    
     /**
      * Complete booking
      */
@@ -139,6 +177,33 @@ public class BookingService {
         return updateBookingStatus(bookingId, Booking.BookingStatus.COMPLETED);
     }
     
+    /**
+     * Delete a cancelled booking, leaving a tombstone for the change feed and freeing its venue slots.
+     * Live bookings are cancelled first, so the guest is told through the usual cancellation.
+     */
+    public void deleteBooking(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (booking.getBookingStatus() != Booking.BookingStatus.CANCELLED) {
+            throw new RuntimeException("Only cancelled bookings can be deleted");
+        }
+        
+        bookingTombstoneRepository.save(new BookingTombstone(booking));
+        venueAvailabilityRepository.releaseBooking(bookingId, VenueAvailability.AvailabilityStatus.AVAILABLE);
+        bookingRepository.delete(booking);
+        bookingRepository.flush();
+        
+        for (BookingChangeListener listener : bookingChangeListeners) {
+            try {
+                listener.onBookingDeleted(booking);
+            } catch (Exception e) {
+                logger.error("Booking change listener {} failed for deleted booking: {}",
+                            listener.getClass().getSimpleName(), booking.getReferenceCode(), e);
+            }
+        }
+        logger.info("Booking deleted: {}", booking.getReferenceCode());
+    }
+    
     /**
      * Find booking by reference code
      */
@@ -206,7 +271,9 @@ public class BookingService {
      * Update booking
      */
     public Booking updateBooking(Booking booking) {
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        notifyBookingChanged(saved, saved.getBookingStatus());
+        return saved;
     }
     
     /**
@@ -251,6 +318,21 @@ public class BookingService {
         }
     }
     
+    /**
+     * Let listeners update state derived from bookings; listeners keep database work until after commit,
+     * so an exception here is logged and does not fail the booking change
+     */
+    private void notifyBookingChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        for (BookingChangeListener listener : bookingChangeListeners) {
+            try {
+                listener.onBookingChanged(booking, previousStatus);
+            } catch (Exception e) {
+                logger.error("Booking change listener {} failed for booking: {}",
+                            listener.getClass().getSimpleName(), booking.getReferenceCode(), e);
+            }
+        }
+    }
+    
     /**
      * Process booking using strategy pattern
      */
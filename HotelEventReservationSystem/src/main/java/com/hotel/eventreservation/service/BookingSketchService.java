@@ -0,0 +1,295 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingDistributionDTO;
+import com.hotel.eventreservation.dto.BookingSketchInputDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.BookingDailySketch;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingDailySketchRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import com.hotel.eventreservation.util.HyperLogLog;
+import com.hotel.eventreservation.util.KllSketch;
+import com.hotel.eventreservation.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the booking_daily_sketches table in step with bookings and answers distribution questions from it.
+ *
+ * Each (event date, venue) cell holds a HyperLogLog of guest ids and KLL sketches of guest counts and
+ * revenue for its non-cancelled bookings. A day at a venue has few bookings, so when a booking changes its
+ * cells (before and after the change) are recomputed from the bookings table once the change has committed,
+ * in a transaction of their own that locks the cell row before reading bookings, so two refreshes of a cell
+ * cannot overwrite each other with stale counts. A failed refresh never fails the booking; it marks the
+ * event date for a recount and sends summaries back to the bookings table until then. Summaries over a range
+ * merge the cells in memory.
+ *
+ * Error bounds: distinct guests have a relative standard error of 1.04 / sqrt(2^hll-precision), 1.6% at the
+ * default precision of 12; percentiles are within about 1.65% in rank (99% confidence) at the default k of
+ * 200, and exact while a range has fewer than k bookings. Merging does not add error, so the bounds are the
+ * same for a day and for a year. Changing either setting needs a rebuild, since differently sized sketches
+ * do not merge.
+ *
+ * Ordered after the report cache but before the rollup listener, which moves the reported state on.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BookingSketchService extends DailyBookingSummaryService implements BookingChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSketchService.class);
+
+    @Autowired
+    private BookingDailySketchRepository sketchRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Value("${app.report.sketches.enabled:true}")
+    private boolean sketchesEnabled;
+
+    @Value("${app.report.sketches.rebuild-chunk-days:31}")
+    private int rebuildChunkDays;
+
+    @Value("${app.report.sketches.hll-precision:12}")
+    private int hllPrecision;
+
+    @Value("${app.report.sketches.kll-k:200}")
+    private int kllK;
+
+    private record Cell(LocalDate eventDate, Long venueId) {
+    }
+
+    @Override
+    public void onBookingChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        if (!sketchesEnabled) {
+            return;
+        }
+        Set<Cell> cells = cellsOf(booking);
+        if (previousStatus != null && booking.getReportedState() == null) {
+            // Not loaded in this transaction, so the cell it moved from is unknown; the next rebuild corrects it
+            logger.debug("Booking {} changed without a reported state, refreshing only its current sketch cell",
+                         booking.getBookingId());
+        }
+        TransactionCallbacks.afterCommit(() -> refresh(cells));
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        if (!sketchesEnabled) {
+            return;
+        }
+        Set<Cell> cells = cellsOf(booking);
+        TransactionCallbacks.afterCommit(() -> refresh(cells));
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return sketchesEnabled;
+    }
+
+    @Override
+    protected int getRebuildChunkDays() {
+        return rebuildChunkDays;
+    }
+
+    @Override
+    protected String getSummaryName() {
+        return "SKETCH";
+    }
+
+    @Override
+    protected String describeRows() {
+        return "booking sketch cells";
+    }
+
+    @Override
+    protected long countRows() {
+        return sketchRepository.count();
+    }
+
+    @Override
+    protected LocalDate findEarliestRowDate() {
+        return sketchRepository.findEarliestEventDate();
+    }
+
+    @Override
+    protected LocalDate findLatestRowDate() {
+        return sketchRepository.findLatestEventDate();
+    }
+
+    @Override
+    protected int rebuildChunk(LocalDate startDate, LocalDate endDate) {
+        sketchRepository.deleteByEventDateBetween(startDate, endDate);
+        Map<Cell, Sketches> chunk = new LinkedHashMap<>();
+        for (BookingSketchInputDTO input : bookingRepository.findSketchInputs(startDate, endDate)) {
+            chunk.computeIfAbsent(new Cell(input.eventDate(), input.venueId()), cell -> newSketches()).add(input);
+        }
+        List<BookingDailySketch> rows = new ArrayList<>(chunk.size());
+        chunk.forEach((cell, sketches) -> rows.add(sketches.toEntity(cell)));
+        sketchRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    /**
+     * Distinct guests, revenue percentiles and per-venue guest count percentiles of non-cancelled bookings
+     * with event dates in the range. Reads one sketch row per day and venue once the sketches are ready,
+     * the bookings themselves before that.
+     */
+    public BookingDistributionDTO summarize(LocalDate startDate, LocalDate endDate) {
+        Sketches total = newSketches();
+        Map<Long, Sketches> byVenue = new TreeMap<>();
+        if (isReady()) {
+            for (BookingDailySketch row : sketchRepository.findByEventDateBetween(startDate, endDate)) {
+                Sketches cell = Sketches.fromEntity(row);
+                total.merge(cell);
+                byVenue.computeIfAbsent(row.getVenueId(), venueId -> newSketches()).merge(cell);
+            }
+        } else {
+            for (BookingSketchInputDTO input : bookingRepository.findSketchInputs(startDate, endDate)) {
+                total.add(input);
+                byVenue.computeIfAbsent(input.venueId(), venueId -> newSketches()).add(input);
+            }
+        }
+
+        Map<Long, String> venueNames = byVenue.isEmpty() ? Map.of()
+                : venueRepository.findAllById(byVenue.keySet()).stream()
+                        .collect(Collectors.toMap(Venue::getVenueId, Venue::getVenueName));
+        List<BookingDistributionDTO.VenueDistribution> venues = new ArrayList<>(byVenue.size());
+        byVenue.forEach((venueId, sketches) -> {
+            double[] guestCounts = sketches.guestCounts.quantiles(0.5, 0.9, 1.0);
+            venues.add(new BookingDistributionDTO.VenueDistribution(venueId, venueNames.get(venueId),
+                    sketches.bookings, sketches.guests.estimate(),
+                    valueOrNull(guestCounts[0]), valueOrNull(guestCounts[1]), valueOrNull(guestCounts[2])));
+        });
+        double[] revenue = total.revenue.quantiles(0.5, 0.9, 0.99);
+        return new BookingDistributionDTO(startDate, endDate, total.bookings, total.guests.estimate(),
+                HyperLogLog.standardError(hllPrecision), valueOrNull(revenue[0]), valueOrNull(revenue[1]),
+                valueOrNull(revenue[2]), KllSketch.normalizedRankError(kllK), venues);
+    }
+
+    private void refresh(Set<Cell> cells) {
+        Set<LocalDate> failed = new TreeSet<>();
+        for (Cell cell : cells) {
+            try {
+                newTransaction.executeWithoutResult(status -> refreshCell(cell));
+            } catch (RuntimeException e) {
+                // The cell may now miss this change; summarize from bookings until its day is recounted
+                failed.add(cell.eventDate());
+                logger.warn("Could not refresh booking sketches for venue {} on {}: {}",
+                            cell.venueId(), cell.eventDate(), e.getMessage());
+            }
+        }
+        if (!failed.isEmpty()) {
+            markDirty(failed);
+        }
+    }
+
+    private void refreshCell(Cell cell) {
+        // Lock first: a refresh that read bookings before another change committed must not write after it
+        Sketches empty = newSketches();
+        sketchRepository.lockCell(cell.eventDate(), cell.venueId(), empty.guests.toBytes(),
+                                  empty.guestCounts.toBytes(), empty.revenue.toBytes(), LocalDateTime.now());
+        List<BookingSketchInputDTO> inputs = bookingRepository.findSketchInputsForCell(cell.eventDate(), cell.venueId());
+        if (inputs.isEmpty()) {
+            sketchRepository.deleteCell(cell.eventDate(), cell.venueId());
+            return;
+        }
+        Sketches sketches = newSketches();
+        inputs.forEach(sketches::add);
+        sketchRepository.upsert(cell.eventDate(), cell.venueId(), sketches.bookings, sketches.guests.toBytes(),
+                                sketches.guestCounts.toBytes(), sketches.revenue.toBytes(), LocalDateTime.now());
+    }
+
+    private static Set<Cell> cellsOf(Booking booking) {
+        Set<Cell> cells = new LinkedHashSet<>();
+        addCell(cells, booking.getEventDate(), booking.getVenue());
+        Booking.ReportedState reported = booking.getReportedState();
+        if (reported != null) {
+            addCell(cells, reported.eventDate(), reported.venue());
+        }
+        return cells;
+    }
+
+    private static void addCell(Set<Cell> cells, LocalDate eventDate, Venue venue) {
+        if (eventDate != null && venue != null && venue.getVenueId() != null) {
+            cells.add(new Cell(eventDate, venue.getVenueId()));
+        }
+    }
+
+    private Sketches newSketches() {
+        return new Sketches(new HyperLogLog(hllPrecision), new KllSketch(kllK), new KllSketch(kllK));
+    }
+
+    private static Double valueOrNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * The three sketches of a cell or of a merged range, with its booking count
+     */
+    private static final class Sketches {
+        private final HyperLogLog guests;
+        private final KllSketch guestCounts;
+        private final KllSketch revenue;
+        private long bookings;
+
+        Sketches(HyperLogLog guests, KllSketch guestCounts, KllSketch revenue) {
+            this.guests = guests;
+            this.guestCounts = guestCounts;
+            this.revenue = revenue;
+        }
+
+        static Sketches fromEntity(BookingDailySketch row) {
+            Sketches sketches = new Sketches(HyperLogLog.fromBytes(row.getGuestHll()),
+                    KllSketch.fromBytes(row.getGuestCountSketch()), KllSketch.fromBytes(row.getRevenueSketch()));
+            sketches.bookings = row.getBookingCount() != null ? row.getBookingCount() : 0;
+            return sketches;
+        }
+
+        void add(BookingSketchInputDTO input) {
+            bookings++;
+            if (input.guestId() != null) {
+                guests.add(input.guestId());
+            }
+            if (input.guestCount() != null) {
+                guestCounts.update(input.guestCount());
+            }
+            if (input.totalCost() != null) {
+                revenue.update(input.totalCost().doubleValue());
+            }
+        }
+
+        void merge(Sketches other) {
+            bookings += other.bookings;
+            guests.merge(other.guests);
+            guestCounts.merge(other.guestCounts);
+            revenue.merge(other.revenue);
+        }
+
+        BookingDailySketch toEntity(Cell cell) {
+            BookingDailySketch row = new BookingDailySketch(cell.eventDate(), cell.venueId());
+            row.setBookingCount(bookings);
+            row.setGuestHll(guests.toBytes());
+            row.setGuestCountSketch(guestCounts.toBytes());
+            row.setRevenueSketch(revenue.toBytes());
+            return row;
+        }
+    }
+}
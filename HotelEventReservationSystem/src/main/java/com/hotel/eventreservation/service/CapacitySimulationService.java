@@ -0,0 +1,242 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.CapacitySimulationDTO;
+import com.hotel.eventreservation.dto.DemandSampleDTO;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import com.hotel.eventreservation.util.DemandSimulation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * What-if capacity planning: how rejection rates and utilization would change if venues were added or closed.
+ *
+ * Demand is resampled from the bookings created in the last lookback-days days (cancelled ones left out) and
+ * replayed against the active venues and against the changed inventory; see DemandSimulation for the
+ * replay rules. Bookings turned away in the past were never recorded, so demand the current inventory
+ * could not take is missing from the history; demandScale can stand in for it or for growth.
+ *
+ * Trials run on a dedicated fork/join pool of parallelism workers (0 for one per core), so a large run
+ * does not hold up the common pool.
+ */
+@Service
+public class CapacitySimulationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacitySimulationService.class);
+
+    // Two-sided 95% normal quantile, for the confidence interval of a mean over trials
+    private static final double Z_95 = 1.959964;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Value("${app.report.simulation.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.report.simulation.lookback-days:365}")
+    private int lookbackDays;
+
+    @Value("${app.report.simulation.default-trials:2000}")
+    private int defaultTrials;
+
+    @Value("${app.report.simulation.max-trials:20000}")
+    private int maxTrials;
+
+    @Value("${app.report.simulation.default-horizon-weeks:13}")
+    private int defaultHorizonWeeks;
+
+    @Value("${app.report.simulation.max-horizon-weeks:52}")
+    private int maxHorizonWeeks;
+
+    @Value("${app.report.occupancy.open-hour:8}")
+    private int openHour;
+
+    @Value("${app.report.occupancy.close-hour:24}")
+    private int closeHour;
+
+    private ForkJoinPool pool;
+
+    /**
+     * A change to the venue inventory and how to simulate it; null fields take the configured defaults
+     */
+    public record Scenario(Set<Long> closedVenueIds, List<Integer> addedVenueCapacities, Integer trials,
+                           Integer horizonWeeks, Double demandScale, Long seed) {
+
+        boolean changesInventory() {
+            return (closedVenueIds != null && !closedVenueIds.isEmpty())
+                    || (addedVenueCapacities != null && !addedVenueCapacities.isEmpty());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(workers, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("capacity-simulation-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Simulate the current inventory and, when the scenario changes it, the changed one. Throws
+     * IllegalArgumentException for an unknown venue, a non-positive capacity or out-of-range settings.
+     */
+    public CapacitySimulationDTO simulate(Scenario scenario) {
+        int trials = scenario.trials() != null ? scenario.trials() : defaultTrials;
+        int horizonWeeks = scenario.horizonWeeks() != null ? scenario.horizonWeeks() : defaultHorizonWeeks;
+        double demandScale = scenario.demandScale() != null ? scenario.demandScale() : 1.0;
+        long seed = scenario.seed() != null ? scenario.seed() : System.nanoTime();
+        if (trials < 1 || trials > maxTrials) {
+            throw new IllegalArgumentException("Trials must be between 1 and " + maxTrials);
+        }
+        if (horizonWeeks < 1 || horizonWeeks > maxHorizonWeeks) {
+            throw new IllegalArgumentException("Horizon must be between 1 and " + maxHorizonWeeks + " weeks");
+        }
+        if (!(demandScale > 0) || demandScale > 100) {
+            throw new IllegalArgumentException("Demand scale must be above 0 and at most 100");
+        }
+
+        long startNanos = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now().minusDays(lookbackDays);
+        List<DemandSampleDTO> samples = bookingRepository.findDemandSamplesCreatedSince(since);
+        DemandSimulation.Demand.Builder builder = new DemandSimulation.Demand.Builder();
+        for (DemandSampleDTO sample : samples) {
+            if (sample.eventDate() == null || sample.startTime() == null || sample.endTime() == null) {
+                continue;
+            }
+            long leadDays = sample.createdAt() != null
+                    ? ChronoUnit.DAYS.between(sample.createdAt().toLocalDate(), sample.eventDate()) : 0;
+            builder.add(sample.eventType(), sample.eventDate().getDayOfWeek(), sample.startTime(), sample.endTime(),
+                        sample.guestCount() != null ? sample.guestCount() : 1, leadDays);
+        }
+        DemandSimulation.Demand demand = builder.build((double) builder.size() / lookbackDays);
+
+        List<Venue> venues = venueRepository.findByIsActiveTrue();
+        List<CapacitySimulationDTO.VenueUtilization> current = inventory(venues, Set.of(), List.of());
+        List<CapacitySimulationDTO.VenueUtilization> proposed = scenario.changesInventory() ? inventory(venues,
+                scenario.closedVenueIds() != null ? scenario.closedVenueIds() : Set.of(),
+                scenario.addedVenueCapacities() != null ? scenario.addedVenueCapacities() : List.of()) : null;
+        DemandSimulation.Result baselineResult = run(demand, current, horizonWeeks, trials, demandScale, seed);
+        CapacitySimulationDTO.Outcome baseline = outcome(baselineResult, current);
+        CapacitySimulationDTO.Outcome changed = null;
+        CapacitySimulationDTO.Estimate rejectionRateChange = null;
+        CapacitySimulationDTO.Estimate utilizationChange = null;
+        if (proposed != null) {
+            DemandSimulation.Result scenarioResult = run(demand, proposed, horizonWeeks, trials, demandScale, seed);
+            changed = outcome(scenarioResult, proposed);
+            rejectionRateChange = estimate(difference(scenarioResult.rejectionRates(), baselineResult.rejectionRates()));
+            utilizationChange = estimate(difference(scenarioResult.utilizations(), baselineResult.utilizations()));
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        logger.info("Capacity simulation: {} trials of {} weeks, {} historical bookings, {} workers, {} ms",
+                    trials, horizonWeeks, demand.size(), pool.getParallelism(), elapsedMillis);
+        return new CapacitySimulationDTO(trials, horizonWeeks, demandScale, seed, demand.size(),
+                demand.getRequestsPerDay(), elapsedMillis, baseline, changed, rejectionRateChange, utilizationChange);
+    }
+
+    private DemandSimulation.Result run(DemandSimulation.Demand demand, List<CapacitySimulationDTO.VenueUtilization> inventory,
+                                        int horizonWeeks, int trials, double demandScale, long seed) {
+        int[] capacities = inventory.stream().mapToInt(CapacitySimulationDTO.VenueUtilization::capacity).toArray();
+        return new DemandSimulation(demand, capacities, horizonWeeks, openHour, closeHour)
+                .run(pool, trials, demandScale, seed);
+    }
+
+    /**
+     * The venues to simulate, as rows whose utilization is filled in later
+     */
+    private static List<CapacitySimulationDTO.VenueUtilization> inventory(List<Venue> venues, Set<Long> closedVenueIds,
+                                                                          List<Integer> addedVenueCapacities) {
+        for (Long venueId : closedVenueIds) {
+            if (venues.stream().noneMatch(venue -> venue.getVenueId().equals(venueId))) {
+                throw new IllegalArgumentException("Active venue not found: " + venueId);
+            }
+        }
+        List<CapacitySimulationDTO.VenueUtilization> inventory = new ArrayList<>();
+        for (Venue venue : venues) {
+            if (!closedVenueIds.contains(venue.getVenueId())) {
+                inventory.add(new CapacitySimulationDTO.VenueUtilization(venue.getVenueId(), venue.getVenueName(),
+                        venue.getCapacity() != null ? venue.getCapacity() : 0, 0.0));
+            }
+        }
+        for (int i = 0; i < addedVenueCapacities.size(); i++) {
+            Integer capacity = addedVenueCapacities.get(i);
+            if (capacity == null || capacity < 1) {
+                throw new IllegalArgumentException("An added venue needs a capacity of at least 1");
+            }
+            inventory.add(new CapacitySimulationDTO.VenueUtilization(null, "New venue " + (i + 1), capacity, 0.0));
+        }
+        return inventory;
+    }
+
+    private static CapacitySimulationDTO.Outcome outcome(DemandSimulation.Result result,
+                                                         List<CapacitySimulationDTO.VenueUtilization> inventory) {
+        List<CapacitySimulationDTO.VenueUtilization> venues = new ArrayList<>(inventory.size());
+        for (int v = 0; v < inventory.size(); v++) {
+            CapacitySimulationDTO.VenueUtilization venue = inventory.get(v);
+            venues.add(new CapacitySimulationDTO.VenueUtilization(venue.venueId(), venue.venueName(), venue.capacity(),
+                    percent(result.venueUtilization(v))));
+        }
+        List<CapacitySimulationDTO.EventTypeRejection> eventTypes = new ArrayList<>();
+        for (int t = 0; t < result.eventTypes().size(); t++) {
+            long requests = result.requestsByType()[t];
+            eventTypes.add(new CapacitySimulationDTO.EventTypeRejection(result.eventTypes().get(t),
+                    Math.round(10.0 * requests / result.trials()) / 10.0,
+                    requests == 0 ? 0.0 : percent((double) result.rejectionsByType()[t] / requests)));
+        }
+        return new CapacitySimulationDTO.Outcome(estimate(result.rejectionRates()), estimate(result.utilizations()),
+                venues, eventTypes);
+    }
+
+    private static double[] difference(double[] scenario, double[] baseline) {
+        double[] difference = new double[scenario.length];
+        for (int i = 0; i < scenario.length; i++) {
+            difference[i] = scenario[i] - baseline[i];
+        }
+        return difference;
+    }
+
+    static CapacitySimulationDTO.Estimate estimate(double[] values) {
+        int n = values.length;
+        double mean = Arrays.stream(values).average().orElse(0.0);
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        double halfWidth = n > 1 ? Z_95 * Math.sqrt(squares / (n - 1) / n) : 0.0;
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return new CapacitySimulationDTO.Estimate(percent(mean), percent(mean - halfWidth), percent(mean + halfWidth),
+                percent(sorted[(int) Math.floor(0.05 * (n - 1))]), percent(sorted[(int) Math.ceil(0.95 * (n - 1))]));
+    }
+
+    private static double percent(double fraction) {
+        return Math.round(fraction * 10_000) / 100.0;
+    }
+}
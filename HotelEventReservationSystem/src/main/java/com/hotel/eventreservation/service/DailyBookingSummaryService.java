@@ -0,0 +1,215 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.BookingSummaryDirtyDay;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.BookingSummaryDirtyDayRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Common part of the tables that summarise bookings per event date (the daily rollups and sketches).
+ *
+ * Handles the startup backfill and rebuilds, which recompute a date range from bookings one chunk of days
+ * per transaction, and tracks whether the table holds every booking so readers may use it. Subclasses say
+ * how to count and date-bound their rows and how to recompute one chunk.
+ *
+ * A booking change that fails to reach the table marks its event dates dirty in booking_summary_dirty_days.
+ * While a summary has dirty days it is not ready on any node; the repair job recounts those days, on a
+ * schedule and after the startup backfill. If even the mark cannot be written, this node stops reading the
+ * table and the repair job rebuilds it in full.
+ */
+abstract class DailyBookingSummaryService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    protected BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookingSummaryDirtyDayRepository dirtyDayRepository;
+
+    /**
+     * Runs its callback in a transaction of its own, apart from any booking change in progress
+     */
+    protected TransactionTemplate newTransaction;
+
+    protected volatile boolean ready;
+
+    /**
+     * Set when a change was lost without its dates being recorded, so only a full rebuild can repair it
+     */
+    private volatile boolean rebuildNeeded;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    protected abstract boolean isEnabled();
+
+    protected abstract int getRebuildChunkDays();
+
+    /**
+     * Key of this summary in booking_summary_dirty_days, e.g. "ROLLUP"
+     */
+    protected abstract String getSummaryName();
+
+    /**
+     * What the rows are called in log messages, e.g. "booking rollup rows"
+     */
+    protected abstract String describeRows();
+
+    protected abstract long countRows();
+
+    protected abstract LocalDate findEarliestRowDate();
+
+    protected abstract LocalDate findLatestRowDate();
+
+    /**
+     * Replace the rows of an event date range with ones recomputed from bookings
+     * @return number of rows written
+     */
+    protected abstract int rebuildChunk(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * True once the table holds every booking, so it may be read instead of bookings
+     */
+    public boolean isReady() {
+        return isEnabled() && ready && !dirtyDayRepository.existsBySummary(getSummaryName());
+    }
+
+    /**
+     * Fill the table from bookings when it is still empty, e.g. on first start after an upgrade
+     */
+    public void backfillIfEmpty() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (countRows() == 0 && bookingRepository.findEarliestEventDate() != null) {
+            logger.info("No {} yet, backfilling from bookings", describeRows());
+            rebuildAll();
+        }
+        ready = true;
+    }
+
+    /**
+     * Recompute every row, covering both the booked dates and any rows left outside them
+     */
+    public int rebuildAll() {
+        List<Long> dirtyIds = dirtyDayRepository.findBySummary(getSummaryName()).stream()
+                .map(BookingSummaryDirtyDay::getDirtyDayId).collect(Collectors.toList());
+        rebuildNeeded = false;
+        LocalDate start = earliest(bookingRepository.findEarliestEventDate(), findEarliestRowDate());
+        LocalDate end = latest(bookingRepository.findLatestEventDate(), findLatestRowDate());
+        int rows;
+        try {
+            rows = start == null ? 0 : rebuild(start, end);
+            clearDirtyDays(dirtyIds);
+        } catch (RuntimeException e) {
+            rebuildNeeded = true;
+            throw e;
+        }
+        ready = true;
+        return rows;
+    }
+
+    /**
+     * Recount the event dates marked dirty, or rebuild everything when a lost change could not be marked.
+     * Waits for the startup backfill, so it never writes rows into a table that is still to be backfilled.
+     * @return number of days recounted
+     */
+    @Scheduled(fixedDelayString = "${app.report.rollups.repair-interval-ms:60000}")
+    public int repairDirtyDays() {
+        if (!isEnabled() || !ready && !rebuildNeeded) {
+            return 0;
+        }
+        try {
+            if (rebuildNeeded) {
+                logger.info("Rebuilding {} after a change was lost", describeRows());
+                rebuildAll();
+                return 0;
+            }
+            List<BookingSummaryDirtyDay> dirty = dirtyDayRepository.findBySummary(getSummaryName());
+            if (dirty.isEmpty()) {
+                return 0;
+            }
+            SortedSet<LocalDate> days = dirty.stream().map(BookingSummaryDirtyDay::getEventDate)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            for (LocalDate day : days) {
+                newTransaction.executeWithoutResult(status -> rebuildChunk(day, day));
+            }
+            // Only the marks read above: a day marked again during the recount stays for the next run
+            clearDirtyDays(dirty.stream().map(BookingSummaryDirtyDay::getDirtyDayId).collect(Collectors.toList()));
+            logger.info("Recounted {} for {} days that missed a booking change", describeRows(), days.size());
+            return days.size();
+        } catch (RuntimeException e) {
+            logger.warn("Could not repair {}, will retry: {}", describeRows(), e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Record event dates whose rows may have missed a booking change, for the repair job to recount
+     */
+    protected void markDirty(Collection<LocalDate> eventDates) {
+        try {
+            newTransaction.executeWithoutResult(status -> eventDates.forEach(eventDate ->
+                    dirtyDayRepository.save(new BookingSummaryDirtyDay(getSummaryName(), eventDate))));
+        } catch (RuntimeException e) {
+            ready = false;
+            rebuildNeeded = true;
+            logger.error("Could not mark {} for {} to be recounted, rebuilding them instead: {}",
+                         describeRows(), eventDates, e.getMessage());
+        }
+    }
+
+    private void clearDirtyDays(List<Long> dirtyIds) {
+        if (!dirtyIds.isEmpty()) {
+            newTransaction.executeWithoutResult(status -> dirtyDayRepository.deleteAllByIdInBatch(dirtyIds));
+        }
+    }
+
+    /**
+     * Recompute an event date range from bookings, in chunks of rebuild-chunk-days
+     */
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        long startNanos = System.nanoTime();
+        int chunkDays = getRebuildChunkDays();
+        int rows = 0;
+        for (LocalDate from = startDate; !from.isAfter(endDate); from = from.plusDays(chunkDays)) {
+            LocalDate chunkStart = from;
+            LocalDate chunkEnd = from.plusDays(chunkDays - 1L);
+            LocalDate to = chunkEnd.isAfter(endDate) ? endDate : chunkEnd;
+            Integer written = newTransaction.execute(status -> rebuildChunk(chunkStart, to));
+            rows += written != null ? written : 0;
+        }
+        logger.info("Rebuilt {} {} for {} to {} in {} ms",
+                    rows, describeRows(), startDate, endDate, (System.nanoTime() - startNanos) / 1_000_000);
+        return rows;
+    }
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        return a == null ? b : b == null || a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.NotificationEventDTO;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Cross-node relay using the shared notifications table as the event log.
+ * Every node tails the table by notification id and pushes new rows to its own subscribers, so a
+ * notification saved on one node reaches users connected to any node behind the load balancer.
+ * Only rows for users with an open stream on this node are pushed. A row whose transaction commits after a
+ * higher id has been seen is not pushed, but still appears in the user's inbox on the next page load.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notification.push.relay", havingValue = "database")
+public class DatabaseNotificationRelay implements NotificationRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseNotificationRelay.class);
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
+    @Value("${app.notification.push.poll-batch-size:500}")
+    private int pollBatchSize;
+    
+    private volatile long lastSeenId;
+    
+    @PostConstruct
+    public void init() {
+        Long maxId = notificationRepository.findMaxNotificationId();
+        lastSeenId = maxId != null ? maxId : 0L;
+    }
+    
+    @Override
+    public void publish(NotificationEventDTO event) {
+        // The committed row is the event; poll() picks it up on every node, including this one
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notification.push.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            List<Notification> created;
+            do {
+                created = notificationRepository.findCreatedAfterId(lastSeenId, PageRequest.of(0, pollBatchSize));
+                for (Notification notification : created) {
+                    if (notificationPushService.hasSubscribers(notification.getRecipientUser().getUserId())) {
+                        notificationPushService.deliverLocally(new NotificationEventDTO(notification));
+                    }
+                    lastSeenId = notification.getNotificationId();
+                }
+            } while (created.size() == pollBatchSize);
+        } catch (Exception e) {
+            logger.error("Error polling notifications for push relay", e);
+        }
+    }
+    
+    public long getLastSeenId() {
+        return lastSeenId;
+    }
+    
+    @Override
+    public String getRelayType() {
+        return "DATABASE";
+    }
+}
@@ -0,0 +1,398 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.EmailDeadLetter;
+import com.hotel.eventreservation.repository.EmailDeadLetterRepository;
+import com.hotel.eventreservation.util.CircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous email delivery engine.
+ * Callers only enqueue; a single background worker sends ready messages in batches over one
+ * SMTP connection per batch, retries failures with exponential backoff, parks messages that
+ * exhaust their attempts in the dead-letter table, and stops calling SMTP while the circuit is open.
+ * The queue is held in memory: on shutdown the worker is stopped, due messages get a last delivery attempt,
+ * and whatever is still waiting is moved to the dead-letter table rather than dropped.
+ */
+@Service
+public class EmailDeliveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDeliveryService.class);
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailDeadLetterRepository emailDeadLetterRepository;
+
+    @Value("${app.notification.email.from:noreply@hotel-event-reservation.com}")
+    private String fromAddress;
+
+    @Value("${app.notification.email.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.notification.email.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.notification.email.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notification.email.initial-backoff-ms:2000}")
+    private long initialBackoffMillis;
+
+    @Value("${app.notification.email.max-backoff-ms:300000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.notification.email.flush-interval-ms:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${app.notification.email.circuit.failure-threshold:3}")
+    private int circuitFailureThreshold;
+
+    @Value("${app.notification.email.circuit.open-seconds:60}")
+    private long circuitOpenSeconds;
+
+    @Value("${app.notification.email.circuit.slow-call-ms:10000}")
+    private long slowCallMillis;
+
+    @Value("${app.notification.email.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    private final DelayQueue<OutboundEmail> queue = new DelayQueue<>();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong deadLetterCount = new AtomicLong();
+
+    private CircuitBreaker circuitBreaker;
+    private ScheduledExecutorService worker;
+
+    @PostConstruct
+    public void start() {
+        circuitBreaker = new CircuitBreaker("smtp", circuitFailureThreshold,
+                Duration.ofSeconds(circuitOpenSeconds), Duration.ofMillis(slowCallMillis));
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(this::deliverPendingSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.shutdown();
+            try {
+                // Let a cycle in progress finish, so it never sends alongside the final flush below
+                if (!worker.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                    logger.warn("Email delivery worker still running {} s after shutdown was requested", shutdownTimeoutSeconds);
+                    worker.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        deliverPendingSafely();
+        OutboundEmail[] remaining = queue.toArray(new OutboundEmail[0]);
+        queue.clear();
+        if (remaining.length > 0) {
+            logger.warn("{} emails still queued at shutdown, moving them to the dead-letter table", remaining.length);
+            for (OutboundEmail email : remaining) {
+                deadLetter(email, email.getLastError() != null
+                        ? "Not delivered before shutdown: " + email.getLastError() : "Not delivered before shutdown");
+            }
+        }
+    }
+
+    /**
+     * Queue an email for delivery. Never blocks on SMTP.
+     * @return false when the queue is full and the message was dead-lettered instead
+     */
+    public boolean enqueue(String recipientEmail, String subject, String body) {
+        return enqueue(recipientEmail, subject, body, null);
+    }
+    
+    /**
+     * Queue an email with an optional HTML alternative; the MIME multipart is only built by the delivery worker
+     * @return false when the queue is full and the message was dead-lettered instead
+     */
+    public boolean enqueue(String recipientEmail, String subject, String body, String htmlBody) {
+        OutboundEmail email = new OutboundEmail(recipientEmail, subject, body, htmlBody);
+        if (queue.size() >= queueCapacity) {
+            logger.warn("Email queue is full ({} messages), dead-lettering email to {}", queueCapacity, recipientEmail);
+            deadLetter(email, "Delivery queue full");
+            return false;
+        }
+        queue.add(email);
+        return true;
+    }
+
+    /**
+     * Send every message whose next attempt is due, batch by batch.
+     * Messages failing in this cycle are re-queued only when the cycle ends, so each gets one attempt per cycle.
+     * @return number of messages delivered in this cycle
+     */
+    public int deliverPending() {
+        int delivered = 0;
+        List<OutboundEmail> batch = new ArrayList<>(batchSize);
+        List<OutboundEmail> retries = new ArrayList<>();
+        while (true) {
+            batch.clear();
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            if (!circuitBreaker.allowRequest()) {
+                queue.addAll(batch);
+                logger.debug("SMTP circuit is {}, deferring {} emails", circuitBreaker.getState(), batch.size());
+                break;
+            }
+            delivered += sendBatch(batch, retries);
+        }
+        queue.addAll(retries);
+        return delivered;
+    }
+
+    private void deliverPendingSafely() {
+        try {
+            deliverPending();
+        } catch (Exception e) {
+            logger.error("Unexpected error in email delivery worker", e);
+        }
+    }
+
+    private int sendBatch(List<OutboundEmail> batch, List<OutboundEmail> retries) {
+        Map<MimeMessage, OutboundEmail> pending = new IdentityHashMap<>();
+        for (OutboundEmail email : batch) {
+            try {
+                pending.put(buildMessage(email), email);
+            } catch (MessagingException e) {
+                deadLetter(email, "Invalid message: " + e.getMessage());
+            }
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        MimeMessage[] messages = pending.keySet().toArray(new MimeMessage[0]);
+        long startNanos = System.nanoTime();
+        try {
+            mailSender.send(messages);
+            circuitBreaker.recordSuccess(elapsedMillis(startNanos));
+            sentCount.addAndGet(messages.length);
+            logger.info("Delivered batch of {} emails", messages.length);
+            return messages.length;
+        } catch (MailSendException e) {
+            // Only the messages in the map failed: a lost connection lists every message not yet sent, and a
+            // failure to close the connection afterwards lists just the refused ones, or none at all
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty() || failed.values().stream().anyMatch(cause -> cause instanceof SendFailedException)) {
+                // The server answered; at most individual messages were refused
+                circuitBreaker.recordSuccess(elapsedMillis(startNanos));
+            } else {
+                circuitBreaker.recordFailure();
+            }
+            if (failed.isEmpty()) {
+                logger.warn("Delivered batch of {} emails but could not close the SMTP connection: {}",
+                           messages.length, e.getMessage());
+            }
+            failed.forEach((message, cause) -> {
+                OutboundEmail email = pending.get(message);
+                if (email == null) {
+                    return;
+                }
+                if (isPermanentRejection(cause)) {
+                    email.recordFailure(cause.getMessage());
+                    logger.warn("Email to {} was rejected permanently, moving to dead-letter table: {}",
+                               email.getRecipientEmail(), cause.getMessage());
+                    deadLetter(email, cause.getMessage());
+                } else {
+                    scheduleRetry(email, cause, retries);
+                }
+            });
+            int delivered = messages.length - failed.size();
+            sentCount.addAndGet(delivered);
+            return delivered;
+        } catch (MailException e) {
+            circuitBreaker.recordFailure();
+            pending.values().forEach(email -> scheduleRetry(email, e, retries));
+            return 0;
+        }
+    }
+
+    private MimeMessage buildMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean html = email.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, html, "UTF-8");
+        helper.setFrom(fromAddress);
+        helper.setTo(email.getRecipientEmail());
+        helper.setSubject(email.getSubject());
+        if (html) {
+            helper.setText(email.getBody(), email.getHtmlBody());
+        } else {
+            helper.setText(email.getBody(), false);
+        }
+        return message;
+    }
+
+    /**
+     * 5xx recipient rejections are reported as invalid addresses and will not succeed on retry
+     */
+    private static boolean isPermanentRejection(Exception cause) {
+        return cause instanceof SendFailedException sendFailed
+                && sendFailed.getInvalidAddresses() != null
+                && sendFailed.getInvalidAddresses().length > 0;
+    }
+
+    private void scheduleRetry(OutboundEmail email, Exception cause, List<OutboundEmail> retries) {
+        email.recordFailure(cause.getMessage());
+        if (email.getAttempts() >= maxAttempts) {
+            logger.warn("Email to {} failed {} times, moving to dead-letter table: {}",
+                       email.getRecipientEmail(), email.getAttempts(), cause.getMessage());
+            deadLetter(email, cause.getMessage());
+            return;
+        }
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(email.getAttempts() - 1, 20));
+        long jitter = backoff > 0 ? ThreadLocalRandom.current().nextLong(backoff / 5 + 1) : 0;
+        email.setNextAttemptAtMillis(System.currentTimeMillis() + backoff + jitter);
+        retryCount.incrementAndGet();
+        retries.add(email);
+        logger.debug("Email to {} failed (attempt {}), retrying in {}ms", email.getRecipientEmail(), email.getAttempts(), backoff + jitter);
+    }
+
+    private void deadLetter(OutboundEmail email, String error) {
+        deadLetterCount.incrementAndGet();
+        try {
+            EmailDeadLetter deadLetter = new EmailDeadLetter(email.getRecipientEmail(), email.getSubject(),
+                    email.getBody(), email.getAttempts(), error);
+            deadLetter.setFirstQueuedAt(email.getQueuedAt());
+            emailDeadLetterRepository.save(deadLetter);
+        } catch (Exception e) {
+            logger.error("Failed to store dead-lettered email to {}", email.getRecipientEmail(), e);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    public long getDeadLetterCount() {
+        return deadLetterCount.get();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * An email waiting in the delivery queue; becomes available once its next attempt time is reached
+     */
+    public static class OutboundEmail implements Delayed {
+        private final String recipientEmail;
+        private final String subject;
+        private final String body;
+        private final String htmlBody;
+        private final LocalDateTime queuedAt;
+        private int attempts;
+        private long nextAttemptAtMillis;
+        private String lastError;
+
+        public OutboundEmail(String recipientEmail, String subject, String body) {
+            this(recipientEmail, subject, body, null);
+        }
+        
+        public OutboundEmail(String recipientEmail, String subject, String body, String htmlBody) {
+            this.recipientEmail = recipientEmail;
+            this.subject = subject;
+            this.body = body;
+            this.htmlBody = htmlBody;
+            this.queuedAt = LocalDateTime.now();
+            this.nextAttemptAtMillis = System.currentTimeMillis();
+        }
+
+        public String getRecipientEmail() {
+            return recipientEmail;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getHtmlBody() {
+            return htmlBody;
+        }
+
+        public LocalDateTime getQueuedAt() {
+            return queuedAt;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        void recordFailure(String error) {
+            this.attempts++;
+            this.lastError = error;
+        }
+
+        void setNextAttemptAtMillis(long nextAttemptAtMillis) {
+            this.nextAttemptAtMillis = nextAttemptAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(nextAttemptAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.NotificationEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers events to subscribers connected to this node only. Suitable for a single node and for tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notification.push.relay", havingValue = "local", matchIfMissing = true)
+public class InProcessNotificationRelay implements NotificationRelay {
+    
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
+    @Override
+    public void publish(NotificationEventDTO event) {
+        notificationPushService.deliverLocally(event);
+    }
+    
+    @Override
+    public String getRelayType() {
+        return "LOCAL";
+    }
+}
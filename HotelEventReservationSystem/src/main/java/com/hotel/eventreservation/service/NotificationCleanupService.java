@@ -2,32 +2,69 @@ package com.hotel.eventreservation.service;
 
 import com.hotel.eventreservation.model.Notification;
 import com.hotel.eventreservation.repository.NotificationRepository;
+import com.hotel.eventreservation.util.NotificationArchiveWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Retention pipeline for notifications.
+ * Expired rows are deleted in bounded primary-key ranges, each range in its own short transaction,
+ * so the nightly run never holds locks on the whole notifications table.
+ */
 @Service
-@Transactional
 public class NotificationCleanupService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(NotificationCleanupService.class);
-    
+
     @Autowired
     private NotificationRepository notificationRepository;
-    
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Value("${app.notification.cleanup.days:30}")
     private int cleanupDays;
-    
+
     @Value("${app.notification.cleanup.enabled:true}")
     private boolean cleanupEnabled;
-    
+
+    @Value("${app.notification.cleanup.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.notification.cleanup.chunk-pause-ms:50}")
+    private long chunkPauseMillis;
+
+    @Value("${app.notification.cleanup.max-run-minutes:30}")
+    private long maxRunMinutes;
+
+    @Value("${app.notification.cleanup.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.notification.cleanup.archive.directory:./archive/notifications}")
+    private String archiveDirectory;
+
+    private volatile RetentionRunStats lastRunStats;
+
+    private Clock clock = Clock.systemUTC();
+
     /**
      * Scheduled cleanup of old notifications
      * Runs daily at 2 AM
@@ -38,15 +75,13 @@ public class NotificationCleanupService {
             logger.debug("Notification cleanup is disabled");
             return;
         }
-        
+
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(cleanupDays);
-            List<Notification> oldNotifications = notificationRepository.findNotificationsSince(cutoffDate);
-            
-            if (!oldNotifications.isEmpty()) {
-                notificationRepository.deleteAll(oldNotifications);
-                logger.info("Cleaned up {} old notifications (older than {} days)", 
-                           oldNotifications.size(), cleanupDays);
+            RetentionRunStats stats = purgeNotificationsBefore(cutoffDate);
+            if (stats.getDeletedCount() > 0) {
+                logger.info("Cleaned up {} old notifications (older than {} days)",
+                           stats.getDeletedCount(), cleanupDays);
             } else {
                 logger.debug("No old notifications found for cleanup");
             }
@@ -54,7 +89,7 @@ public class NotificationCleanupService {
             logger.error("Error during notification cleanup", e);
         }
     }
-    
+
     /**
      * Manual cleanup of old notifications
      */
@@ -63,35 +98,122 @@ public class NotificationCleanupService {
             logger.warn("Notification cleanup is disabled");
             return 0;
         }
-        
+
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(cleanupDays);
-            List<Notification> oldNotifications = notificationRepository.findNotificationsSince(cutoffDate);
-            
-            if (!oldNotifications.isEmpty()) {
-                notificationRepository.deleteAll(oldNotifications);
-                logger.info("Manually cleaned up {} old notifications (older than {} days)", 
-                           oldNotifications.size(), cleanupDays);
-                return oldNotifications.size();
-            } else {
-                logger.info("No old notifications found for manual cleanup");
-                return 0;
-            }
+            RetentionRunStats stats = purgeNotificationsBefore(cutoffDate);
+            logger.info("Manually cleaned up {} old notifications (older than {} days)",
+                       stats.getDeletedCount(), cleanupDays);
+            return (int) stats.getDeletedCount();
         } catch (Exception e) {
             logger.error("Error during manual notification cleanup", e);
             throw e;
         }
     }
-    
+
+    /**
+     * Delete (and optionally archive) every notification created before the cutoff.
+     * Works through the id range of expired rows in chunks of {@code chunk-size} ids, each starting at the
+     * next expired id so gaps cost nothing, pausing after chunks that deleted rows and stopping once
+     * {@code max-run-minutes} is exceeded.
+     */
+    public RetentionRunStats purgeNotificationsBefore(LocalDateTime cutoffDate) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        Instant deadline = clock.instant().plus(Duration.ofMinutes(maxRunMinutes));
+
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Long minId = notificationRepository.findMinIdBefore(cutoffDate);
+        Long maxId = notificationRepository.findMaxIdBefore(cutoffDate);
+
+        long deleted = 0;
+        long archived = 0;
+        int chunks = 0;
+        boolean completed = true;
+        Path archiveFile = null;
+
+        if (minId != null && maxId != null) {
+            NotificationArchiveWriter archiveWriter = null;
+            try {
+                if (archiveEnabled) {
+                    archiveWriter = openArchive(startedAt);
+                    archiveFile = archiveWriter.getFile();
+                }
+
+                Long fromId = minId;
+                while (fromId != null && fromId <= maxId) {
+                    if (clock.instant().isAfter(deadline)) {
+                        completed = false;
+                        logger.warn("Notification retention stopped after {} minutes at id {}; remaining rows are left for the next run",
+                                   maxRunMinutes, fromId);
+                        break;
+                    }
+
+                    long toId = Math.min(fromId + chunkSize - 1, maxId);
+                    NotificationArchiveWriter writer = archiveWriter;
+                    long lowerId = fromId;
+                    Integer chunkDeleted = chunkTransaction.execute(status -> {
+                        if (writer != null) {
+                            List<Notification> expired = notificationRepository.findExpiredInIdRange(lowerId, toId, cutoffDate);
+                            if (expired.isEmpty()) {
+                                return 0;
+                            }
+                            try {
+                                writer.write(expired);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException("Failed to archive notifications " + lowerId + "-" + toId, e);
+                            }
+                        }
+                        return notificationRepository.deleteExpiredInIdRange(lowerId, toId, cutoffDate);
+                    });
+
+                    deleted += chunkDeleted != null ? chunkDeleted : 0;
+                    chunks++;
+                    if (toId >= maxId) {
+                        break;
+                    }
+                    fromId = notificationRepository.findMinIdFromBefore(toId + 1, cutoffDate);
+                    // Only a chunk that deleted rows loaded the database; an empty one needs no breather
+                    if (chunkDeleted != null && chunkDeleted > 0 && fromId != null && fromId <= maxId) {
+                        pauseBetweenChunks();
+                    }
+                }
+
+                if (archiveWriter != null) {
+                    archived = archiveWriter.getRecordCount();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open notification archive in " + archiveDirectory, e);
+            } finally {
+                closeQuietly(archiveWriter);
+            }
+        }
+
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        LocalDateTime oldestRemaining = notificationRepository.findOldestCreatedAtBefore(cutoffDate);
+        long lagSeconds = oldestRemaining != null ? Duration.between(oldestRemaining, cutoffDate).getSeconds() : 0;
+
+        RetentionRunStats stats = new RetentionRunStats(startedAt, cutoffDate, deleted, archived, chunks,
+                elapsedMillis, lagSeconds, completed, archiveFile != null ? archiveFile.toString() : null);
+        lastRunStats = stats;
+
+        logger.info("Notification retention run: deleted={}, archived={}, chunks={}, elapsed={}ms, throughput={} rows/s, lag={}s",
+                   deleted, archived, chunks, elapsedMillis, String.format("%.1f", stats.getRowsPerSecond()), lagSeconds);
+        return stats;
+    }
+
     /**
      * Cleanup notifications by alert type
      */
+    @Transactional
     public int cleanupNotificationsByAlertType(Notification.AlertType alertType) {
         try {
             List<Notification> notifications = notificationRepository.findByAlertType(alertType);
             if (!notifications.isEmpty()) {
                 notificationRepository.deleteAll(notifications);
-                logger.info("Cleaned up {} notifications of type {}", 
+                logger.info("Cleaned up {} notifications of type {}",
                            notifications.size(), alertType);
                 return notifications.size();
             }
@@ -101,45 +223,148 @@ public class NotificationCleanupService {
             throw e;
         }
     }
-    
+
     /**
      * Get cleanup statistics
      */
     public CleanupStats getCleanupStats() {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(cleanupDays);
-        List<Notification> oldNotifications = notificationRepository.findNotificationsSince(cutoffDate);
-        
+        Long oldNotificationsCount = notificationRepository.countNotificationsBefore(cutoffDate);
+
         return new CleanupStats(
-            oldNotifications.size(),
+            oldNotificationsCount != null ? oldNotificationsCount.intValue() : 0,
             cleanupDays,
             cleanupEnabled
         );
     }
-    
+
+    /**
+     * Get statistics of the most recent retention run, or null if none has run yet
+     */
+    public RetentionRunStats getLastRunStats() {
+        return lastRunStats;
+    }
+
+    NotificationArchiveWriter openArchive(LocalDateTime startedAt) throws IOException {
+        return new NotificationArchiveWriter(Paths.get(archiveDirectory), startedAt);
+    }
+
+    private void pauseBetweenChunks() {
+        if (chunkPauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeQuietly(NotificationArchiveWriter archiveWriter) {
+        if (archiveWriter == null) {
+            return;
+        }
+        try {
+            archiveWriter.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close notification archive {}: {}", archiveWriter.getFile(), e.getMessage());
+        }
+    }
+
     public static class CleanupStats {
         private final int oldNotificationsCount;
         private final int cleanupDays;
         private final boolean cleanupEnabled;
-        
+
         public CleanupStats(int oldNotificationsCount, int cleanupDays, boolean cleanupEnabled) {
             this.oldNotificationsCount = oldNotificationsCount;
             this.cleanupDays = cleanupDays;
             this.cleanupEnabled = cleanupEnabled;
         }
-        
+
         public int getOldNotificationsCount() {
             return oldNotificationsCount;
         }
-        
+
         public int getCleanupDays() {
             return cleanupDays;
         }
-        
+
         public boolean isCleanupEnabled() {
             return cleanupEnabled;
         }
     }
-}
 
+    public static class RetentionRunStats {
+        private final LocalDateTime startedAt;
+        private final LocalDateTime cutoffDate;
+        private final long deletedCount;
+        private final long archivedCount;
+        private final int chunkCount;
+        private final long elapsedMillis;
+        private final long lagSeconds;
+        private final boolean completed;
+        private final String archiveFile;
+
+        public RetentionRunStats(LocalDateTime startedAt, LocalDateTime cutoffDate, long deletedCount,
+                                 long archivedCount, int chunkCount, long elapsedMillis, long lagSeconds,
+                                 boolean completed, String archiveFile) {
+            this.startedAt = startedAt;
+            this.cutoffDate = cutoffDate;
+            this.deletedCount = deletedCount;
+            this.archivedCount = archivedCount;
+            this.chunkCount = chunkCount;
+            this.elapsedMillis = elapsedMillis;
+            this.lagSeconds = lagSeconds;
+            this.completed = completed;
+            this.archiveFile = archiveFile;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
 
+        public LocalDateTime getCutoffDate() {
+            return cutoffDate;
+        }
+
+        public long getDeletedCount() {
+            return deletedCount;
+        }
 
+        public long getArchivedCount() {
+            return archivedCount;
+        }
+
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Deleted rows per second over the whole run
+         */
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? deletedCount * 1000.0 / elapsedMillis : deletedCount;
+        }
+
+        /**
+         * How far behind the retention policy the table still is: age of the oldest
+         * expired row left after the run, measured from the cutoff (0 when fully caught up)
+         */
+        public long getLagSeconds() {
+            return lagSeconds;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public String getArchiveFile() {
+            return archiveFile;
+        }
+    }
+}
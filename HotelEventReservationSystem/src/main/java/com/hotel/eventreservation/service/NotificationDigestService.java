@@ -0,0 +1,142 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.DigestGroupDTO;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationDigestItem;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.NotificationDigestItemRepository;
+import com.hotel.eventreservation.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Coalesces staff notifications into digests.
+ * Messages for the same recipient and alert type are collected for a window; when the window closes
+ * they are sent as a single notification (one row, one email). A window holding a single message is
+ * sent unchanged.
+ *
+ * Pending messages are stored in notification_digest_items in the caller's transaction, so an open
+ * window survives a crash or restart. Each digest is sent in its own transaction that locks, sends and
+ * deletes its items: a failed send leaves them for the next flush, and two nodes never send the same one.
+ */
+@Service
+public class NotificationDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDigestService.class);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationDigestItemRepository digestItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.notification.digest.enabled:true}")
+    private boolean digestEnabled;
+
+    @Value("${app.notification.digest.window-seconds:300}")
+    private long windowSeconds;
+
+    @Value("${app.notification.digest.max-entries:100}")
+    private int maxEntries;
+
+    @Value("${app.notification.digest.max-listed:20}")
+    private int maxListed;
+
+    /**
+     * Queue a notification for the recipient's digest, or send it directly when digests are disabled
+     */
+    public void submit(User recipient, String messageContent, Notification.AlertType alertType) {
+        if (!digestEnabled || recipient == null || recipient.getUserId() == null) {
+            notificationService.sendNotification(recipient, messageContent, alertType);
+            return;
+        }
+        digestItemRepository.save(new NotificationDigestItem(recipient, messageContent, alertType));
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.digest.flush-interval-ms:15000}")
+    public void scheduledFlush() {
+        try {
+            flushDue(LocalDateTime.now());
+        } catch (Exception e) {
+            logger.error("Error flushing notification digests", e);
+        }
+    }
+
+    /**
+     * Send every digest whose window has closed or which reached the entry limit
+     * @return number of notifications sent
+     */
+    public int flushDue(LocalDateTime now) {
+        TransactionTemplate digestTransaction = new TransactionTemplate(transactionManager);
+        digestTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int sent = 0;
+        for (DigestGroupDTO group : digestItemRepository.findDueGroups(now.minusSeconds(windowSeconds), maxEntries)) {
+            try {
+                if (Boolean.TRUE.equals(digestTransaction.execute(status -> send(group)))) {
+                    sent++;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to send {} digest to user {}; it stays pending", group.alertType(),
+                             group.recipientUserId(), e);
+            }
+        }
+        if (sent > 0) {
+            logger.info("Sent {} notification digests", sent);
+        }
+        return sent;
+    }
+
+    public long getPendingItemCount() {
+        return digestItemRepository.count();
+    }
+
+    private boolean send(DigestGroupDTO group) {
+        List<NotificationDigestItem> items = digestItemRepository.lockGroup(group.recipientUserId(), group.alertType());
+        if (items.isEmpty()) {
+            // Another node sent this digest first
+            return false;
+        }
+        Optional<User> recipient = userRepository.findById(group.recipientUserId());
+        if (recipient.isPresent()) {
+            notificationService.sendNotification(recipient.get(), buildContent(items, group.alertType()), group.alertType());
+        }
+        digestItemRepository.deleteAllInBatch(items);
+        return recipient.isPresent();
+    }
+
+    private String buildContent(List<NotificationDigestItem> items, Notification.AlertType alertType) {
+        if (items.size() == 1) {
+            return items.get(0).getMessageContent();
+        }
+        StringBuilder content = new StringBuilder();
+        content.append(items.size()).append(" new ")
+               .append(alertType.name().toLowerCase().replace('_', ' '))
+               .append(" notifications:");
+        int listed = Math.min(items.size(), maxListed);
+        for (int i = 0; i < listed; i++) {
+            content.append("\n- ").append(items.get(i).getMessageContent());
+        }
+        if (items.size() > listed) {
+            content.append("\n... and ").append(items.size() - listed).append(" more");
+        }
+        return content.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationPreference;
+import com.hotel.eventreservation.repository.NotificationPreferenceRepository;
+import com.hotel.eventreservation.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user channel preferences and the routing table compiled from them.
+ * Each user with stored preferences is compiled to one int holding a bit per (alert type, channel);
+ * users without rows are absent from the table and receive every channel. A channel switched off
+ * globally (app.notification.email-enabled / sms-enabled) is never routed regardless of preferences.
+ */
+@Service
+public class NotificationPreferenceService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPreferenceService.class);
+    
+    private static final int CHANNEL_COUNT = NotificationPreference.Channel.values().length;
+    private static final int ALL_CHANNELS_MASK = (1 << (Notification.AlertType.values().length * CHANNEL_COUNT)) - 1;
+    
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+    
+    @Value("${app.notification.email-enabled:true}")
+    private boolean emailEnabled;
+    
+    @Value("${app.notification.sms-enabled:false}")
+    private boolean smsEnabled;
+    
+    private volatile Map<Long, Integer> routingTable = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Could not load notification preferences, all users get default routing: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Decide whether a notification should be sent through the channel. Never touches the database.
+     */
+    public boolean isChannelEnabled(Long userId, Notification.AlertType alertType, NotificationPreference.Channel channel) {
+        boolean globallyEnabled = channel == NotificationPreference.Channel.EMAIL ? emailEnabled : smsEnabled;
+        if (!globallyEnabled) {
+            return false;
+        }
+        Integer mask = userId != null ? routingTable.get(userId) : null;
+        return mask == null || (mask & bit(alertType, channel)) != 0;
+    }
+    
+    /**
+     * Get the user's effective channel settings for every alert type
+     */
+    public Map<Notification.AlertType, Map<NotificationPreference.Channel, Boolean>> getPreferences(Long userId) {
+        Integer mask = routingTable.get(userId);
+        Map<Notification.AlertType, Map<NotificationPreference.Channel, Boolean>> preferences = new EnumMap<>(Notification.AlertType.class);
+        for (Notification.AlertType alertType : Notification.AlertType.values()) {
+            Map<NotificationPreference.Channel, Boolean> channels = new EnumMap<>(NotificationPreference.Channel.class);
+            for (NotificationPreference.Channel channel : NotificationPreference.Channel.values()) {
+                channels.put(channel, mask == null || (mask & bit(alertType, channel)) != 0);
+            }
+            preferences.put(alertType, channels);
+        }
+        return preferences;
+    }
+    
+    /**
+     * Turn a channel on or off for one alert type; the routing table is updated after commit
+     */
+    @Transactional
+    public NotificationPreference updatePreference(Long userId, Notification.AlertType alertType,
+                                                   NotificationPreference.Channel channel, boolean enabled) {
+        NotificationPreference preference = preferenceRepository.findByUserIdAndAlertType(userId, alertType)
+                .orElseGet(() -> new NotificationPreference(userId, alertType));
+        preference.setChannelEnabled(channel, enabled);
+        preference = preferenceRepository.save(preference);
+        
+        int mask = compile(preferenceRepository.findByUserId(userId));
+        TransactionCallbacks.afterCommit(() -> routingTable.put(userId, mask));
+        logger.info("Notification preference updated for user {}: {} {} = {}", userId, alertType, channel, enabled);
+        return preference;
+    }
+    
+    /**
+     * Rebuild the whole routing table; also picks up changes made on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.notification.preferences.refresh-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        Map<Long, List<NotificationPreference>> byUser = new HashMap<>();
+        for (NotificationPreference preference : preferenceRepository.findAll()) {
+            byUser.computeIfAbsent(preference.getUserId(), id -> new ArrayList<>()).add(preference);
+        }
+        Map<Long, Integer> compiled = new ConcurrentHashMap<>(Math.max(16, byUser.size() * 2));
+        byUser.forEach((userId, preferences) -> compiled.put(userId, compile(preferences)));
+        routingTable = compiled;
+        logger.debug("Notification routing table compiled for {} users", compiled.size());
+    }
+    
+    public int getRoutedUserCount() {
+        return routingTable.size();
+    }
+    
+    static int compile(List<NotificationPreference> preferences) {
+        int mask = ALL_CHANNELS_MASK;
+        for (NotificationPreference preference : preferences) {
+            for (NotificationPreference.Channel channel : NotificationPreference.Channel.values()) {
+                int bit = bit(preference.getAlertType(), channel);
+                mask = preference.isChannelEnabled(channel) ? mask | bit : mask & ~bit;
+            }
+        }
+        return mask;
+    }
+    
+    private static int bit(Notification.AlertType alertType, NotificationPreference.Channel channel) {
+        return 1 << (alertType.ordinal() * CHANNEL_COUNT + channel.ordinal());
+    }
+}
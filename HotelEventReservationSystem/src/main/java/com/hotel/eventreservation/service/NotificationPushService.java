@@ -0,0 +1,123 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.NotificationEventDTO;
+import com.hotel.eventreservation.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of server-sent event streams opened on this node, keyed by user id.
+ * Events arrive through the configured {@link NotificationRelay}; a periodic heartbeat keeps idle
+ * connections open through proxies and prunes streams whose clients have gone away.
+ */
+@Service
+public class NotificationPushService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushService.class);
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Value("${app.notification.push.timeout-minutes:30}")
+    private long timeoutMinutes;
+    
+    @Value("${app.notification.push.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+    
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    
+    /**
+     * Open a stream for the user; the first event carries the current unread count
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMinutes * 60_000L);
+        List<SseEmitter> evicted = new ArrayList<>();
+        subscribers.compute(userId, (id, emitters) -> {
+            List<SseEmitter> target = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            // Drop the oldest stream when a user opens too many tabs
+            while (target.size() >= maxStreamsPerUser) {
+                evicted.add(target.remove(0));
+            }
+            target.add(emitter);
+            return target;
+        });
+        evicted.forEach(SseEmitter::complete);
+        
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(() -> unsubscribe(userId, emitter));
+        emitter.onError(error -> unsubscribe(userId, emitter));
+        
+        Long unreadCount = notificationRepository.countUnreadNotificationsByUserId(userId);
+        send(userId, emitter, SseEmitter.event().name("unread-count").data(unreadCount != null ? unreadCount : 0L));
+        return emitter;
+    }
+    
+    /**
+     * Push an event to the recipient's streams on this node
+     * @return number of streams the event was written to
+     */
+    public int deliverLocally(NotificationEventDTO event) {
+        List<SseEmitter> emitters = subscribers.get(event.getRecipientUserId());
+        if (emitters == null) {
+            return 0;
+        }
+        int delivered = 0;
+        for (SseEmitter emitter : emitters) {
+            if (send(event.getRecipientUserId(), emitter, SseEmitter.event()
+                    .id(String.valueOf(event.getNotificationId()))
+                    .name("notification")
+                    .data(event))) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+    
+    public boolean hasSubscribers(Long userId) {
+        List<SseEmitter> emitters = subscribers.get(userId);
+        return emitters != null && !emitters.isEmpty();
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notification.push.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        subscribers.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+    
+    private boolean send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping closed notification stream for user {}: {}", userId, e.getMessage());
+            unsubscribe(userId, emitter);
+            return false;
+        }
+    }
+    
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
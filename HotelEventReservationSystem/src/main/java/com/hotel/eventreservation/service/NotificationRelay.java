@@ -0,0 +1,21 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.NotificationEventDTO;
+
+/**
+ * Carries saved notifications to the push subscribers of every application node
+ */
+public interface NotificationRelay {
+    
+    /**
+     * Publish a notification once it has been committed
+     * @param event The notification event
+     */
+    void publish(NotificationEventDTO event);
+    
+    /**
+     * Get the relay name
+     * @return The relay identifier
+     */
+    String getRelayType();
+}
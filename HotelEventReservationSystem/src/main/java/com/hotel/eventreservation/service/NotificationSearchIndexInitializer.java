@@ -0,0 +1,40 @@
+package com.hotel.eventreservation.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the FULLTEXT index used by notification search. JPA cannot declare FULLTEXT indexes,
+ * so ddl-auto never creates it; existing databases get it on the next startup.
+ */
+@Component
+public class NotificationSearchIndexInitializer implements CommandLineRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationSearchIndexInitializer.class);
+    
+    static final String INDEX_NAME = "idx_notifications_message_ft";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void run(String... args) {
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'notifications' AND index_name = ?",
+                Integer.class, INDEX_NAME);
+            if (existing != null && existing > 0) {
+                return;
+            }
+            logger.info("Creating full-text index {} on notifications", INDEX_NAME);
+            jdbcTemplate.execute("ALTER TABLE notifications ADD FULLTEXT INDEX " + INDEX_NAME + " (message_content)");
+        } catch (Exception e) {
+            logger.warn("Could not create full-text index on notifications, search will use substring matching: {}", e.getMessage());
+        }
+    }
+}
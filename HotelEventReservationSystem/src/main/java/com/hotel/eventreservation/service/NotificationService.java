@@ -1,20 +1,30 @@
 package com.hotel.eventreservation.service;
 
+import com.hotel.eventreservation.dto.NotificationEventDTO;
 import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationPreference;
 import com.hotel.eventreservation.model.User;
 import com.hotel.eventreservation.repository.NotificationRepository;
 import com.hotel.eventreservation.strategy.NotificationStrategy;
+import com.hotel.eventreservation.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -22,17 +32,27 @@ public class NotificationService {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
     
+    // InnoDB default innodb_ft_min_token_size
+    private static final int FULLTEXT_MIN_TOKEN_SIZE = 3;
+    private static final int FULLTEXT_MAX_TERMS = 10;
+    
     @Autowired
     private NotificationRepository notificationRepository;
     
     @Autowired
     private Map<String, NotificationStrategy> notificationStrategies;
     
-    @Value("${app.notification.email-enabled:true}")
-    private boolean emailEnabled;
+    @Autowired
+    private NotificationCleanupService notificationCleanupService;
+    
+    @Autowired
+    private NotificationRelay notificationRelay;
+    
+    @Autowired
+    private NotificationPreferenceService notificationPreferenceService;
     
-    @Value("${app.notification.sms-enabled:false}")
-    private boolean smsEnabled;
+    @Value("${app.notification.search.max-results:100}")
+    private int searchMaxResults;
     
     /**
      * Send notification using multiple strategies
@@ -71,9 +91,11 @@ public class NotificationService {
             notificationRepository.save(notification);
             success = true;
             logger.info("In-app notification saved successfully for user: {}", notification.getRecipientUser().getUsername());
+            publishAfterCommit(notification);
             
-            // Send email if enabled
-            if (emailEnabled) {
+            // External channels are routed per recipient and alert type; unwanted sends are never built
+            Long recipientId = notification.getRecipientUser().getUserId();
+            if (notificationPreferenceService.isChannelEnabled(recipientId, notification.getAlertType(), NotificationPreference.Channel.EMAIL)) {
                 try {
                     NotificationStrategy emailStrategy = notificationStrategies.get("emailNotificationStrategy");
                     if (emailStrategy != null) {
@@ -84,8 +106,7 @@ public class NotificationService {
                 }
             }
             
-            // Send SMS if enabled
-            if (smsEnabled) {
+            if (notificationPreferenceService.isChannelEnabled(recipientId, notification.getAlertType(), NotificationPreference.Channel.SMS)) {
                 try {
                     NotificationStrategy smsStrategy = notificationStrategies.get("sMSNotificationStrategy");
                     if (smsStrategy != null) {
@@ -150,6 +171,21 @@ public class NotificationService {
         }
     }
     
+    /**
+     * Hand the notification to the push relay once the surrounding transaction commits,
+     * so subscribers never see a notification that was rolled back
+     */
+    private void publishAfterCommit(Notification notification) {
+        NotificationEventDTO event = new NotificationEventDTO(notification);
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                notificationRelay.publish(event);
+            } catch (Exception e) {
+                logger.warn("Failed to push notification {}: {}", event.getNotificationId(), e.getMessage());
+            }
+        });
+    }
+    
     /**
      * Mark notification as read
      */
@@ -282,9 +318,8 @@ public class NotificationService {
      * Delete old notifications (cleanup)
      */
     public void deleteOldNotifications(LocalDateTime beforeDate) {
-        List<Notification> oldNotifications = notificationRepository.findNotificationsSince(beforeDate);
-        notificationRepository.deleteAll(oldNotifications);
-        logger.info("Deleted {} old notifications", oldNotifications.size());
+        NotificationCleanupService.RetentionRunStats stats = notificationCleanupService.purgeNotificationsBefore(beforeDate);
+        logger.info("Deleted {} old notifications", stats.getDeletedCount());
     }
     
     /**
@@ -335,16 +370,59 @@ public class NotificationService {
     /**
      * Search notifications by content
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Notification> searchNotificationsForUser(Long userId, String searchTerm) {
-        try {
-            return notificationRepository.findByRecipientUserUserIdOrderByCreatedAtDesc(userId)
-                    .stream()
-                    .filter(n -> n.getMessageContent().toLowerCase().contains(searchTerm.toLowerCase()))
-                    .toList();
-        } catch (Exception e) {
-            logger.error("Error searching notifications for user {}: {}", userId, e.getMessage());
-            return new java.util.ArrayList<>();
+        return searchNotificationsForUser(userId, searchTerm, null, 0, searchMaxResults).getContent();
+    }
+    
+    /**
+     * Ranked, paged search over the user's notifications using the full-text index.
+     * Terms shorter than the index's minimum token size, or a database without the index,
+     * fall back to a substring match that is still scoped to the recipient.
+     * Runs outside the class transaction so a failed full-text query does not mark it rollback-only.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<Notification> searchNotificationsForUser(Long userId, String searchTerm, Notification.AlertType alertType,
+                                                         int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), searchMaxResults));
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return Page.empty(pageable);
+        }
+        
+        String booleanQuery = toBooleanModeQuery(searchTerm);
+        if (booleanQuery != null) {
+            try {
+                return notificationRepository.searchFullText(userId, booleanQuery,
+                        alertType != null ? alertType.name() : null, pageable);
+            } catch (DataAccessException e) {
+                logger.debug("Full-text search unavailable, using substring match: {}", e.getMessage());
+            }
+        }
+        return notificationRepository.searchBySubstring(userId, searchTerm.trim(), alertType, pageable);
+    }
+    
+    /**
+     * Turn free text into a MySQL boolean-mode query requiring every term as a prefix.
+     * Operator characters are dropped; returns null when no term is long enough to be indexed.
+     */
+    static String toBooleanModeQuery(String searchTerm) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : searchTerm.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= FULLTEXT_MIN_TOKEN_SIZE && terms.size() < FULLTEXT_MAX_TERMS) {
+                terms.add(token);
+            }
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append('+').append(term).append('*');
         }
+        return query.toString();
     }
     
 }
@@ -0,0 +1,190 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.util.MessageTemplate;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Notification and email text, kept in notification-templates/messages[_locale].properties.
+ *
+ * Every template is compiled once at startup, so a malformed template fails the boot rather than a send.
+ * For each locale actually requested, the default bundle, the language bundle and the language_country
+ * bundle are merged once into a single map, so looking up a template is a single hash lookup with no
+ * fallback walk and no key building. Alert-type specific variants ("key.ALERT_TYPE") override the
+ * generic key where present.
+ */
+@Service
+public class NotificationTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplateService.class);
+
+    private static final String TEMPLATE_LOCATION = "classpath*:notification-templates/messages*.properties";
+    private static final String BASE_NAME = "messages";
+
+    @Value("${app.notification.templates.default-locale:en}")
+    private String defaultLocaleTag;
+
+    // Compiled templates per bundle; the default bundle is keyed by Locale.ROOT
+    private Map<Locale, Map<String, MessageTemplate>> bundles = Map.of();
+
+    // Merged view per requested locale
+    private final Map<Locale, Map<String, MessageTemplate>> resolved = new ConcurrentHashMap<>();
+
+    // "key.ALERT_TYPE" names, built once per key
+    private final Map<String, Map<Notification.AlertType, String>> alertTypeKeys = new ConcurrentHashMap<>();
+
+    private Locale defaultLocale;
+
+    @PostConstruct
+    public void load() {
+        defaultLocale = Locale.forLanguageTag(defaultLocaleTag);
+        Map<Locale, Map<String, MessageTemplate>> loaded = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION)) {
+                Locale locale = bundleLocale(resource.getFilename());
+                if (locale != null) {
+                    loaded.computeIfAbsent(locale, l -> new HashMap<>()).putAll(compileAll(resource));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load notification templates", e);
+        }
+        if (!loaded.containsKey(Locale.ROOT)) {
+            throw new IllegalStateException("Default notification template bundle not found at " + TEMPLATE_LOCATION);
+        }
+        bundles = loaded;
+        resolved.clear();
+        logger.info("Loaded notification templates for {} locale bundles", loaded.size());
+    }
+
+    /**
+     * Render a plain-text template in the recipient's locale
+     */
+    public String render(String key, User recipient, Map<String, ?> values) {
+        return getTemplate(key, localeFor(recipient)).render(values);
+    }
+
+    public String render(String key, Locale locale, Map<String, ?> values) {
+        return getTemplate(key, locale).render(values);
+    }
+
+    /**
+     * Render the alert-type specific variant of a template if one exists, else the generic one
+     */
+    public String render(String key, Notification.AlertType alertType, User recipient, Map<String, ?> values) {
+        return getTemplate(key, alertType, localeFor(recipient)).render(values);
+    }
+
+    public String renderHtml(String key, Notification.AlertType alertType, User recipient, Map<String, ?> values) {
+        return getTemplate(key, alertType, localeFor(recipient)).renderHtml(values);
+    }
+
+    public boolean hasTemplate(String key, Locale locale) {
+        return templatesFor(locale).containsKey(key);
+    }
+
+    public MessageTemplate getTemplate(String key, Locale locale) {
+        MessageTemplate template = templatesFor(locale).get(key);
+        if (template == null) {
+            throw new IllegalArgumentException("No notification template named " + key);
+        }
+        return template;
+    }
+
+    public MessageTemplate getTemplate(String key, Notification.AlertType alertType, Locale locale) {
+        Map<String, MessageTemplate> templates = templatesFor(locale);
+        String typedKey = alertTypeKeys.computeIfAbsent(key, NotificationTemplateService::buildAlertTypeKeys).get(alertType);
+        MessageTemplate template = templates.get(typedKey);
+        return template != null ? template : getTemplate(key, locale);
+    }
+
+    /**
+     * The recipient's preferred locale, or the configured default
+     */
+    public Locale localeFor(User recipient) {
+        if (recipient == null || recipient.getPreferredLocale() == null || recipient.getPreferredLocale().isBlank()) {
+            return defaultLocale;
+        }
+        return Locale.forLanguageTag(recipient.getPreferredLocale().replace('_', '-'));
+    }
+
+    private Map<String, MessageTemplate> templatesFor(Locale locale) {
+        Locale key = locale != null ? locale : defaultLocale;
+        Map<String, MessageTemplate> templates = resolved.get(key);
+        return templates != null ? templates : resolved.computeIfAbsent(key, this::merge);
+    }
+
+    /**
+     * Overlay default, language and language_country bundles, most specific last
+     */
+    private Map<String, MessageTemplate> merge(Locale locale) {
+        Map<String, MessageTemplate> merged = new HashMap<>(bundles.get(Locale.ROOT));
+        if (!locale.getLanguage().isEmpty()) {
+            merged.putAll(bundles.getOrDefault(new Locale(locale.getLanguage()), Map.of()));
+            if (!locale.getCountry().isEmpty()) {
+                merged.putAll(bundles.getOrDefault(new Locale(locale.getLanguage(), locale.getCountry()), Map.of()));
+            }
+        }
+        return Map.copyOf(merged);
+    }
+
+    private static Map<String, MessageTemplate> compileAll(Resource resource) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                templates.put(key, MessageTemplate.compile(properties.getProperty(key)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid notification template " + key + " in " + resource.getFilename(), e);
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * messages.properties is the default bundle, messages_fr.properties French, messages_fr_CA.properties French (Canada)
+     */
+    static Locale bundleLocale(String filename) {
+        if (filename == null || !filename.startsWith(BASE_NAME) || !filename.endsWith(".properties")) {
+            return null;
+        }
+        String suffix = filename.substring(BASE_NAME.length(), filename.length() - ".properties".length());
+        if (suffix.isEmpty()) {
+            return Locale.ROOT;
+        }
+        if (suffix.charAt(0) != '_') {
+            return null;
+        }
+        return Locale.forLanguageTag(suffix.substring(1).replace('_', '-'));
+    }
+
+    private static Map<Notification.AlertType, String> buildAlertTypeKeys(String key) {
+        Map<Notification.AlertType, String> keys = new EnumMap<>(Notification.AlertType.class);
+        for (Notification.AlertType type : Notification.AlertType.values()) {
+            keys.put(type, key + "." + type.name());
+        }
+        return keys;
+    }
+}
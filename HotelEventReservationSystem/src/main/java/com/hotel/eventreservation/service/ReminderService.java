@@ -0,0 +1,248 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingSlotDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.ReminderLogRepository;
+import com.hotel.eventreservation.util.HierarchicalTimerWheel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends EVENT_REMINDER before confirmed events and PAYMENT_REMINDER for bookings still pending some time
+ * after creation.
+ *
+ * Reminders are held in a hierarchical timer wheel. Only reminders due before a moving horizon are loaded:
+ * each load reads the bookings whose reminder falls between the previous horizon and the new one, so the
+ * database is never scanned in full and memory holds only the next few hours of reminders. Bookings created
+ * or changed inside the loaded window are added through {@link BookingChangeListener}.
+ *
+ * When a reminder fires the booking is re-read and skipped if it no longer qualifies. Sending is claimed in
+ * the reminder_log table first, whose unique key makes each reminder go out once across restarts and nodes.
+ */
+@Service
+public class ReminderService implements BookingChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReminderLogRepository reminderLogRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reminder.enabled:true}")
+    private boolean remindersEnabled;
+
+    @Value("${app.reminder.event-hours-before:24}")
+    private long eventHoursBefore;
+
+    @Value("${app.reminder.payment-hours-after-creation:12}")
+    private long paymentHoursAfterCreation;
+
+    @Value("${app.reminder.horizon-minutes:360}")
+    private long horizonMinutes;
+
+    @Value("${app.reminder.catch-up-hours:6}")
+    private long catchUpHours;
+
+    @Value("${app.reminder.tick-seconds:60}")
+    private long tickSeconds;
+
+    private HierarchicalTimerWheel<ScheduledReminder> timerWheel;
+    private TransactionTemplate transactionTemplate;
+
+    // Reminders currently in the wheel; stops the overlapping day-granular loads from scheduling twice
+    private final Set<ScheduledReminder> scheduled = ConcurrentHashMap.newKeySet();
+
+    private volatile LocalDateTime loadedUntil;
+
+    @PostConstruct
+    public void init() {
+        timerWheel = new HierarchicalTimerWheel<>(tickSeconds * 1000L, 4, System.currentTimeMillis());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Extend the loaded window up to now + horizon. The first load after startup also picks up reminders
+     * that came due while the application was down, within the catch-up period.
+     */
+    @Scheduled(fixedDelayString = "${app.reminder.load-interval-ms:300000}", initialDelayString = "${app.reminder.initial-delay-ms:15000}")
+    public void loadUpcoming() {
+        if (!remindersEnabled) {
+            return;
+        }
+        try {
+            LocalDateTime from = loadedUntil != null ? loadedUntil : LocalDateTime.now().minusHours(catchUpHours);
+            LocalDateTime to = LocalDateTime.now().plusMinutes(horizonMinutes);
+            if (!to.isAfter(from)) {
+                return;
+            }
+            int added = loadWindow(from, to);
+            loadedUntil = to;
+            logger.debug("Reminder window extended to {} ({} new reminders, {} in wheel)", to, added, timerWheel.size());
+        } catch (Exception e) {
+            logger.error("Error loading upcoming reminders", e);
+        }
+    }
+
+    int loadWindow(LocalDateTime from, LocalDateTime to) {
+        int added = 0;
+
+        // Event reminders fire eventHoursBefore ahead of the event start
+        LocalDateTime eventFrom = from.plusHours(eventHoursBefore);
+        LocalDateTime eventTo = to.plusHours(eventHoursBefore);
+        for (BookingSlotDTO slot : bookingRepository.findSlotsByStatusAndEventDateBetween(
+                Booking.BookingStatus.CONFIRMED, eventFrom.toLocalDate(), eventTo.toLocalDate())) {
+            if (scheduleIfInWindow(eventReminder(slot), from, to)) {
+                added++;
+            }
+        }
+
+        // Payment reminders fire paymentHoursAfterCreation after a booking was created
+        for (BookingSlotDTO slot : bookingRepository.findSlotsByStatusAndCreatedAtBetween(
+                Booking.BookingStatus.PENDING, from.minusHours(paymentHoursAfterCreation), to.minusHours(paymentHoursAfterCreation))) {
+            if (scheduleIfInWindow(paymentReminder(slot), from, to)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Schedule reminders for bookings created or changed inside the already-loaded window;
+     * later reminders are picked up by the loader when the horizon reaches them
+     */
+    @Override
+    public void onBookingChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        LocalDateTime windowEnd = loadedUntil;
+        if (!remindersEnabled || windowEnd == null || booking.getBookingId() == null) {
+            return;
+        }
+        BookingSlotDTO slot = new BookingSlotDTO(booking);
+        LocalDateTime windowStart = LocalDateTime.now().minusHours(catchUpHours);
+        if (slot.getBookingStatus() == Booking.BookingStatus.CONFIRMED) {
+            scheduleIfInWindow(eventReminder(slot), windowStart, windowEnd);
+        } else if (slot.getBookingStatus() == Booking.BookingStatus.PENDING) {
+            scheduleIfInWindow(paymentReminder(slot), windowStart, windowEnd);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminder.tick-interval-ms:15000}")
+    public void tick() {
+        if (!remindersEnabled || timerWheel == null) {
+            return;
+        }
+        for (ScheduledReminder reminder : timerWheel.advance(System.currentTimeMillis())) {
+            scheduled.remove(reminder);
+            try {
+                fire(reminder);
+            } catch (Exception e) {
+                logger.error("Error sending {} for booking {}", reminder.type(), reminder.bookingId(), e);
+            }
+        }
+    }
+
+    public int getScheduledCount() {
+        return timerWheel.size();
+    }
+
+    public LocalDateTime getLoadedUntil() {
+        return loadedUntil;
+    }
+
+    private boolean scheduleIfInWindow(ScheduledReminder reminder, LocalDateTime from, LocalDateTime to) {
+        if (reminder.dueAt().isBefore(from) || reminder.dueAt().isAfter(to) || !scheduled.add(reminder)) {
+            return false;
+        }
+        timerWheel.schedule(reminder, reminder.dueAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return true;
+    }
+
+    private void fire(ScheduledReminder reminder) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<Booking> bookingOpt = bookingRepository.findById(reminder.bookingId());
+            if (bookingOpt.isEmpty() || !stillDue(reminder, new BookingSlotDTO(bookingOpt.get()))) {
+                return;
+            }
+            if (reminderLogRepository.claim(reminder.bookingId(), reminder.type().name(), LocalDateTime.now()) == 0) {
+                logger.debug("{} for booking {} already sent", reminder.type(), reminder.bookingId());
+                return;
+            }
+            Booking booking = bookingOpt.get();
+            notificationService.sendNotification(booking.getGuest(), buildMessage(reminder.type(), booking), reminder.type());
+            logger.info("{} sent for booking {}", reminder.type(), booking.getReferenceCode());
+        });
+    }
+
+    /**
+     * A reminder is stale when the booking changed status or was moved after it was scheduled
+     */
+    private boolean stillDue(ScheduledReminder reminder, BookingSlotDTO current) {
+        ScheduledReminder expected;
+        if (reminder.type() == Notification.AlertType.EVENT_REMINDER) {
+            if (current.getBookingStatus() != Booking.BookingStatus.CONFIRMED) {
+                return false;
+            }
+            expected = eventReminder(current);
+        } else {
+            if (current.getBookingStatus() != Booking.BookingStatus.PENDING) {
+                return false;
+            }
+            expected = paymentReminder(current);
+        }
+        return expected.equals(reminder);
+    }
+
+    private ScheduledReminder eventReminder(BookingSlotDTO slot) {
+        return new ScheduledReminder(slot.getBookingId(), Notification.AlertType.EVENT_REMINDER,
+                slot.getEventStart().minusHours(eventHoursBefore));
+    }
+
+    private ScheduledReminder paymentReminder(BookingSlotDTO slot) {
+        return new ScheduledReminder(slot.getBookingId(), Notification.AlertType.PAYMENT_REMINDER,
+                slot.getCreatedAt().plusHours(paymentHoursAfterCreation));
+    }
+
+    private String buildMessage(Notification.AlertType type, Booking booking) {
+        if (type == Notification.AlertType.EVENT_REMINDER) {
+            return notificationTemplateService.render("reminder.event", booking.getGuest(), Map.of(
+                    "eventType", booking.getEventType(),
+                    "reference", booking.getReferenceCode(),
+                    "eventDate", booking.getEventDate(),
+                    "startTime", booking.getStartTime()));
+        }
+        return notificationTemplateService.render("reminder.payment", booking.getGuest(),
+                Map.of("reference", booking.getReferenceCode()));
+    }
+
+    record ScheduledReminder(Long bookingId, Notification.AlertType type, LocalDateTime dueAt) {
+    }
+}
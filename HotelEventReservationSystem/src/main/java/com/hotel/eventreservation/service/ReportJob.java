@@ -0,0 +1,174 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.strategy.ExportCompression;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A report export queued on ReportJobService, and where its artifact ends up.
+ * State changes happen on the worker thread; readers see them through the volatile fields.
+ */
+public class ReportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    /**
+     * What to export. A null report type means the PDF bundle of every report.
+     * Equal requests share one job while it is queued or running, so filters that a report type
+     * ignores are dropped here.
+     */
+    public record Request(String format, ReportService.ReportType reportType, LocalDate startDate, LocalDate endDate,
+                          String eventType, Booking.BookingStatus status, ReportService.ReportPeriod period,
+                          ExportCompression compression) {
+
+        public Request {
+            if (format == null || format.isBlank()) {
+                throw new IllegalArgumentException("Export format is required");
+            }
+            format = format.trim().toUpperCase();
+            if (reportType != ReportService.ReportType.BOOKING_ANALYTICS) {
+                eventType = null;
+                status = null;
+            }
+            if (eventType != null && eventType.isBlank()) {
+                eventType = null;
+            }
+            if (reportType == null || !reportType.isGroupedByPeriod()) {
+                period = null;
+            } else if (period == null) {
+                period = ReportService.ReportPeriod.MONTH;
+            }
+            if (compression == null) {
+                compression = ExportCompression.NONE;
+            }
+        }
+
+        public static Request bundle(LocalDate startDate, LocalDate endDate) {
+            return new Request("PDF", null, startDate, endDate, null, null, null, ExportCompression.NONE);
+        }
+
+        public boolean isBundle() {
+            return reportType == null;
+        }
+
+        public String getLabel() {
+            return isBundle() ? "All reports" : reportType.getLabel();
+        }
+    }
+
+    private final String jobId;
+    private final Request request;
+    private final Long requestedBy;
+    private final String filename;
+    private final String mimeType;
+    private final LocalDateTime submittedAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Path artifact;
+    private volatile long artifactSize;
+    private volatile String errorMessage;
+
+    // Called once the job has finished, on the worker thread
+    private final List<Consumer<ReportJob>> finishListeners = new CopyOnWriteArrayList<>();
+
+    ReportJob(String jobId, Request request, Long requestedBy, String filename, String mimeType) {
+        this.jobId = jobId;
+        this.request = request;
+        this.requestedBy = requestedBy;
+        this.filename = filename;
+        this.mimeType = mimeType;
+        this.submittedAt = LocalDateTime.now();
+    }
+
+    void markRunning() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void markCompleted(Path artifact, long artifactSize) {
+        this.artifact = artifact;
+        this.artifactSize = artifactSize;
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void markFailed(String errorMessage) {
+        this.errorMessage = errorMessage;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    void whenFinished(Consumer<ReportJob> listener) {
+        finishListeners.add(listener);
+    }
+
+    List<Consumer<ReportJob>> getFinishListeners() {
+        return finishListeners;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public Request getRequest() {
+        return request;
+    }
+
+    public Long getRequestedBy() {
+        return requestedBy;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status.isFinished();
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Path getArtifact() {
+        return artifact;
+    }
+
+    public long getArtifactSize() {
+        return artifactSize;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,274 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.strategy.ReportExportStrategy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs report exports in the background instead of inside the HTTP request.
+ *
+ * Jobs run on a fixed pool of workers with a bounded queue; when the queue is full a submission is refused
+ * rather than piling up. Identical requests submitted while one is queued or running share that job.
+ * Each artifact is written to a ".part" file in the artifact directory and moved into place when complete,
+ * so a download never sees a half-written file. Finished jobs and their files are kept for the retention
+ * period, then purged. Jobs are held in memory; artifacts left by a previous run are removed on startup.
+ * On shutdown running jobs are interrupted and given shutdown-timeout-seconds to stop and delete their
+ * partial files.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    static final String ARTIFACT_PREFIX = "report-";
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Value("${app.report.jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.report.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.report.jobs.directory:./report-artifacts}")
+    private String artifactDirectory;
+
+    @Value("${app.report.jobs.retention-minutes:1440}")
+    private long retentionMinutes;
+
+    @Value("${app.report.jobs.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    // Queued and running jobs by request, for deduplication
+    private final Map<ReportJob.Request, ReportJob> activeJobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private Path directory;
+
+    @PostConstruct
+    public void start() {
+        directory = Paths.get(artifactDirectory).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(directory);
+            removeLeftoverArtifacts();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare report artifact directory " + directory, e);
+        }
+        executor = new ThreadPoolExecutor(Math.max(1, workers), Math.max(1, workers), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("Report jobs still running {} s after shutdown was requested", shutdownTimeoutSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Jobs that ignored the interrupt are still writing; startup removes whatever they leave behind
+        for (ReportJob job : jobs.values()) {
+            if (!job.isFinished()) {
+                deleteQuietly(partialFile(job));
+            }
+        }
+    }
+
+    /**
+     * Queue an export, or return the queued or running job for an identical request.
+     * Throws IllegalArgumentException for an unknown format and IllegalStateException when the queue is full.
+     */
+    public ReportJob submit(ReportJob.Request request, Long requestedBy) {
+        return submit(request, requestedBy, null);
+    }
+
+    /**
+     * Queue an export as above; whenFinished is called on the worker thread once the job has completed or
+     * failed, including when the request joined a job that was already queued or running
+     */
+    public ReportJob submit(ReportJob.Request request, Long requestedBy, Consumer<ReportJob> whenFinished) {
+        String filename;
+        String mimeType;
+        if (request.isBundle()) {
+            filename = "marketing_reports.pdf";
+            mimeType = "application/pdf";
+        } else {
+            ReportExportStrategy strategy = reportService.getExportStrategy(request.format());
+            filename = request.reportType().getFilename() + strategy.getFileExtension()
+                     + request.compression().getFileSuffix();
+            mimeType = request.compression().getMimeType(strategy.getMimeType());
+        }
+
+        return activeJobs.compute(request, (key, existing) -> {
+            if (existing != null) {
+                logger.debug("Report request {} joined job {}", key, existing.getJobId());
+                // Still under the map's lock, so the job cannot finish before the listener is in place
+                if (whenFinished != null) {
+                    existing.whenFinished(whenFinished);
+                }
+                return existing;
+            }
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, requestedBy, filename, mimeType);
+            if (whenFinished != null) {
+                job.whenFinished(whenFinished);
+            }
+            jobs.put(job.getJobId(), job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getJobId());
+                throw new IllegalStateException("Too many reports are being prepared, please try again shortly", e);
+            }
+            logger.info("Queued report job {} for {} as {}", job.getJobId(), key.getLabel(), key.format());
+            return job;
+        });
+    }
+
+    public Optional<ReportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Every job still held, newest first
+     */
+    public List<ReportJob> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ReportJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * When a finished job and its artifact are purged, or null while it is still running
+     */
+    public LocalDateTime getExpiresAt(ReportJob job) {
+        return job.getFinishedAt() != null ? job.getFinishedAt().plusMinutes(retentionMinutes) : null;
+    }
+
+    /**
+     * Drop finished jobs older than the retention period, with their artifacts
+     */
+    @Scheduled(fixedDelayString = "${app.report.jobs.cleanup-interval-ms:600000}")
+    public int purgeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int purged = 0;
+        for (ReportJob job : jobs.values()) {
+            if (job.isFinished() && job.getFinishedAt().isBefore(cutoff)) {
+                jobs.remove(job.getJobId());
+                deleteQuietly(job.getArtifact());
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            logger.info("Purged {} expired report jobs", purged);
+        }
+        return purged;
+    }
+
+    void run(ReportJob job) {
+        ReportJob.Request request = job.getRequest();
+        Path partial = partialFile(job);
+        job.markRunning();
+        long started = System.currentTimeMillis();
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), WRITE_BUFFER_SIZE)) {
+                if (request.isBundle()) {
+                    reportService.exportReportBundle(request.startDate(), request.endDate(), out);
+                } else {
+                    reportService.exportReport(request.format(), request.reportType(), request.startDate(),
+                            request.endDate(), request.eventType(), request.status(), request.period(),
+                            request.compression(), out);
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down: the export may have stopped early without saying so
+                throw new InterruptedException("Report job was interrupted");
+            }
+            Path artifact = directory.resolve(ARTIFACT_PREFIX + job.getJobId() + "-" + job.getFilename());
+            Files.move(partial, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.markCompleted(artifact, Files.size(artifact));
+            logger.info("Report job {} completed: {} bytes in {} ms", job.getJobId(), job.getArtifactSize(),
+                        System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Report job {} failed for {} as {}", job.getJobId(), request.getLabel(), request.format(), e);
+            deleteQuietly(partial);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            activeJobs.remove(request, job);
+        }
+        for (Consumer<ReportJob> listener : job.getFinishListeners()) {
+            try {
+                listener.accept(job);
+            } catch (RuntimeException e) {
+                logger.warn("Report job {} finish listener failed: {}", job.getJobId(), e.getMessage());
+            }
+        }
+    }
+
+    private Path partialFile(ReportJob job) {
+        return directory.resolve(ARTIFACT_PREFIX + job.getJobId() + PARTIAL_SUFFIX);
+    }
+
+    /**
+     * Jobs are not kept across restarts, so any artifact already in the directory is unreachable
+     */
+    private void removeLeftoverArtifacts() throws IOException {
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, ARTIFACT_PREFIX + "*")) {
+            for (Path leftover : leftovers) {
+                deleteQuietly(leftover);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete report artifact {}: {}", file, e.getMessage());
+        }
+    }
+}
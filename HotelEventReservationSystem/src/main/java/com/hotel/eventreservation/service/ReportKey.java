@@ -0,0 +1,41 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Booking;
+
+import java.time.LocalDate;
+
+/**
+ * A report and the parameters it is computed from. Parameters a report type ignores are dropped and
+ * the rest normalised, so requests that produce the same rows are equal keys.
+ */
+public record ReportKey(ReportService.ReportType reportType, LocalDate startDate, LocalDate endDate,
+                        String eventType, Booking.BookingStatus status, ReportService.ReportPeriod period) {
+
+    public ReportKey {
+        if (reportType == null || startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Report type and date range are required");
+        }
+        if (reportType == ReportService.ReportType.BOOKING_ANALYTICS) {
+            eventType = eventType != null && !eventType.isBlank() ? eventType.trim() : null;
+        } else {
+            eventType = null;
+            status = null;
+        }
+        if (!reportType.isGroupedByPeriod()) {
+            period = null;
+        } else if (period == null) {
+            period = ReportService.ReportPeriod.MONTH;
+        }
+    }
+
+    public static ReportKey of(ReportService.ReportType reportType, LocalDate startDate, LocalDate endDate) {
+        return new ReportKey(reportType, startDate, endDate, null, null, null);
+    }
+
+    /**
+     * Whether a booking on this date can appear in the report's rows
+     */
+    public boolean covers(LocalDate eventDate) {
+        return eventDate != null && !eventDate.isBefore(startDate) && !eventDate.isAfter(endDate);
+    }
+}
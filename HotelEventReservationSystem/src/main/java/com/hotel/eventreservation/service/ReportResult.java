@@ -0,0 +1,33 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.strategy.ReportSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The computed rows of one report, copied out of the entities or projections they were read from so they
+ * can be kept after the persistence context is gone. Views and exports both render from these rows.
+ */
+public record ReportResult(ReportSchema<Object[]> schema, List<Object[]> rows) {
+
+    public static <T> ReportResult of(ReportSchema<T> schema, List<? extends T> source) {
+        List<Object[]> rows = new ArrayList<>(source.size());
+        for (T row : source) {
+            rows.add(schema.toArray(row));
+        }
+        return new ReportResult(schema.forCopiedRows(), List.copyOf(rows));
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Rows as column-ordered maps, for templates that render reports generically
+     */
+    public List<Map<String, Object>> toMaps() {
+        return rows.stream().map(schema::toMap).toList();
+    }
+}
@@ -0,0 +1,187 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Computed report rows by report key, so a report viewed and then exported is computed once.
+ *
+ * When a booking changes, entries whose date range covers its event date (before or after the change)
+ * are dropped once the transaction commits; other entries are kept. A result computed while an
+ * invalidation happened is returned but not stored, since it may have read the old data.
+ * The cache is bounded by entry count (least recently used go first) and by age, and results with
+ * more rows than max-rows are never stored.
+ *
+ * Ordered first among booking listeners: the booking's reported state still holds the event date it was
+ * loaded with until the rollup listener moves it on.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReportResultCache implements BookingChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportResultCache.class);
+
+    @Value("${app.report.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.report.cache.max-entries:200}")
+    private int maxEntries;
+
+    @Value("${app.report.cache.max-rows:20000}")
+    private int maxRows;
+
+    @Value("${app.report.cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    private record Entry(ReportResult result, long createdAt) {
+    }
+
+    // Access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<ReportKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ReportKey, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The cached result for the key, or the loader's result, stored for the next caller
+     */
+    public ReportResult get(ReportKey key, Supplier<ReportResult> loader) {
+        Optional<ReportResult> cached = getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long loadedAt = generation.get();
+        ReportResult result = loader.get();
+        if (enabled) {
+            put(key, result, loadedAt);
+        }
+        return result;
+    }
+
+    public Optional<ReportResult> getIfPresent(ReportKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                hits.incrementAndGet();
+                return Optional.of(entry.result());
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    @Override
+    public void onBookingChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        Set<LocalDate> eventDates = new HashSet<>();
+        eventDates.add(booking.getEventDate());
+        Booking.ReportedState reported = booking.getReportedState();
+        if (reported != null) {
+            eventDates.add(reported.eventDate());
+        }
+        // A changed booking that was not loaded in this transaction may have moved from an unknown date
+        boolean allDates = previousStatus != null && reported == null;
+        TransactionCallbacks.afterCommit(() -> {
+            if (allDates) {
+                clear();
+            } else {
+                invalidate(eventDates);
+            }
+        });
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        Set<LocalDate> eventDates = new HashSet<>();
+        eventDates.add(booking.getEventDate());
+        if (booking.getReportedState() != null) {
+            eventDates.add(booking.getReportedState().eventDate());
+        }
+        TransactionCallbacks.afterCommit(() -> invalidate(eventDates));
+    }
+
+    /**
+     * Drop every entry whose date range covers one of the dates
+     */
+    public void invalidate(Set<LocalDate> eventDates) {
+        generation.incrementAndGet();
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<ReportKey> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                ReportKey key = keys.next();
+                if (eventDates.stream().anyMatch(key::covers)) {
+                    keys.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            logger.debug("Dropped {} cached reports covering {}", removed, eventDates);
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private void put(ReportKey key, ReportResult result, long loadedAt) {
+        if (result.size() > maxRows) {
+            return;
+        }
+        synchronized (entries) {
+            // Checked under the lock that invalidation also takes, so a stale result cannot slip in after it
+            if (generation.get() == loadedAt) {
+                entries.put(key, new Entry(result, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.createdAt() > ttlMinutes * 60_000;
+    }
+}
@@ -0,0 +1,254 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.ReportSchedule;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.ReportScheduleRepository;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs report exports on cron schedules, so recurring reports are prepared off-peak instead of on demand.
+ *
+ * A due schedule is submitted to ReportJobService like any background export, and the artifact lands in
+ * the same report store; when the job finishes, the owner and the schedule's recipient role are notified
+ * with a link to the file and the time it is purged. The file lives in the memory and artifact directory of
+ * the node that ran the job. Each run covers the lookbackDays days before the day it was scheduled for.
+ * A node claims a due run by moving its next run time with a conditional update, so each run starts once
+ * however many nodes poll.
+ *
+ * Schedules are staggered: a run is placed at its cron time or the first later slot (stagger-spacing-seconds
+ * apart, within stagger-window-minutes) that no other schedule has taken, so a dozen "every Monday at 5"
+ * schedules start minutes apart rather than filling the job queue at once. When the job queue is full
+ * the schedule stays due and is retried on the next poll.
+ */
+@Service
+public class ReportScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportScheduleService.class);
+
+    /**
+     * Roles that can open the download link; SecurityConfig limits /marketing/** to marketing executives
+     */
+    public static final List<String> RECIPIENT_ROLES = List.of("MARKETING_EXECUTIVE");
+
+    private static final DateTimeFormatter EXPIRY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Autowired
+    private ReportScheduleRepository reportScheduleRepository;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
+
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+
+    @Value("${app.report.schedules.enabled:true}")
+    private boolean schedulesEnabled;
+
+    @Value("${app.report.schedules.stagger-spacing-seconds:300}")
+    private long staggerSpacingSeconds;
+
+    @Value("${app.report.schedules.stagger-window-minutes:120}")
+    private long staggerWindowMinutes;
+
+    @Value("${app.report.schedules.max-lookback-days:366}")
+    private int maxLookbackDays;
+
+    /**
+     * Create a schedule and plan its first run. Throws IllegalArgumentException for an invalid cron
+     * expression, report type, format, lookback or recipient role.
+     */
+    @Transactional
+    public ReportSchedule createSchedule(String name, String reportTypeLabel, String format, String period,
+                                         String cronExpression, int lookbackDays, String recipientRole, User owner) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Schedule name is required");
+        }
+        if (cronExpression == null || !CronExpression.isValidExpression(cronExpression.trim())) {
+            throw new IllegalArgumentException("Invalid cron expression: " + cronExpression);
+        }
+        if (lookbackDays < 1 || lookbackDays > maxLookbackDays) {
+            throw new IllegalArgumentException("Lookback must be between 1 and " + maxLookbackDays + " days");
+        }
+        String role = recipientRole != null && !recipientRole.isBlank() ? recipientRole.trim() : null;
+        if (role != null && !RECIPIENT_ROLES.contains(role)) {
+            throw new IllegalArgumentException("Report downloads are not open to role " + role);
+        }
+        ReportService.ReportType reportType = ReportService.ReportType.fromLabel(reportTypeLabel);
+        String exportFormat = reportService.getExportStrategy(format).getStrategyType();
+
+        ReportSchedule schedule = new ReportSchedule();
+        schedule.setName(name.trim());
+        schedule.setReportType(reportType.name());
+        schedule.setExportFormat(exportFormat);
+        schedule.setPeriod(reportType.isGroupedByPeriod()
+                ? ReportService.ReportPeriod.fromParameter(period, ReportService.ReportPeriod.WEEK).name() : null);
+        schedule.setCronExpression(cronExpression.trim());
+        schedule.setLookbackDays(lookbackDays);
+        schedule.setRecipientRole(role);
+        schedule.setOwner(owner);
+        schedule.setNextRunAt(planNextRun(schedule, LocalDateTime.now()));
+        ReportSchedule saved = reportScheduleRepository.save(schedule);
+        logger.info("Created report schedule {} '{}' ({}), first run at {}", saved.getScheduleId(), saved.getName(),
+                    saved.getCronExpression(), saved.getNextRunAt());
+        return saved;
+    }
+
+    public List<ReportSchedule> getSchedules() {
+        return reportScheduleRepository.findAllWithOwner();
+    }
+
+    @Transactional
+    public ReportSchedule setEnabled(Long scheduleId, boolean enabled) {
+        ReportSchedule schedule = reportScheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new IllegalArgumentException("Report schedule not found: " + scheduleId));
+        schedule.setEnabled(enabled);
+        // Re-planned on resume, so a paused schedule does not fire for the runs it missed
+        schedule.setNextRunAt(enabled ? planNextRun(schedule, LocalDateTime.now()) : null);
+        return reportScheduleRepository.save(schedule);
+    }
+
+    @Transactional
+    public void deleteSchedule(Long scheduleId) {
+        reportScheduleRepository.deleteById(scheduleId);
+    }
+
+    /**
+     * Submit every schedule that is due and plan its next run
+     */
+    @Scheduled(fixedDelayString = "${app.report.schedules.poll-interval-ms:60000}")
+    public int runDueSchedules() {
+        if (!schedulesEnabled) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int submitted = 0;
+        for (ReportSchedule schedule : reportScheduleRepository.findDue(now)) {
+            if (runSchedule(schedule, now)) {
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * The run time after a moment: the next cron time, moved to the first free stagger slot
+     */
+    LocalDateTime planNextRun(ReportSchedule schedule, LocalDateTime after) {
+        LocalDateTime cronTime = CronExpression.parse(schedule.getCronExpression()).next(after);
+        if (cronTime == null) {
+            return null;
+        }
+        Duration spacing = Duration.ofSeconds(Math.max(1, staggerSpacingSeconds));
+        int slots = (int) Math.max(1, Duration.ofMinutes(staggerWindowMinutes).dividedBy(spacing));
+        List<LocalDateTime> taken = reportScheduleRepository
+                .findPlannedBetween(cronTime.minus(spacing), cronTime.plus(spacing.multipliedBy(slots)))
+                .stream()
+                .filter(other -> !other.getScheduleId().equals(schedule.getScheduleId()))
+                .map(ReportSchedule::getNextRunAt)
+                .toList();
+        for (int slot = 0; slot < slots; slot++) {
+            LocalDateTime candidate = cronTime.plus(spacing.multipliedBy(slot));
+            boolean free = taken.stream().noneMatch(other -> Duration.between(other, candidate).abs().compareTo(spacing) < 0);
+            if (free) {
+                return candidate;
+            }
+        }
+        // Window full: spread the overflow by schedule id rather than piling onto one slot
+        long id = schedule.getScheduleId() != null ? schedule.getScheduleId() : 0;
+        return cronTime.plus(spacing.multipliedBy(Math.floorMod(id, slots)));
+    }
+
+    private boolean runSchedule(ReportSchedule schedule, LocalDateTime now) {
+        LocalDateTime dueAt = schedule.getNextRunAt();
+        LocalDateTime nextRunAt = planNextRun(schedule, now);
+        if (reportScheduleRepository.moveNextRun(schedule.getScheduleId(), dueAt, nextRunAt) == 0) {
+            logger.debug("Report schedule {} due at {} was claimed by another node", schedule.getScheduleId(), dueAt);
+            return false;
+        }
+        schedule.setNextRunAt(nextRunAt);
+        LocalDate runDate = dueAt.toLocalDate();
+        boolean submitted = false;
+        try {
+            ReportService.ReportType reportType = ReportService.ReportType.valueOf(schedule.getReportType());
+            ReportService.ReportPeriod period = schedule.getPeriod() != null
+                    ? ReportService.ReportPeriod.valueOf(schedule.getPeriod()) : null;
+            ReportJob.Request request = new ReportJob.Request(schedule.getExportFormat(), reportType,
+                    runDate.minusDays(schedule.getLookbackDays()), runDate.minusDays(1), null, null, period,
+                    ExportCompression.NONE);
+            String name = schedule.getName();
+            User owner = schedule.getOwner();
+            String recipientRole = schedule.getRecipientRole();
+            ReportJob job = reportJobService.submit(request, owner.getUserId(),
+                    finished -> notifyRecipients(name, owner, recipientRole, finished));
+            schedule.setLastRunAt(now);
+            schedule.setLastJobId(job.getJobId());
+            submitted = true;
+            logger.info("Report schedule {} '{}' submitted job {}", schedule.getScheduleId(), name, job.getJobId());
+        } catch (IllegalStateException e) {
+            // Job queue full: hand the run back so the schedule is due again on the next poll
+            reportScheduleRepository.moveNextRun(schedule.getScheduleId(), nextRunAt, dueAt);
+            schedule.setNextRunAt(dueAt);
+            logger.warn("Report schedule {} deferred: {}", schedule.getScheduleId(), e.getMessage());
+            return false;
+        } catch (IllegalArgumentException e) {
+            logger.error("Report schedule {} '{}' cannot run and was skipped: {}", schedule.getScheduleId(),
+                         schedule.getName(), e.getMessage());
+        }
+        reportScheduleRepository.save(schedule);
+        return submitted;
+    }
+
+    private void notifyRecipients(String scheduleName, User owner, String recipientRole, ReportJob job) {
+        Map<Long, User> recipients = new LinkedHashMap<>();
+        recipients.put(owner.getUserId(), owner);
+        // Schedules created before RECIPIENT_ROLES was enforced may name a role that cannot download
+        if (recipientRole != null && RECIPIENT_ROLES.contains(recipientRole)) {
+            for (User member : roleDirectoryService.getRecipientUsers(recipientRole)) {
+                recipients.putIfAbsent(member.getUserId(), member);
+            }
+        }
+        boolean completed = job.getStatus() == ReportJob.Status.COMPLETED;
+        String key = completed ? "report.scheduled.ready" : "report.scheduled.failed";
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("schedule", scheduleName);
+        values.put("report", job.getRequest().getLabel());
+        values.put("startDate", job.getRequest().startDate());
+        values.put("endDate", job.getRequest().endDate());
+        values.put("link", "/marketing/report-jobs/" + job.getJobId() + "/download");
+        LocalDateTime expiresAt = reportJobService.getExpiresAt(job);
+        values.put("expiresAt", expiresAt != null ? expiresAt.format(EXPIRY_FORMAT) : "");
+        values.put("error", job.getErrorMessage() != null ? job.getErrorMessage() : "");
+        for (User recipient : recipients.values()) {
+            String message = notificationTemplateService.render(key, recipient, values);
+            notificationService.sendNotification(recipient, message, Notification.AlertType.COORDINATION_ALERT);
+        }
+        logger.info("Report schedule '{}' job {} {}; notified {} recipients", scheduleName, job.getJobId(),
+                    completed ? "completed" : "failed", recipients.size());
+    }
+}
@@ -1,102 +1,254 @@
 package com.hotel.eventreservation.service;
 
+import com.hotel.eventreservation.dto.BookingKpiDTO;
+import com.hotel.eventreservation.dto.DailyBookingTotalsDTO;
+import com.hotel.eventreservation.dto.VenueUtilizationDTO;
 import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.repository.BookingDailyRollupRepository;
 import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import com.hotel.eventreservation.strategy.PDFExportStrategy;
 import com.hotel.eventreservation.strategy.ReportExportStrategy;
+import com.hotel.eventreservation.strategy.ReportSchema;
+import com.hotel.eventreservation.strategy.StreamingReportExportStrategy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
     
     private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
     
+    // Detach streamed bookings this often so the persistence context stays small during long exports
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+    
     @Autowired
     private BookingRepository bookingRepository;
     
+    // Daily totals per venue, event type and status; used by the aggregate reports once complete
+    @Autowired
+    private BookingDailyRollupRepository rollupRepository;
+    
+    @Autowired
+    private BookingRollupService bookingRollupService;
+    
+    @Autowired
+    private ReportResultCache reportResultCache;
+    
     @Autowired
     private Map<String, ReportExportStrategy> reportExportStrategies;
     
-    /**
-     * Generate booking analytics report
-     */
-    public List<Map<String, Object>> generateBookingAnalytics(LocalDate startDate, LocalDate endDate, 
-                                                             String eventType, Booking.BookingStatus status) {
-        List<Booking> bookings;
-        
-        if (eventType != null && status != null) {
-            bookings = bookingRepository.findByEventTypeAndStatus(eventType, status);
-        } else if (eventType != null) {
-            bookings = bookingRepository.findByEventTypeAndStatus(eventType, Booking.BookingStatus.CONFIRMED);
-        } else if (status != null) {
-            bookings = bookingRepository.findByBookingStatus(status);
-        } else {
-            bookings = bookingRepository.findByEventDateBetween(startDate, endDate);
-            
-            // If no bookings found in date range, try to get all bookings to show some data
-            if (bookings.isEmpty()) {
-                logger.info("No bookings found in date range {}-{}, trying to get all bookings", startDate, endDate);
-                bookings = bookingRepository.findAll();
-            }
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public enum ReportType {
+        BOOKING_ANALYTICS("Booking Analytics", "booking_analytics"),
+        VENUE_UTILIZATION("Venue Utilization", "venue_utilization"),
+        REVENUE_REPORT("Revenue Report", "revenue_report"),
+        EVENT_TYPE_TRENDS("Event Type Trends", "event_trends");
+        
+        private final String label;
+        private final String filename;
+        
+        ReportType(String label, String filename) {
+            this.label = label;
+            this.filename = filename;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+        
+        public String getFilename() {
+            return filename;
+        }
+        
+        public boolean isGroupedByPeriod() {
+            return this == REVENUE_REPORT || this == EVENT_TYPE_TRENDS;
         }
         
-        logger.info("Found {} bookings for analytics", bookings.size());
-        return convertBookingsToReportData(bookings);
+        public static ReportType fromLabel(String label) {
+            for (ReportType type : values()) {
+                if (type.label.equalsIgnoreCase(label)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown report type: " + label);
+        }
     }
     
     /**
-     * Generate venue utilization report
+     * Grouping for the time-based reports; each date maps to the first day of its period.
+     * Weeks start on Monday.
      */
-    public List<Map<String, Object>> generateVenueUtilizationReport(LocalDate startDate, LocalDate endDate) {
-        List<Booking> bookings = bookingRepository.findByEventDateBetween(startDate, endDate);
+    public enum ReportPeriod {
+        DAY, WEEK, MONTH;
         
-        // If no bookings found in date range, try to get all bookings
-        if (bookings.isEmpty()) {
-            logger.info("No bookings found in date range {}-{} for venue utilization, trying to get all bookings", startDate, endDate);
-            bookings = bookingRepository.findAll();
+        public LocalDate startOf(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
         }
         
-        logger.info("Found {} bookings for venue utilization", bookings.size());
-        return convertBookingsToVenueReportData(bookings);
+        /**
+         * Parse a request parameter; null or empty selects the given default
+         */
+        public static ReportPeriod fromParameter(String value, ReportPeriod defaultPeriod) {
+            if (value == null || value.isBlank()) {
+                return defaultPeriod;
+            }
+            return valueOf(value.trim().toUpperCase());
+        }
     }
     
     /**
-     * Generate revenue report
+     * Computed rows of a report, from the result cache when the same report was computed recently
+     */
+    public ReportResult getReport(ReportKey key) {
+        return reportResultCache.get(key, () -> computeReport(key));
+    }
+    
+    private ReportResult computeReport(ReportKey key) {
+        long started = System.currentTimeMillis();
+        ReportResult result = switch (key.reportType()) {
+            case BOOKING_ANALYTICS -> ReportResult.of(BOOKING_ANALYTICS_SCHEMA, bookingRepository.findForReport(
+                    key.startDate(), key.endDate(), key.eventType(), key.status()));
+            case VENUE_UTILIZATION -> ReportResult.of(VENUE_UTILIZATION_SCHEMA, findVenueUtilization(key));
+            case REVENUE_REPORT -> ReportResult.of(REVENUE_SCHEMA, findRevenueRows(key));
+            case EVENT_TYPE_TRENDS -> ReportResult.of(EVENT_TYPE_TRENDS_SCHEMA, findEventTypeTrendRows(key));
+        };
+        logger.info("Computed {} rows of {} in {} ms", result.size(), key.reportType().getLabel(),
+                    System.currentTimeMillis() - started);
+        return result;
+    }
+    
+    /**
+     * Generate booking analytics report: one row per booking in the date range, optionally filtered
+     */
+    public List<Map<String, Object>> generateBookingAnalytics(LocalDate startDate, LocalDate endDate, 
+                                                             String eventType, Booking.BookingStatus status) {
+        return getReport(new ReportKey(ReportType.BOOKING_ANALYTICS, startDate, endDate, eventType, status, null)).toMaps();
+    }
+    
+    /**
+     * Generate venue utilization report: one row per venue, aggregated in the database
+     */
+    public List<Map<String, Object>> generateVenueUtilizationReport(LocalDate startDate, LocalDate endDate) {
+        return getReport(ReportKey.of(ReportType.VENUE_UTILIZATION, startDate, endDate)).toMaps();
+    }
+    
+    private List<VenueUtilizationDTO> findVenueUtilization(ReportKey key) {
+        return bookingRollupService.isReady()
+                ? rollupRepository.findVenueUtilization(key.startDate(), key.endDate())
+                : bookingRepository.findVenueUtilization(key.startDate(), key.endDate());
+    }
+    
+    /**
+     * Generate revenue report grouped by month
      */
     public List<Map<String, Object>> generateRevenueReport(LocalDate startDate, LocalDate endDate) {
-        List<Booking> bookings = bookingRepository.findByEventDateBetween(startDate, endDate);
-        
-        // If no bookings found in date range, try to get all bookings
-        if (bookings.isEmpty()) {
-            logger.info("No bookings found in date range {}-{} for revenue report, trying to get all bookings", startDate, endDate);
-            bookings = bookingRepository.findAll();
+        return generateRevenueReport(startDate, endDate, ReportPeriod.MONTH);
+    }
+    
+    /**
+     * Generate revenue report: one row per period. Revenue excludes cancelled bookings.
+     */
+    public List<Map<String, Object>> generateRevenueReport(LocalDate startDate, LocalDate endDate, ReportPeriod period) {
+        return getReport(new ReportKey(ReportType.REVENUE_REPORT, startDate, endDate, null, null, period)).toMaps();
+    }
+    
+    private List<RevenueRow> findRevenueRows(ReportKey key) {
+        ReportPeriod period = key.period();
+        Map<LocalDate, PeriodTotals> totals = new TreeMap<>();
+        for (DailyBookingTotalsDTO day : findDailyTotals(key.startDate(), key.endDate())) {
+            totals.computeIfAbsent(period.startOf(day.eventDate()), periodStart -> new PeriodTotals()).add(day);
         }
+        logger.info("Aggregated revenue into {} periods of one {}", totals.size(), period.name().toLowerCase());
         
-        logger.info("Found {} bookings for revenue report", bookings.size());
-        return convertBookingsToRevenueReportData(bookings);
+        return totals.entrySet().stream().map(entry -> new RevenueRow(entry.getKey(), entry.getValue())).toList();
     }
     
     /**
-     * Generate event type trends report
+     * Generate event type trends report grouped by month
      */
     public List<Map<String, Object>> generateEventTypeTrendsReport(LocalDate startDate, LocalDate endDate) {
-        List<Booking> bookings = bookingRepository.findByEventDateBetween(startDate, endDate);
-        
-        // If no bookings found in date range, try to get all bookings
-        if (bookings.isEmpty()) {
-            logger.info("No bookings found in date range {}-{} for event type trends, trying to get all bookings", startDate, endDate);
-            bookings = bookingRepository.findAll();
+        return generateEventTypeTrendsReport(startDate, endDate, ReportPeriod.MONTH);
+    }
+    
+    /**
+     * Generate event type trends report: one row per period and event type, cancelled bookings excluded
+     */
+    public List<Map<String, Object>> generateEventTypeTrendsReport(LocalDate startDate, LocalDate endDate, ReportPeriod period) {
+        return getReport(new ReportKey(ReportType.EVENT_TYPE_TRENDS, startDate, endDate, null, null, period)).toMaps();
+    }
+    
+    private List<EventTypeTrendRow> findEventTypeTrendRows(ReportKey key) {
+        ReportPeriod period = key.period();
+        Map<LocalDate, Map<String, PeriodTotals>> totals = new TreeMap<>();
+        for (DailyBookingTotalsDTO day : findDailyTotals(key.startDate(), key.endDate())) {
+            if (day.bookingStatus() != Booking.BookingStatus.CANCELLED) {
+                totals.computeIfAbsent(period.startOf(day.eventDate()), periodStart -> new TreeMap<>())
+                      .computeIfAbsent(day.eventType(), eventType -> new PeriodTotals())
+                      .add(day);
+            }
         }
         
-        logger.info("Found {} bookings for event type trends", bookings.size());
-        return convertBookingsToEventTypeReportData(bookings);
+        List<EventTypeTrendRow> rows = new ArrayList<>();
+        totals.forEach((periodStart, eventTypes) -> eventTypes.forEach((eventType, eventTotals) ->
+            rows.add(new EventTypeTrendRow(periodStart, eventType, eventTotals))));
+        logger.info("Aggregated event type trends into {} rows", rows.size());
+        return rows;
+    }
+    
+    /**
+     * Daily totals from the rollups when they are complete, else aggregated from bookings
+     */
+    private List<DailyBookingTotalsDTO> findDailyTotals(LocalDate startDate, LocalDate endDate) {
+        return bookingRollupService.isReady()
+                ? rollupRepository.findDailyTotals(startDate, endDate)
+                : bookingRepository.findDailyTotals(startDate, endDate);
+    }
+    
+    /**
+     * Dashboard headline figures, computed in a single aggregate query
+     */
+    public BookingKpiDTO getDashboardKpis(LocalDate startDate, LocalDate endDate) {
+        BookingKpiDTO kpis = bookingRollupService.isReady()
+                ? rollupRepository.findKpis(startDate, endDate)
+                : bookingRepository.findKpis(startDate, endDate);
+        if (kpis == null || kpis.totalBookings() == null || kpis.totalBookings() == 0) {
+            return BookingKpiDTO.EMPTY;
+        }
+        return kpis;
     }
     
     /**
@@ -132,6 +284,114 @@ public class ReportService {
         }
     }
     
+    /**
+     * Export a report with the same rows as its on-screen view.
+     * The aggregate reports are small and come from the result cache, so exporting a report just viewed
+     * does not compute it again. Booking analytics is exported from the cache when the same report was
+     * just viewed; otherwise bookings are read through a cursor and written one at a time, so with a
+     * streaming strategy memory use does not depend on the size of the date range. Other strategies get
+     * the rows collected into a list first, as before.
+     * The output can optionally be gzip or deflate compressed as it is written.
+     */
+    @Transactional(readOnly = true)
+    public void exportReport(String strategyType, ReportType reportType, LocalDate startDate, LocalDate endDate,
+                             String eventType, Booking.BookingStatus status, OutputStream outputStream) throws IOException {
+        exportReport(strategyType, reportType, startDate, endDate, eventType, status, null, ExportCompression.NONE, outputStream);
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportReport(String strategyType, ReportType reportType, LocalDate startDate, LocalDate endDate,
+                             String eventType, Booking.BookingStatus status, ExportCompression compression,
+                             OutputStream outputStream) throws IOException {
+        exportReport(strategyType, reportType, startDate, endDate, eventType, status, null, compression, outputStream);
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportReport(String strategyType, ReportType reportType, LocalDate startDate, LocalDate endDate,
+                             String eventType, Booking.BookingStatus status, ReportPeriod period,
+                             ExportCompression compression, OutputStream outputStream) throws IOException {
+        ReportExportStrategy strategy = getExportStrategy(strategyType);
+        ReportKey key = new ReportKey(reportType, startDate, endDate, eventType, status, period);
+        ReportResult result = reportType == ReportType.BOOKING_ANALYTICS
+                ? reportResultCache.getIfPresent(key).orElse(null)
+                : getReport(key);
+        
+        long started = System.currentTimeMillis();
+        long count;
+        try (OutputStream target = compression.wrap(outputStream)) {
+            if (result != null) {
+                writeRows(strategy, result.schema(), result.rows().iterator(), reportType, target);
+                count = result.size();
+            } else {
+                try (Stream<Booking> bookings = bookingRepository.streamForExport(key.startDate(), key.endDate(),
+                                                                                  key.eventType(), key.status())) {
+                    ExportRowIterator rows = new ExportRowIterator(bookings.iterator());
+                    writeRows(strategy, BOOKING_ANALYTICS_SCHEMA, rows, reportType, target);
+                    count = rows.getCount();
+                }
+            }
+            target.flush();
+        }
+        logger.info("Exported {} rows of {} as {} ({}{}) in {} ms", count, reportType.getLabel(),
+                   strategy.getStrategyType(), compression, result != null ? ", cached" : "",
+                   System.currentTimeMillis() - started);
+    }
+    
+    private <T> void writeRows(ReportExportStrategy strategy, ReportSchema<T> schema, Iterator<T> rows,
+                               ReportType reportType, OutputStream target) throws IOException {
+        if (strategy instanceof StreamingReportExportStrategy streamingStrategy) {
+            streamingStrategy.writeData(schema, rows, target);
+        } else {
+            List<Map<String, Object>> data = new ArrayList<>();
+            while (rows.hasNext()) {
+                data.add(schema.toMap(rows.next()));
+            }
+            target.write(strategy.exportData(data, reportType.getFilename()));
+        }
+    }
+    
+    /**
+     * Write every report type for the date range into one PDF, one section per report, grouped by month.
+     * The aggregate reports come from the result cache; booking analytics streams its bookings in its own
+     * read-only transaction, so the PDF strategy can render sections on separate threads.
+     */
+    public void exportReportBundle(LocalDate startDate, LocalDate endDate, OutputStream outputStream) throws IOException {
+        if (!(getExportStrategy("PDF") instanceof PDFExportStrategy pdfStrategy)) {
+            throw new IllegalStateException("PDF export strategy does not support sections");
+        }
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        
+        List<PDFExportStrategy.Section<?>> sections = new ArrayList<>();
+        sections.add(new PDFExportStrategy.Section<>(ReportType.BOOKING_ANALYTICS.getLabel(), BOOKING_ANALYTICS_SCHEMA,
+            writer -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Booking> bookings = bookingRepository.streamForExport(startDate, endDate, null, null)) {
+                    writer.write(new ExportRowIterator(bookings.iterator()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })));
+        for (ReportType reportType : ReportType.values()) {
+            if (reportType != ReportType.BOOKING_ANALYTICS) {
+                ReportResult result = getReport(ReportKey.of(reportType, startDate, endDate));
+                sections.add(new PDFExportStrategy.Section<>(reportType.getLabel(), result.schema(),
+                    writer -> writer.write(result.rows().iterator())));
+            }
+        }
+        pdfStrategy.writeSections(sections, outputStream);
+    }
+    
+    public ReportExportStrategy getExportStrategy(String strategyType) {
+        if (strategyType == null || strategyType.trim().isEmpty()) {
+            throw new IllegalArgumentException("Strategy type cannot be null or empty");
+        }
+        ReportExportStrategy strategy = reportExportStrategies.get(strategyType.toLowerCase() + "ExportStrategy");
+        if (strategy == null) {
+            throw new IllegalArgumentException("Export strategy not found: " + strategyType);
+        }
+        return strategy;
+    }
+    
     /**
      * Get available export formats
      */
@@ -144,81 +404,123 @@ public class ReportService {
     }
     
     /**
-     * Convert bookings to report data format
+     * Booking analytics columns, read straight from each booking so exports can stream them
      */
-    private List<Map<String, Object>> convertBookingsToReportData(List<Booking> bookings) {
-        return bookings.stream().map(booking -> {
-            Map<String, Object> data = new HashMap<>();
-            data.put("Booking ID", booking.getBookingId());
-            data.put("Reference Code", booking.getReferenceCode());
-            data.put("Guest Name", booking.getGuest().getFullName());
-            data.put("Event Type", booking.getEventType());
-            data.put("Event Date", booking.getEventDate());
-            data.put("Start Time", booking.getStartTime());
-            data.put("End Time", booking.getEndTime());
-            data.put("Guest Count", booking.getGuestCount());
-            data.put("Venue", booking.getVenue().getVenueName());
-            data.put("Total Cost", booking.getTotalCost());
-            data.put("Status", booking.getBookingStatus());
-            data.put("Created At", booking.getCreatedAt());
-            return data;
-        }).toList();
-    }
+    public static final ReportSchema<Booking> BOOKING_ANALYTICS_SCHEMA = ReportSchema.<Booking>builder()
+            .integer("Booking ID", Booking::getBookingId)
+            .text("Reference Code", Booking::getReferenceCode)
+            .text("Guest Name", booking -> booking.getGuest().getFullName())
+            .text("Event Type", Booking::getEventType)
+            .date("Event Date", Booking::getEventDate)
+            .time("Start Time", Booking::getStartTime)
+            .time("End Time", Booking::getEndTime)
+            .integer("Guest Count", Booking::getGuestCount)
+            .text("Venue", booking -> booking.getVenue().getVenueName())
+            .decimal("Total Cost", Booking::getTotalCost)
+            .enumValue("Status", Booking::getBookingStatus)
+            .dateTime("Created At", Booking::getCreatedAt)
+            .build();
     
-    /**
-     * Convert bookings to venue report data format
-     */
-    private List<Map<String, Object>> convertBookingsToVenueReportData(List<Booking> bookings) {
-        return bookings.stream().map(booking -> {
-            Map<String, Object> data = new HashMap<>();
-            data.put("Venue Name", booking.getVenue().getVenueName());
-            data.put("Venue Type", booking.getVenue().getVenueType());
-            data.put("Capacity", booking.getVenue().getCapacity());
-            data.put("Event Date", booking.getEventDate());
-            data.put("Event Type", booking.getEventType());
-            data.put("Guest Count", booking.getGuestCount());
-            data.put("Utilization %", calculateUtilization(booking.getGuestCount(), booking.getVenue().getCapacity()));
-            data.put("Revenue", booking.getTotalCost());
-            return data;
-        }).toList();
+    private static final ReportSchema<VenueUtilizationDTO> VENUE_UTILIZATION_SCHEMA = ReportSchema.<VenueUtilizationDTO>builder()
+            .text("Venue Name", VenueUtilizationDTO::venueName)
+            .enumValue("Venue Type", VenueUtilizationDTO::venueType)
+            .integer("Capacity", VenueUtilizationDTO::capacity)
+            .integer("Bookings", VenueUtilizationDTO::bookingCount)
+            .integer("Total Guests", VenueUtilizationDTO::totalGuests)
+            .number("Utilization %", VenueUtilizationDTO::utilizationPercent)
+            .decimal("Revenue", VenueUtilizationDTO::revenue)
+            .build();
+    
+    private static final ReportSchema<RevenueRow> REVENUE_SCHEMA = ReportSchema.<RevenueRow>builder()
+            .date("Period", RevenueRow::period)
+            .integer("Bookings", row -> row.totals().bookings)
+            .integer("Confirmed", row -> row.totals().countOf(Booking.BookingStatus.CONFIRMED))
+            .integer("Pending", row -> row.totals().countOf(Booking.BookingStatus.PENDING))
+            .integer("Completed", row -> row.totals().countOf(Booking.BookingStatus.COMPLETED))
+            .integer("Cancelled", row -> row.totals().countOf(Booking.BookingStatus.CANCELLED))
+            .integer("Guests", row -> row.totals().guests)
+            .decimal("Revenue", row -> row.totals().revenue)
+            .decimal("Average Booking Value", row -> row.totals().averageBookingValue())
+            .build();
+    
+    private static final ReportSchema<EventTypeTrendRow> EVENT_TYPE_TRENDS_SCHEMA = ReportSchema.<EventTypeTrendRow>builder()
+            .date("Period", EventTypeTrendRow::period)
+            .text("Event Type", EventTypeTrendRow::eventType)
+            .integer("Bookings", row -> row.totals().bookings)
+            .integer("Guests", row -> row.totals().guests)
+            .number("Average Guests", row -> row.totals().averageGuests())
+            .decimal("Revenue", row -> row.totals().revenue)
+            .build();
+    
+    private record RevenueRow(LocalDate period, PeriodTotals totals) {
     }
     
-    /**
-     * Convert bookings to revenue report data format
-     */
-    private List<Map<String, Object>> convertBookingsToRevenueReportData(List<Booking> bookings) {
-        return bookings.stream().map(booking -> {
-            Map<String, Object> data = new HashMap<>();
-            data.put("Event Date", booking.getEventDate());
-            data.put("Event Type", booking.getEventType());
-            data.put("Venue", booking.getVenue().getVenueName());
-            data.put("Guest Count", booking.getGuestCount());
-            data.put("Revenue", booking.getTotalCost());
-            data.put("Status", booking.getBookingStatus());
-            return data;
-        }).toList();
+    private record EventTypeTrendRow(LocalDate period, String eventType, PeriodTotals totals) {
     }
     
     /**
-     * Convert bookings to event type trends report data format
+     * Passes streamed bookings through and periodically clears the persistence context,
+     * so bookings already written can be garbage collected
      */
-    private List<Map<String, Object>> convertBookingsToEventTypeReportData(List<Booking> bookings) {
-        return bookings.stream().map(booking -> {
-            Map<String, Object> data = new HashMap<>();
-            data.put("Event Type", booking.getEventType());
-            data.put("Event Date", booking.getEventDate());
-            data.put("Guest Count", booking.getGuestCount());
-            data.put("Revenue", booking.getTotalCost());
-            data.put("Venue Type", booking.getVenue().getVenueType());
-            return data;
-        }).toList();
+    private class ExportRowIterator implements Iterator<Booking> {
+        private final Iterator<Booking> bookings;
+        private long count;
+        
+        ExportRowIterator(Iterator<Booking> bookings) {
+            this.bookings = bookings;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return bookings.hasNext();
+        }
+        
+        @Override
+        public Booking next() {
+            // Detach what has been written so far before reading on; the returned booking stays usable
+            if (count > 0 && count % EXPORT_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+            count++;
+            return bookings.next();
+        }
+        
+        long getCount() {
+            return count;
+        }
     }
     
     /**
-     * Calculate venue utilization percentage
+     * Running totals for one report period, optionally for one event type
      */
-    private double calculateUtilization(Integer guestCount, Integer capacity) {
-        if (capacity == 0) return 0.0;
-        return (double) guestCount / capacity * 100;
+    private static class PeriodTotals {
+        private final Map<Booking.BookingStatus, Long> countsByStatus = new EnumMap<>(Booking.BookingStatus.class);
+        private long bookings;
+        private long guests;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        
+        void add(DailyBookingTotalsDTO day) {
+            bookings += day.bookingCount();
+            countsByStatus.merge(day.bookingStatus(), day.bookingCount(), Long::sum);
+            if (day.bookingStatus() != Booking.BookingStatus.CANCELLED) {
+                guests += day.guestCount() != null ? day.guestCount() : 0;
+                if (day.revenue() != null) {
+                    revenue = revenue.add(day.revenue());
+                }
+            }
+        }
+        
+        long countOf(Booking.BookingStatus status) {
+            return countsByStatus.getOrDefault(status, 0L);
+        }
+        
+        BigDecimal averageBookingValue() {
+            long paying = bookings - countOf(Booking.BookingStatus.CANCELLED);
+            return paying == 0 ? BigDecimal.ZERO : revenue.divide(BigDecimal.valueOf(paying), 2, RoundingMode.HALF_UP);
+        }
+        
+        double averageGuests() {
+            return bookings == 0 ? 0.0 : Math.round(guests * 10.0 / bookings) / 10.0;
+        }
     }
 }
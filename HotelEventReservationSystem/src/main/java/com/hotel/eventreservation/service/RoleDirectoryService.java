@@ -0,0 +1,108 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.RecipientDTO;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.UserRepository;
+import com.hotel.eventreservation.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory directory of active users per role, loaded with one projection query.
+ * UserService invalidates it after committing membership or activation changes; the next lookup
+ * reloads. A periodic refresh bounds staleness for changes made on other nodes.
+ */
+@Service
+public class RoleDirectoryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RoleDirectoryService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private volatile Map<String, List<RecipientDTO>> recipientsByRole;
+    
+    // Bumped on every invalidation so a load that raced with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+    
+    /**
+     * Get active members of a role
+     */
+    public List<RecipientDTO> getRecipients(String roleName) {
+        return getDirectory().getOrDefault(roleName, Collections.emptyList());
+    }
+    
+    /**
+     * Get active members of a role as detached User references for notification sending
+     */
+    public List<User> getRecipientUsers(String roleName) {
+        List<RecipientDTO> recipients = getRecipients(roleName);
+        List<User> users = new ArrayList<>(recipients.size());
+        for (RecipientDTO recipient : recipients) {
+            users.add(recipient.toUserReference());
+        }
+        return users;
+    }
+    
+    /**
+     * Drop the cached directory once the current transaction commits
+     */
+    public void invalidate() {
+        TransactionCallbacks.afterCommit(this::clear);
+    }
+    
+    private void clear() {
+        generation.incrementAndGet();
+        recipientsByRole = null;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notification.role-directory.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            long loadedGeneration = generation.get();
+            Map<String, List<RecipientDTO>> directory = load();
+            if (generation.get() == loadedGeneration) {
+                recipientsByRole = directory;
+            }
+        } catch (Exception e) {
+            logger.error("Error refreshing role directory", e);
+        }
+    }
+    
+    private Map<String, List<RecipientDTO>> getDirectory() {
+        Map<String, List<RecipientDTO>> directory = recipientsByRole;
+        if (directory == null) {
+            synchronized (this) {
+                directory = recipientsByRole;
+                if (directory == null) {
+                    long loadedGeneration = generation.get();
+                    directory = load();
+                    if (generation.get() == loadedGeneration) {
+                        recipientsByRole = directory;
+                    }
+                }
+            }
+        }
+        return directory;
+    }
+    
+    private Map<String, List<RecipientDTO>> load() {
+        Map<String, List<RecipientDTO>> directory = new HashMap<>();
+        for (RecipientDTO recipient : userRepository.findActiveRoleMemberships()) {
+            directory.computeIfAbsent(recipient.getRoleName(), role -> new ArrayList<>()).add(recipient);
+        }
+        directory.replaceAll((role, members) -> Collections.unmodifiableList(members));
+        logger.debug("Role directory loaded: {} roles", directory.size());
+        return Collections.unmodifiableMap(directory);
+    }
+}
@@ -0,0 +1,225 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.SmsOutboxMessage;
+import com.hotel.eventreservation.repository.SmsOutboxRepository;
+import com.hotel.eventreservation.strategy.SmsProvider;
+import com.hotel.eventreservation.util.TokenBucketRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SMS dispatch pipeline.
+ * Messages are written to the sms_outbox table first, so queued and retrying messages survive restarts.
+ * A scheduled dispatcher claims due messages per provider in batches, never more than that provider's
+ * token bucket allows; whatever the bucket cannot cover stays queued for the next cycle.
+ *
+ * A claim is a conditional update from QUEUED to SENDING under a fresh claim token, so dispatchers on
+ * several nodes, or a cycle overlapping a slow one, never take the same row. The claim holds for
+ * {@code lease-seconds}; if the dispatcher dies, the row becomes due again once the lease lapses.
+ * Providers take one message per call, and each result is saved as soon as its send returns, so a crash
+ * can re-send at most the message that was in flight.
+ */
+@Service
+public class SmsDispatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsDispatchService.class);
+
+    @Autowired
+    private SmsOutboxRepository smsOutboxRepository;
+
+    @Autowired
+    private Map<String, SmsProvider> smsProviders;
+
+    @Value("${app.notification.sms-enabled:false}")
+    private boolean smsEnabled;
+
+    @Value("${app.notification.sms.provider:localSmsProvider}")
+    private String activeProvider;
+
+    @Value("${app.notification.sms.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notification.sms.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notification.sms.initial-backoff-ms:5000}")
+    private long initialBackoffMillis;
+
+    @Value("${app.notification.sms.max-backoff-ms:600000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.notification.sms.lease-seconds:60}")
+    private long leaseSeconds;
+
+    private final Map<String, TokenBucketRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    /**
+     * Persist an SMS for delivery through the active provider
+     * @return the queued outbox entry
+     */
+    public SmsOutboxMessage enqueue(String phoneNumber, String content) {
+        if (!smsProviders.containsKey(activeProvider)) {
+            throw new IllegalStateException("SMS provider not configured: " + activeProvider);
+        }
+        return smsOutboxRepository.save(new SmsOutboxMessage(phoneNumber, content, activeProvider));
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.sms.flush-interval-ms:1000}")
+    public void scheduledDispatch() {
+        if (!smsEnabled) {
+            return;
+        }
+        try {
+            dispatchPending();
+        } catch (Exception e) {
+            logger.error("Unexpected error in SMS dispatcher", e);
+        }
+    }
+
+    /**
+     * Send due messages for every provider, within each provider's rate limit
+     * @return number of messages delivered in this cycle
+     */
+    public int dispatchPending() {
+        int delivered = 0;
+        for (Map.Entry<String, SmsProvider> entry : smsProviders.entrySet()) {
+            delivered += dispatchForProvider(entry.getKey(), entry.getValue());
+        }
+        return delivered;
+    }
+
+    private int dispatchForProvider(String providerName, SmsProvider provider) {
+        TokenBucketRateLimiter rateLimiter = rateLimiters.computeIfAbsent(providerName,
+                name -> new TokenBucketRateLimiter(provider.getRateLimitPerSecond(), provider.getBurstCapacity()));
+        LocalDateTime cycleStart = LocalDateTime.now();
+        int delivered = 0;
+
+        while (true) {
+            // Only fetch as many rows as the bucket can currently pay for
+            int permits = (int) Math.min(batchSize, Math.floor(rateLimiter.getAvailableTokens()));
+            if (permits == 0) {
+                break;
+            }
+            List<SmsOutboxMessage> due = smsOutboxRepository.findDueMessages(providerName, cycleStart, PageRequest.of(0, permits));
+            if (due.isEmpty()) {
+                break;
+            }
+            List<SmsOutboxMessage> batch = claim(due);
+
+            int sent = 0;
+            for (SmsOutboxMessage message : batch) {
+                if (!rateLimiter.tryAcquire()) {
+                    release(message);
+                    continue;
+                }
+                if (send(provider, message)) {
+                    delivered++;
+                }
+                smsOutboxRepository.save(message);
+                sent++;
+            }
+
+            // Fewer due rows than permits means the queue is drained; fewer sends means the bucket ran dry
+            if (due.size() < permits || sent < batch.size()) {
+                break;
+            }
+        }
+
+        if (delivered > 0) {
+            logger.info("Delivered {} SMS messages via {}", delivered, provider.getProviderName());
+        }
+        return delivered;
+    }
+
+    /**
+     * Claim the given due messages under a fresh token and return the ones this dispatcher won
+     */
+    private List<SmsOutboxMessage> claim(List<SmsOutboxMessage> due) {
+        String claimToken = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = due.stream().map(SmsOutboxMessage::getSmsId).toList();
+        int claimed = smsOutboxRepository.claim(ids, claimToken, now, now.plusSeconds(leaseSeconds));
+        if (claimed < ids.size()) {
+            logger.debug("{} of {} due SMS messages were claimed by another dispatcher", ids.size() - claimed, ids.size());
+        }
+        return claimed > 0 ? smsOutboxRepository.findClaimed(claimToken) : List.of();
+    }
+
+    private void release(SmsOutboxMessage message) {
+        message.setStatus(SmsOutboxMessage.SmsStatus.QUEUED);
+        message.setClaimToken(null);
+        message.setNextAttemptAt(LocalDateTime.now());
+        smsOutboxRepository.save(message);
+    }
+
+    private boolean send(SmsProvider provider, SmsOutboxMessage message) {
+        message.setAttempts(message.getAttempts() + 1);
+        message.setClaimToken(null);
+        try {
+            if (provider.sendMessage(message.getPhoneNumber(), message.getContent())) {
+                message.setStatus(SmsOutboxMessage.SmsStatus.DELIVERED);
+                message.setDeliveredAt(LocalDateTime.now());
+                message.setLastError(null);
+                return true;
+            }
+            message.setStatus(SmsOutboxMessage.SmsStatus.FAILED);
+            message.setLastError("Rejected by provider " + provider.getProviderName());
+            logger.warn("SMS to {} was rejected by {}", message.getPhoneNumber(), provider.getProviderName());
+        } catch (Exception e) {
+            message.setLastError(e.getMessage());
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(SmsOutboxMessage.SmsStatus.FAILED);
+                logger.warn("SMS to {} failed {} times, giving up: {}", message.getPhoneNumber(), message.getAttempts(), e.getMessage());
+            } else {
+                long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(message.getAttempts() - 1, 20));
+                message.setStatus(SmsOutboxMessage.SmsStatus.QUEUED);
+                message.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff * 1_000_000L));
+                logger.debug("SMS to {} failed (attempt {}), retrying in {}ms", message.getPhoneNumber(), message.getAttempts(), backoff);
+            }
+        }
+        return false;
+    }
+
+    public long getQueuedCount() {
+        return smsOutboxRepository.countByStatus(SmsOutboxMessage.SmsStatus.QUEUED);
+    }
+
+    public long getSendingCount() {
+        return smsOutboxRepository.countByStatus(SmsOutboxMessage.SmsStatus.SENDING);
+    }
+
+    public long getDeliveredCount() {
+        return smsOutboxRepository.countByStatus(SmsOutboxMessage.SmsStatus.DELIVERED);
+    }
+
+    public long getFailedCount() {
+        return smsOutboxRepository.countByStatus(SmsOutboxMessage.SmsStatus.FAILED);
+    }
+
+    /**
+     * Get SMS pipeline counters
+     */
+    public Map<String, Object> getDispatchStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("provider", activeProvider);
+        stats.put("queued", getQueuedCount());
+        stats.put("sending", getSendingCount());
+        stats.put("delivered", getDeliveredCount());
+        stats.put("failed", getFailedCount());
+        TokenBucketRateLimiter rateLimiter = rateLimiters.get(activeProvider);
+        stats.put("availableTokens", rateLimiter != null ? rateLimiter.getAvailableTokens() : null);
+        return stats;
+    }
+}
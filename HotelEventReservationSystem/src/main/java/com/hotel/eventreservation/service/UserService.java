@@ -32,6 +32,9 @@ public class UserService {
     @Lazy
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
     /**
      * Create a new user
      */
@@ -71,6 +74,7 @@ public class UserService {
             user.getRoles().add(guestRole);
             
             user = userRepository.save(user);
+            roleDirectoryService.invalidate();
             logger.info("User created successfully: {}", username);
             return user;
         } catch (Exception e) {
@@ -94,6 +98,7 @@ public class UserService {
         user.setPhone(phone);
         
         user = userRepository.save(user);
+        roleDirectoryService.invalidate();
         logger.info("User updated successfully: {}", user.getUsername());
         return user;
     }
@@ -135,6 +140,7 @@ public class UserService {
         if (!user.getRoles().contains(role)) {
             user.getRoles().add(role);
             user = userRepository.save(user);
+            roleDirectoryService.invalidate();
             logger.info("Role {} assigned to user: {}", roleName, user.getUsername());
         }
         
@@ -154,6 +160,7 @@ public class UserService {
         user.getRoles().removeIf(role -> role.getRoleName().equals(roleName));
         
         user = userRepository.save(user);
+        roleDirectoryService.invalidate();
         logger.info("Role {} removed from user: {}", roleName, user.getUsername());
         return user;
     }
@@ -213,6 +220,7 @@ public class UserService {
         user.setIsActive(false);
         
         user = userRepository.save(user);
+        roleDirectoryService.invalidate();
         logger.info("User deactivated: {}", user.getUsername());
         return user;
     }
@@ -230,6 +238,7 @@ public class UserService {
         user.setIsActive(true);
         
         user = userRepository.save(user);
+        roleDirectoryService.invalidate();
         logger.info("User activated: {}", user.getUsername());
         return user;
     }
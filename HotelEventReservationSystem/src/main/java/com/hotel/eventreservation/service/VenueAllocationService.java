@@ -0,0 +1,205 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingSlotDTO;
+import com.hotel.eventreservation.dto.VenueAllocationDTO;
+import com.hotel.eventreservation.dto.VenueTimeBlockDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.VenueAvailabilityRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import com.hotel.eventreservation.util.VenueAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Proposes venues for pending bookings so that confirming them all brings in the most revenue with the best
+ * capacity fit, instead of whatever order they happen to be confirmed in.
+ *
+ * Confirmed and completed bookings and maintenance or blocked slots are fixed; every pending booking in the
+ * range competes for what is left (see VenueAllocator). The preview is computed fresh each time and changes
+ * nothing. Applying takes the assignments from the preview and checks them again against the current
+ * bookings in the same transaction that confirms them, so a batch that no longer fits is rejected whole.
+ * Pending bookings left out of the batch count as fixed in the venue and time they asked for, so confirming
+ * part of a preview never takes a venue from a booking that stays pending.
+ */
+@Service
+public class VenueAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VenueAllocationService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private VenueAvailabilityRepository venueAvailabilityRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Value("${app.booking.allocation.time-budget-ms:2000}")
+    private long timeBudgetMs;
+
+    @Value("${app.booking.allocation.max-range-days:92}")
+    private int maxRangeDays;
+
+    private record Inputs(List<Booking> pending, List<Venue> venues, VenueAllocator allocator) {
+    }
+
+    /**
+     * Proposed venues for the pending bookings with events in a date range
+     */
+    @Transactional(readOnly = true)
+    public VenueAllocationDTO preview(LocalDate startDate, LocalDate endDate) {
+        long startNanos = System.nanoTime();
+        Inputs inputs = load(startDate, endDate);
+        VenueAllocator.Plan proposed = inputs.allocator().allocate(timeBudgetMs * 1_000_000);
+        VenueAllocator.Plan firstComeFirstServed = inputs.allocator().firstComeFirstServed();
+
+        List<VenueAllocationDTO.Proposal> proposals = new ArrayList<>(inputs.pending().size());
+        int moved = 0;
+        for (int r = 0; r < inputs.pending().size(); r++) {
+            Booking booking = inputs.pending().get(r);
+            int venueIndex = proposed.venueOf()[r];
+            Venue venue = venueIndex != VenueAllocator.UNASSIGNED ? inputs.venues().get(venueIndex) : null;
+            VenueAllocationDTO.Proposal proposal = new VenueAllocationDTO.Proposal(booking.getBookingId(),
+                    booking.getReferenceCode(), booking.getGuest().getFullName(), booking.getEventType(),
+                    booking.getEventDate(), booking.getStartTime(), booking.getEndTime(), booking.getGuestCount(),
+                    booking.getTotalCost(), booking.getVenue().getVenueId(), booking.getVenue().getVenueName(),
+                    venue != null ? venue.getVenueId() : null, venue != null ? venue.getVenueName() : null,
+                    venue != null ? venue.getCapacity() : null);
+            if (proposal.isMoved()) {
+                moved++;
+            }
+            proposals.add(proposal);
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        logger.info("Venue allocation for {} pending bookings {} to {}: {} placed ({} moved), {} by arrival order, {} ms",
+                    proposals.size(), startDate, endDate, proposed.assigned(), moved, firstComeFirstServed.assigned(),
+                    elapsedMillis);
+        return new VenueAllocationDTO(startDate, endDate, proposals.size(), outcome(proposed),
+                outcome(firstComeFirstServed), moved, elapsedMillis, proposed.budgetExhausted(), proposals);
+    }
+
+    /**
+     * Confirm pending bookings in the venues given, all or none. Throws IllegalStateException when a booking
+     * is no longer pending in the range or no longer fits its venue, so the preview should be run again.
+     * Pending bookings not in the batch keep their requested venue and time.
+     */
+    @Transactional
+    public int apply(LocalDate startDate, LocalDate endDate, List<Long> bookingIds, List<Long> venueIds) {
+        if (bookingIds == null || venueIds == null || bookingIds.size() != venueIds.size()) {
+            throw new IllegalArgumentException("Each booking needs exactly one venue");
+        }
+        Inputs inputs = load(startDate, endDate);
+        Map<Long, Integer> requestOf = new HashMap<>();
+        for (int r = 0; r < inputs.pending().size(); r++) {
+            requestOf.put(inputs.pending().get(r).getBookingId(), r);
+        }
+        Map<Long, Integer> venueIndexOf = new HashMap<>();
+        for (int v = 0; v < inputs.venues().size(); v++) {
+            venueIndexOf.put(inputs.venues().get(v).getVenueId(), v);
+        }
+        Set<Long> batch = new HashSet<>(bookingIds);
+        for (Booking booking : inputs.pending()) {
+            Integer venue = venueIndexOf.get(booking.getVenue().getVenueId());
+            if (venue != null && !batch.contains(booking.getBookingId())) {
+                inputs.allocator().block(venue, day(startDate, booking.getEventDate()), minute(booking.getStartTime()),
+                        minute(booking.getEndTime()));
+            }
+        }
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Integer request = requestOf.get(bookingIds.get(i));
+            Integer venue = venueIndexOf.get(venueIds.get(i));
+            if (request == null) {
+                throw new IllegalStateException("Booking " + bookingIds.get(i) + " is no longer pending; preview again");
+            }
+            if (venue == null || !inputs.allocator().tryAssign(request, venue)) {
+                throw new IllegalStateException("Booking " + inputs.pending().get(request).getReferenceCode()
+                        + " no longer fits venue " + venueIds.get(i) + "; preview again");
+            }
+        }
+        for (int i = 0; i < bookingIds.size(); i++) {
+            bookingService.confirmInVenue(bookingIds.get(i), inputs.venues().get(venueIndexOf.get(venueIds.get(i))));
+        }
+        logger.info("Confirmed {} pending bookings {} to {} by venue allocation", bookingIds.size(), startDate, endDate);
+        return bookingIds.size();
+    }
+
+    private Inputs load(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("A valid date range is required");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new IllegalArgumentException("The date range can cover at most " + maxRangeDays + " days");
+        }
+        List<Venue> venues = venueRepository.findByIsActiveTrue();
+        Map<Long, Integer> venueIndexOf = new HashMap<>();
+        int[] capacities = new int[venues.size()];
+        for (int v = 0; v < venues.size(); v++) {
+            venueIndexOf.put(venues.get(v).getVenueId(), v);
+            capacities[v] = venues.get(v).getCapacity() != null ? venues.get(v).getCapacity() : 0;
+        }
+        VenueAllocator allocator = new VenueAllocator(capacities);
+
+        for (BookingSlotDTO slot : bookingRepository.findActiveSlotsByEventDateBetween(startDate, endDate)) {
+            Integer venue = venueIndexOf.get(slot.getVenueId());
+            if (venue != null && slot.getBookingStatus() != Booking.BookingStatus.PENDING && slot.getStartTime() != null
+                    && slot.getEndTime() != null) {
+                allocator.block(venue, day(startDate, slot.getEventDate()), minute(slot.getStartTime()), minute(slot.getEndTime()));
+            }
+        }
+        for (VenueTimeBlockDTO block : venueAvailabilityRepository.findTimeBlocks(
+                VenueOccupancyService.UNAVAILABLE_STATUSES, startDate, endDate)) {
+            Integer venue = venueIndexOf.get(block.venueId());
+            if (venue != null) {
+                allocator.block(venue, day(startDate, block.date()), minute(block.startTime()), minute(block.endTime()));
+            }
+        }
+
+        List<Booking> pending = new ArrayList<>();
+        for (Booking booking : bookingRepository.findPendingWithDetailsByEventDateBetween(startDate, endDate)) {
+            if (booking.getStartTime() == null || booking.getEndTime() == null) {
+                continue;
+            }
+            Integer requested = venueIndexOf.get(booking.getVenue().getVenueId());
+            BigDecimal totalCost = booking.getTotalCost() != null ? booking.getTotalCost() : BigDecimal.ZERO;
+            allocator.addRequest(day(startDate, booking.getEventDate()), minute(booking.getStartTime()),
+                    minute(booking.getEndTime()), booking.getGuestCount() != null ? booking.getGuestCount() : 1,
+                    totalCost.movePointRight(2).longValue(), requested != null ? requested : VenueAllocator.UNASSIGNED);
+            pending.add(booking);
+        }
+        return new Inputs(pending, venues, allocator);
+    }
+
+    private static VenueAllocationDTO.Outcome outcome(VenueAllocator.Plan plan) {
+        return new VenueAllocationDTO.Outcome(plan.assigned(), BigDecimal.valueOf(plan.revenue(), 2),
+                Math.round(plan.fit() * 1000) / 10.0);
+    }
+
+    private static int day(LocalDate startDate, LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(startDate, date);
+    }
+
+    private static int minute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,341 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingSlotDTO;
+import com.hotel.eventreservation.dto.OccupancyHeatmapDTO;
+import com.hotel.eventreservation.dto.VenueTimeBlockDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.model.VenueAvailability;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.VenueAvailabilityRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import com.hotel.eventreservation.util.OccupancyMatrix;
+import com.hotel.eventreservation.util.OccupancySweep;
+import com.hotel.eventreservation.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Occupancy by venue and hour of week: booked hours over available hours across a window of days
+ * around today (past-weeks back, future-weeks ahead).
+ *
+ * Each venue-day is swept once into per-hour booked and available minutes (OccupancySweep): opening hours
+ * are open-hour to close-hour, maintenance and blocked slots are taken out, non-cancelled bookings are booked
+ * time. A venue's 7x24 matrix is the sum of its day profiles. After a booking or availability slot changes
+ * and commits, only the affected venue-days are swept again and their difference applied, so a write costs
+ * two small queries. The window moves on the first read of a new day, by a full reload; new venues appear
+ * then too. The heatmap built from the matrices is kept until a figure changes.
+ *
+ * Sweeps and reloads run one at a time on a background thread, so the booking thread only hands the days
+ * over, and later sweeps always apply after earlier ones. They query outside the lock and take it only to
+ * apply their figures, so readers wait for a heatmap to be built, never for the database.
+ *
+ * Ordered before the rollup listener, which moves the booking's reported state on.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class VenueOccupancyService implements BookingChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(VenueOccupancyService.class);
+
+    // Availability slots that take time out of a venue's opening hours
+    static final List<VenueAvailability.AvailabilityStatus> UNAVAILABLE_STATUSES =
+            List.of(VenueAvailability.AvailabilityStatus.MAINTENANCE, VenueAvailability.AvailabilityStatus.BLOCKED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VenueAvailabilityRepository venueAvailabilityRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Value("${app.report.occupancy.enabled:true}")
+    private boolean occupancyEnabled;
+
+    @Value("${app.report.occupancy.open-hour:8}")
+    private int openHour;
+
+    @Value("${app.report.occupancy.close-hour:24}")
+    private int closeHour;
+
+    @Value("${app.report.occupancy.past-weeks:12}")
+    private int pastWeeks;
+
+    @Value("${app.report.occupancy.future-weeks:12}")
+    private int futureWeeks;
+
+    private record VenueDay(Long venueId, LocalDate date) {
+    }
+
+    // Runs every sweep and reload, in the order they were asked for
+    private ExecutorService refresher;
+
+    // All state below is guarded by this, and only changed from the refresher thread
+    private LocalDate loadedOn;
+    private LocalDate windowStart;
+    private LocalDate windowEnd;
+    private final Map<Long, String> venueNames = new LinkedHashMap<>();
+    private final Map<Long, OccupancyMatrix> matrices = new HashMap<>();
+    // Only days that differ from a plain open day are held
+    private final Map<VenueDay, OccupancySweep.DayProfile> profiles = new HashMap<>();
+    private OccupancySweep.DayProfile openDay;
+    private long version;
+    private OccupancyHeatmapDTO heatmap;
+    // Reload of the window that readers of a new day are waiting for
+    private Future<?> pendingReload;
+
+    @PostConstruct
+    public void start() {
+        refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "venue-occupancy");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            // Nothing to save: the matrices are rebuilt from the database on the next start
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * The heatmap of every active venue, loading or moving the window first when needed
+     */
+    public OccupancyHeatmapDTO getHeatmap() {
+        LocalDate today = LocalDate.now();
+        Future<?> reload;
+        synchronized (this) {
+            if (today.equals(loadedOn)) {
+                return currentHeatmap();
+            }
+            if (pendingReload == null) {
+                pendingReload = refresher.submit(() -> reload(today));
+            }
+            reload = pendingReload;
+        }
+        try {
+            reload.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading venue occupancy", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not load venue occupancy", e.getCause());
+        } finally {
+            synchronized (this) {
+                if (pendingReload == reload) {
+                    pendingReload = null;
+                }
+            }
+        }
+        synchronized (this) {
+            return currentHeatmap();
+        }
+    }
+
+    @Override
+    public void onBookingChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        if (!occupancyEnabled) {
+            return;
+        }
+        Set<VenueDay> days = new LinkedHashSet<>();
+        addDay(days, booking.getVenue(), booking.getEventDate());
+        Booking.ReportedState reported = booking.getReportedState();
+        if (reported != null) {
+            addDay(days, reported.venue(), reported.eventDate());
+        }
+        TransactionCallbacks.afterCommit(() -> submitRefresh(days));
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        onBookingChanged(booking, null);
+    }
+
+    /**
+     * A maintenance or blocked slot of a venue was added, changed or removed
+     */
+    public void onAvailabilityChanged(Long venueId, LocalDate date) {
+        if (!occupancyEnabled || venueId == null || date == null) {
+            return;
+        }
+        Set<VenueDay> days = Set.of(new VenueDay(venueId, date));
+        TransactionCallbacks.afterCommit(() -> submitRefresh(days));
+    }
+
+    private void submitRefresh(Set<VenueDay> days) {
+        try {
+            refresher.execute(() -> {
+                try {
+                    refresh(days);
+                } catch (RuntimeException e) {
+                    // The next reload, at the latest the next day, sweeps these days again
+                    logger.warn("Could not refresh venue occupancy for {}: {}", days, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Venue occupancy refresh skipped during shutdown");
+        }
+    }
+
+    /**
+     * Recompute every matrix for the window around a day. Runs on the refresher thread.
+     */
+    void reload(LocalDate today) {
+        long startNanos = System.nanoTime();
+        LocalDate start = today.minusWeeks(pastWeeks);
+        LocalDate end = today.plusWeeks(futureWeeks).minusDays(1);
+        Map<VenueDay, List<OccupancySweep.Interval>> bookings = new HashMap<>();
+        for (BookingSlotDTO slot : bookingRepository.findActiveSlotsByEventDateBetween(start, end)) {
+            bookings.computeIfAbsent(new VenueDay(slot.getVenueId(), slot.getEventDate()), day -> new ArrayList<>())
+                    .add(OccupancySweep.Interval.of(slot.getStartTime(), slot.getEndTime()));
+        }
+        Map<VenueDay, List<OccupancySweep.Interval>> blocks = new HashMap<>();
+        for (VenueTimeBlockDTO block : venueAvailabilityRepository.findTimeBlocks(UNAVAILABLE_STATUSES, start, end)) {
+            blocks.computeIfAbsent(new VenueDay(block.venueId(), block.date()), day -> new ArrayList<>())
+                  .add(OccupancySweep.Interval.of(block.startTime(), block.endTime()));
+        }
+
+        OccupancySweep.DayProfile loadedOpenDay = sweep(List.of(), List.of());
+        Map<Long, String> loadedNames = new LinkedHashMap<>();
+        Map<Long, OccupancyMatrix> loadedMatrices = new HashMap<>();
+        Map<VenueDay, OccupancySweep.DayProfile> loadedProfiles = new HashMap<>();
+        for (Venue venue : venueRepository.findByIsActiveTrue()) {
+            loadedNames.put(venue.getVenueId(), venue.getVenueName());
+            OccupancyMatrix matrix = new OccupancyMatrix();
+            for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+                VenueDay day = new VenueDay(venue.getVenueId(), date);
+                List<OccupancySweep.Interval> dayBookings = bookings.getOrDefault(day, List.of());
+                List<OccupancySweep.Interval> dayBlocks = blocks.getOrDefault(day, List.of());
+                OccupancySweep.DayProfile profile = loadedOpenDay;
+                if (!dayBookings.isEmpty() || !dayBlocks.isEmpty()) {
+                    profile = sweep(dayBookings, dayBlocks);
+                    loadedProfiles.put(day, profile);
+                }
+                matrix.add(date.getDayOfWeek(), profile);
+            }
+            loadedMatrices.put(venue.getVenueId(), matrix);
+        }
+        synchronized (this) {
+            openDay = loadedOpenDay;
+            venueNames.clear();
+            venueNames.putAll(loadedNames);
+            matrices.clear();
+            matrices.putAll(loadedMatrices);
+            profiles.clear();
+            profiles.putAll(loadedProfiles);
+            loadedOn = today;
+            windowStart = start;
+            windowEnd = end;
+            changed();
+        }
+        logger.info("Loaded venue occupancy for {} venues, {} to {}, in {} ms", loadedMatrices.size(), start, end,
+                    (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Sweep venue-days again and apply the difference to their matrices. Runs on the refresher thread.
+     */
+    void refresh(Set<VenueDay> days) {
+        for (VenueDay day : days) {
+            synchronized (this) {
+                if (loadedOn == null) {
+                    // Nothing loaded yet; the first read sees the change
+                    return;
+                }
+                if (!matrices.containsKey(day.venueId()) || day.date().isBefore(windowStart)
+                        || day.date().isAfter(windowEnd)) {
+                    continue;
+                }
+            }
+            List<OccupancySweep.Interval> dayBookings = bookingRepository
+                    .findActiveSlotsByVenueAndEventDate(day.venueId(), day.date()).stream()
+                    .map(slot -> OccupancySweep.Interval.of(slot.getStartTime(), slot.getEndTime()))
+                    .toList();
+            List<OccupancySweep.Interval> dayBlocks = venueAvailabilityRepository
+                    .findTimeBlocksForVenueDay(UNAVAILABLE_STATUSES, day.venueId(), day.date()).stream()
+                    .map(block -> OccupancySweep.Interval.of(block.startTime(), block.endTime()))
+                    .toList();
+            OccupancySweep.DayProfile updated = sweep(dayBookings, dayBlocks);
+            synchronized (this) {
+                // The window cannot have moved meanwhile: reloads run on this thread too
+                OccupancyMatrix matrix = matrices.get(day.venueId());
+                OccupancySweep.DayProfile previous = profiles.getOrDefault(day, openDay);
+                if (updated.sameAs(previous)) {
+                    continue;
+                }
+                matrix.subtract(day.date().getDayOfWeek(), previous);
+                matrix.add(day.date().getDayOfWeek(), updated);
+                if (updated.sameAs(openDay)) {
+                    profiles.remove(day);
+                } else {
+                    profiles.put(day, updated);
+                }
+                changed();
+            }
+        }
+    }
+
+    private OccupancyHeatmapDTO currentHeatmap() {
+        if (heatmap == null) {
+            heatmap = buildHeatmap();
+        }
+        return heatmap;
+    }
+
+    private OccupancyHeatmapDTO buildHeatmap() {
+        List<OccupancyHeatmapDTO.VenueHeatmap> venues = new ArrayList<>(venueNames.size());
+        venueNames.forEach((venueId, venueName) -> {
+            OccupancyMatrix matrix = matrices.get(venueId);
+            Double[][] occupancy = new Double[7][24];
+            for (int hourOfWeek = 0; hourOfWeek < OccupancyMatrix.HOURS_PER_WEEK; hourOfWeek++) {
+                double value = matrix.occupancy(hourOfWeek);
+                occupancy[hourOfWeek / 24][hourOfWeek % 24] = Double.isNaN(value) ? null : Math.round(value * 1000) / 10.0;
+            }
+            venues.add(new OccupancyHeatmapDTO.VenueHeatmap(venueId, venueName,
+                    Math.round(matrix.totalBookedMinutes() / 6.0) / 10.0,
+                    Math.round(matrix.totalAvailableMinutes() / 6.0) / 10.0, occupancy));
+        });
+        return new OccupancyHeatmapDTO(windowStart, windowEnd, version, venues);
+    }
+
+    private OccupancySweep.DayProfile sweep(List<OccupancySweep.Interval> bookings, List<OccupancySweep.Interval> blocks) {
+        return OccupancySweep.sweep(bookings, blocks, openHour * 60, closeHour * 60);
+    }
+
+    private void changed() {
+        version++;
+        heatmap = null;
+    }
+
+    private static void addDay(Set<VenueDay> days, Venue venue, LocalDate date) {
+        if (venue != null && venue.getVenueId() != null && date != null) {
+            days.add(new VenueDay(venue.getVenueId(), date));
+        }
+    }
+}
@@ -1,77 +1,75 @@
 package com.hotel.eventreservation.strategy;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.hotel.eventreservation.util.CsvWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * RFC 4180 CSV export, written row by row
+ */
 @Component("csvExportStrategy")
-public class CSVExportStrategy implements ReportExportStrategy {
+public class CSVExportStrategy implements StreamingReportExportStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(CSVExportStrategy.class);
     
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    // Lets Excel detect UTF-8 when the file is opened directly
+    @Value("${app.report.csv.include-bom:false}")
+    private boolean includeBom;
+    
     @Override
     public byte[] exportData(List<Map<String, Object>> data, String filename) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            
-            Sheet sheet = workbook.createSheet("Report Data");
-            
-            if (data.isEmpty()) {
-                workbook.write(outputStream);
-                return outputStream.toByteArray();
-            }
-            
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            Map<String, Object> firstRow = data.get(0);
-            int columnIndex = 0;
-            for (String key : firstRow.keySet()) {
-                Cell cell = headerRow.createCell(columnIndex++);
-                cell.setCellValue(key);
-            }
-            
-            // Create data rows
-            int rowIndex = 1;
-            for (Map<String, Object> rowData : data) {
-                Row row = sheet.createRow(rowIndex++);
-                columnIndex = 0;
-                for (Object value : rowData.values()) {
-                    Cell cell = row.createCell(columnIndex++);
-                    if (value != null) {
-                        cell.setCellValue(value.toString());
-                    }
-                }
-            }
-            
-            // Auto-size columns
-            for (int i = 0; i < firstRow.size(); i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            workbook.write(outputStream);
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            writeData(ReportSchema.forMaps(data), data.iterator(), outputStream);
             return outputStream.toByteArray();
-            
         } catch (IOException e) {
             logger.error("Error exporting data to CSV", e);
             throw new RuntimeException("Failed to export data to CSV", e);
         }
     }
     
+    @Override
+    public <T> void writeData(ReportSchema<T> schema, Iterator<? extends T> rows, OutputStream outputStream) throws IOException {
+        if (includeBom) {
+            outputStream.write(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        }
+        CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE));
+        if (!schema.isEmpty()) {
+            csv.writeRecord(schema.getColumnNames());
+        }
+        List<ReportSchema.Column<T>> columns = schema.getColumns();
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (ReportSchema.Column<T> column : columns) {
+                csv.writeField(column.valueOf(row));
+            }
+            csv.endRecord();
+        }
+        // Not closed: the caller owns the output stream
+        csv.flush();
+    }
+    
     @Override
     public String getFileExtension() {
-        return ".xlsx";
+        return ".csv";
     }
     
     @Override
     public String getMimeType() {
-        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+        return "text/csv";
     }
     
     @Override
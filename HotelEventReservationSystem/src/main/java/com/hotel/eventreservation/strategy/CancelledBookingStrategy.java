@@ -3,13 +3,17 @@ package com.hotel.eventreservation.strategy;
 import com.hotel.eventreservation.model.Booking;
 import com.hotel.eventreservation.model.Notification;
 import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.service.NotificationDigestService;
 import com.hotel.eventreservation.service.NotificationService;
-import com.hotel.eventreservation.service.UserService;
+import com.hotel.eventreservation.service.NotificationTemplateService;
+import com.hotel.eventreservation.service.RoleDirectoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component("cancelledBookingStrategy")
 public class CancelledBookingStrategy implements BookingStatusStrategy {
     
@@ -19,7 +23,13 @@ public class CancelledBookingStrategy implements BookingStatusStrategy {
     private NotificationService notificationService;
 
     @Autowired
-    private UserService userService;
+    private NotificationDigestService notificationDigestService;
+    
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
 
     @Override
     public boolean processBooking(Booking booking) {
@@ -33,27 +43,29 @@ public class CancelledBookingStrategy implements BookingStatusStrategy {
             // 4. Process any refunds if applicable
             // 5. Invalidate QR code
             
+            Map<String, Object> values = Map.of("reference", booking.getReferenceCode());
+            
             // Notify guest
             notificationService.sendNotification(
                 booking.getGuest(),
-                "Your booking " + booking.getReferenceCode() + " has been cancelled.",
+                notificationTemplateService.render("booking.cancelled.guest", booking.getGuest(), values),
                 Notification.AlertType.BOOKING_CANCELLATION
             );
             
             // Notify manager(s)
-            for (User manager : userService.getUsersByRole("GENERAL_MANAGER")) {
-                notificationService.sendNotification(
+            for (User manager : roleDirectoryService.getRecipientUsers("GENERAL_MANAGER")) {
+                notificationDigestService.submit(
                     manager,
-                    "Booking " + booking.getReferenceCode() + " was cancelled by the guest.",
+                    notificationTemplateService.render("booking.cancelled.staff", manager, values),
                     Notification.AlertType.BOOKING_CANCELLATION
                 );
             }
             
             // Notify coordinator(s)
-            for (User coordinator : userService.getUsersByRole("EVENT_COORDINATOR")) {
-                notificationService.sendNotification(
+            for (User coordinator : roleDirectoryService.getRecipientUsers("EVENT_COORDINATOR")) {
+                notificationDigestService.submit(
                     coordinator,
-                    "Booking " + booking.getReferenceCode() + " was cancelled by the guest.",
+                    notificationTemplateService.render("booking.cancelled.staff", coordinator, values),
                     Notification.AlertType.BOOKING_CANCELLATION
                 );
             }
@@ -0,0 +1,69 @@
+package com.hotel.eventreservation.strategy;
+
+import com.hotel.eventreservation.util.ColumnarWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact column-oriented binary export for analytics pipelines; see {@link ColumnarWriter} for the layout.
+ * Statuses, event types and dates repeat heavily across bookings and are dictionary encoded.
+ */
+@Component("columnarExportStrategy")
+public class ColumnarExportStrategy implements StreamingReportExportStrategy {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarExportStrategy.class);
+    
+    @Value("${app.report.columnar.row-group-size:8192}")
+    private int rowGroupSize;
+    
+    @Override
+    public byte[] exportData(List<Map<String, Object>> data, String filename) {
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            writeData(ReportSchema.forMaps(data), data.iterator(), outputStream);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            logger.error("Error exporting data to columnar format", e);
+            throw new RuntimeException("Failed to export data to columnar format", e);
+        }
+    }
+    
+    @Override
+    public <T> void writeData(ReportSchema<T> schema, Iterator<? extends T> rows, OutputStream outputStream) throws IOException {
+        List<ReportSchema.Column<T>> columns = schema.getColumns();
+        ColumnarWriter writer = new ColumnarWriter(outputStream, schema.getColumnNames(), rowGroupSize);
+        // The writer copies values into its column buffers, so one scratch row serves every row
+        Object[] values = new Object[columns.size()];
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = columns.get(i).valueOf(row);
+            }
+            writer.writeRow(values);
+        }
+        writer.finish();
+    }
+    
+    @Override
+    public String getFileExtension() {
+        return ".herc";
+    }
+    
+    @Override
+    public String getMimeType() {
+        return "application/octet-stream";
+    }
+    
+    @Override
+    public String getStrategyType() {
+        return "COLUMNAR";
+    }
+}
@@ -3,13 +3,17 @@ package com.hotel.eventreservation.strategy;
 import com.hotel.eventreservation.model.Booking;
 import com.hotel.eventreservation.model.Notification;
 import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.service.NotificationDigestService;
 import com.hotel.eventreservation.service.NotificationService;
-import com.hotel.eventreservation.service.UserService;
+import com.hotel.eventreservation.service.NotificationTemplateService;
+import com.hotel.eventreservation.service.RoleDirectoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component("confirmedBookingStrategy")
 public class ConfirmedBookingStrategy implements BookingStatusStrategy {
     
@@ -19,7 +23,13 @@ public class ConfirmedBookingStrategy implements BookingStatusStrategy {
     private NotificationService notificationService;
 
     @Autowired
-    private UserService userService;
+    private NotificationDigestService notificationDigestService;
+    
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
 
     @Override
     public boolean processBooking(Booking booking) {
@@ -32,27 +42,29 @@ public class ConfirmedBookingStrategy implements BookingStatusStrategy {
             // 3. Block venue availability
             // 4. Set up event reminders
             
+            Map<String, Object> values = Map.of("reference", booking.getReferenceCode());
+            
             // Notify guest
             notificationService.sendNotification(
                 booking.getGuest(),
-                "Your booking " + booking.getReferenceCode() + " is confirmed.",
+                notificationTemplateService.render("booking.confirmed.guest", booking.getGuest(), values),
                 Notification.AlertType.BOOKING_CONFIRMATION
             );
             
             // Notify coordinator(s)
-            for (User coordinator : userService.getUsersByRole("EVENT_COORDINATOR")) {
-                notificationService.sendNotification(
+            for (User coordinator : roleDirectoryService.getRecipientUsers("EVENT_COORDINATOR")) {
+                notificationDigestService.submit(
                     coordinator,
-                    "A booking has been confirmed: " + booking.getReferenceCode(),
+                    notificationTemplateService.render("booking.confirmed.coordinator", coordinator, values),
                     Notification.AlertType.COORDINATION_ALERT
                 );
             }
             
             // Notify catering leader(s)
-            for (User cateringLead : userService.getUsersByRole("CATERING_TEAM_LEADER")) {
-                notificationService.sendNotification(
+            for (User cateringLead : roleDirectoryService.getRecipientUsers("CATERING_TEAM_LEADER")) {
+                notificationDigestService.submit(
                     cateringLead,
-                    "Catering required for booking: " + booking.getReferenceCode(),
+                    notificationTemplateService.render("booking.confirmed.catering", cateringLead, values),
                     Notification.AlertType.CATERING_CONFIRMED
                 );
             }
@@ -1,35 +1,56 @@
 package com.hotel.eventreservation.strategy;
 
 import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.service.EmailDeliveryService;
+import com.hotel.eventreservation.service.NotificationTemplateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Component("emailNotificationStrategy")
 public class EmailNotificationStrategy implements NotificationStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(EmailNotificationStrategy.class);
     
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailDeliveryService emailDeliveryService;
+    
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
+    
+    @Value("${app.notification.email.html-enabled:true}")
+    private boolean htmlEnabled;
     
     @Override
     public boolean sendNotification(Notification notification) {
+        String recipientEmail = notification.getRecipientUser().getEmail();
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(notification.getRecipientUser().getEmail());
-            message.setSubject("Hotel Event Reservation - " + notification.getAlertType().toString());
-            message.setText(buildEmailContent(notification));
-            message.setFrom("noreply@hotel-event-reservation.com");
+            if (recipientEmail == null || recipientEmail.trim().isEmpty()) {
+                logger.warn("No email address available for user: {}", notification.getRecipientUser().getUsername());
+                return false;
+            }
+            
+            User recipient = notification.getRecipientUser();
+            Notification.AlertType alertType = notification.getAlertType();
+            Map<String, Object> values = buildTemplateValues(notification);
             
-            mailSender.send(message);
-            logger.info("Email notification sent successfully to: {}", notification.getRecipientUser().getEmail());
-            return true;
+            // Hand off to the delivery engine; SMTP is contacted asynchronously in batches
+            boolean queued = emailDeliveryService.enqueue(
+                recipientEmail,
+                notificationTemplateService.render("email.subject", alertType, recipient, values),
+                notificationTemplateService.render("email.body.text", alertType, recipient, values),
+                htmlEnabled ? notificationTemplateService.renderHtml("email.body.html", alertType, recipient, values) : null
+            );
+            logger.info("Email notification queued for: {}", recipientEmail);
+            return queued;
         } catch (Exception e) {
-            logger.error("Failed to send email notification to: {}", notification.getRecipientUser().getEmail(), e);
+            logger.error("Failed to queue email notification to: {}", recipientEmail, e);
             return false;
         }
     }
@@ -39,13 +60,12 @@ public class EmailNotificationStrategy implements NotificationStrategy {
         return "EMAIL";
     }
     
-    private String buildEmailContent(Notification notification) {
-        StringBuilder content = new StringBuilder();
-        content.append("Dear ").append(notification.getRecipientUser().getFirstName()).append(",\n\n");
-        content.append(notification.getMessageContent()).append("\n\n");
-        content.append("Alert Type: ").append(notification.getAlertType().toString()).append("\n");
-        content.append("Sent at: ").append(notification.getCreatedAt()).append("\n\n");
-        content.append("Best regards,\nHotel Event Reservation System");
-        return content.toString();
+    private Map<String, Object> buildTemplateValues(Notification notification) {
+        Map<String, Object> values = new HashMap<>(8);
+        values.put("firstName", notification.getRecipientUser().getFirstName());
+        values.put("message", notification.getMessageContent());
+        values.put("alertType", notification.getAlertType());
+        values.put("sentAt", notification.getCreatedAt());
+        return values;
     }
 }
@@ -0,0 +1,93 @@
+package com.hotel.eventreservation.strategy;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional compression applied on top of any export format.
+ * The stream returned by {@link #wrap(OutputStream)} finishes the compressed data and releases the
+ * native deflater when closed, but never closes the destination stream.
+ */
+public enum ExportCompression {
+    
+    NONE("", null),
+    GZIP(".gz", "application/gzip"),
+    DEFLATE(".deflate", "application/zlib");
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final String fileSuffix;
+    private final String mimeType;
+    
+    ExportCompression(String fileSuffix, String mimeType) {
+        this.fileSuffix = fileSuffix;
+        this.mimeType = mimeType;
+    }
+    
+    /**
+     * Parse a request parameter; null, empty and "none" mean no compression
+     * @throws IllegalArgumentException for an unknown value
+     */
+    public static ExportCompression fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+    
+    public OutputStream wrap(OutputStream destination) throws IOException {
+        return switch (this) {
+            case NONE -> new FilterOutputStream(destination) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+                
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+            case GZIP -> new GZIPOutputStream(destination, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        finish();
+                        out.flush();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+            case DEFLATE -> new DeflaterOutputStream(destination, new Deflater(Deflater.DEFAULT_COMPRESSION), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        finish();
+                        out.flush();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+        };
+    }
+    
+    /**
+     * File name suffix added after the format's own extension, e.g. report.ndjson.gz
+     */
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+    
+    /**
+     * Content type of the compressed download, or the format's own type when uncompressed
+     */
+    public String getMimeType(String uncompressedMimeType) {
+        return mimeType != null ? mimeType : uncompressedMimeType;
+    }
+}
@@ -1,6 +1,10 @@
 package com.hotel.eventreservation.strategy;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -9,30 +13,35 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 @Component("jsonExportStrategy")
-public class JSONExportStrategy implements ReportExportStrategy {
+public class JSONExportStrategy implements StreamingReportExportStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(JSONExportStrategy.class);
     private final ObjectMapper objectMapper;
+    // Serializes single cell values without flushing the output after each one
+    private final ObjectWriter valueWriter;
     
     public JSONExportStrategy() {
         this.objectMapper = new ObjectMapper();
-        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
     
     @Override
     public byte[] exportData(List<Map<String, Object>> data, String filename) {
         try {
             logger.debug("Starting JSON export for {} records", data != null ? data.size() : 0);
-            String jsonString = objectMapper.writeValueAsString(data);
-            logger.debug("Successfully serialized data to JSON, length: {} characters", jsonString.length());
-            return jsonString.getBytes("UTF-8");
+            // Compact output, encoded straight to UTF-8 bytes without an intermediate String
+            byte[] json = objectMapper.writeValueAsBytes(data);
+            logger.debug("Successfully serialized data to JSON, length: {} bytes", json.length);
+            return json;
         } catch (IOException e) {
             logger.error("Error exporting data to JSON. Data size: {}, Error: {}", 
                         data != null ? data.size() : 0, e.getMessage(), e);
@@ -43,6 +52,38 @@ public class JSONExportStrategy implements ReportExportStrategy {
         }
     }
     
+    @Override
+    public <T> void writeData(ReportSchema<T> schema, Iterator<? extends T> rows, OutputStream outputStream) throws IOException {
+        List<ReportSchema.Column<T>> columns = schema.getColumns();
+        SerializedString[] fieldNames = fieldNames(schema);
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            // Leave closing the stream to the caller
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            while (rows.hasNext()) {
+                T row = rows.next();
+                generator.writeStartObject();
+                for (int i = 0; i < fieldNames.length; i++) {
+                    generator.writeFieldName(fieldNames[i]);
+                    valueWriter.writeValue(generator, columns.get(i).valueOf(row));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+    
+    /**
+     * Column names quoted and encoded once per export rather than once per row
+     */
+    static SerializedString[] fieldNames(ReportSchema<?> schema) {
+        SerializedString[] names = new SerializedString[schema.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new SerializedString(schema.getColumnNames().get(i));
+        }
+        return names;
+    }
+    
     @Override
     public String getFileExtension() {
         return ".json";
@@ -0,0 +1,51 @@
+package com.hotel.eventreservation.strategy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in SMS provider used for development: messages are only logged.
+ */
+@Component("localSmsProvider")
+public class LocalSmsProvider implements SmsProvider {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalSmsProvider.class);
+    
+    @Value("${app.notification.sms.local.rate-per-second:10}")
+    private double rateLimitPerSecond;
+    
+    @Value("${app.notification.sms.local.burst:20}")
+    private int burstCapacity;
+    
+    private final AtomicLong sentCount = new AtomicLong();
+    
+    @Override
+    public boolean sendMessage(String phoneNumber, String content) {
+        logger.info("SMS would be sent to {}: {}", phoneNumber, content);
+        sentCount.incrementAndGet();
+        return true;
+    }
+    
+    @Override
+    public double getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+    
+    @Override
+    public int getBurstCapacity() {
+        return burstCapacity;
+    }
+    
+    @Override
+    public String getProviderName() {
+        return "LOCAL";
+    }
+    
+    public long getSentCount() {
+        return sentCount.get();
+    }
+}
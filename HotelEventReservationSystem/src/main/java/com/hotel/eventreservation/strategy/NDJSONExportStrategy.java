@@ -0,0 +1,101 @@
+package com.hotel.eventreservation.strategy;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Newline-delimited JSON: one compact JSON object per row, each terminated by '\n'.
+ * Rows are written through a single JsonGenerator, so consumers can process the file line by line
+ * and the export never builds the document in memory.
+ */
+@Component("ndjsonExportStrategy")
+public class NDJSONExportStrategy implements StreamingReportExportStrategy {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NDJSONExportStrategy.class);
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter valueWriter;
+    
+    public NDJSONExportStrategy() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    @Override
+    public byte[] exportData(List<Map<String, Object>> data, String filename) {
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+             JsonGenerator generator = createGenerator(outputStream)) {
+            for (Map<String, Object> row : data) {
+                generator.writeStartObject();
+                for (Map.Entry<String, Object> entry : row.entrySet()) {
+                    generator.writeFieldName(entry.getKey());
+                    valueWriter.writeValue(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            logger.error("Error exporting data to NDJSON", e);
+            throw new RuntimeException("Failed to export data to NDJSON: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public <T> void writeData(ReportSchema<T> schema, Iterator<? extends T> rows, OutputStream outputStream) throws IOException {
+        List<ReportSchema.Column<T>> columns = schema.getColumns();
+        SerializedString[] fieldNames = JSONExportStrategy.fieldNames(schema);
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            while (rows.hasNext()) {
+                T row = rows.next();
+                generator.writeStartObject();
+                for (int i = 0; i < fieldNames.length; i++) {
+                    generator.writeFieldName(fieldNames[i]);
+                    valueWriter.writeValue(generator, columns.get(i).valueOf(row));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+    
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(outputStream, JsonEncoding.UTF8);
+        // Leave closing the stream to the caller; rows are separated by the explicit newline only
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+    
+    @Override
+    public String getFileExtension() {
+        return ".ndjson";
+    }
+    
+    @Override
+    public String getMimeType() {
+        return "application/x-ndjson";
+    }
+    
+    @Override
+    public String getStrategyType() {
+        return "NDJSON";
+    }
+}
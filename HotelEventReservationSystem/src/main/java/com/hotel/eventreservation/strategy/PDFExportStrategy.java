@@ -1,74 +1,329 @@
 package com.hotel.eventreservation.strategy;
 
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * PDF export built on iText's large-table mode.
+ * The table is added to the document before its rows; every few rows the finished part is laid out,
+ * written and released, so only the rows of the current chunk are held in memory. Header cells repeat
+ * on every page. Fonts and styles are created once per document and shared by all cells.
+ *
+ * Multi-section documents can render their sections in parallel, each into its own temporary PDF,
+ * and then concatenate them in order. If one section fails the others are cancelled, and every
+ * temporary file of the document is deleted whether or not its section finished.
+ */
 @Component("pdfExportStrategy")
-public class PDFExportStrategy implements ReportExportStrategy {
+public class PDFExportStrategy implements StreamingReportExportStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(PDFExportStrategy.class);
     
+    private static final String REPORT_TITLE = "Hotel Event Reservation Report";
+    // Reports wider than this are laid out on landscape pages
+    private static final int PORTRAIT_MAX_COLUMNS = 6;
+    
+    @Value("${app.report.pdf.flush-rows:50}")
+    private int flushRows;
+    
+    @Value("${app.report.pdf.parallel-sections:true}")
+    private boolean parallelSections;
+    
+    @Value("${app.report.pdf.section-threads:2}")
+    private int sectionThreads;
+    
+    // Blank means the system temporary directory
+    @Value("${app.report.pdf.temp-directory:}")
+    private String tempDirectory;
+    
+    private ExecutorService sectionExecutor;
+    
+    @PostConstruct
+    public void start() {
+        sectionExecutor = Executors.newFixedThreadPool(Math.max(1, sectionThreads), runnable -> {
+            Thread thread = new Thread(runnable, "pdf-section");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (sectionExecutor != null) {
+            sectionExecutor.shutdownNow();
+        }
+    }
+    
     @Override
     public byte[] exportData(List<Map<String, Object>> data, String filename) {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            writeData(ReportSchema.forMaps(data), data.iterator(), outputStream);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            logger.error("Error exporting data to PDF", e);
+            throw new RuntimeException("Failed to export data to PDF", e);
+        }
+    }
+    
+    @Override
+    public <T> void writeData(ReportSchema<T> schema, Iterator<? extends T> rows, OutputStream outputStream) throws IOException {
+        try (Document document = openDocument(outputStream, schema.size())) {
+            Styles styles = new Styles();
+            document.add(new Paragraph(REPORT_TITLE).addStyle(styles.title));
+            writeTable(document, schema, rows, styles);
+        }
+    }
+    
+    /**
+     * Write several independent sections into one document, in the given order.
+     * With parallel rendering enabled each section is laid out on its own thread.
+     */
+    public void writeSections(List<? extends Section<?>> sections, OutputStream outputStream) throws IOException {
+        if (parallelSections && sections.size() > 1) {
+            writeSectionsInParallel(sections, outputStream);
+            return;
+        }
+        int maxColumns = sections.stream().mapToInt(section -> section.schema().size()).max().orElse(0);
+        try (Document document = openDocument(outputStream, maxColumns)) {
+            Styles styles = new Styles();
+            document.add(new Paragraph(REPORT_TITLE).addStyle(styles.title));
+            for (int i = 0; i < sections.size(); i++) {
+                if (i > 0) {
+                    document.add(new AreaBreak());
+                }
+                writeSection(document, sections.get(i), styles);
+            }
+        }
+    }
+    
+    private void writeSectionsInParallel(List<? extends Section<?>> sections, OutputStream outputStream) throws IOException {
+        SectionFiles files = new SectionFiles(tempDirectory == null || tempDirectory.isBlank() ? null : Paths.get(tempDirectory));
+        List<Future<Path>> futures = new ArrayList<>(sections.size());
+        try {
+            for (int i = 0; i < sections.size(); i++) {
+                Section<?> section = sections.get(i);
+                boolean first = i == 0;
+                futures.add(sectionExecutor.submit(() -> renderSectionToFile(section, first, files)));
+            }
+            List<Path> parts = new ArrayList<>(sections.size());
+            for (Future<Path> future : futures) {
+                parts.add(future.get());
+            }
             
+            // Concatenate in order; copied pages are flushed after each part
             PdfWriter writer = new PdfWriter(outputStream);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-            
-            // Add title
-            Paragraph title = new Paragraph("Hotel Event Reservation Report")
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setFontSize(16)
-                    .setBold();
-            document.add(title);
-            
-            // Add empty line
-            document.add(new Paragraph("\n"));
-            
-            if (data.isEmpty()) {
-                document.add(new Paragraph("No data available for the selected criteria."));
-            } else {
-                // Create table
-                Map<String, Object> firstRow = data.get(0);
-                Table table = new Table(firstRow.size());
-                
-                // Add header row
-                for (String key : firstRow.keySet()) {
-                    Cell cell = new Cell().add(new Paragraph(key).setBold());
-                    table.addCell(cell);
-                }
-                
-                // Add data rows
-                for (Map<String, Object> rowData : data) {
-                    for (Object value : rowData.values()) {
-                        Cell cell = new Cell().add(new Paragraph(value != null ? value.toString() : ""));
-                        table.addCell(cell);
+            writer.setCloseStream(false);
+            try (PdfDocument merged = new PdfDocument(writer)) {
+                PdfMerger merger = new PdfMerger(merged);
+                for (Path part : parts) {
+                    try (PdfDocument source = new PdfDocument(new PdfReader(part.toFile()))) {
+                        merger.merge(source, 1, source.getNumberOfPages());
+                        merged.flushCopiedObjects(source);
                     }
                 }
-                
-                document.add(table);
             }
-            
-            document.close();
-            return outputStream.toByteArray();
-            
-        } catch (IOException e) {
-            logger.error("Error exporting data to PDF", e);
-            throw new RuntimeException("Failed to export data to PDF", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering PDF sections", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException("Failed to render PDF section", e.getCause());
+        } finally {
+            // Sections still queued or running after a failure are not needed any more
+            for (Future<Path> future : futures) {
+                future.cancel(true);
+            }
+            files.discard();
+        }
+    }
+    
+    private Path renderSectionToFile(Section<?> section, boolean withTitle, SectionFiles files) throws IOException {
+        SectionFile file = files.create();
+        Path part = file.path();
+        try (OutputStream out = file.outputStream();
+             Document document = openDocument(out, section.schema().size())) {
+            Styles styles = new Styles();
+            if (withTitle) {
+                document.add(new Paragraph(REPORT_TITLE).addStyle(styles.title));
+            }
+            writeSection(document, section, styles);
+            return part;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+    }
+    
+    private <T> void writeSection(Document document, Section<T> section, Styles styles) throws IOException {
+        document.add(new Paragraph(section.title()).addStyle(styles.sectionTitle));
+        section.rows().open(rows -> writeTable(document, section.schema(), rows, styles));
+    }
+    
+    private <T> void writeTable(Document document, ReportSchema<T> schema, Iterator<? extends T> rows, Styles styles) {
+        document.add(new Paragraph("\n"));
+        if (schema.isEmpty() || !rows.hasNext()) {
+            document.add(new Paragraph("No data available for the selected criteria."));
+            return;
+        }
+        
+        List<ReportSchema.Column<T>> columns = schema.getColumns();
+        // Numbers are right aligned; the style is chosen once per column from its type
+        Style[] cellStyles = new Style[columns.size()];
+        Table table = new Table(UnitValue.createPercentArray(columns.size()), true).useAllAvailableWidth();
+        for (int i = 0; i < columns.size(); i++) {
+            ReportSchema.Column<T> column = columns.get(i);
+            cellStyles[i] = column.type().isNumeric() ? styles.numericBody : styles.body;
+            table.addHeaderCell(new Cell().add(new Paragraph(column.name())).addStyle(styles.header));
+        }
+        // In large-table mode the table must be in the document before its rows
+        document.add(table);
+        
+        int rowCount = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < cellStyles.length; i++) {
+                Object value = columns.get(i).valueOf(row);
+                table.addCell(new Cell().add(new Paragraph(format(value))).addStyle(cellStyles[i]));
+            }
+            if (++rowCount % flushRows == 0) {
+                table.flush();
+            }
+        }
+        table.complete();
+    }
+    
+    private static Document openDocument(OutputStream outputStream, int columnCount) {
+        PdfWriter writer = new PdfWriter(outputStream);
+        // The caller owns the output stream
+        writer.setCloseStream(false);
+        PdfDocument pdf = new PdfDocument(writer);
+        return new Document(pdf, columnCount > PORTRAIT_MAX_COLUMNS ? PageSize.A4.rotate() : PageSize.A4);
+    }
+    
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    }
+    
+    /**
+     * A titled table of one document; its rows are only opened when the section is rendered
+     */
+    public record Section<T>(String title, ReportSchema<T> schema, SectionRows<T> rows) {
+    }
+    
+    @FunctionalInterface
+    public interface SectionRows<T> {
+        /**
+         * Open the section's rows and pass them to the writer; the iterator is only valid during the call
+         */
+        void open(RowWriter<T> writer) throws IOException;
+    }
+    
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(Iterator<? extends T> rows) throws IOException;
+    }
+    
+    private record SectionFile(Path path, OutputStream outputStream) {
+    }
+    
+    /**
+     * The temporary files of one parallel render. Each file is created and opened under the lock, and
+     * once the render is discarded no new file can be created, so a section that is still running when
+     * the files are deleted cannot leave one behind.
+     */
+    private static final class SectionFiles {
+        private final Path directory;
+        private final List<Path> files = new ArrayList<>();
+        private boolean discarded;
+        
+        private SectionFiles(Path directory) {
+            this.directory = directory;
+        }
+        
+        synchronized SectionFile create() throws IOException {
+            if (discarded) {
+                throw new CancellationException("PDF rendering was abandoned");
+            }
+            Path file = directory != null
+                    ? Files.createTempFile(directory, "report-section-", ".pdf")
+                    : Files.createTempFile("report-section-", ".pdf");
+            files.add(file);
+            return new SectionFile(file, Files.newOutputStream(file));
+        }
+        
+        synchronized void discard() {
+            discarded = true;
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete PDF section file {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Fonts belong to one PdfDocument, so a set is created per document and shared by all its cells
+     */
+    private static final class Styles {
+        private final Style title;
+        private final Style sectionTitle;
+        private final Style header;
+        private final Style body;
+        private final Style numericBody;
+        
+        private Styles() {
+            try {
+                PdfFont regular = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+                PdfFont bold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+                title = new Style().setFont(bold).setFontSize(16).setTextAlignment(TextAlignment.CENTER);
+                sectionTitle = new Style().setFont(bold).setFontSize(13);
+                header = new Style().setFont(bold).setFontSize(9);
+                body = new Style().setFont(regular).setFontSize(8);
+                numericBody = new Style().setFont(regular).setFontSize(8).setTextAlignment(TextAlignment.RIGHT);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load PDF fonts", e);
+            }
         }
     }
     
@@ -3,13 +3,17 @@ package com.hotel.eventreservation.strategy;
 import com.hotel.eventreservation.model.Booking;
 import com.hotel.eventreservation.model.Notification;
 import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.service.NotificationDigestService;
 import com.hotel.eventreservation.service.NotificationService;
-import com.hotel.eventreservation.service.UserService;
+import com.hotel.eventreservation.service.NotificationTemplateService;
+import com.hotel.eventreservation.service.RoleDirectoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component("pendingBookingStrategy")
 public class PendingBookingStrategy implements BookingStatusStrategy {
     
@@ -19,7 +23,13 @@ public class PendingBookingStrategy implements BookingStatusStrategy {
     private NotificationService notificationService;
     
     @Autowired
-    private UserService userService;
+    private NotificationDigestService notificationDigestService;
+    
+    @Autowired
+    private RoleDirectoryService roleDirectoryService;
+    
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
     
     @Override
     public boolean processBooking(Booking booking) {
@@ -32,27 +42,34 @@ public class PendingBookingStrategy implements BookingStatusStrategy {
             // 3. Reserve venue availability
             // 4. Generate QR code
             
+            Map<String, Object> values = Map.of(
+                "reference", booking.getReferenceCode(),
+                "guestName", booking.getGuest().getFirstName() + " " + booking.getGuest().getLastName(),
+                "eventType", booking.getEventType(),
+                "eventDate", booking.getEventDate()
+            );
+            
             // Notify guest about booking creation
             notificationService.sendNotification(
                 booking.getGuest(),
-                "Your booking " + booking.getReferenceCode() + " has been created and is pending confirmation. We will review your request and get back to you soon.",
+                notificationTemplateService.render("booking.pending.guest", booking.getGuest(), values),
                 Notification.AlertType.BOOKING_CONFIRMATION
             );
             
             // Notify managers about new pending booking
-            for (User manager : userService.getUsersByRole("GENERAL_MANAGER")) {
-                notificationService.sendNotification(
+            for (User manager : roleDirectoryService.getRecipientUsers("GENERAL_MANAGER")) {
+                notificationDigestService.submit(
                     manager,
-                    "New booking request: " + booking.getReferenceCode() + " from " + booking.getGuest().getFirstName() + " " + booking.getGuest().getLastName(),
+                    notificationTemplateService.render("booking.pending.manager", manager, values),
                     Notification.AlertType.COORDINATION_ALERT
                 );
             }
             
             // Notify coordinators about new pending booking
-            for (User coordinator : userService.getUsersByRole("EVENT_COORDINATOR")) {
-                notificationService.sendNotification(
+            for (User coordinator : roleDirectoryService.getRecipientUsers("EVENT_COORDINATOR")) {
+                notificationDigestService.submit(
                     coordinator,
-                    "New booking request: " + booking.getReferenceCode() + " for " + booking.getEventType() + " on " + booking.getEventDate(),
+                    notificationTemplateService.render("booking.pending.coordinator", coordinator, values),
                     Notification.AlertType.COORDINATION_ALERT
                 );
             }
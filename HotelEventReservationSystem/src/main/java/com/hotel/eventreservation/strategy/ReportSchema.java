@@ -0,0 +1,218 @@
+package com.hotel.eventreservation.strategy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Ordered, typed columns of a report over rows of type T.
+ * Each column reads its value straight from the row object (an entity, a projection or an array),
+ * so exports need no per-row map or copy, and every strategy writes the columns in the same order.
+ * Schemas are immutable and can be shared as constants.
+ */
+public final class ReportSchema<T> {
+
+    public enum ColumnType {
+        TEXT, INTEGER, DECIMAL, NUMBER, DATE, TIME, DATE_TIME, ENUM, BOOLEAN,
+        // Type not known up front; writers inspect each value
+        OBJECT;
+
+        public boolean isNumeric() {
+            return this == INTEGER || this == DECIMAL || this == NUMBER;
+        }
+
+        static ColumnType of(Object value) {
+            if (value == null) {
+                return OBJECT;
+            }
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return INTEGER;
+            }
+            if (value instanceof BigDecimal) {
+                return DECIMAL;
+            }
+            if (value instanceof Number) {
+                return NUMBER;
+            }
+            if (value instanceof LocalDate) {
+                return DATE;
+            }
+            if (value instanceof LocalTime) {
+                return TIME;
+            }
+            if (value instanceof LocalDateTime) {
+                return DATE_TIME;
+            }
+            if (value instanceof Enum<?>) {
+                return ENUM;
+            }
+            if (value instanceof Boolean) {
+                return BOOLEAN;
+            }
+            return value instanceof CharSequence ? TEXT : OBJECT;
+        }
+    }
+
+    public record Column<T>(String name, ColumnType type, Function<? super T, ?> accessor) {
+
+        public Object valueOf(T row) {
+            return accessor.apply(row);
+        }
+    }
+
+    private final List<Column<T>> columns;
+    private final List<String> columnNames;
+
+    private ReportSchema(List<Column<T>> columns) {
+        this.columns = List.copyOf(columns);
+        List<String> names = new ArrayList<>(columns.size());
+        for (Column<T> column : columns) {
+            names.add(column.name());
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Schema for rows already laid out as arrays in column order; types are taken from the values
+     */
+    public static ReportSchema<Object[]> forArrays(List<String> columnNames) {
+        Builder<Object[]> builder = builder();
+        for (int i = 0; i < columnNames.size(); i++) {
+            int index = i;
+            builder.column(columnNames.get(i), ColumnType.OBJECT, row -> index < row.length ? row[index] : null);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Schema for map rows, in the key order of the first row with types inferred from its values.
+     * Kept for callers of {@link ReportExportStrategy#exportData}; new code should define a typed schema.
+     */
+    public static ReportSchema<Map<String, Object>> forMaps(List<Map<String, Object>> rows) {
+        Builder<Map<String, Object>> builder = builder();
+        if (!rows.isEmpty()) {
+            for (Map.Entry<String, Object> entry : rows.get(0).entrySet()) {
+                String name = entry.getKey();
+                builder.column(name, ColumnType.of(entry.getValue()), row -> row.get(name));
+            }
+        }
+        return builder.build();
+    }
+
+    public List<Column<T>> getColumns() {
+        return columns;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public Column<T> getColumn(int index) {
+        return columns.get(index);
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    public Object valueAt(T row, int column) {
+        return columns.get(column).valueOf(row);
+    }
+
+    /**
+     * Copy one row into a map in column order, for views that render rows generically
+     */
+    public Map<String, Object> toMap(T row) {
+        Map<String, Object> values = new LinkedHashMap<>(columns.size() * 4 / 3 + 1);
+        for (Column<T> column : columns) {
+            values.put(column.name(), column.valueOf(row));
+        }
+        return values;
+    }
+
+    /**
+     * Copy one row's values in column order, for keeping computed rows without their source objects
+     */
+    public Object[] toArray(T row) {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = columns.get(i).valueOf(row);
+        }
+        return values;
+    }
+
+    /**
+     * Schema over rows copied by {@link #toArray}: same column names and types, read by position
+     */
+    public ReportSchema<Object[]> forCopiedRows() {
+        Builder<Object[]> builder = builder();
+        for (int i = 0; i < columns.size(); i++) {
+            int index = i;
+            builder.column(columns.get(i).name(), columns.get(i).type(), row -> row[index]);
+        }
+        return builder.build();
+    }
+
+    public static final class Builder<T> {
+        private final List<Column<T>> columns = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> column(String name, ColumnType type, Function<? super T, ?> accessor) {
+            columns.add(new Column<>(name, type, accessor));
+            return this;
+        }
+
+        public Builder<T> text(String name, Function<? super T, ? extends CharSequence> accessor) {
+            return column(name, ColumnType.TEXT, accessor);
+        }
+
+        public Builder<T> integer(String name, Function<? super T, ? extends Number> accessor) {
+            return column(name, ColumnType.INTEGER, accessor);
+        }
+
+        public Builder<T> decimal(String name, Function<? super T, BigDecimal> accessor) {
+            return column(name, ColumnType.DECIMAL, accessor);
+        }
+
+        public Builder<T> number(String name, Function<? super T, ? extends Number> accessor) {
+            return column(name, ColumnType.NUMBER, accessor);
+        }
+
+        public Builder<T> date(String name, Function<? super T, LocalDate> accessor) {
+            return column(name, ColumnType.DATE, accessor);
+        }
+
+        public Builder<T> time(String name, Function<? super T, LocalTime> accessor) {
+            return column(name, ColumnType.TIME, accessor);
+        }
+
+        public Builder<T> dateTime(String name, Function<? super T, LocalDateTime> accessor) {
+            return column(name, ColumnType.DATE_TIME, accessor);
+        }
+
+        public Builder<T> enumValue(String name, Function<? super T, ? extends Enum<?>> accessor) {
+            return column(name, ColumnType.ENUM, accessor);
+        }
+
+        public ReportSchema<T> build() {
+            return new ReportSchema<>(columns);
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.hotel.eventreservation.strategy;
 
 import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.service.NotificationTemplateService;
+import com.hotel.eventreservation.service.SmsDispatchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Component("sMSNotificationStrategy")
 public class SMSNotificationStrategy implements NotificationStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(SMSNotificationStrategy.class);
     
+    @Autowired
+    private SmsDispatchService smsDispatchService;
+    
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
+    
     @Override
     public boolean sendNotification(Notification notification) {
         try {
-            // Mock SMS implementation - in real scenario, integrate with SMS provider like Twilio
             String phoneNumber = notification.getRecipientUser().getPhone();
             if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
                 logger.warn("No phone number available for user: {}", notification.getRecipientUser().getUsername());
@@ -21,13 +32,12 @@ public class SMSNotificationStrategy implements NotificationStrategy {
             }
             
             String smsContent = buildSMSContent(notification);
-            logger.info("SMS would be sent to {}: {}", phoneNumber, smsContent);
-            
-            // Simulate SMS sending (without blocking sleep)
-            logger.info("SMS notification sent successfully to: {}", phoneNumber);
+            // Delivery happens asynchronously within the provider's rate limit
+            smsDispatchService.enqueue(phoneNumber, smsContent);
+            logger.debug("SMS notification queued for: {}", phoneNumber);
             return true;
         } catch (Exception e) {
-            logger.error("Failed to send SMS notification to: {}", notification.getRecipientUser().getPhone(), e);
+            logger.error("Failed to queue SMS notification to: {}", notification.getRecipientUser().getPhone(), e);
             return false;
         }
     }
@@ -38,10 +48,9 @@ public class SMSNotificationStrategy implements NotificationStrategy {
     }
     
     private String buildSMSContent(Notification notification) {
-        StringBuilder content = new StringBuilder();
-        content.append("Hotel Event: ");
-        content.append(notification.getMessageContent());
-        content.append(" [").append(notification.getAlertType().toString()).append("]");
-        return content.toString();
+        Map<String, Object> values = new HashMap<>(4);
+        values.put("message", notification.getMessageContent());
+        values.put("alertType", notification.getAlertType());
+        return notificationTemplateService.render("sms.body", notification.getAlertType(), notification.getRecipientUser(), values);
     }
 }
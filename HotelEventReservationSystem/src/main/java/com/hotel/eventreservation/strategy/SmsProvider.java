@@ -0,0 +1,31 @@
+package com.hotel.eventreservation.strategy;
+
+public interface SmsProvider {
+    
+    /**
+     * Send a single SMS message through the provider
+     * @param phoneNumber The destination phone number
+     * @param content The message text
+     * @return true if the provider accepted the message, false if it was rejected permanently
+     * @throws RuntimeException for transient failures that should be retried
+     */
+    boolean sendMessage(String phoneNumber, String content);
+    
+    /**
+     * Get the sustained number of messages per second the provider allows
+     * @return The rate limit in messages per second
+     */
+    double getRateLimitPerSecond();
+    
+    /**
+     * Get the number of messages that may be sent in a burst before the rate limit applies
+     * @return The burst capacity
+     */
+    int getBurstCapacity();
+    
+    /**
+     * Get the provider name
+     * @return The provider identifier
+     */
+    String getProviderName();
+}
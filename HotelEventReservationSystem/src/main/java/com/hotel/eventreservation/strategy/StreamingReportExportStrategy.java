@@ -0,0 +1,28 @@
+package com.hotel.eventreservation.strategy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Export strategy that writes rows to the output as they are produced, so neither the dataset
+ * nor the finished file has to be held in memory
+ */
+public interface StreamingReportExportStrategy extends ReportExportStrategy {
+    
+    /**
+     * Write the report to the given stream
+     * @param schema Columns, in output order, and how to read each from a row
+     * @param rows Rows to write; consumed once
+     * @param outputStream Destination; flushed but not closed
+     */
+    <T> void writeData(ReportSchema<T> schema, Iterator<? extends T> rows, OutputStream outputStream) throws IOException;
+    
+    /**
+     * Write rows that are already arrays in column order
+     */
+    default void writeData(List<String> columns, Iterator<Object[]> rows, OutputStream outputStream) throws IOException {
+        writeData(ReportSchema.forArrays(columns), rows, outputStream);
+    }
+}
@@ -0,0 +1,192 @@
+package com.hotel.eventreservation.strategy;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Excel export using POI's SXSSF streaming workbook.
+ * Only a window of rows is kept in memory; older rows are flushed to a compressed temp file.
+ * Column widths are estimated from the header and a sample of the first rows instead of autoSizeColumn,
+ * which measures every cell with AWT font metrics.
+ */
+@Component("xlsxExportStrategy")
+public class XLSXExportStrategy implements StreamingReportExportStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(XLSXExportStrategy.class);
+
+    private static final int MAX_COLUMN_CHARS = 60;
+    private static final double SECONDS_PER_DAY = 24 * 60 * 60;
+
+    @Value("${app.report.xlsx.row-window:100}")
+    private int rowWindow;
+
+    @Value("${app.report.xlsx.width-sample-rows:200}")
+    private int widthSampleRows;
+
+    @Override
+    public byte[] exportData(List<Map<String, Object>> data, String filename) {
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            writeData(ReportSchema.forMaps(data), data.iterator(), outputStream);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            logger.error("Error exporting data to XLSX", e);
+            throw new RuntimeException("Failed to export data to XLSX", e);
+        }
+    }
+
+    @Override
+    public <T> void writeData(ReportSchema<T> schema, Iterator<? extends T> rows, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Report Data");
+            Styles styles = new Styles(workbook);
+            List<ReportSchema.Column<T>> columns = schema.getColumns();
+
+            // Hold back a sample of rows to size the columns before anything is flushed
+            List<T> sample = new ArrayList<>(widthSampleRows);
+            while (sample.size() < widthSampleRows && rows.hasNext()) {
+                sample.add(rows.next());
+            }
+            applyColumnWidths(sheet, columns, sample);
+
+            int rowIndex = 0;
+            if (!columns.isEmpty()) {
+                Row headerRow = sheet.createRow(rowIndex++);
+                for (int i = 0; i < columns.size(); i++) {
+                    Cell cell = headerRow.createCell(i);
+                    cell.setCellValue(columns.get(i).name());
+                    cell.setCellStyle(styles.header);
+                }
+                sheet.createFreezePane(0, 1);
+            }
+            for (T row : sample) {
+                writeRow(sheet.createRow(rowIndex++), columns, row, styles);
+            }
+            sample.clear();
+            while (rows.hasNext()) {
+                writeRow(sheet.createRow(rowIndex++), columns, rows.next(), styles);
+            }
+
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static <T> void writeRow(Row row, List<ReportSchema.Column<T>> columns, T source, Styles styles) {
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = columns.get(i).valueOf(source);
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else if (value instanceof LocalDateTime dateTime) {
+                cell.setCellValue(dateTime);
+                cell.setCellStyle(styles.dateTime);
+            } else if (value instanceof LocalDate date) {
+                cell.setCellValue(date);
+                cell.setCellStyle(styles.date);
+            } else if (value instanceof LocalTime time) {
+                // Excel stores a time of day as a fraction of a day
+                cell.setCellValue(time.toSecondOfDay() / SECONDS_PER_DAY);
+                cell.setCellStyle(styles.time);
+            } else if (value instanceof Boolean bool) {
+                cell.setCellValue(bool);
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    private static <T> void applyColumnWidths(SXSSFSheet sheet, List<ReportSchema.Column<T>> columns, List<T> sample) {
+        for (int i = 0; i < columns.size(); i++) {
+            ReportSchema.Column<T> column = columns.get(i);
+            int chars = column.name().length();
+            for (T row : sample) {
+                Object value = column.valueOf(row);
+                if (value != null) {
+                    chars = Math.max(chars, displayLength(value));
+                }
+            }
+            // Width unit is 1/256 of a character, plus some padding
+            sheet.setColumnWidth(i, Math.min(chars + 2, MAX_COLUMN_CHARS) * 256);
+        }
+    }
+
+    private static int displayLength(Object value) {
+        if (value instanceof LocalDateTime) {
+            return 16;
+        }
+        if (value instanceof LocalDate) {
+            return 10;
+        }
+        if (value instanceof LocalTime) {
+            return 5;
+        }
+        return value.toString().length();
+    }
+
+    /**
+     * Cell styles are workbook-wide objects; create each once per export rather than per cell
+     */
+    private static final class Styles {
+        private final CellStyle header;
+        private final CellStyle date;
+        private final CellStyle dateTime;
+        private final CellStyle time;
+
+        private Styles(SXSSFWorkbook workbook) {
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            header = workbook.createCellStyle();
+            header.setFont(bold);
+            DataFormat formats = workbook.createDataFormat();
+            date = workbook.createCellStyle();
+            date.setDataFormat(formats.getFormat("yyyy-mm-dd"));
+            dateTime = workbook.createCellStyle();
+            dateTime.setDataFormat(formats.getFormat("yyyy-mm-dd hh:mm"));
+            time = workbook.createCellStyle();
+            time.setDataFormat(formats.getFormat("hh:mm"));
+        }
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".xlsx";
+    }
+
+    @Override
+    public String getMimeType() {
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    public String getStrategyType() {
+        return "XLSX";
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotel.eventreservation.util;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Minimal thread-safe circuit breaker.
+ * Opens after a number of consecutive failures (slow calls count as failures), rejects calls while open,
+ * then lets a single trial call through once the open interval has elapsed.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long slowCallMillis;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Duration slowCallThreshold) {
+        this(name, failureThreshold, openDuration, slowCallThreshold, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Duration slowCallThreshold, Clock clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.slowCallMillis = slowCallThreshold.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Check whether a call may proceed. While half-open only one trial call is admitted.
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Record a completed call; calls slower than the slow-call threshold are treated as failures
+     */
+    public synchronized void recordSuccess(long durationMillis) {
+        if (slowCallMillis > 0 && durationMillis > slowCallMillis) {
+            recordFailure();
+            return;
+        }
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
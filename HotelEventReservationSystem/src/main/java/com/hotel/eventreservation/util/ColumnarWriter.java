@@ -0,0 +1,282 @@
+package com.hotel.eventreservation.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writer for a compact column-oriented binary report format.
+ *
+ * Layout (varint = unsigned LEB128, zigzag = signed varint):
+ * <pre>
+ * header    : magic "HERC", version byte, varint columnCount, columnCount x string name
+ * row group : varint rowCount (0 marks the end of the file), then for each column:
+ *             type byte, null bitmap of ceil(rowCount / 8) bytes (bit set = null), then the non-null values
+ * string    : varint byte length + UTF-8 bytes
+ * </pre>
+ * Values by type: LONG zigzag; DOUBLE 8 bytes; BOOLEAN one byte; DECIMAL varint scale + string unscaled value;
+ * TIME varint second of day; DATETIME zigzag epoch second (UTC) + varint nano; STRING string.
+ * ENUM, DATE and STRING_DICT are dictionary encoded: each column keeps one dictionary for the whole file,
+ * a row group first lists the entries it adds (varint count, then strings or zigzag epoch days), then each
+ * value is a varint index into the column's dictionary.
+ *
+ * Rows are buffered per row group only; the type of a column is chosen per row group from its values.
+ * Strings switch to dictionary encoding when they repeat within the row group (event types, venue names),
+ * as long as the column's dictionary stays below MAX_STRING_DICTIONARY entries.
+ */
+public class ColumnarWriter {
+
+    public static final byte[] MAGIC = {'H', 'E', 'R', 'C'};
+    public static final int VERSION = 1;
+
+    public static final byte TYPE_NULL = 0;
+    public static final byte TYPE_LONG = 1;
+    public static final byte TYPE_DOUBLE = 2;
+    public static final byte TYPE_BOOLEAN = 3;
+    public static final byte TYPE_DECIMAL = 4;
+    public static final byte TYPE_STRING = 5;
+    public static final byte TYPE_ENUM = 6;
+    public static final byte TYPE_DATE = 7;
+    public static final byte TYPE_TIME = 8;
+    public static final byte TYPE_DATETIME = 9;
+    public static final byte TYPE_STRING_DICT = 10;
+
+    private static final int MAX_STRING_DICTIONARY = 1 << 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final int columnCount;
+    private final int rowGroupSize;
+    private final Object[][] buffer;
+    private final List<Map<Object, Integer>> dictionaries;
+    private int buffered;
+
+    public ColumnarWriter(OutputStream outputStream, List<String> columns, int rowGroupSize) throws IOException {
+        // Values are written a byte at a time; buffer so a compressing stream below sees large writes
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+        this.columnCount = columns.size();
+        this.rowGroupSize = rowGroupSize;
+        this.buffer = new Object[columnCount][rowGroupSize];
+        this.dictionaries = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            dictionaries.add(new HashMap<>());
+        }
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        writeVarLong(columnCount);
+        for (String column : columns) {
+            writeString(column);
+        }
+    }
+
+    public void writeRow(Object[] row) throws IOException {
+        for (int column = 0; column < columnCount; column++) {
+            buffer[column][buffered] = column < row.length ? row[column] : null;
+        }
+        if (++buffered == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Write any buffered rows and the end marker; the underlying stream is flushed but not closed
+     */
+    public void finish() throws IOException {
+        flushRowGroup();
+        writeVarLong(0);
+        out.flush();
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (buffered == 0) {
+            return;
+        }
+        writeVarLong(buffered);
+        for (int column = 0; column < columnCount; column++) {
+            writeColumn(column, buffer[column], buffered);
+            Arrays.fill(buffer[column], 0, buffered, null);
+        }
+        buffered = 0;
+    }
+
+    private void writeColumn(int column, Object[] values, int count) throws IOException {
+        Map<Object, Integer> dictionary = dictionaries.get(column);
+        byte type = columnType(values, count);
+        if (type == TYPE_STRING && shouldDictionaryEncode(dictionary, values, count)) {
+            type = TYPE_STRING_DICT;
+        }
+        out.writeByte(type);
+
+        byte[] nulls = new byte[(count + 7) / 8];
+        for (int i = 0; i < count; i++) {
+            if (values[i] == null) {
+                nulls[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.write(nulls);
+
+        if (type == TYPE_ENUM || type == TYPE_DATE || type == TYPE_STRING_DICT) {
+            writeDictionaryColumn(dictionary, type, values, count);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            switch (type) {
+                case TYPE_LONG -> writeZigZag(((Number) value).longValue());
+                case TYPE_DOUBLE -> out.writeDouble(((Number) value).doubleValue());
+                case TYPE_BOOLEAN -> out.writeBoolean((Boolean) value);
+                case TYPE_DECIMAL -> {
+                    BigDecimal decimal = (BigDecimal) value;
+                    writeVarLong(decimal.scale() & 0xFFFFFFFFL);
+                    writeString(decimal.unscaledValue().toString());
+                }
+                case TYPE_TIME -> writeVarLong(((LocalTime) value).toSecondOfDay());
+                case TYPE_DATETIME -> {
+                    LocalDateTime dateTime = (LocalDateTime) value;
+                    writeZigZag(dateTime.toEpochSecond(ZoneOffset.UTC));
+                    writeVarLong(dateTime.getNano());
+                }
+                default -> writeString(value.toString());
+            }
+        }
+    }
+
+    private void writeDictionaryColumn(Map<Object, Integer> dictionary, byte type, Object[] values, int count) throws IOException {
+        List<Object> added = new ArrayList<>();
+        int[] codes = new int[count];
+        for (int i = 0; i < count; i++) {
+            Object key = dictionaryKey(type, values[i]);
+            if (key == null) {
+                continue;
+            }
+            Integer code = dictionary.get(key);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.put(key, code);
+                added.add(key);
+            }
+            codes[i] = code;
+        }
+        writeVarLong(added.size());
+        for (Object entry : added) {
+            if (type == TYPE_DATE) {
+                writeZigZag(((LocalDate) entry).toEpochDay());
+            } else {
+                writeString((String) entry);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (values[i] != null) {
+                writeVarLong(codes[i]);
+            }
+        }
+    }
+
+    /**
+     * Enum constants are stored by name, everything else in a STRING_DICT column by its string form
+     */
+    private static Object dictionaryKey(byte type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (type) {
+            case TYPE_ENUM -> ((Enum<?>) value).name();
+            case TYPE_STRING_DICT -> value.toString();
+            default -> value;
+        };
+    }
+
+    /**
+     * Dictionary encode when at most half of the group's values are distinct and the dictionary has room for them
+     */
+    private static boolean shouldDictionaryEncode(Map<Object, Integer> dictionary, Object[] values, int count) {
+        Set<String> distinct = new HashSet<>();
+        int present = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i] != null) {
+                present++;
+                distinct.add(values[i].toString());
+            }
+        }
+        return distinct.size() * 2 <= present && dictionary.size() + distinct.size() <= MAX_STRING_DICTIONARY;
+    }
+
+    private static byte columnType(Object[] values, int count) {
+        byte type = TYPE_NULL;
+        for (int i = 0; i < count; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            byte valueType = valueType(values[i]);
+            if (type == TYPE_NULL) {
+                type = valueType;
+            } else if (type != valueType) {
+                return TYPE_STRING;
+            }
+        }
+        return type;
+    }
+
+    private static byte valueType(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return TYPE_LONG;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return TYPE_DOUBLE;
+        }
+        if (value instanceof BigDecimal) {
+            return TYPE_DECIMAL;
+        }
+        if (value instanceof Boolean) {
+            return TYPE_BOOLEAN;
+        }
+        if (value instanceof Enum<?>) {
+            return TYPE_ENUM;
+        }
+        if (value instanceof LocalDate) {
+            return TYPE_DATE;
+        }
+        if (value instanceof LocalTime) {
+            return TYPE_TIME;
+        }
+        if (value instanceof LocalDateTime) {
+            return TYPE_DATETIME;
+        }
+        return TYPE_STRING;
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeZigZag(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hotel.eventreservation.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * Minimal RFC 4180 CSV writer.
+ * Records end with CRLF; a field is quoted only when it contains a comma, double quote, CR or LF,
+ * and embedded double quotes are doubled. Output goes straight to the underlying writer, which
+ * should be buffered.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private static final String RECORD_SEPARATOR = "\r\n";
+
+    private final Writer writer;
+    private boolean inRecord;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(Iterable<?> fields) throws IOException {
+        for (Object field : fields) {
+            writeField(field);
+        }
+        endRecord();
+    }
+
+    public void writeRecord(Object[] fields) throws IOException {
+        for (Object field : fields) {
+            writeField(field);
+        }
+        endRecord();
+    }
+
+    /**
+     * Append one field to the current record; call {@link #endRecord()} after the last one
+     */
+    public void writeField(Object value) throws IOException {
+        if (inRecord) {
+            writer.write(',');
+        }
+        inRecord = true;
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (!needsQuoting(text)) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                writer.write(text, start, i - start + 1);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(text, start, text.length() - start);
+        writer.write('"');
+    }
+
+    public void endRecord() throws IOException {
+        writer.write(RECORD_SEPARATOR);
+        inRecord = false;
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
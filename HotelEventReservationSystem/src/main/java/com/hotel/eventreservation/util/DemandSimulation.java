@@ -0,0 +1,356 @@
+package com.hotel.eventreservation.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo replay of booking demand against a venue inventory.
+ *
+ * A trial draws a Poisson number of requests for a horizon of whole weeks, each a historical booking
+ * picked at random (event type, guests, weekday, times and lead time kept together) and placed in a random
+ * week. Requests are served in the order they would arrive (event day less lead time): each takes the
+ * smallest venue that holds its guests and has no overlapping booking that day, or is rejected. Venue days
+ * are 15-minute slot bitmasks in one long array per worker, reused from trial to trial.
+ *
+ * Trials run on a fork/join pool, split into tasks of a few trials each. Trial i always draws from the
+ * same seed, so results do not depend on the parallelism, and two inventories run with the same seed face
+ * the same demand (common random numbers), which makes their per-trial differences paired.
+ */
+public final class DemandSimulation {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final int WORDS_PER_DAY = 2;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // Few enough trials per task to balance across cores, enough to outweigh the fork
+    private static final int TRIALS_PER_TASK = 8;
+    // Sort keys pack arrival day, a random tie-break and the request index
+    private static final int INDEX_BITS = 20;
+    private static final int TIE_BITS = 20;
+    private static final int MAX_LEAD_DAYS = 4095;
+    private static final int MAX_REQUESTS_PER_TRIAL = 1 << INDEX_BITS;
+    // Above this mean the Poisson draw uses its normal approximation
+    private static final double POISSON_NORMAL_ABOVE = 64.0;
+
+    private final Demand demand;
+    private final int[] capacities;
+    private final int[] byCapacity;
+    private final int horizonWeeks;
+    private final int days;
+    private final long[] openMask;
+    private final int openSlotsPerDay;
+
+    /**
+     * @param venueCapacities guest capacity of each venue; results list venues in this order
+     * @param openHour first hour of the day that counts as available time
+     * @param closeHour hour the venues close, up to 24
+     */
+    public DemandSimulation(Demand demand, int[] venueCapacities, int horizonWeeks, int openHour, int closeHour) {
+        if (horizonWeeks < 1) {
+            throw new IllegalArgumentException("Horizon must be at least one week");
+        }
+        if (openHour < 0 || closeHour > 24 || openHour >= closeHour) {
+            throw new IllegalArgumentException("Opening hours must be within 0-24");
+        }
+        this.demand = demand;
+        this.capacities = venueCapacities.clone();
+        this.byCapacity = new int[capacities.length];
+        Integer[] order = new Integer[capacities.length];
+        for (int v = 0; v < order.length; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(capacities[a], capacities[b]));
+        for (int v = 0; v < order.length; v++) {
+            byCapacity[v] = order[v];
+        }
+        this.horizonWeeks = horizonWeeks;
+        this.days = horizonWeeks * 7;
+        int openSlot = openHour * 60 / SLOT_MINUTES;
+        int closeSlot = closeHour * 60 / SLOT_MINUTES;
+        this.openMask = new long[] {mask(openSlot, closeSlot, 0), mask(openSlot, closeSlot, 1)};
+        this.openSlotsPerDay = closeSlot - openSlot;
+    }
+
+    /**
+     * Run trials on a pool; demandScale multiplies the historical request rate
+     */
+    public Result run(ForkJoinPool pool, int trials, double demandScale, long seed) {
+        if (trials < 1) {
+            throw new IllegalArgumentException("At least one trial is required");
+        }
+        double[] rejectionRates = new double[trials];
+        double[] utilizations = new double[trials];
+        Totals totals = pool.invoke(new TrialTask(0, trials, demandScale, seed, rejectionRates, utilizations));
+        return new Result(trials, rejectionRates, utilizations, totals.venueBookedSlots,
+                (long) openSlotsPerDay * days, demand.eventTypes, totals.requestsByType, totals.rejectionsByType);
+    }
+
+    private final class TrialTask extends RecursiveTask<Totals> {
+
+        private final int from;
+        private final int to;
+        private final double demandScale;
+        private final long seed;
+        private final double[] rejectionRates;
+        private final double[] utilizations;
+
+        TrialTask(int from, int to, double demandScale, long seed, double[] rejectionRates, double[] utilizations) {
+            this.from = from;
+            this.to = to;
+            this.demandScale = demandScale;
+            this.seed = seed;
+            this.rejectionRates = rejectionRates;
+            this.utilizations = utilizations;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= TRIALS_PER_TASK) {
+                Totals totals = new Totals(capacities.length, demand.eventTypes.size());
+                Workspace workspace = new Workspace(capacities.length * days * WORDS_PER_DAY);
+                for (int trial = from; trial < to; trial++) {
+                    runTrial(trial, workspace, totals);
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            TrialTask left = new TrialTask(from, middle, demandScale, seed, rejectionRates, utilizations);
+            left.fork();
+            Totals right = new TrialTask(middle, to, demandScale, seed, rejectionRates, utilizations).compute();
+            return left.join().add(right);
+        }
+
+        private void runTrial(int trial, Workspace workspace, Totals totals) {
+            SplittableRandom random = new SplittableRandom(seed + trial * GOLDEN_GAMMA);
+            int requests = demand.size() == 0 ? 0
+                    : Math.min(MAX_REQUESTS_PER_TRIAL, poisson(random, demand.requestsPerDay * demandScale * days));
+            workspace.ensure(requests);
+            for (int i = 0; i < requests; i++) {
+                int sample = random.nextInt(demand.size());
+                int day = random.nextInt(horizonWeeks) * 7 + demand.weekday[sample];
+                long arrival = day - demand.leadDays[sample] + MAX_LEAD_DAYS;
+                workspace.sample[i] = sample;
+                workspace.day[i] = day;
+                workspace.order[i] = arrival << (TIE_BITS + INDEX_BITS)
+                        | (long) random.nextInt(1 << TIE_BITS) << INDEX_BITS | i;
+            }
+            Arrays.sort(workspace.order, 0, requests);
+            long[] occupied = workspace.occupied;
+            Arrays.fill(occupied, 0L);
+
+            int rejections = 0;
+            for (int k = 0; k < requests; k++) {
+                int i = (int) (workspace.order[k] & (MAX_REQUESTS_PER_TRIAL - 1));
+                int sample = workspace.sample[i];
+                int type = demand.eventType[sample];
+                long low = mask(demand.startSlot[sample], demand.endSlot[sample], 0);
+                long high = mask(demand.startSlot[sample], demand.endSlot[sample], 1);
+                totals.requestsByType[type]++;
+                boolean placed = false;
+                for (int venue : byCapacity) {
+                    if (capacities[venue] < demand.guests[sample]) {
+                        continue;
+                    }
+                    int word = (venue * days + workspace.day[i]) * WORDS_PER_DAY;
+                    if ((occupied[word] & low) == 0 && (occupied[word + 1] & high) == 0) {
+                        occupied[word] |= low;
+                        occupied[word + 1] |= high;
+                        placed = true;
+                        break;
+                    }
+                }
+                if (!placed) {
+                    rejections++;
+                    totals.rejectionsByType[type]++;
+                }
+            }
+
+            long bookedSlots = 0;
+            for (int venue = 0; venue < capacities.length; venue++) {
+                long venueSlots = 0;
+                for (int word = venue * days * WORDS_PER_DAY; word < (venue + 1) * days * WORDS_PER_DAY; word += WORDS_PER_DAY) {
+                    venueSlots += Long.bitCount(occupied[word] & openMask[0]) + Long.bitCount(occupied[word + 1] & openMask[1]);
+                }
+                totals.venueBookedSlots[venue] += venueSlots;
+                bookedSlots += venueSlots;
+            }
+            long openSlots = (long) capacities.length * days * openSlotsPerDay;
+            rejectionRates[trial] = requests == 0 ? 0.0 : (double) rejections / requests;
+            utilizations[trial] = openSlots == 0 ? 0.0 : (double) bookedSlots / openSlots;
+        }
+    }
+
+    /**
+     * Bits of slots [from, to) that fall in one 64-slot word of a day
+     */
+    private static long mask(int from, int to, int word) {
+        int low = Math.max(from, word * 64);
+        int high = Math.min(to, word * 64 + 64);
+        if (low >= high) {
+            return 0L;
+        }
+        int bits = high - low;
+        return (bits == 64 ? -1L : (1L << bits) - 1) << (low - word * 64);
+    }
+
+    private static int poisson(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean > POISSON_NORMAL_ABOVE) {
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+        }
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Per-worker arrays, grown as needed and reused across trials
+     */
+    private static final class Workspace {
+        private final long[] occupied;
+        private int[] sample = new int[0];
+        private int[] day = new int[0];
+        private long[] order = new long[0];
+
+        Workspace(int words) {
+            this.occupied = new long[words];
+        }
+
+        void ensure(int requests) {
+            if (sample.length < requests) {
+                int size = Math.max(requests, sample.length * 2);
+                sample = new int[size];
+                day = new int[size];
+                order = new long[size];
+            }
+        }
+    }
+
+    private static final class Totals {
+        private final long[] venueBookedSlots;
+        private final long[] requestsByType;
+        private final long[] rejectionsByType;
+
+        Totals(int venues, int eventTypes) {
+            venueBookedSlots = new long[venues];
+            requestsByType = new long[eventTypes];
+            rejectionsByType = new long[eventTypes];
+        }
+
+        Totals add(Totals other) {
+            for (int i = 0; i < venueBookedSlots.length; i++) {
+                venueBookedSlots[i] += other.venueBookedSlots[i];
+            }
+            for (int i = 0; i < requestsByType.length; i++) {
+                requestsByType[i] += other.requestsByType[i];
+                rejectionsByType[i] += other.rejectionsByType[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Per-trial rejection rates and utilizations (fractions), with booked slots per venue and requests and
+     * rejections per event type summed over all trials
+     */
+    public record Result(int trials, double[] rejectionRates, double[] utilizations, long[] venueBookedSlots,
+                         long openSlotsPerVenue, List<String> eventTypes, long[] requestsByType,
+                         long[] rejectionsByType) {
+
+        public double venueUtilization(int venue) {
+            return openSlotsPerVenue == 0 ? 0.0 : (double) venueBookedSlots[venue] / (openSlotsPerVenue * trials);
+        }
+    }
+
+    /**
+     * Historical bookings to resample, held column-wise
+     */
+    public static final class Demand {
+        private final int[] eventType;
+        private final int[] weekday;
+        private final int[] startSlot;
+        private final int[] endSlot;
+        private final int[] guests;
+        private final int[] leadDays;
+        private final List<String> eventTypes;
+        private final double requestsPerDay;
+
+        private Demand(List<int[]> rows, List<String> eventTypes, double requestsPerDay) {
+            int size = rows.size();
+            eventType = new int[size];
+            weekday = new int[size];
+            startSlot = new int[size];
+            endSlot = new int[size];
+            guests = new int[size];
+            leadDays = new int[size];
+            for (int i = 0; i < size; i++) {
+                int[] row = rows.get(i);
+                eventType[i] = row[0];
+                weekday[i] = row[1];
+                startSlot[i] = row[2];
+                endSlot[i] = row[3];
+                guests[i] = row[4];
+                leadDays[i] = row[5];
+            }
+            this.eventTypes = List.copyOf(eventTypes);
+            this.requestsPerDay = requestsPerDay;
+        }
+
+        public int size() {
+            return eventType.length;
+        }
+
+        public double getRequestsPerDay() {
+            return requestsPerDay;
+        }
+
+        public List<String> getEventTypes() {
+            return eventTypes;
+        }
+
+        public static final class Builder {
+            private final List<int[]> rows = new ArrayList<>();
+            private final Map<String, Integer> eventTypes = new LinkedHashMap<>();
+
+            /**
+             * A booking; an end at or before the start runs to midnight
+             */
+            public Builder add(String eventType, DayOfWeek day, LocalTime start, LocalTime end, int guests, long leadDays) {
+                int type = eventTypes.computeIfAbsent(eventType != null ? eventType : "Other", key -> eventTypes.size());
+                int startSlot = (start.getHour() * 60 + start.getMinute()) / SLOT_MINUTES;
+                int endMinute = end.getHour() * 60 + end.getMinute();
+                int endSlot = end.isAfter(start) ? (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES : SLOTS_PER_DAY;
+                rows.add(new int[] {type, day.getValue() - 1, startSlot, endSlot, Math.max(1, guests),
+                        (int) Math.max(0, Math.min(MAX_LEAD_DAYS, leadDays))});
+                return this;
+            }
+
+            public int size() {
+                return rows.size();
+            }
+
+            /**
+             * @param requestsPerDay how many of these requests arrive per day on average
+             */
+            public Demand build(double requestsPerDay) {
+                return new Demand(rows, new ArrayList<>(eventTypes.keySet()), requestsPerDay);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.hotel.eventreservation.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel (64 slots per level).
+ * Level 0 holds items due within the next 64 ticks, level 1 within 64^2 ticks, and so on. Scheduling is O(1);
+ * each tick expires one level-0 slot and, on level boundaries, redistributes a single higher-level slot,
+ * so the cost of a tick does not depend on how many items are scheduled further out.
+ * Items beyond the top level are parked and re-placed whenever the top level turns over.
+ * Not thread-safe on its own; all public methods are synchronized.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<List<Entry<T>>> slots;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+
+    // Next tick to be processed
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimerWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis < 1 || levels < 1 || levels > 10) {
+            throw new IllegalArgumentException("Tick must be positive and levels between 1 and 10");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.slots = new ArrayList<>(levels * SLOTS);
+        for (int i = 0; i < levels * SLOTS; i++) {
+            slots.add(null);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule an item; items already due fire on the next advance
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(new Entry<>(item, Math.max(tick, currentTick)));
+        size++;
+    }
+
+    /**
+     * Process every tick up to and including the one containing nowMillis
+     * @return items whose deadline has passed, in tick order
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick < currentTick) {
+            return Collections.emptyList();
+        }
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            cascade();
+            List<Entry<T>> due = slots.set(index(0, (int) (currentTick & SLOT_MASK)), null);
+            if (due != null) {
+                for (Entry<T> entry : due) {
+                    expired.add(entry.item);
+                }
+                size -= due.size();
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * On level boundaries move the entries of the higher-level slot that just came due down the wheel,
+     * top level first so that they can fall through more than one level in the same tick
+     */
+    private void cascade() {
+        if (currentTick % span(levels - 1) == 0 && !overflow.isEmpty()) {
+            List<Entry<T>> parked = new ArrayList<>(overflow);
+            overflow.clear();
+            parked.forEach(this::place);
+        }
+        for (int level = levels - 1; level >= 1; level--) {
+            if (currentTick % span(level) != 0) {
+                continue;
+            }
+            int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            List<Entry<T>> entries = slots.set(index(level, slot), null);
+            if (entries != null) {
+                entries.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.tick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            if (delta < span(level + 1)) {
+                int slot = (int) ((entry.tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                int index = index(level, slot);
+                List<Entry<T>> bucket = slots.get(index);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    slots.set(index, bucket);
+                }
+                bucket.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private int index(int level, int slot) {
+        return level * SLOTS + slot;
+    }
+
+    private static long span(int level) {
+        return 1L << (SLOT_BITS * level);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long tick;
+
+        private Entry(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
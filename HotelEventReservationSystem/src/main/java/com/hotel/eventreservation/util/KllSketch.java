@@ -0,0 +1,301 @@
+package com.hotel.eventreservation.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch (Karnin, Lang and Liberty, "Optimal quantile approximation in streams", 2016).
+ *
+ * Values are kept in levels; an item on level h stands for 2^h values. When the sketch outgrows its
+ * capacity, the lowest full level is sorted and every other item, from a random offset, moves up a level
+ * with double weight. Level capacities shrink by 2/3 going down from k at the top, so the sketch holds
+ * about 3k items however many values it has seen, and sketches merge by appending level to level.
+ *
+ * A quantile or rank answered from the sketch is off by at most about 1.65% of the count (in rank) with
+ * 99% confidence at the default k of 200; see normalizedRankError. Until the first compaction, i.e. for
+ * fewer than k values, answers are exact. Not thread-safe.
+ */
+public final class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_K = 8;
+    private static final int MAX_K = 65535;
+    private static final double LEVEL_RATIO = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+    private static final byte FORMAT = 1;
+
+    private final int k;
+    private final SplittableRandom random;
+    private final List<Level> levels = new ArrayList<>();
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    /**
+     * A sketch whose compactions are repeatable, for tests
+     */
+    public KllSketch(int k, long seed) {
+        this(k, new SplittableRandom(seed));
+    }
+
+    private KllSketch(int k, SplittableRandom random) {
+        if (k < MIN_K || k > MAX_K) {
+            throw new IllegalArgumentException("k must be between " + MIN_K + " and " + MAX_K);
+        }
+        this.k = k;
+        this.random = random;
+        levels.add(new Level());
+    }
+
+    /**
+     * Rank error (as a fraction of the count) that holds with 99% confidence, for a k
+     */
+    public static double normalizedRankError(int k) {
+        return 2.446 / Math.pow(k, 0.9433);
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public double normalizedRankError() {
+        return normalizedRankError(k);
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        levels.get(0).add(value);
+        count++;
+        min = count == 1 || value < min ? value : min;
+        max = count == 1 || value > max ? value : max;
+        compress();
+    }
+
+    /**
+     * Fold another sketch of the same k into this one
+     */
+    public void merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with k " + k + " and " + other.k);
+        }
+        if (other.count == 0) {
+            return;
+        }
+        while (levels.size() < other.levels.size()) {
+            levels.add(new Level());
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            Level source = other.levels.get(h);
+            for (int i = 0; i < source.size; i++) {
+                levels.get(h).add(source.items[i]);
+            }
+        }
+        min = count == 0 || other.min < min ? other.min : min;
+        max = count == 0 || other.max > max ? other.max : max;
+        count += other.count;
+        compress();
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Approximate fraction of values less than or equal to the value
+     */
+    public double rank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long weight = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                if (level.items[i] <= value) {
+                    weight += 1L << h;
+                }
+            }
+        }
+        return (double) weight / count;
+    }
+
+    /**
+     * Approximate value at a fraction of the count, e.g. 0.5 for the median; NaN when empty
+     */
+    public double quantile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Quantile fraction must be between 0 and 1");
+        }
+        return quantiles(fraction)[0];
+    }
+
+    /**
+     * Several quantiles from one sorted pass over the sketch
+     */
+    public double[] quantiles(double... fractions) {
+        double[] result = new double[fractions.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        int items = 0;
+        for (Level level : levels) {
+            items += level.size;
+        }
+        // Every retained item with its weight, visited in value order
+        double[] values = new double[items];
+        long[] weights = new long[items];
+        Integer[] order = new Integer[items];
+        int next = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                values[next] = level.items[i];
+                weights[next] = 1L << h;
+                order[next] = next;
+                next++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        for (int f = 0; f < fractions.length; f++) {
+            double fraction = fractions[f];
+            if (fraction <= 0) {
+                result[f] = min;
+            } else if (fraction >= 1) {
+                result[f] = max;
+            } else {
+                double target = fraction * count;
+                long cumulative = 0;
+                result[f] = max;
+                for (Integer index : order) {
+                    cumulative += weights[index];
+                    if (cumulative >= target) {
+                        result[f] = values[index];
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public byte[] toBytes() {
+        int items = 0;
+        for (Level level : levels) {
+            items += level.size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 + 8 + 16 + 1 + 4 * levels.size() + 8 * items);
+        buffer.put(FORMAT).putShort((short) k).putLong(count).putDouble(min).putDouble(max).put((byte) levels.size());
+        for (Level level : levels) {
+            buffer.putInt(level.size);
+            for (int i = 0; i < level.size; i++) {
+                buffer.putDouble(level.items[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static KllSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unknown KLL sketch format " + format);
+        }
+        KllSketch sketch = new KllSketch(Short.toUnsignedInt(buffer.getShort()));
+        sketch.count = buffer.getLong();
+        sketch.min = buffer.getDouble();
+        sketch.max = buffer.getDouble();
+        int levelCount = buffer.get();
+        sketch.levels.clear();
+        for (int h = 0; h < levelCount; h++) {
+            Level level = new Level();
+            int size = buffer.getInt();
+            for (int i = 0; i < size; i++) {
+                level.add(buffer.getDouble());
+            }
+            sketch.levels.add(level);
+        }
+        return sketch;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(LEVEL_RATIO, depth)));
+    }
+
+    private void compress() {
+        while (true) {
+            int total = 0;
+            int capacity = 0;
+            for (int h = 0; h < levels.size(); h++) {
+                total += levels.get(h).size;
+                capacity += capacity(h);
+            }
+            if (total <= capacity) {
+                return;
+            }
+            for (int h = 0; h < levels.size(); h++) {
+                if (levels.get(h).size >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Move every other item of a level, from a random offset, one level up; an odd item out stays
+     */
+    private void compact(int h) {
+        if (h + 1 == levels.size()) {
+            levels.add(new Level());
+        }
+        Level level = levels.get(h);
+        Level above = levels.get(h + 1);
+        Arrays.sort(level.items, 0, level.size);
+        int start = level.size % 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = start + offset; i < level.size; i += 2) {
+            above.add(level.items[i]);
+        }
+        level.size = start;
+    }
+
+    private static final class Level {
+        private double[] items = new double[8];
+        private int size;
+
+        void add(double value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+}
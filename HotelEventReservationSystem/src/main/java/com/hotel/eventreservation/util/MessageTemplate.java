@@ -0,0 +1,138 @@
+package com.hotel.eventreservation.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message template compiled once into alternating literal and placeholder segments.
+ * Placeholders are written as {name}; {{ and }} stand for literal braces.
+ * Rendering appends the segments straight into a single pre-sized StringBuilder, so a render allocates
+ * only the builder and the resulting String. Missing values render as an empty string.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class MessageTemplate {
+
+    // Room reserved per placeholder when pre-sizing the output buffer
+    private static final int ESTIMATED_VALUE_LENGTH = 24;
+
+    private final String source;
+    // literals.length == placeholders.length + 1; the output is literals[0] value[0] literals[1] ... literals[n]
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int estimatedLength;
+
+    private MessageTemplate(String source, String[] literals, String[] placeholders) {
+        this.source = source;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.estimatedLength = literalLength + placeholders.length * ESTIMATED_VALUE_LENGTH;
+    }
+
+    /**
+     * Parse a template
+     * @throws IllegalArgumentException when a placeholder is unterminated, empty or contains a brace
+     */
+    public static MessageTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '{' && i + 1 < length && source.charAt(i + 1) == '{') {
+                literal.append('{');
+                i += 2;
+            } else if (c == '}' && i + 1 < length && source.charAt(i + 1) == '}') {
+                literal.append('}');
+                i += 2;
+            } else if (c == '{') {
+                int end = source.indexOf('}', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated placeholder at index " + i + " in template: " + source);
+                }
+                String name = source.substring(i + 1, end).trim();
+                if (name.isEmpty() || name.indexOf('{') >= 0) {
+                    throw new IllegalArgumentException("Invalid placeholder at index " + i + " in template: " + source);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                placeholders.add(name);
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new MessageTemplate(source, literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(estimatedLength);
+        renderTo(out, values, false);
+        return out.toString();
+    }
+
+    /**
+     * Render with every substituted value HTML-escaped; the template text itself is emitted as written
+     */
+    public String renderHtml(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(estimatedLength + estimatedLength / 4);
+        renderTo(out, values, true);
+        return out.toString();
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> values, boolean escapeHtml) {
+        out.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            Object value = values.get(placeholders[i]);
+            if (value != null) {
+                if (escapeHtml) {
+                    appendEscaped(out, value instanceof CharSequence text ? text : String.valueOf(value));
+                } else if (value instanceof CharSequence text) {
+                    out.append(text);
+                } else {
+                    out.append(value);
+                }
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public List<String> getPlaceholders() {
+        return Collections.unmodifiableList(Arrays.asList(placeholders));
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private static void appendEscaped(StringBuilder out, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                case '\n' -> out.append("<br>");
+                case '\r' -> { }
+                default -> out.append(c);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,80 @@
+package com.hotel.eventreservation.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hotel.eventreservation.model.Notification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes expired notifications to a gzip compressed NDJSON file (one JSON object per line).
+ * A writer is opened once per retention run and receives the rows chunk by chunk.
+ */
+public class NotificationArchiveWriter implements Closeable {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Path file;
+    private final OutputStream outputStream;
+    private final JsonGenerator generator;
+    private long recordCount;
+
+    public NotificationArchiveWriter(Path directory, LocalDateTime runStartedAt) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve("notifications-" + runStartedAt.format(FILE_TIMESTAMP) + ".ndjson.gz");
+        this.outputStream = new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024, true);
+        this.generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Append a chunk of notifications and flush it to disk.
+     * Callers must only delete the rows once this method has returned.
+     */
+    public void write(List<Notification> notifications) throws IOException {
+        for (Notification notification : notifications) {
+            generator.writeStartObject();
+            generator.writeNumberField("notificationId", notification.getNotificationId());
+            generator.writeNumberField("recipientUserId", notification.getRecipientUser().getUserId());
+            if (notification.getSenderUser() != null) {
+                generator.writeNumberField("senderUserId", notification.getSenderUser().getUserId());
+            }
+            generator.writeStringField("senderType", String.valueOf(notification.getSenderType()));
+            generator.writeStringField("alertType", String.valueOf(notification.getAlertType()));
+            generator.writeBooleanField("isRead", notification.isRead());
+            generator.writeStringField("createdAt", String.valueOf(notification.getCreatedAt()));
+            if (notification.getReadAt() != null) {
+                generator.writeStringField("readAt", notification.getReadAt().toString());
+            }
+            generator.writeStringField("messageContent", notification.getMessageContent());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            recordCount++;
+        }
+        generator.flush();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        outputStream.close();
+    }
+}
@@ -0,0 +1,64 @@
+package com.hotel.eventreservation.util;
+
+import java.time.DayOfWeek;
+
+/**
+ * Booked and available minutes per hour of the week (Monday 00:00 is hour 0) for one venue, summed
+ * over many days. Day profiles are added and subtracted as days enter or leave the window or change,
+ * so keeping the matrix current costs 24 additions per changed day. Not thread-safe.
+ */
+public final class OccupancyMatrix {
+
+    public static final int HOURS_PER_WEEK = 7 * 24;
+
+    private final int[] bookedMinutes = new int[HOURS_PER_WEEK];
+    private final int[] availableMinutes = new int[HOURS_PER_WEEK];
+
+    public void add(DayOfWeek day, OccupancySweep.DayProfile profile) {
+        apply(day, profile, 1);
+    }
+
+    public void subtract(DayOfWeek day, OccupancySweep.DayProfile profile) {
+        apply(day, profile, -1);
+    }
+
+    public int bookedMinutes(int hourOfWeek) {
+        return bookedMinutes[hourOfWeek];
+    }
+
+    public int availableMinutes(int hourOfWeek) {
+        return availableMinutes[hourOfWeek];
+    }
+
+    /**
+     * Booked over available time for an hour of the week, or NaN when the venue was never available then
+     */
+    public double occupancy(int hourOfWeek) {
+        int available = availableMinutes[hourOfWeek];
+        return available > 0 ? (double) bookedMinutes[hourOfWeek] / available : Double.NaN;
+    }
+
+    public long totalBookedMinutes() {
+        long total = 0;
+        for (int minutes : bookedMinutes) {
+            total += minutes;
+        }
+        return total;
+    }
+
+    public long totalAvailableMinutes() {
+        long total = 0;
+        for (int minutes : availableMinutes) {
+            total += minutes;
+        }
+        return total;
+    }
+
+    private void apply(DayOfWeek day, OccupancySweep.DayProfile profile, int sign) {
+        int offset = (day.getValue() - 1) * 24;
+        for (int hour = 0; hour < 24; hour++) {
+            bookedMinutes[offset + hour] += sign * profile.bookedMinutes(hour);
+            availableMinutes[offset + hour] += sign * profile.availableMinutes(hour);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.hotel.eventreservation.util;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Booked and available minutes per hour of one day at one venue, from its booking and blocked intervals.
+ *
+ * The day's interval endpoints are sorted once and swept left to right, keeping a depth count of open
+ * bookings and open blocks; each stretch between two endpoints is available when no block (closing hours
+ * count as one) covers it, and booked when it is also covered by at least one booking. Overlapping bookings
+ * therefore count once, and a booking during maintenance counts as neither. Cost is O(n log n) in the
+ * number of intervals, independent of their length.
+ */
+public final class OccupancySweep {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Endpoint kinds, packed into the low two bits of each event
+    private static final int BOOKING_END = 0;
+    private static final int BLOCK_END = 1;
+    private static final int BOOKING_START = 2;
+    private static final int BLOCK_START = 3;
+
+    private OccupancySweep() {
+    }
+
+    /**
+     * Minutes of the day [startMinute, endMinute); an end at or before the start runs to midnight
+     */
+    public record Interval(int startMinute, int endMinute) {
+
+        public static Interval of(LocalTime start, LocalTime end) {
+            int startMinute = start.getHour() * 60 + start.getMinute();
+            int endMinute = end.getHour() * 60 + end.getMinute();
+            return new Interval(startMinute, endMinute > startMinute ? endMinute : MINUTES_PER_DAY);
+        }
+    }
+
+    /**
+     * Booked and available minutes (0..60) for each hour of a day
+     */
+    public record DayProfile(byte[] bookedMinutes, byte[] availableMinutes) {
+
+        public int bookedMinutes(int hour) {
+            return bookedMinutes[hour];
+        }
+
+        public int availableMinutes(int hour) {
+            return availableMinutes[hour];
+        }
+
+        public boolean sameAs(DayProfile other) {
+            return Arrays.equals(bookedMinutes, other.bookedMinutes) && Arrays.equals(availableMinutes, other.availableMinutes);
+        }
+    }
+
+    /**
+     * Sweep one day. Minutes outside [openMinute, closeMinute) are unavailable.
+     */
+    public static DayProfile sweep(List<Interval> bookings, List<Interval> blocks, int openMinute, int closeMinute) {
+        // Endpoints packed as minute * 4 + kind, so one primitive sort orders them by minute
+        int closedBefore = openMinute > 0 ? 1 : 0;
+        int closedAfter = closeMinute < MINUTES_PER_DAY ? 1 : 0;
+        long[] events = new long[2 * (bookings.size() + blocks.size() + closedBefore + closedAfter)];
+        int count = 0;
+        for (Interval booking : bookings) {
+            count = add(events, count, booking, BOOKING_END, BOOKING_START);
+        }
+        for (Interval block : blocks) {
+            count = add(events, count, block, BLOCK_END, BLOCK_START);
+        }
+        if (closedBefore == 1) {
+            count = add(events, count, new Interval(0, openMinute), BLOCK_END, BLOCK_START);
+        }
+        if (closedAfter == 1) {
+            count = add(events, count, new Interval(closeMinute, MINUTES_PER_DAY), BLOCK_END, BLOCK_START);
+        }
+        Arrays.sort(events, 0, count);
+
+        byte[] booked = new byte[24];
+        byte[] available = new byte[24];
+        int bookingDepth = 0;
+        int blockDepth = 0;
+        int previous = 0;
+        for (int i = 0; i <= count; i++) {
+            int minute = i < count ? (int) (events[i] >> 2) : MINUTES_PER_DAY;
+            if (minute > previous && blockDepth == 0) {
+                spread(available, previous, minute);
+                if (bookingDepth > 0) {
+                    spread(booked, previous, minute);
+                }
+            }
+            previous = Math.max(previous, minute);
+            if (i < count) {
+                switch ((int) (events[i] & 3)) {
+                    case BOOKING_END -> bookingDepth--;
+                    case BLOCK_END -> blockDepth--;
+                    case BOOKING_START -> bookingDepth++;
+                    default -> blockDepth++;
+                }
+            }
+        }
+        return new DayProfile(booked, available);
+    }
+
+    private static int add(long[] events, int count, Interval interval, int endKind, int startKind) {
+        int start = Math.max(0, interval.startMinute());
+        int end = Math.min(MINUTES_PER_DAY, interval.endMinute());
+        if (end <= start) {
+            return count;
+        }
+        events[count++] = (long) start << 2 | startKind;
+        events[count++] = (long) end << 2 | endKind;
+        return count;
+    }
+
+    // Add the minutes [from, to) to their hours
+    private static void spread(byte[] hours, int from, int to) {
+        for (int minute = from; minute < to; ) {
+            int hour = minute / 60;
+            int hourEnd = Math.min(to, (hour + 1) * 60);
+            hours[hour] += (byte) (hourEnd - minute);
+            minute = hourEnd;
+        }
+    }
+}
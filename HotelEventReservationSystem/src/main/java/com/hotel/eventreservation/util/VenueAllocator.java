@@ -0,0 +1,331 @@
+package com.hotel.eventreservation.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assigns booking requests to venues without overlaps, maximizing revenue and then how well parties fit.
+ *
+ * Each venue-day holds its intervals in a TreeMap by start minute; intervals never overlap, so a request
+ * is free in a venue when the last interval starting before its end also ends before its start, an
+ * O(log n) check. Fixed commitments (confirmed bookings, maintenance) are merged in before allocating.
+ *
+ * allocate runs in two phases:
+ * 1. Greedy: requests by revenue, largest parties first on ties, each into the smallest free venue that
+ *    holds it (best fit, so small parties do not strand large venues). This always completes.
+ * 2. Improvement, until no move helps or the time budget runs out: an unplaced request takes a venue whose
+ *    overlapping requests can each move to another free venue (an ejection chain of depth one), and placed
+ *    requests move down to smaller free venues.
+ *
+ * Revenue never falls from one step to the next. Requests are numbered in the order they arrived, which
+ * firstComeFirstServed uses as the baseline of confirming in that order into the requested venues.
+ * Not thread-safe.
+ */
+public final class VenueAllocator {
+
+    public static final int UNASSIGNED = -1;
+
+    // Owner of a fixed interval, which no move may displace
+    private static final int FIXED = -1;
+    // An unplaced request only tries to move this many overlapping requests out of a venue
+    private static final int MAX_EJECTIONS = 3;
+
+    private final int[] capacities;
+    private final int[] bySize;
+    private final List<int[]> fixed = new ArrayList<>();
+    private final List<Request> requests = new ArrayList<>();
+
+    private Map<Long, TreeMap<Integer, Interval>> schedule;
+    private int[] venueOf;
+
+    /**
+     * @param capacities guest capacity of each venue; assignments refer to venues by index into it
+     */
+    public VenueAllocator(int[] capacities) {
+        this.capacities = capacities.clone();
+        Integer[] order = new Integer[capacities.length];
+        for (int v = 0; v < order.length; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(this.capacities[a], this.capacities[b]));
+        this.bySize = new int[order.length];
+        for (int v = 0; v < order.length; v++) {
+            bySize[v] = order[v];
+        }
+    }
+
+    /**
+     * Time a venue is already taken, in minutes of a day; an end at or before the start runs to midnight
+     */
+    public void block(int venue, int day, int startMinute, int endMinute) {
+        fixed.add(new int[] {venue, day, startMinute, endOf(startMinute, endMinute)});
+    }
+
+    /**
+     * Add a request, in arrival order, and return its number
+     *
+     * @param requestedVenue the venue asked for, preferred on ties, or UNASSIGNED
+     */
+    public int addRequest(int day, int startMinute, int endMinute, int guests, long revenue, int requestedVenue) {
+        requests.add(new Request(day, startMinute, endOf(startMinute, endMinute), Math.max(1, guests), revenue, requestedVenue));
+        return requests.size() - 1;
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Best assignment found within a time budget
+     */
+    public Plan allocate(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        reset();
+        Integer[] order = new Integer[requests.size()];
+        for (int r = 0; r < order.length; r++) {
+            order[r] = r;
+        }
+        Arrays.sort(order, (a, b) -> {
+            Request x = requests.get(a);
+            Request y = requests.get(b);
+            int compare = Long.compare(y.revenue, x.revenue);
+            if (compare == 0) {
+                compare = Integer.compare(y.guests, x.guests);
+            }
+            return compare != 0 ? compare : Integer.compare(a, b);
+        });
+        for (int r : order) {
+            int venue = bestFit(r, UNASSIGNED);
+            if (venue != UNASSIGNED) {
+                place(r, venue);
+            }
+        }
+
+        int moves = 0;
+        boolean exhausted = false;
+        boolean improved = true;
+        while (improved && !exhausted) {
+            improved = false;
+            for (int r : order) {
+                if (System.nanoTime() > deadline) {
+                    exhausted = true;
+                    break;
+                }
+                if (venueOf[r] == UNASSIGNED ? placeByEjection(r) : moveToSmaller(r)) {
+                    moves++;
+                    improved = true;
+                }
+            }
+        }
+        return plan(moves, exhausted);
+    }
+
+    /**
+     * Requests in arrival order, each into its requested venue when free and large enough
+     */
+    public Plan firstComeFirstServed() {
+        reset();
+        for (int r = 0; r < requests.size(); r++) {
+            Request request = requests.get(r);
+            int venue = request.requestedVenue;
+            if (venue != UNASSIGNED && capacities[venue] >= request.guests && isFree(venue, request)) {
+                place(r, venue);
+            }
+        }
+        return plan(0, false);
+    }
+
+    /**
+     * Check and take one assignment on top of the fixed commitments and earlier calls; false when the
+     * venue is too small or taken. Starts from nothing unless allocate or a previous call set things up.
+     */
+    public boolean tryAssign(int request, int venue) {
+        if (schedule == null) {
+            reset();
+        }
+        Request r = requests.get(request);
+        if (venueOf[request] != UNASSIGNED || capacities[venue] < r.guests || !isFree(venue, r)) {
+            return false;
+        }
+        place(request, venue);
+        return true;
+    }
+
+    private void reset() {
+        schedule = new HashMap<>();
+        venueOf = new int[requests.size()];
+        Arrays.fill(venueOf, UNASSIGNED);
+        for (int[] interval : fixed) {
+            TreeMap<Integer, Interval> day = venueDay(interval[0], interval[1]);
+            int start = interval[2];
+            int end = interval[3];
+            // Merge with overlapping fixed time to keep intervals disjoint
+            Map.Entry<Integer, Interval> entry = day.floorEntry(end - 1);
+            while (entry != null && entry.getValue().end > start) {
+                start = Math.min(start, entry.getKey());
+                end = Math.max(end, entry.getValue().end);
+                day.remove(entry.getKey());
+                entry = day.floorEntry(end - 1);
+            }
+            day.put(start, new Interval(end, FIXED));
+        }
+    }
+
+    private boolean placeByEjection(int r) {
+        Request request = requests.get(r);
+        for (int venue : bySize) {
+            if (capacities[venue] < request.guests) {
+                continue;
+            }
+            List<Integer> blockers = overlapping(venue, request);
+            if (blockers == null || blockers.isEmpty() || blockers.size() > MAX_EJECTIONS) {
+                continue;
+            }
+            for (int blocker : blockers) {
+                unplace(blocker);
+            }
+            List<Integer> moved = new ArrayList<>();
+            for (int blocker : blockers) {
+                int target = bestFit(blocker, venue);
+                if (target == UNASSIGNED) {
+                    break;
+                }
+                place(blocker, target);
+                moved.add(blocker);
+            }
+            if (moved.size() == blockers.size() && isFree(venue, request)) {
+                place(r, venue);
+                return true;
+            }
+            for (int blocker : moved) {
+                unplace(blocker);
+            }
+            for (int blocker : blockers) {
+                place(blocker, venue);
+            }
+        }
+        return false;
+    }
+
+    private boolean moveToSmaller(int r) {
+        int current = venueOf[r];
+        unplace(r);
+        int venue = bestFit(r, UNASSIGNED);
+        // The current venue is free again, so bestFit finds it or a smaller one
+        if (venue != UNASSIGNED && capacities[venue] < capacities[current]) {
+            place(r, venue);
+            return true;
+        }
+        place(r, current);
+        return false;
+    }
+
+    /**
+     * Smallest free venue that holds the request, the requested one among equals; UNASSIGNED when none
+     */
+    private int bestFit(int r, int excludedVenue) {
+        Request request = requests.get(r);
+        int best = UNASSIGNED;
+        for (int venue : bySize) {
+            if (venue == excludedVenue || capacities[venue] < request.guests) {
+                continue;
+            }
+            if (best != UNASSIGNED && capacities[venue] > capacities[best]) {
+                break;
+            }
+            if (isFree(venue, request)) {
+                if (best == UNASSIGNED || venue == request.requestedVenue) {
+                    best = venue;
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean isFree(int venue, Request request) {
+        TreeMap<Integer, Interval> day = schedule.get(key(venue, request.day));
+        if (day == null) {
+            return true;
+        }
+        Map.Entry<Integer, Interval> before = day.floorEntry(request.end - 1);
+        return before == null || before.getValue().end <= request.start;
+    }
+
+    /**
+     * Requests overlapping a request in a venue, or null when fixed time overlaps it
+     */
+    private List<Integer> overlapping(int venue, Request request) {
+        List<Integer> owners = new ArrayList<>();
+        TreeMap<Integer, Interval> day = schedule.get(key(venue, request.day));
+        if (day == null) {
+            return owners;
+        }
+        Integer from = day.floorKey(request.start);
+        for (Map.Entry<Integer, Interval> entry : day.subMap(from != null ? from : request.start, true, request.end, false).entrySet()) {
+            if (entry.getValue().end <= request.start) {
+                continue;
+            }
+            if (entry.getValue().owner == FIXED) {
+                return null;
+            }
+            owners.add(entry.getValue().owner);
+        }
+        return owners;
+    }
+
+    private void place(int r, int venue) {
+        Request request = requests.get(r);
+        venueDay(venue, request.day).put(request.start, new Interval(request.end, r));
+        venueOf[r] = venue;
+    }
+
+    private void unplace(int r) {
+        Request request = requests.get(r);
+        schedule.get(key(venueOf[r], request.day)).remove(request.start);
+        venueOf[r] = UNASSIGNED;
+    }
+
+    private Plan plan(int moves, boolean exhausted) {
+        long revenue = 0;
+        int assigned = 0;
+        double fit = 0;
+        for (int r = 0; r < venueOf.length; r++) {
+            if (venueOf[r] != UNASSIGNED) {
+                Request request = requests.get(r);
+                revenue += request.revenue;
+                assigned++;
+                fit += (double) request.guests / capacities[venueOf[r]];
+            }
+        }
+        return new Plan(venueOf.clone(), revenue, assigned, assigned == 0 ? 0.0 : fit / assigned, moves, exhausted);
+    }
+
+    private TreeMap<Integer, Interval> venueDay(int venue, int day) {
+        return schedule.computeIfAbsent(key(venue, day), key -> new TreeMap<>());
+    }
+
+    private long key(int venue, int day) {
+        return (long) day * capacities.length + venue;
+    }
+
+    private static int endOf(int startMinute, int endMinute) {
+        return endMinute > startMinute ? endMinute : 24 * 60;
+    }
+
+    private record Request(int day, int start, int end, int guests, long revenue, int requestedVenue) {
+    }
+
+    private record Interval(int end, int owner) {
+    }
+
+    /**
+     * venueOf[r] is the venue index of request r or UNASSIGNED; fit is the mean of guests over capacity
+     * of the placed requests
+     */
+    public record Plan(int[] venueOf, long revenue, int assigned, double fit, int moves, boolean budgetExhausted) {
+    }
+}
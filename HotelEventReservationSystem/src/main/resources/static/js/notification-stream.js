@@ -0,0 +1,45 @@
+// Live notification updates over server-sent events.
+// Updates elements marked data-unread-badge and lists new notifications in data-live-notifications.
+(function () {
+    if (!window.EventSource) {
+        return;
+    }
+
+    let unreadCount = null;
+    const source = new EventSource('/notifications/stream');
+
+    function renderBadges() {
+        document.querySelectorAll('[data-unread-badge]').forEach(badge => {
+            badge.textContent = unreadCount + ' unread';
+            badge.classList.toggle('d-none', unreadCount === 0);
+        });
+    }
+
+    source.addEventListener('unread-count', event => {
+        unreadCount = parseInt(event.data, 10) || 0;
+        renderBadges();
+    });
+
+    source.addEventListener('notification', event => {
+        const notification = JSON.parse(event.data);
+        unreadCount = (unreadCount || 0) + 1;
+        renderBadges();
+
+        const container = document.querySelector('[data-live-notifications]');
+        if (container) {
+            const alert = document.createElement('div');
+            alert.className = 'alert alert-info alert-dismissible fade show';
+            alert.setAttribute('role', 'alert');
+            const icon = document.createElement('i');
+            icon.className = 'fas fa-bell me-2';
+            const text = document.createElement('span');
+            text.textContent = notification.messageContent;
+            const close = document.createElement('button');
+            close.type = 'button';
+            close.className = 'btn-close';
+            close.setAttribute('data-bs-dismiss', 'alert');
+            alert.append(icon, text, close);
+            container.prepend(alert);
+        }
+    });
+})();
@@ -0,0 +1,164 @@
+package com.hotel.eventreservation.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.eventreservation.dto.BookingChangeDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.BookingTombstone;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.BookingTombstoneRepository;
+import com.hotel.eventreservation.repository.VenueAvailabilityRepository;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import com.hotel.eventreservation.strategy.NDJSONExportStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BookingChangeFeedServiceTest {
+
+    private static final LocalDateTime SINCE = LocalDateTime.of(2026, 10, 18, 2, 0);
+    private static final LocalDateTime UNTIL = LocalDateTime.of(2026, 10, 19, 2, 0);
+
+    private BookingRepository bookingRepository;
+    private BookingTombstoneRepository tombstoneRepository;
+    private BookingChangeFeedService feedService;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        tombstoneRepository = mock(BookingTombstoneRepository.class);
+        ReportService reportService = mock(ReportService.class);
+        when(reportService.getExportStrategy("NDJSON")).thenReturn(new NDJSONExportStrategy());
+
+        feedService = new BookingChangeFeedService();
+        ReflectionTestUtils.setField(feedService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(feedService, "bookingTombstoneRepository", tombstoneRepository);
+        ReflectionTestUtils.setField(feedService, "reportService", reportService);
+        ReflectionTestUtils.setField(feedService, "batchSize", 2);
+        ReflectionTestUtils.setField(feedService, "settleSeconds", 60L);
+    }
+
+    @Test
+    void testChangesArePagedByKeysetAndFollowedByDeletions() throws Exception {
+        LocalDateTime morning = SINCE.plusHours(7);
+        when(bookingRepository.findChangedAfter(eq(SINCE), eq(Long.MAX_VALUE), eq(UNTIL), any()))
+                .thenReturn(List.of(change(11L, morning), change(12L, morning)));
+        when(bookingRepository.findChangedAfter(eq(morning), eq(12L), eq(UNTIL), any()))
+                .thenReturn(List.of(change(4L, morning.plusHours(3))));
+        BookingTombstone tombstone = new BookingTombstone(booking(9L, SINCE));
+        tombstone.setTombstoneId(1L);
+        when(tombstoneRepository.findDeletedAfter(eq(SINCE), eq(Long.MAX_VALUE), eq(UNTIL), any()))
+                .thenReturn(List.of(tombstone));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = feedService.exportChanges("NDJSON", SINCE, UNTIL, ExportCompression.NONE, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, written);
+        assertEquals(4, lines.length);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("UPSERT", first.get("Operation").asText());
+        assertEquals(11, first.get("Booking ID").asInt());
+        assertEquals("Ballroom", first.get("Venue").asText());
+        assertEquals(4, objectMapper.readTree(lines[2]).get("Booking ID").asInt());
+        JsonNode deletion = objectMapper.readTree(lines[3]);
+        assertEquals("DELETE", deletion.get("Operation").asText());
+        assertEquals("BK-9", deletion.get("Reference Code").asText());
+        assertTrue(deletion.get("Status").isNull());
+        // The short second page ends the bookings without a third query
+        verify(bookingRepository, times(2)).findChangedAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void testDeletedBookingIsSentAsADeletion() throws Exception {
+        Booking booking = booking(9L, SINCE);
+        booking.setBookingStatus(Booking.BookingStatus.CANCELLED);
+        when(bookingRepository.findById(9L)).thenReturn(Optional.of(booking));
+        BookingChangeListener listener = mock(BookingChangeListener.class);
+        BookingService bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingTombstoneRepository", tombstoneRepository);
+        ReflectionTestUtils.setField(bookingService, "venueAvailabilityRepository", mock(VenueAvailabilityRepository.class));
+        ReflectionTestUtils.setField(bookingService, "bookingChangeListeners", List.of(listener));
+
+        bookingService.deleteBooking(9L);
+
+        verify(bookingRepository).delete(booking);
+        verify(listener).onBookingDeleted(booking);
+        ArgumentCaptor<BookingTombstone> tombstone = ArgumentCaptor.forClass(BookingTombstone.class);
+        verify(tombstoneRepository).save(tombstone.capture());
+        tombstone.getValue().setTombstoneId(1L);
+        when(bookingRepository.findChangedAfter(any(), any(), any(), any())).thenReturn(List.of());
+        when(tombstoneRepository.findDeletedAfter(eq(SINCE), eq(Long.MAX_VALUE), eq(UNTIL), any()))
+                .thenReturn(List.of(tombstone.getValue()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, feedService.exportChanges("NDJSON", SINCE, UNTIL, ExportCompression.NONE, out));
+
+        JsonNode deletion = new ObjectMapper().readTree(out.toString(StandardCharsets.UTF_8));
+        assertEquals("DELETE", deletion.get("Operation").asText());
+        assertEquals(9, deletion.get("Booking ID").asInt());
+        assertEquals("BK-9", deletion.get("Reference Code").asText());
+    }
+
+    @Test
+    void testLiveBookingCannotBeDeleted() {
+        when(bookingRepository.findById(9L)).thenReturn(Optional.of(booking(9L, SINCE)));
+        BookingService bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingTombstoneRepository", tombstoneRepository);
+
+        assertThrows(RuntimeException.class, () -> bookingService.deleteBooking(9L));
+
+        verify(bookingRepository, never()).delete(any());
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void testWatermarkAtOrAfterUntilReadsNothing() {
+        assertFalse(feedService.changesBetween(UNTIL, UNTIL).hasNext());
+        assertFalse(feedService.changesBetween(UNTIL.plusDays(1), UNTIL).hasNext());
+        verifyNoInteractions(bookingRepository, tombstoneRepository);
+
+        LocalDateTime watermark = feedService.currentWatermark();
+        assertTrue(watermark.isBefore(LocalDateTime.now().minusSeconds(59)));
+        assertEquals(0, watermark.getNano());
+    }
+
+    private static BookingChangeDTO change(long bookingId, LocalDateTime updatedAt) {
+        return new BookingChangeDTO(updatedAt, bookingId, "BK-" + bookingId, "Ada Guest", "Wedding",
+                LocalDate.of(2026, 12, 5), LocalTime.of(17, 0), LocalTime.of(23, 0), 180, 2L, "Ballroom",
+                new BigDecimal("3600.00"), Booking.BookingStatus.PENDING, updatedAt);
+    }
+
+    private static Booking booking(long bookingId, LocalDateTime updatedAt) {
+        User guest = new User();
+        guest.setFirstName("Ada");
+        guest.setLastName("Guest");
+        Venue venue = new Venue("Ballroom", Venue.VenueType.HALL, 300, new BigDecimal("200.00"));
+        venue.setVenueId(2L);
+        Booking booking = new Booking(guest, venue, "Wedding", LocalDate.of(2026, 12, 5), LocalTime.of(17, 0),
+                LocalTime.of(23, 0), 180, new BigDecimal("3600.00"));
+        booking.setBookingId(bookingId);
+        booking.setReferenceCode("BK-" + bookingId);
+        booking.setUpdatedAt(updatedAt);
+        return booking;
+    }
+}
@@ -0,0 +1,248 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.BookingSummaryDirtyDay;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingDailyRollupRepository;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.BookingSummaryDirtyDayRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BookingRollupServiceTest {
+
+    private static final LocalDate EVENT_DATE = LocalDate.of(2026, 6, 12);
+
+    private BookingDailyRollupRepository rollupRepository;
+    private BookingRepository bookingRepository;
+    private BookingSummaryDirtyDayRepository dirtyDayRepository;
+    private PlatformTransactionManager transactionManager;
+    private BookingRollupService rollupService;
+    private Venue hall;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(BookingDailyRollupRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        dirtyDayRepository = mock(BookingSummaryDirtyDayRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        rollupService = new BookingRollupService();
+        ReflectionTestUtils.setField(rollupService, "rollupRepository", rollupRepository);
+        ReflectionTestUtils.setField(rollupService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(rollupService, "dirtyDayRepository", dirtyDayRepository);
+        ReflectionTestUtils.setField(rollupService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(rollupService, "rollupsEnabled", true);
+        ReflectionTestUtils.setField(rollupService, "rebuildChunkDays", 31);
+        rollupService.init();
+
+        hall = new Venue("Grand Hall", Venue.VenueType.HALL, 200, new BigDecimal("150.00"));
+        hall.setVenueId(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testNewBookingIsAddedToItsDay() {
+        Booking booking = booking();
+
+        rollupService.onBookingChanged(booking, null);
+
+        verifyDelta("PENDING", 1, "1200.00", 75.0);
+        assertNotNull(booking.getReportedState());
+    }
+
+    @Test
+    void testStatusChangeMovesTheBookingBetweenStatuses() {
+        Booking booking = booking();
+        booking.postLoad();
+        booking.setBookingStatus(Booking.BookingStatus.CANCELLED);
+
+        rollupService.onBookingChanged(booking, Booking.BookingStatus.PENDING);
+
+        verifyDelta("PENDING", -1, "-1200.00", -75.0);
+        verifyDelta("CANCELLED", 1, "1200.00", 75.0);
+
+        // Applied once: saving the booking again without changes leaves the rollups alone
+        rollupService.onBookingChanged(booking, Booking.BookingStatus.CANCELLED);
+        verify(rollupRepository, times(2)).applyDelta(any(), any(), any(), any(), anyLong(), anyLong(), any(), anyDouble(), any());
+    }
+
+    @Test
+    void testDeletedBookingIsRemovedFromItsDay() {
+        Booking booking = booking();
+        booking.postLoad();
+
+        rollupService.onBookingDeleted(booking);
+
+        verifyDelta("PENDING", -1, "-1200.00", -75.0);
+        assertNull(booking.getReportedState());
+    }
+
+    @Test
+    void testChangedBookingWithoutLoadedStateRecountsItsDay() {
+        Booking booking = booking();
+
+        rollupService.onBookingChanged(booking, Booking.BookingStatus.PENDING);
+
+        verify(rollupRepository).deleteByEventDateBetween(EVENT_DATE, EVENT_DATE);
+        verify(rollupRepository).insertFromBookings(eq(EVENT_DATE), eq(EVENT_DATE), any());
+        verify(rollupRepository, never()).applyDelta(any(), any(), any(), any(), anyLong(), anyLong(), any(), anyDouble(), any());
+    }
+
+    @Test
+    void testDeltaWaitsForTheBookingToCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Booking booking = booking();
+
+        rollupService.onBookingChanged(booking, null);
+
+        verifyNoInteractions(rollupRepository);
+        assertNotNull(booking.getReportedState());
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        verifyDelta("PENDING", 1, "1200.00", 75.0);
+    }
+
+    @Test
+    void testFailedDeltaDoesNotFailTheBookingChange() {
+        rollupService.backfillIfEmpty();
+        assertTrue(rollupService.isReady());
+        doThrow(new IllegalStateException("deadlock detected")).when(rollupRepository)
+                .applyDelta(any(), any(), any(), any(), anyLong(), anyLong(), any(), anyDouble(), any());
+        Booking booking = booking();
+
+        assertDoesNotThrow(() -> rollupService.onBookingChanged(booking, null));
+
+        // Only the rollup transaction rolls back, and the day is recorded for every node to see
+        verify(transactionManager).rollback(any());
+        assertNotNull(booking.getReportedState());
+        ArgumentCaptor<BookingSummaryDirtyDay> dirtyDay = ArgumentCaptor.forClass(BookingSummaryDirtyDay.class);
+        verify(dirtyDayRepository).save(dirtyDay.capture());
+        assertEquals("ROLLUP", dirtyDay.getValue().getSummary());
+        assertEquals(EVENT_DATE, dirtyDay.getValue().getEventDate());
+
+        // Reports go back to reading bookings while a day waits for its recount
+        when(dirtyDayRepository.existsBySummary("ROLLUP")).thenReturn(true);
+        assertFalse(rollupService.isReady());
+    }
+
+    @Test
+    void testFailedMoveMarksBothEventDates() {
+        doThrow(new IllegalStateException("deadlock detected")).when(rollupRepository)
+                .applyDelta(any(), any(), any(), any(), anyLong(), anyLong(), any(), anyDouble(), any());
+        Booking booking = booking();
+        booking.postLoad();
+        booking.setEventDate(EVENT_DATE.plusDays(3));
+
+        rollupService.onBookingChanged(booking, Booking.BookingStatus.PENDING);
+
+        ArgumentCaptor<BookingSummaryDirtyDay> dirtyDays = ArgumentCaptor.forClass(BookingSummaryDirtyDay.class);
+        verify(dirtyDayRepository, times(2)).save(dirtyDays.capture());
+        assertEquals(List.of(EVENT_DATE, EVENT_DATE.plusDays(3)),
+                     dirtyDays.getAllValues().stream().map(BookingSummaryDirtyDay::getEventDate).toList());
+    }
+
+    @Test
+    void testRepairRecountsDirtyDaysAndClearsTheirMarks() {
+        rollupService.backfillIfEmpty();
+        when(dirtyDayRepository.findBySummary("ROLLUP")).thenReturn(List.of(
+                dirtyDay(1L, EVENT_DATE), dirtyDay(2L, EVENT_DATE.plusDays(3)), dirtyDay(3L, EVENT_DATE)));
+
+        assertEquals(2, rollupService.repairDirtyDays());
+
+        verify(rollupRepository).deleteByEventDateBetween(EVENT_DATE, EVENT_DATE);
+        verify(rollupRepository).deleteByEventDateBetween(EVENT_DATE.plusDays(3), EVENT_DATE.plusDays(3));
+        verify(rollupRepository, times(2)).insertFromBookings(any(), any(), any());
+        verify(dirtyDayRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void testRepairWaitsForTheStartupBackfill() {
+        when(dirtyDayRepository.findBySummary("ROLLUP")).thenReturn(List.of(dirtyDay(1L, EVENT_DATE)));
+
+        assertEquals(0, rollupService.repairDirtyDays());
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void testLossThatCannotBeMarkedIsRepairedByARebuild() {
+        rollupService.backfillIfEmpty();
+        doThrow(new IllegalStateException("deadlock detected")).when(rollupRepository)
+                .applyDelta(any(), any(), any(), any(), anyLong(), anyLong(), any(), anyDouble(), any());
+        when(dirtyDayRepository.save(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        rollupService.onBookingChanged(booking(), null);
+        assertFalse(rollupService.isReady());
+
+        when(bookingRepository.findEarliestEventDate()).thenReturn(EVENT_DATE);
+        when(bookingRepository.findLatestEventDate()).thenReturn(EVENT_DATE.plusDays(40));
+        rollupService.repairDirtyDays();
+
+        verify(rollupRepository).deleteByEventDateBetween(EVENT_DATE, EVENT_DATE.plusDays(30));
+        verify(rollupRepository).deleteByEventDateBetween(EVENT_DATE.plusDays(31), EVENT_DATE.plusDays(40));
+        assertTrue(rollupService.isReady());
+
+        // Rebuilt once; the next run has nothing left to do
+        rollupService.repairDirtyDays();
+        verify(rollupRepository, times(2)).deleteByEventDateBetween(any(), any());
+    }
+
+    @Test
+    void testBackfillRebuildsEmptyRollupsInChunks() {
+        when(rollupRepository.count()).thenReturn(0L);
+        when(bookingRepository.findEarliestEventDate()).thenReturn(LocalDate.of(2026, 1, 1));
+        when(bookingRepository.findLatestEventDate()).thenReturn(LocalDate.of(2026, 3, 10));
+        when(rollupRepository.insertFromBookings(any(), any(), any())).thenReturn(5);
+        assertFalse(rollupService.isReady());
+
+        rollupService.backfillIfEmpty();
+
+        verify(rollupRepository).deleteByEventDateBetween(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31));
+        verify(rollupRepository).deleteByEventDateBetween(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 3));
+        verify(rollupRepository).deleteByEventDateBetween(LocalDate.of(2026, 3, 4), LocalDate.of(2026, 3, 10));
+        verify(rollupRepository, times(3)).insertFromBookings(any(), any(), any());
+        assertTrue(rollupService.isReady());
+    }
+
+    private static BookingSummaryDirtyDay dirtyDay(Long id, LocalDate eventDate) {
+        BookingSummaryDirtyDay dirtyDay = new BookingSummaryDirtyDay("ROLLUP", eventDate);
+        dirtyDay.setDirtyDayId(id);
+        return dirtyDay;
+    }
+
+    private Booking booking() {
+        Booking booking = new Booking(new User(), hall, "Wedding", EVENT_DATE, LocalTime.of(18, 0), LocalTime.of(23, 0),
+                150, new BigDecimal("1200.00"));
+        booking.setBookingId(42L);
+        return booking;
+    }
+
+    private void verifyDelta(String status, long bookings, String revenue, double utilization) {
+        verify(rollupRepository).applyDelta(eq(EVENT_DATE), eq(3L), eq("Wedding"), eq(status), eq(bookings),
+                eq(bookings * 150), eq(new BigDecimal(revenue)), eq(utilization), any());
+    }
+}
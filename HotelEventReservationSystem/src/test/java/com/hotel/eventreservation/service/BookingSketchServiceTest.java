@@ -0,0 +1,173 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingDistributionDTO;
+import com.hotel.eventreservation.dto.BookingSketchInputDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.BookingDailySketch;
+import com.hotel.eventreservation.model.BookingSummaryDirtyDay;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingDailySketchRepository;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.BookingSummaryDirtyDayRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import com.hotel.eventreservation.util.HyperLogLog;
+import com.hotel.eventreservation.util.KllSketch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BookingSketchServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private BookingDailySketchRepository sketchRepository;
+    private BookingRepository bookingRepository;
+    private BookingSummaryDirtyDayRepository dirtyDayRepository;
+    private BookingSketchService sketchService;
+    private Venue hall;
+
+    @BeforeEach
+    void setUp() {
+        sketchRepository = mock(BookingDailySketchRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        dirtyDayRepository = mock(BookingSummaryDirtyDayRepository.class);
+        VenueRepository venueRepository = mock(VenueRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        hall = new Venue("Grand Hall", Venue.VenueType.HALL, 200, new BigDecimal("150.00"));
+        hall.setVenueId(3L);
+        Venue room = new Venue("Garden Room", Venue.VenueType.ROOM, 40, new BigDecimal("60.00"));
+        room.setVenueId(4L);
+        when(venueRepository.findAllById(any())).thenReturn(List.of(hall, room));
+
+        sketchService = new BookingSketchService();
+        ReflectionTestUtils.setField(sketchService, "sketchRepository", sketchRepository);
+        ReflectionTestUtils.setField(sketchService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(sketchService, "venueRepository", venueRepository);
+        ReflectionTestUtils.setField(sketchService, "dirtyDayRepository", dirtyDayRepository);
+        ReflectionTestUtils.setField(sketchService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(sketchService, "sketchesEnabled", true);
+        ReflectionTestUtils.setField(sketchService, "rebuildChunkDays", 31);
+        ReflectionTestUtils.setField(sketchService, "hllPrecision", HyperLogLog.DEFAULT_PRECISION);
+        ReflectionTestUtils.setField(sketchService, "kllK", KllSketch.DEFAULT_K);
+        sketchService.init();
+    }
+
+    @Test
+    void testRangeSummaryMergesDailyCellsWithinTheirBounds() {
+        // A year of daily cells in two venues: 3,000 regular guests who come back, cost grows with guests
+        List<BookingDailySketch> rows = new ArrayList<>();
+        for (int day = 0; day < 365; day++) {
+            for (long venueId = 3; venueId <= 4; venueId++) {
+                HyperLogLog guests = new HyperLogLog();
+                KllSketch guestCounts = new KllSketch();
+                KllSketch revenue = new KllSketch();
+                for (int i = 0; i < 8; i++) {
+                    int guestCount = venueId == 3 ? 100 + (day * 8 + i) % 100 : 10 + i;
+                    guests.add((day * 8L + i * 13L + venueId) % 3_000);
+                    guestCounts.update(guestCount);
+                    revenue.update(guestCount * 20.0);
+                }
+                BookingDailySketch row = new BookingDailySketch(START.plusDays(day), venueId);
+                row.setBookingCount(8L);
+                row.setGuestHll(guests.toBytes());
+                row.setGuestCountSketch(guestCounts.toBytes());
+                row.setRevenueSketch(revenue.toBytes());
+                rows.add(row);
+            }
+        }
+        when(sketchRepository.findByEventDateBetween(START, START.plusDays(364))).thenReturn(rows);
+        when(sketchRepository.count()).thenReturn((long) rows.size());
+        sketchService.backfillIfEmpty();
+
+        BookingDistributionDTO distribution = sketchService.summarize(START, START.plusDays(364));
+
+        assertEquals(365 * 16, distribution.bookings());
+        assertEquals(3_000, distribution.distinctGuests(), 3_000 * 3 * distribution.distinctGuestsError());
+        assertEquals(2, distribution.venues().size());
+        BookingDistributionDTO.VenueDistribution grandHall = distribution.venues().get(0);
+        assertEquals("Grand Hall", grandHall.venueName());
+        // Guest counts 100..199 evenly: a 1.65% rank error is under two guests either way
+        assertEquals(150, grandHall.guestCountMedian(), 2.5);
+        assertEquals(190, grandHall.guestCountP90(), 2.5);
+        assertEquals(199.0, grandHall.guestCountMax());
+        assertEquals(17.0, distribution.venues().get(1).guestCountMax());
+        assertNotNull(distribution.revenueP99());
+        verify(bookingRepository, never()).findSketchInputs(any(), any());
+    }
+
+    @Test
+    void testMovedBookingRefreshesItsOldAndNewCells() {
+        LocalDate oldDate = LocalDate.of(2026, 6, 12);
+        LocalDate newDate = oldDate.plusDays(3);
+        Booking booking = new Booking(new User(), hall, "Gala", oldDate, LocalTime.of(18, 0), LocalTime.of(23, 0),
+                120, new BigDecimal("2400.00"));
+        booking.setBookingId(8L);
+        booking.postLoad();
+        booking.setEventDate(newDate);
+        when(bookingRepository.findSketchInputsForCell(oldDate, 3L)).thenReturn(List.of());
+        when(bookingRepository.findSketchInputsForCell(newDate, 3L)).thenReturn(List.of(
+                new BookingSketchInputDTO(newDate, 3L, 21L, 120, new BigDecimal("2400.00")),
+                new BookingSketchInputDTO(newDate, 3L, 22L, 80, new BigDecimal("1600.00"))));
+
+        sketchService.onBookingChanged(booking, Booking.BookingStatus.PENDING);
+
+        // Each cell is locked before its bookings are read
+        InOrder order = inOrder(sketchRepository, bookingRepository);
+        order.verify(sketchRepository).lockCell(eq(newDate), eq(3L), any(), any(), any(), any());
+        order.verify(bookingRepository).findSketchInputsForCell(newDate, 3L);
+        order.verify(sketchRepository).lockCell(eq(oldDate), eq(3L), any(), any(), any(), any());
+        order.verify(bookingRepository).findSketchInputsForCell(oldDate, 3L);
+        verify(sketchRepository).deleteCell(oldDate, 3L);
+        ArgumentCaptor<byte[]> guests = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[]> guestCounts = ArgumentCaptor.forClass(byte[].class);
+        verify(sketchRepository).upsert(eq(newDate), eq(3L), eq(2L), guests.capture(), guestCounts.capture(), any(), any());
+        assertEquals(2, HyperLogLog.fromBytes(guests.getValue()).estimate());
+        assertEquals(120.0, KllSketch.fromBytes(guestCounts.getValue()).getMax());
+
+        // A refresh that fails marks its day for a recount, and summaries read bookings until then
+        sketchService.backfillIfEmpty();
+        doThrow(new IllegalStateException("lock wait timeout")).when(sketchRepository)
+                .upsert(any(), any(), anyLong(), any(), any(), any(), any());
+        sketchService.onBookingChanged(booking, Booking.BookingStatus.PENDING);
+        ArgumentCaptor<BookingSummaryDirtyDay> dirtyDay = ArgumentCaptor.forClass(BookingSummaryDirtyDay.class);
+        verify(dirtyDayRepository).save(dirtyDay.capture());
+        assertEquals("SKETCH", dirtyDay.getValue().getSummary());
+        assertEquals(newDate, dirtyDay.getValue().getEventDate());
+        when(dirtyDayRepository.existsBySummary("SKETCH")).thenReturn(true);
+        assertFalse(sketchService.isReady());
+    }
+
+    @Test
+    void testRepairRecountsTheCellsOfDirtyDays() {
+        LocalDate eventDate = LocalDate.of(2026, 6, 12);
+        BookingSummaryDirtyDay dirtyDay = new BookingSummaryDirtyDay("SKETCH", eventDate);
+        dirtyDay.setDirtyDayId(5L);
+        when(dirtyDayRepository.findBySummary("SKETCH")).thenReturn(List.of(dirtyDay));
+        when(bookingRepository.findSketchInputs(eventDate, eventDate)).thenReturn(List.of(
+                new BookingSketchInputDTO(eventDate, 3L, 21L, 120, new BigDecimal("2400.00"))));
+        sketchService.backfillIfEmpty();
+
+        assertEquals(1, sketchService.repairDirtyDays());
+
+        verify(sketchRepository).deleteByEventDateBetween(eventDate, eventDate);
+        verify(sketchRepository).saveAll(argThat(rows -> rows.iterator().next().getBookingCount() == 1L));
+        verify(dirtyDayRepository).deleteAllByIdInBatch(List.of(5L));
+    }
+}
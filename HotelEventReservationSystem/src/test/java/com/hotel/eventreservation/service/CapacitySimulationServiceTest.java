@@ -0,0 +1,114 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.CapacitySimulationDTO;
+import com.hotel.eventreservation.dto.DemandSampleDTO;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CapacitySimulationServiceTest {
+
+    private CapacitySimulationService simulationService;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        VenueRepository venueRepository = mock(VenueRepository.class);
+        Venue hall = new Venue("Grand Hall", Venue.VenueType.HALL, 200, new BigDecimal("150.00"));
+        hall.setVenueId(1L);
+        Venue room = new Venue("Garden Room", Venue.VenueType.ROOM, 60, new BigDecimal("60.00"));
+        room.setVenueId(2L);
+        when(venueRepository.findByIsActiveTrue()).thenReturn(List.of(hall, room));
+
+        // A year of one Saturday wedding and two weekday meetings a week
+        List<DemandSampleDTO> samples = new ArrayList<>();
+        LocalDate saturday = LocalDate.of(2025, 1, 4);
+        for (int week = 0; week < 52; week++) {
+            LocalDate date = saturday.plusWeeks(week);
+            samples.add(new DemandSampleDTO("Wedding", 150, date, LocalTime.of(14, 0), LocalTime.of(23, 0),
+                    date.minusDays(90).atTime(10, 0)));
+            samples.add(new DemandSampleDTO("Meeting", 25, date.plusDays(3), LocalTime.of(9, 0), LocalTime.of(12, 0),
+                    date.minusDays(7).atTime(10, 0)));
+            samples.add(new DemandSampleDTO("Meeting", 40, date.plusDays(4), LocalTime.of(13, 0), LocalTime.of(17, 0),
+                    date.minusDays(14).atTime(10, 0)));
+        }
+        when(bookingRepository.findDemandSamplesCreatedSince(any())).thenReturn(samples);
+
+        simulationService = new CapacitySimulationService();
+        ReflectionTestUtils.setField(simulationService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(simulationService, "venueRepository", venueRepository);
+        ReflectionTestUtils.setField(simulationService, "parallelism", 2);
+        ReflectionTestUtils.setField(simulationService, "lookbackDays", 364);
+        ReflectionTestUtils.setField(simulationService, "defaultTrials", 200);
+        ReflectionTestUtils.setField(simulationService, "maxTrials", 1000);
+        ReflectionTestUtils.setField(simulationService, "defaultHorizonWeeks", 13);
+        ReflectionTestUtils.setField(simulationService, "maxHorizonWeeks", 52);
+        ReflectionTestUtils.setField(simulationService, "openHour", 8);
+        ReflectionTestUtils.setField(simulationService, "closeHour", 24);
+        simulationService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulationService.stop();
+    }
+
+    @Test
+    void testClosingTheHallRejectsWeddingsWithPairedConfidenceInterval() {
+        CapacitySimulationDTO simulation = simulationService.simulate(
+                new CapacitySimulationService.Scenario(Set.of(1L), null, 400, null, null, 11L));
+
+        assertEquals(156, simulation.historicalBookings());
+        assertEquals(3.0 / 7, simulation.requestsPerDay(), 1e-9);
+        // Poisson(1) requests per day and kind: a wedding is turned away when another took the hall,
+        // E[max(n - 1, 0)] / E[n] = 36.8%; meetings when both venues are taken, 10.4%
+        CapacitySimulationDTO.Estimate baselineRejection = simulation.baseline().rejectionRate();
+        assertEquals(36.8 / 3 + 10.4 * 2 / 3, baselineRejection.mean(), 3.0);
+        assertTrue(baselineRejection.lower() <= baselineRejection.mean() && baselineRejection.mean() <= baselineRejection.upper());
+
+        CapacitySimulationDTO.Outcome closed = simulation.scenario();
+        assertEquals(1, closed.venues().size());
+        assertEquals("Garden Room", closed.venues().get(0).venueName());
+        CapacitySimulationDTO.EventTypeRejection weddings = closed.eventTypes().stream()
+                .filter(type -> type.eventType().equals("Wedding")).findFirst().orElseThrow();
+        assertEquals(100.0, weddings.rejectionRate());
+        // With the room alone meetings are turned away at 36.8% too
+        assertEquals(100.0 / 3 + 36.8 * 2 / 3 - baselineRejection.mean(), simulation.rejectionRateChange().mean(), 3.0);
+        assertTrue(simulation.rejectionRateChange().upper() - simulation.rejectionRateChange().lower() < 2.0,
+                   "paired trials give a narrow interval for the change");
+    }
+
+    @Test
+    void testAddedVenueAndRepeatableSeed() {
+        CapacitySimulationService.Scenario scenario =
+                new CapacitySimulationService.Scenario(null, List.of(300), 50, 8, 2.0, 3L);
+
+        CapacitySimulationDTO first = simulationService.simulate(scenario);
+        CapacitySimulationDTO second = simulationService.simulate(scenario);
+
+        assertEquals(first.baseline().rejectionRate(), second.baseline().rejectionRate());
+        assertEquals(3, first.scenario().venues().size());
+        assertNull(first.scenario().venues().get(2).venueId());
+        assertTrue(first.rejectionRateChange().mean() <= 0);
+        assertNull(simulationService.simulate(new CapacitySimulationService.Scenario(null, null, 10, 4, null, 1L)).scenario());
+        assertThrows(IllegalArgumentException.class, () -> simulationService.simulate(
+                new CapacitySimulationService.Scenario(Set.of(99L), null, 10, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> simulationService.simulate(
+                new CapacitySimulationService.Scenario(null, null, 5000, null, null, null)));
+    }
+}
@@ -0,0 +1,297 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.EmailDeadLetter;
+import com.hotel.eventreservation.repository.EmailDeadLetterRepository;
+import com.hotel.eventreservation.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EmailDeliveryServiceTest {
+
+    private FakeSmtpServer smtpServer;
+    private EmailDeadLetterRepository deadLetterRepository;
+    private EmailDeliveryService deliveryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new FakeSmtpServer();
+        deadLetterRepository = mock(EmailDeadLetterRepository.class);
+        deliveryService = createService(smtpServer.getPort(), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        deliveryService.stop();
+        smtpServer.close();
+    }
+
+    @Test
+    void testBatchIsDeliveredOverOneConnection() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(deliveryService.enqueue("guest" + i + "@example.com", "Subject " + i, "Body " + i));
+        }
+
+        assertEquals(5, deliveryService.deliverPending());
+
+        smtpServer.awaitMessages(5);
+        assertEquals(5, smtpServer.getMessages().size());
+        assertEquals(1, smtpServer.getConnectionCount());
+        assertEquals(0, deliveryService.getQueuedCount());
+        assertEquals(5, deliveryService.getSentCount());
+    }
+
+    @Test
+    void testRejectedRecipientIsDeadLetteredWithoutTrippingCircuit() {
+        smtpServer.rejectRecipient("bounce@example.com");
+        deliveryService.enqueue("ok@example.com", "Hello", "Delivered");
+        deliveryService.enqueue("bounce@example.com", "Hello", "Rejected");
+
+        assertEquals(1, deliveryService.deliverPending());
+
+        assertEquals(0, deliveryService.getQueuedCount());
+        assertEquals(0, deliveryService.getRetryCount());
+        assertEquals(1, deliveryService.getDeadLetterCount());
+        verify(deadLetterRepository, times(1)).save(any(EmailDeadLetter.class));
+        assertEquals(CircuitBreaker.State.CLOSED, deliveryService.getCircuitState());
+    }
+
+    @Test
+    void testFailedQuitAfterTheBatchCountsAsDelivered() throws Exception {
+        smtpServer.failQuit();
+        for (int i = 0; i < 3; i++) {
+            deliveryService.enqueue("guest" + i + "@example.com", "Subject " + i, "Body " + i);
+        }
+
+        assertEquals(3, deliveryService.deliverPending());
+        assertEquals(0, deliveryService.deliverPending());
+
+        smtpServer.awaitMessages(3);
+        assertEquals(3, smtpServer.getMessages().size());
+        assertEquals(0, deliveryService.getQueuedCount());
+        assertEquals(0, deliveryService.getRetryCount());
+        assertEquals(CircuitBreaker.State.CLOSED, deliveryService.getCircuitState());
+    }
+
+    @Test
+    void testFailedQuitAfterARefusalOnlyHandlesTheRefusedMessage() {
+        smtpServer.failQuit();
+        smtpServer.rejectRecipient("bounce@example.com");
+        deliveryService.enqueue("ok@example.com", "Hello", "Delivered");
+        deliveryService.enqueue("bounce@example.com", "Hello", "Rejected");
+
+        assertEquals(1, deliveryService.deliverPending());
+
+        assertEquals(1, smtpServer.getMessages().size());
+        assertEquals(0, deliveryService.getQueuedCount());
+        assertEquals(0, deliveryService.getRetryCount());
+        verify(deadLetterRepository, times(1)).save(any(EmailDeadLetter.class));
+    }
+
+    @Test
+    void testEmailsStillQueuedAtShutdownAreDeadLettered() throws IOException {
+        int port = smtpServer.getPort();
+        smtpServer.close();
+        deliveryService.stop();
+        deliveryService = createService(port, 1);
+        deliveryService.enqueue("guest@example.com", "Hello", "Body");
+        deliveryService.deliverPending();
+        assertEquals(CircuitBreaker.State.OPEN, deliveryService.getCircuitState());
+
+        deliveryService.stop();
+
+        assertEquals(0, deliveryService.getQueuedCount());
+        ArgumentCaptor<EmailDeadLetter> deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertTrue(deadLetter.getValue().getLastError().startsWith("Not delivered before shutdown"));
+    }
+
+    @Test
+    void testUnreachableServerIsRetriedThenDeadLettered() throws IOException {
+        int port = smtpServer.getPort();
+        smtpServer.close();
+        deliveryService.stop();
+        deliveryService = createService(port, 10);
+
+        deliveryService.enqueue("guest@example.com", "Hello", "Body");
+
+        // Backoff is zero in this test, so each cycle makes exactly one more attempt
+        deliveryService.deliverPending();
+        assertEquals(1, deliveryService.getQueuedCount());
+        deliveryService.deliverPending();
+        deliveryService.deliverPending();
+
+        assertEquals(0, deliveryService.getQueuedCount());
+        assertEquals(2, deliveryService.getRetryCount());
+        verify(deadLetterRepository, times(1)).save(any(EmailDeadLetter.class));
+    }
+
+    @Test
+    void testCircuitOpensWhenServerIsDown() throws IOException {
+        int port = smtpServer.getPort();
+        smtpServer.close();
+        deliveryService.stop();
+        deliveryService = createService(port, 2);
+
+        deliveryService.enqueue("guest@example.com", "Hello", "Body");
+        deliveryService.deliverPending();
+        deliveryService.deliverPending();
+
+        assertEquals(CircuitBreaker.State.OPEN, deliveryService.getCircuitState());
+        int attemptsBefore = smtpServer.getConnectionCount();
+        assertEquals(0, deliveryService.deliverPending());
+        assertEquals(attemptsBefore, smtpServer.getConnectionCount());
+        assertEquals(1, deliveryService.getQueuedCount());
+    }
+
+    private EmailDeliveryService createService(int port, int circuitFailureThreshold) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+
+        EmailDeliveryService service = new EmailDeliveryService();
+        ReflectionTestUtils.setField(service, "mailSender", mailSender);
+        ReflectionTestUtils.setField(service, "emailDeadLetterRepository", deadLetterRepository);
+        ReflectionTestUtils.setField(service, "fromAddress", "noreply@example.com");
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "queueCapacity", 100);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "initialBackoffMillis", 0L);
+        ReflectionTestUtils.setField(service, "maxBackoffMillis", 0L);
+        ReflectionTestUtils.setField(service, "flushIntervalMillis", 3_600_000L);
+        ReflectionTestUtils.setField(service, "circuitFailureThreshold", circuitFailureThreshold);
+        ReflectionTestUtils.setField(service, "circuitOpenSeconds", 60L);
+        ReflectionTestUtils.setField(service, "slowCallMillis", 0L);
+        ReflectionTestUtils.setField(service, "shutdownTimeoutSeconds", 5L);
+        service.start();
+        return service;
+    }
+
+    /**
+     * Minimal in-process SMTP server: accepts every message except for rejected recipients
+     */
+    static class FakeSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger connectionCount = new AtomicInteger();
+        private volatile boolean failQuit;
+        private final Thread acceptThread;
+
+        FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            acceptThread = new Thread(this::acceptLoop, "fake-smtp");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        List<String> getMessages() {
+            return messages;
+        }
+
+        int getConnectionCount() {
+            return connectionCount.get();
+        }
+
+        /**
+         * Reset the connection instead of answering QUIT, so closing the transport fails after the batch
+         */
+        void failQuit() {
+            failQuit = true;
+        }
+
+        void rejectRecipient(String address) {
+            rejectedRecipients.add(address);
+        }
+
+        void awaitMessages(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (messages.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connectionCount.incrementAndGet();
+                    handle(socket);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) throws IOException {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+                reply(out, "220 localhost fake SMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 localhost");
+                    } else if (command.startsWith("RCPT TO:")) {
+                        boolean rejected = rejectedRecipients.stream().anyMatch(line::contains);
+                        reply(out, rejected ? "550 mailbox unavailable" : "250 OK");
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK queued");
+                    } else if (command.equals("QUIT")) {
+                        if (failQuit) {
+                            socket.setSoLinger(true, 0);
+                            return;
+                        }
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.NotificationRepository;
+import com.hotel.eventreservation.util.NotificationArchiveWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationCleanupServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 9, 1, 0, 0);
+    private static final Instant NOW = Instant.parse("2026-10-01T02:00:00Z");
+
+    private NotificationRepository notificationRepository;
+    private PlatformTransactionManager transactionManager;
+    private NotificationCleanupService cleanupService;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // Dense ids unless a test says otherwise: the next expired id is the one asked for
+        when(notificationRepository.findMinIdFromBefore(anyLong(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cleanupService = new NotificationCleanupService();
+        ReflectionTestUtils.setField(cleanupService, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(cleanupService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(cleanupService, "cleanupDays", 30);
+        ReflectionTestUtils.setField(cleanupService, "cleanupEnabled", true);
+        ReflectionTestUtils.setField(cleanupService, "chunkSize", 100);
+        ReflectionTestUtils.setField(cleanupService, "chunkPauseMillis", 0L);
+        ReflectionTestUtils.setField(cleanupService, "maxRunMinutes", 30L);
+        ReflectionTestUtils.setField(cleanupService, "archiveEnabled", false);
+        ReflectionTestUtils.setField(cleanupService, "clock", Clock.fixed(NOW, Clock.systemUTC().getZone()));
+    }
+
+    @Test
+    void testExpiredIdRangeIsDeletedChunkByChunk() {
+        when(notificationRepository.findMinIdBefore(CUTOFF)).thenReturn(1L);
+        when(notificationRepository.findMaxIdBefore(CUTOFF)).thenReturn(250L);
+        when(notificationRepository.deleteExpiredInIdRange(1L, 100L, CUTOFF)).thenReturn(100);
+        // Rows 101-200 were already gone: the chunk still runs and deletes nothing
+        when(notificationRepository.deleteExpiredInIdRange(101L, 200L, CUTOFF)).thenReturn(0);
+        when(notificationRepository.deleteExpiredInIdRange(201L, 250L, CUTOFF)).thenReturn(40);
+
+        NotificationCleanupService.RetentionRunStats stats = cleanupService.purgeNotificationsBefore(CUTOFF);
+
+        assertEquals(140, stats.getDeletedCount());
+        assertEquals(3, stats.getChunkCount());
+        assertEquals(0, stats.getArchivedCount());
+        assertEquals(0, stats.getLagSeconds());
+        assertTrue(stats.isCompleted());
+        assertNull(stats.getArchiveFile());
+        assertSame(stats, cleanupService.getLastRunStats());
+        // One transaction per chunk, each committed on its own
+        verify(transactionManager, times(3)).commit(any());
+        // Only rows older than the cutoff are ever touched
+        verify(notificationRepository, never()).findNotificationsSince(any());
+        verify(notificationRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void testGapsInTheIdRangeAreSkippedWithoutPausing() {
+        // A long pause would time the test out if it were taken after the empty or the last chunk
+        ReflectionTestUtils.setField(cleanupService, "chunkPauseMillis", 60_000L);
+        when(notificationRepository.findMinIdBefore(CUTOFF)).thenReturn(1L);
+        when(notificationRepository.findMaxIdBefore(CUTOFF)).thenReturn(1_000_000L);
+        when(notificationRepository.findMinIdFromBefore(101L, CUTOFF)).thenReturn(999_950L);
+        when(notificationRepository.deleteExpiredInIdRange(1L, 100L, CUTOFF)).thenReturn(0);
+        when(notificationRepository.deleteExpiredInIdRange(999_950L, 1_000_000L, CUTOFF)).thenReturn(51);
+
+        NotificationCleanupService.RetentionRunStats stats = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> cleanupService.purgeNotificationsBefore(CUTOFF));
+
+        assertEquals(51, stats.getDeletedCount());
+        assertEquals(2, stats.getChunkCount());
+        assertTrue(stats.isCompleted());
+        verify(notificationRepository, times(2)).deleteExpiredInIdRange(any(), any(), any());
+    }
+
+    @Test
+    void testNothingExpiredRunsNoChunks() {
+        when(notificationRepository.findMinIdBefore(CUTOFF)).thenReturn(null);
+        when(notificationRepository.findMaxIdBefore(CUTOFF)).thenReturn(null);
+
+        NotificationCleanupService.RetentionRunStats stats = cleanupService.purgeNotificationsBefore(CUTOFF);
+
+        assertEquals(0, stats.getDeletedCount());
+        assertEquals(0, stats.getChunkCount());
+        assertTrue(stats.isCompleted());
+        verify(notificationRepository, never()).deleteExpiredInIdRange(any(), any(), any());
+    }
+
+    @Test
+    void testRunStopsAtTheDeadlineAndReportsLag() {
+        Clock clock = mock(Clock.class);
+        // Deadline taken at the start, the first chunk starts in time, the second after 31 minutes
+        when(clock.instant()).thenReturn(NOW, NOW, NOW.plus(Duration.ofMinutes(31)));
+        ReflectionTestUtils.setField(cleanupService, "clock", clock);
+        when(notificationRepository.findMinIdBefore(CUTOFF)).thenReturn(1L);
+        when(notificationRepository.findMaxIdBefore(CUTOFF)).thenReturn(300L);
+        when(notificationRepository.deleteExpiredInIdRange(1L, 100L, CUTOFF)).thenReturn(100);
+        when(notificationRepository.findOldestCreatedAtBefore(CUTOFF)).thenReturn(CUTOFF.minusHours(2));
+
+        NotificationCleanupService.RetentionRunStats stats = cleanupService.purgeNotificationsBefore(CUTOFF);
+
+        assertFalse(stats.isCompleted());
+        assertEquals(100, stats.getDeletedCount());
+        assertEquals(1, stats.getChunkCount());
+        assertEquals(7200, stats.getLagSeconds());
+        verify(notificationRepository, times(1)).deleteExpiredInIdRange(any(), any(), any());
+    }
+
+    @Test
+    void testChunksAreArchivedBeforeTheyAreDeleted() throws IOException {
+        NotificationArchiveWriter writer = mock(NotificationArchiveWriter.class);
+        when(writer.getFile()).thenReturn(Path.of("archive", "notifications-20261001-020000.ndjson.gz"));
+        when(writer.getRecordCount()).thenReturn(2L);
+        NotificationCleanupService archiving = archivingService(writer);
+        List<Notification> expired = List.of(notification(), notification());
+        when(notificationRepository.findMinIdBefore(CUTOFF)).thenReturn(1L);
+        when(notificationRepository.findMaxIdBefore(CUTOFF)).thenReturn(200L);
+        when(notificationRepository.findExpiredInIdRange(1L, 100L, CUTOFF)).thenReturn(expired);
+        when(notificationRepository.findExpiredInIdRange(101L, 200L, CUTOFF)).thenReturn(List.of());
+        when(notificationRepository.deleteExpiredInIdRange(1L, 100L, CUTOFF)).thenReturn(2);
+
+        NotificationCleanupService.RetentionRunStats stats = archiving.purgeNotificationsBefore(CUTOFF);
+
+        assertEquals(2, stats.getDeletedCount());
+        assertEquals(2, stats.getArchivedCount());
+        assertEquals(2, stats.getChunkCount());
+        assertTrue(stats.getArchiveFile().endsWith(".ndjson.gz"));
+        var order = inOrder(writer, notificationRepository);
+        order.verify(writer).write(expired);
+        order.verify(notificationRepository).deleteExpiredInIdRange(1L, 100L, CUTOFF);
+        order.verify(writer).close();
+        // An empty chunk has nothing to archive and nothing to delete
+        verify(notificationRepository, never()).deleteExpiredInIdRange(eq(101L), any(), any());
+    }
+
+    @Test
+    void testArchiveFailureLeavesTheChunkInPlace() throws IOException {
+        NotificationArchiveWriter writer = mock(NotificationArchiveWriter.class);
+        NotificationCleanupService archiving = archivingService(writer);
+        List<Notification> expired = List.of(notification());
+        when(notificationRepository.findMinIdBefore(CUTOFF)).thenReturn(1L);
+        when(notificationRepository.findMaxIdBefore(CUTOFF)).thenReturn(200L);
+        when(notificationRepository.findExpiredInIdRange(1L, 100L, CUTOFF)).thenReturn(expired);
+        doThrow(new IOException("disk full")).when(writer).write(expired);
+
+        UncheckedIOException error = assertThrows(UncheckedIOException.class,
+                () -> archiving.purgeNotificationsBefore(CUTOFF));
+
+        assertEquals("disk full", error.getCause().getMessage());
+        verify(notificationRepository, never()).deleteExpiredInIdRange(any(), any(), any());
+        verify(notificationRepository, never()).findExpiredInIdRange(eq(101L), any(), any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(writer).close();
+    }
+
+    private NotificationCleanupService archivingService(NotificationArchiveWriter writer) throws IOException {
+        ReflectionTestUtils.setField(cleanupService, "archiveEnabled", true);
+        NotificationCleanupService archiving = spy(cleanupService);
+        doReturn(writer).when(archiving).openArchive(any());
+        return archiving;
+    }
+
+    private static Notification notification() {
+        User recipient = new User("staff", "staff@example.com", "secret", "Sam", "Staff");
+        recipient.setUserId(7L);
+        return new Notification(recipient, "Booking EVT-1 confirmed", Notification.AlertType.BOOKING_CONFIRMATION);
+    }
+}
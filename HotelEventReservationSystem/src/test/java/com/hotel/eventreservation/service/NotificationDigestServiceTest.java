@@ -0,0 +1,150 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.DigestGroupDTO;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationDigestItem;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.NotificationDigestItemRepository;
+import com.hotel.eventreservation.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationDigestServiceTest {
+
+    private NotificationService notificationService;
+    private PlatformTransactionManager transactionManager;
+    private NotificationDigestService digestService;
+    private User manager;
+    // Stands in for the notification_digest_items table
+    private List<NotificationDigestItem> items;
+
+    @BeforeEach
+    void setUp() {
+        items = new ArrayList<>();
+        notificationService = mock(NotificationService.class);
+        NotificationDigestItemRepository digestItemRepository = mock(NotificationDigestItemRepository.class);
+        when(digestItemRepository.save(any(NotificationDigestItem.class))).thenAnswer(invocation -> {
+            NotificationDigestItem item = invocation.getArgument(0);
+            item.setDigestItemId((long) items.size() + 1);
+            items.add(item);
+            return item;
+        });
+        when(digestItemRepository.findDueGroups(any(LocalDateTime.class), anyLong())).thenAnswer(invocation -> {
+            LocalDateTime windowStart = invocation.getArgument(0);
+            long maxEntries = invocation.getArgument(1);
+            Map<List<Object>, List<NotificationDigestItem>> groups = items.stream().collect(Collectors.groupingBy(
+                    item -> List.of(item.getRecipientUser().getUserId(), item.getAlertType())));
+            return groups.values().stream()
+                    .filter(group -> group.size() >= maxEntries || group.stream()
+                            .map(NotificationDigestItem::getCreatedAt).min(Comparator.naturalOrder()).get().compareTo(windowStart) <= 0)
+                    .map(group -> new DigestGroupDTO(group.get(0).getRecipientUser().getUserId(), group.get(0).getAlertType(), group.size()))
+                    .toList();
+        });
+        when(digestItemRepository.lockGroup(anyLong(), any())).thenAnswer(invocation -> items.stream()
+                .filter(item -> item.getRecipientUser().getUserId().equals(invocation.getArgument(0)))
+                .filter(item -> item.getAlertType() == invocation.getArgument(1))
+                .toList());
+        doAnswer(invocation -> {
+            Collection<?> deleted = invocation.getArgument(0);
+            items.removeAll(deleted);
+            return null;
+        }).when(digestItemRepository).deleteAllInBatch(anyCollection());
+        when(digestItemRepository.count()).thenAnswer(invocation -> (long) items.size());
+
+        manager = new User();
+        manager.setUserId(1L);
+        manager.setUsername("manager");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(manager));
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        digestService = new NotificationDigestService();
+        ReflectionTestUtils.setField(digestService, "notificationService", notificationService);
+        ReflectionTestUtils.setField(digestService, "digestItemRepository", digestItemRepository);
+        ReflectionTestUtils.setField(digestService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(digestService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(digestService, "digestEnabled", true);
+        ReflectionTestUtils.setField(digestService, "windowSeconds", 300L);
+        ReflectionTestUtils.setField(digestService, "maxEntries", 100);
+        ReflectionTestUtils.setField(digestService, "maxListed", 5);
+    }
+
+    @Test
+    void testMessagesAreCoalescedPerRecipientAndAlertType() {
+        for (int i = 0; i < 12; i++) {
+            digestService.submit(manager, "New booking request: BK" + i, Notification.AlertType.COORDINATION_ALERT);
+        }
+        digestService.submit(manager, "Booking BK3 was cancelled by the guest.", Notification.AlertType.BOOKING_CANCELLATION);
+
+        assertEquals(0, digestService.flushDue(LocalDateTime.now()));
+        verifyNoInteractions(notificationService);
+        assertEquals(13, digestService.getPendingItemCount());
+
+        assertEquals(2, digestService.flushDue(LocalDateTime.now().plusMinutes(6)));
+
+        ArgumentCaptor<String> content = ArgumentCaptor.forClass(String.class);
+        verify(notificationService).sendNotification(eq(manager), content.capture(), eq(Notification.AlertType.COORDINATION_ALERT));
+        assertTrue(content.getValue().startsWith("12 new coordination alert notifications:"));
+        assertTrue(content.getValue().endsWith("... and 7 more"));
+        verify(notificationService).sendNotification(manager, "Booking BK3 was cancelled by the guest.",
+                Notification.AlertType.BOOKING_CANCELLATION);
+        assertEquals(0, digestService.getPendingItemCount());
+    }
+
+    @Test
+    void testDigestIsFlushedEarlyWhenFull() {
+        ReflectionTestUtils.setField(digestService, "maxEntries", 3);
+        for (int i = 0; i < 3; i++) {
+            digestService.submit(manager, "Catering required for booking: BK" + i, Notification.AlertType.CATERING_CONFIRMED);
+        }
+
+        assertEquals(1, digestService.flushDue(LocalDateTime.now()));
+        verify(notificationService).sendNotification(eq(manager), startsWith("3 new catering confirmed"),
+                eq(Notification.AlertType.CATERING_CONFIRMED));
+    }
+
+    @Test
+    void testFailedSendKeepsTheDigestForTheNextFlush() {
+        digestService.submit(manager, "New booking request: BK1", Notification.AlertType.COORDINATION_ALERT);
+        digestService.submit(manager, "New booking request: BK2", Notification.AlertType.COORDINATION_ALERT);
+        when(notificationService.sendNotification(any(User.class), anyString(), any()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(true);
+
+        assertEquals(0, digestService.flushDue(LocalDateTime.now().plusMinutes(6)));
+        verify(transactionManager).rollback(any());
+        assertEquals(2, digestService.getPendingItemCount());
+
+        assertEquals(1, digestService.flushDue(LocalDateTime.now().plusMinutes(7)));
+        assertEquals(0, digestService.getPendingItemCount());
+    }
+
+    @Test
+    void testDisabledDigestSendsImmediately() {
+        ReflectionTestUtils.setField(digestService, "digestEnabled", false);
+
+        digestService.submit(manager, "New booking request: BK1", Notification.AlertType.COORDINATION_ALERT);
+
+        verify(notificationService).sendNotification(manager, "New booking request: BK1", Notification.AlertType.COORDINATION_ALERT);
+        assertEquals(0, digestService.getPendingItemCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.NotificationPreference;
+import com.hotel.eventreservation.repository.NotificationPreferenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class NotificationPreferenceServiceTest {
+
+    private NotificationPreferenceRepository preferenceRepository;
+    private NotificationPreferenceService preferenceService;
+
+    @BeforeEach
+    void setUp() {
+        preferenceRepository = mock(NotificationPreferenceRepository.class);
+        preferenceService = new NotificationPreferenceService();
+        ReflectionTestUtils.setField(preferenceService, "preferenceRepository", preferenceRepository);
+        ReflectionTestUtils.setField(preferenceService, "emailEnabled", true);
+        ReflectionTestUtils.setField(preferenceService, "smsEnabled", true);
+    }
+
+    @Test
+    void testUsersWithoutPreferencesReceiveEveryChannel() {
+        when(preferenceRepository.findAll()).thenReturn(List.of());
+        preferenceService.reload();
+
+        for (Notification.AlertType alertType : Notification.AlertType.values()) {
+            assertTrue(preferenceService.isChannelEnabled(1L, alertType, NotificationPreference.Channel.EMAIL));
+            assertTrue(preferenceService.isChannelEnabled(1L, alertType, NotificationPreference.Channel.SMS));
+        }
+        assertEquals(0, preferenceService.getRoutedUserCount());
+    }
+
+    @Test
+    void testCompiledPreferencesOnlyAffectTheirAlertTypeAndChannel() {
+        NotificationPreference noCoordinationEmail = new NotificationPreference(1L, Notification.AlertType.COORDINATION_ALERT);
+        noCoordinationEmail.setEmailEnabled(false);
+        NotificationPreference noReminderSms = new NotificationPreference(1L, Notification.AlertType.EVENT_REMINDER);
+        noReminderSms.setSmsEnabled(false);
+        when(preferenceRepository.findAll()).thenReturn(List.of(noCoordinationEmail, noReminderSms));
+        preferenceService.reload();
+
+        assertFalse(preferenceService.isChannelEnabled(1L, Notification.AlertType.COORDINATION_ALERT, NotificationPreference.Channel.EMAIL));
+        assertTrue(preferenceService.isChannelEnabled(1L, Notification.AlertType.COORDINATION_ALERT, NotificationPreference.Channel.SMS));
+        assertFalse(preferenceService.isChannelEnabled(1L, Notification.AlertType.EVENT_REMINDER, NotificationPreference.Channel.SMS));
+        assertTrue(preferenceService.isChannelEnabled(1L, Notification.AlertType.EVENT_REMINDER, NotificationPreference.Channel.EMAIL));
+        assertTrue(preferenceService.isChannelEnabled(2L, Notification.AlertType.COORDINATION_ALERT, NotificationPreference.Channel.EMAIL));
+    }
+
+    @Test
+    void testGlobalSwitchOverridesPreferences() {
+        ReflectionTestUtils.setField(preferenceService, "smsEnabled", false);
+        when(preferenceRepository.findAll()).thenReturn(List.of());
+        preferenceService.reload();
+
+        assertFalse(preferenceService.isChannelEnabled(1L, Notification.AlertType.BOOKING_CHANGE, NotificationPreference.Channel.SMS));
+    }
+
+    @Test
+    void testUpdatePreferenceRecompilesUser() {
+        NotificationPreference stored = new NotificationPreference(5L, Notification.AlertType.BOOKING_CHANGE);
+        when(preferenceRepository.findByUserIdAndAlertType(5L, Notification.AlertType.BOOKING_CHANGE)).thenReturn(Optional.empty());
+        when(preferenceRepository.save(any(NotificationPreference.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(preferenceRepository.findByUserId(5L)).thenAnswer(invocation -> {
+            stored.setEmailEnabled(false);
+            return List.of(stored);
+        });
+
+        preferenceService.updatePreference(5L, Notification.AlertType.BOOKING_CHANGE, NotificationPreference.Channel.EMAIL, false);
+
+        assertFalse(preferenceService.isChannelEnabled(5L, Notification.AlertType.BOOKING_CHANGE, NotificationPreference.Channel.EMAIL));
+        assertFalse(preferenceService.getPreferences(5L).get(Notification.AlertType.BOOKING_CHANGE).get(NotificationPreference.Channel.EMAIL));
+        assertTrue(preferenceService.getPreferences(5L).get(Notification.AlertType.GUEST_ARRIVAL).get(NotificationPreference.Channel.EMAIL));
+    }
+}
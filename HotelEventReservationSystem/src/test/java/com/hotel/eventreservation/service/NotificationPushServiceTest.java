@@ -0,0 +1,94 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.NotificationEventDTO;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationPushServiceTest {
+
+    private NotificationRepository notificationRepository;
+    private NotificationPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        when(notificationRepository.countUnreadNotificationsByUserId(anyLong())).thenReturn(3L);
+
+        pushService = new NotificationPushService();
+        ReflectionTestUtils.setField(pushService, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(pushService, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(pushService, "maxStreamsPerUser", 2);
+    }
+
+    @Test
+    void testInProcessRelayDeliversToRecipientStreamsOnly() {
+        InProcessNotificationRelay relay = new InProcessNotificationRelay();
+        ReflectionTestUtils.setField(relay, "notificationPushService", pushService);
+        pushService.subscribe(1L);
+        pushService.subscribe(1L);
+        pushService.subscribe(2L);
+
+        relay.publish(event(10L, 1L));
+
+        assertEquals(2, pushService.deliverLocally(event(11L, 1L)));
+        assertEquals(0, pushService.deliverLocally(event(12L, 99L)));
+        assertEquals(3, pushService.getSubscriberCount());
+    }
+
+    @Test
+    void testOldestStreamIsEvictedPastPerUserLimit() {
+        pushService.subscribe(1L);
+        pushService.subscribe(1L);
+        pushService.subscribe(1L);
+
+        assertEquals(2, pushService.getSubscriberCount());
+    }
+
+    @Test
+    void testDatabaseRelayPushesRowsCreatedOnAnyNode() {
+        DatabaseNotificationRelay relay = new DatabaseNotificationRelay();
+        NotificationPushService mockPushService = mock(NotificationPushService.class);
+        when(mockPushService.hasSubscribers(1L)).thenReturn(true);
+        ReflectionTestUtils.setField(relay, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(relay, "notificationPushService", mockPushService);
+        ReflectionTestUtils.setField(relay, "pollBatchSize", 10);
+        when(notificationRepository.findMaxNotificationId()).thenReturn(100L);
+        relay.init();
+
+        when(notificationRepository.findCreatedAfterId(eq(100L), any(Pageable.class)))
+                .thenReturn(List.of(notification(101L, 1L), notification(102L, 2L)));
+        when(notificationRepository.findCreatedAfterId(eq(102L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        relay.poll();
+        relay.poll();
+
+        verify(mockPushService, times(1)).deliverLocally(argThat(event -> event.getNotificationId() == 101L));
+        verify(mockPushService, never()).deliverLocally(argThat(event -> event.getRecipientUserId() == 2L));
+        assertEquals(102L, relay.getLastSeenId());
+    }
+
+    private static NotificationEventDTO event(Long notificationId, Long userId) {
+        return new NotificationEventDTO(notification(notificationId, userId));
+    }
+
+    private static Notification notification(Long notificationId, Long userId) {
+        User user = new User();
+        user.setUserId(userId);
+        Notification notification = new Notification(user, "Booking update", Notification.AlertType.BOOKING_CHANGE);
+        notification.setNotificationId(notificationId);
+        return notification;
+    }
+}
@@ -0,0 +1,64 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationSearchTest {
+
+    private NotificationRepository notificationRepository;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        notificationService = new NotificationService();
+        ReflectionTestUtils.setField(notificationService, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(notificationService, "searchMaxResults", 50);
+        when(notificationRepository.searchFullText(anyLong(), anyString(), any(), any(Pageable.class))).thenReturn(Page.empty());
+        when(notificationRepository.searchBySubstring(anyLong(), anyString(), any(), any(Pageable.class))).thenReturn(Page.empty());
+    }
+
+    @Test
+    void testBooleanModeQueryStripsOperatorsAndShortTerms() {
+        assertEquals("+booking* +confirmed*", NotificationService.toBooleanModeQuery("Booking +confirmed -- \"on\""));
+        assertEquals("+catering*", NotificationService.toBooleanModeQuery("catering CATERING"));
+        assertNull(NotificationService.toBooleanModeQuery("BK 12"));
+    }
+
+    @Test
+    void testFullTextSearchIsScopedAndPaged() {
+        notificationService.searchNotificationsForUser(7L, "new booking", Notification.AlertType.COORDINATION_ALERT, 2, 500);
+
+        verify(notificationRepository).searchFullText(eq(7L), eq("+new* +booking*"), eq("COORDINATION_ALERT"),
+                argThat(pageable -> pageable.getPageNumber() == 2 && pageable.getPageSize() == 50));
+        verify(notificationRepository, never()).searchBySubstring(anyLong(), anyString(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testFallsBackToSubstringWhenIndexIsMissing() {
+        when(notificationRepository.searchFullText(anyLong(), anyString(), any(), any(Pageable.class)))
+                .thenThrow(new InvalidDataAccessResourceUsageException("Can't find FULLTEXT index"));
+
+        notificationService.searchNotificationsForUser(7L, "cancelled", null, 0, 20);
+
+        verify(notificationRepository).searchBySubstring(eq(7L), eq("cancelled"), isNull(), any(Pageable.class));
+    }
+
+    @Test
+    void testShortTermsUseSubstringMatch() {
+        notificationService.searchNotificationsForUser(7L, " BK ", null, 0, 20);
+
+        verify(notificationRepository, never()).searchFullText(anyLong(), anyString(), any(), any(Pageable.class));
+        verify(notificationRepository).searchBySubstring(eq(7L), eq("BK"), isNull(), any(Pageable.class));
+    }
+}
@@ -0,0 +1,129 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.util.MessageTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationTemplateServiceTest {
+
+    private NotificationTemplateService templateService;
+
+    @BeforeEach
+    void setUp() {
+        templateService = new NotificationTemplateService();
+        ReflectionTestUtils.setField(templateService, "defaultLocaleTag", "en");
+        templateService.load();
+    }
+
+    @Test
+    void testLocaleVariantFallsBackToDefaultBundle() {
+        User guest = user("fr-CA");
+        Map<String, Object> values = Map.of("reference", "BK-7");
+
+        assertEquals("Votre réservation BK-7 est confirmée.", templateService.render("booking.confirmed.guest", guest, values));
+        // Not translated, so the default text is used
+        assertEquals("Catering required for booking: BK-7", templateService.render("booking.confirmed.catering", guest, values));
+        assertEquals("Your booking BK-7 is confirmed.", templateService.render("booking.confirmed.guest", user(null), values));
+    }
+
+    @Test
+    void testAlertTypeVariantOverridesGenericTemplate() {
+        Map<String, Object> values = Map.of("alertType", Notification.AlertType.GUEST_ARRIVAL);
+
+        assertEquals("Hotel Event Reservation - Upcoming event",
+                templateService.render("email.subject", Notification.AlertType.EVENT_REMINDER, user(null), values));
+        assertEquals("Hotel Event Reservation - GUEST_ARRIVAL",
+                templateService.render("email.subject", Notification.AlertType.GUEST_ARRIVAL, user(null), values));
+    }
+
+    @Test
+    void testHtmlEmailEscapesMessageContent() {
+        String html = templateService.renderHtml("email.body.html", Notification.AlertType.COORDINATION_ALERT, user(null),
+                emailValues("Setup <b>moved</b> to Hall B"));
+
+        assertTrue(html.contains("Setup &lt;b&gt;moved&lt;/b&gt; to Hall B"));
+        assertTrue(html.contains("<p>Dear Maria,</p>"));
+    }
+
+    @Test
+    void testBundleLocaleIsDerivedFromFileName() {
+        assertEquals(Locale.ROOT, NotificationTemplateService.bundleLocale("messages.properties"));
+        assertEquals(Locale.CANADA_FRENCH, NotificationTemplateService.bundleLocale("messages_fr_CA.properties"));
+        assertNull(NotificationTemplateService.bundleLocale("other.properties"));
+    }
+
+    /**
+     * Compares the compiled email body template against the StringBuilder concatenation it replaced.
+     * Run with -Dbenchmarks=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkTemplateAgainstConcatenation() {
+        User recipient = user(null);
+        MessageTemplate template = templateService.getTemplate("email.body.text", Notification.AlertType.BOOKING_CONFIRMATION, Locale.ENGLISH);
+        Map<String, Object> values = emailValues("Your booking BK-20260501-0042 is confirmed.");
+        int iterations = 2_000_000;
+
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += concatenate(recipient, values).length();
+            }
+            long concatNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += template.render(values).length();
+            }
+            long templateNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += templateService.render("email.body.text", Notification.AlertType.BOOKING_CONFIRMATION, recipient, values).length();
+            }
+            long lookupNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: concatenation %.1f ns/op, template %.1f ns/op, lookup+template %.1f ns/op%n", round,
+                    (double) concatNanos / iterations, (double) templateNanos / iterations, (double) lookupNanos / iterations);
+        }
+        assertTrue(sink > 0);
+    }
+
+    private static String concatenate(User recipient, Map<String, Object> values) {
+        StringBuilder content = new StringBuilder();
+        content.append("Dear ").append(recipient.getFirstName()).append(",\n\n");
+        content.append(values.get("message")).append("\n\n");
+        content.append("Alert Type: ").append(values.get("alertType").toString()).append("\n");
+        content.append("Sent at: ").append(values.get("sentAt")).append("\n\n");
+        content.append("Best regards,\nHotel Event Reservation System");
+        return content.toString();
+    }
+
+    private static Map<String, Object> emailValues(String message) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("firstName", "Maria");
+        values.put("message", message);
+        values.put("alertType", Notification.AlertType.BOOKING_CONFIRMATION);
+        values.put("sentAt", LocalDateTime.of(2026, 5, 1, 9, 30));
+        return values;
+    }
+
+    private static User user(String locale) {
+        User user = new User();
+        user.setFirstName("Maria");
+        user.setPreferredLocale(locale);
+        return user;
+    }
+}
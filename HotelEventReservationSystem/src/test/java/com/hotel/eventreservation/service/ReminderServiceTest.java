@@ -0,0 +1,127 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingSlotDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.ReminderLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReminderServiceTest {
+
+    private BookingRepository bookingRepository;
+    private ReminderLogRepository reminderLogRepository;
+    private NotificationService notificationService;
+    private ReminderService reminderService;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        reminderLogRepository = mock(ReminderLogRepository.class);
+        notificationService = mock(NotificationService.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        NotificationTemplateService templateService = new NotificationTemplateService();
+        ReflectionTestUtils.setField(templateService, "defaultLocaleTag", "en");
+        templateService.load();
+
+        reminderService = new ReminderService();
+        ReflectionTestUtils.setField(reminderService, "notificationTemplateService", templateService);
+        ReflectionTestUtils.setField(reminderService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(reminderService, "reminderLogRepository", reminderLogRepository);
+        ReflectionTestUtils.setField(reminderService, "notificationService", notificationService);
+        ReflectionTestUtils.setField(reminderService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(reminderService, "remindersEnabled", true);
+        ReflectionTestUtils.setField(reminderService, "eventHoursBefore", 24L);
+        ReflectionTestUtils.setField(reminderService, "paymentHoursAfterCreation", 12L);
+        ReflectionTestUtils.setField(reminderService, "horizonMinutes", 360L);
+        ReflectionTestUtils.setField(reminderService, "catchUpHours", 6L);
+        ReflectionTestUtils.setField(reminderService, "tickSeconds", 1L);
+        reminderService.init();
+        when(bookingRepository.findSlotsByStatusAndCreatedAtBetween(any(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void testOnlyRemindersInsideTheWindowAreLoadedOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingSlotDTO dueSoon = slot(1L, now.plusHours(25), Booking.BookingStatus.CONFIRMED);
+        BookingSlotDTO tooFar = slot(2L, now.plusHours(40), Booking.BookingStatus.CONFIRMED);
+        when(bookingRepository.findSlotsByStatusAndEventDateBetween(eq(Booking.BookingStatus.CONFIRMED), any(), any()))
+                .thenReturn(List.of(dueSoon, tooFar));
+
+        assertEquals(1, reminderService.loadWindow(now, now.plusHours(6)));
+        assertEquals(0, reminderService.loadWindow(now, now.plusHours(6)));
+        assertEquals(1, reminderService.getScheduledCount());
+    }
+
+    @Test
+    void testDueReminderIsClaimedAndSentOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = booking(1L, now.plusHours(23), Booking.BookingStatus.CONFIRMED);
+        when(bookingRepository.findSlotsByStatusAndEventDateBetween(eq(Booking.BookingStatus.CONFIRMED), any(), any()))
+                .thenReturn(List.of(new BookingSlotDTO(booking)));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(reminderLogRepository.claim(eq(1L), eq("EVENT_REMINDER"), any())).thenReturn(1, 0);
+
+        reminderService.loadWindow(now.minusHours(6), now.plusHours(6));
+        reminderService.tick();
+
+        verify(notificationService).sendNotification(eq(booking.getGuest()), contains("BK-1"), eq(Notification.AlertType.EVENT_REMINDER));
+
+        // Another node already claimed it
+        reminderService.loadWindow(now.minusHours(6), now.plusHours(6));
+        reminderService.tick();
+        verify(notificationService, times(1)).sendNotification(any(User.class), anyString(), any());
+    }
+
+    @Test
+    void testCancelledBookingIsSkippedWhenReminderFires() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = booking(1L, now.plusHours(23), Booking.BookingStatus.CONFIRMED);
+        when(bookingRepository.findSlotsByStatusAndEventDateBetween(eq(Booking.BookingStatus.CONFIRMED), any(), any()))
+                .thenReturn(List.of(new BookingSlotDTO(booking)));
+        reminderService.loadWindow(now.minusHours(6), now.plusHours(6));
+
+        booking.setBookingStatus(Booking.BookingStatus.CANCELLED);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        reminderService.tick();
+
+        verify(reminderLogRepository, never()).claim(anyLong(), anyString(), any());
+        verifyNoInteractions(notificationService);
+    }
+
+    private static BookingSlotDTO slot(Long bookingId, LocalDateTime eventStart, Booking.BookingStatus status) {
+        return new BookingSlotDTO(bookingId, 1L, eventStart.toLocalDate(), eventStart.toLocalTime(),
+                eventStart.toLocalTime().plusHours(1), status, LocalDateTime.now().minusDays(3));
+    }
+
+    private static Booking booking(Long bookingId, LocalDateTime eventStart, Booking.BookingStatus status) {
+        User guest = new User();
+        guest.setUserId(10L);
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setGuest(guest);
+        booking.setEventType("Wedding");
+        booking.setReferenceCode("BK-" + bookingId);
+        booking.setEventDate(eventStart.toLocalDate());
+        booking.setStartTime(eventStart.toLocalTime());
+        booking.setEndTime(eventStart.toLocalTime().plusHours(1));
+        booking.setBookingStatus(status);
+        booking.setCreatedAt(LocalDateTime.now().minusDays(3));
+        return booking;
+    }
+}
@@ -0,0 +1,176 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.strategy.CSVExportStrategy;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReportJobServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate END = LocalDate.of(2026, 3, 31);
+
+    @TempDir
+    Path artifactDirectory;
+
+    private ReportService reportService;
+    private ReportJobService jobService;
+    private final CountDownLatch exporting = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        reportService = mock(ReportService.class);
+        when(reportService.getExportStrategy("CSV")).thenReturn(new CSVExportStrategy());
+        when(reportService.getExportStrategy("XML")).thenThrow(new IllegalArgumentException("Export strategy not found: XML"));
+        doAnswer(invocation -> {
+            exporting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            invocation.getArgument(8, OutputStream.class).write("Event Date,Revenue\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).exportReport(anyString(), any(), any(), any(), any(), any(), any(), any(ExportCompression.class), any());
+        Files.writeString(artifactDirectory.resolve(ReportJobService.ARTIFACT_PREFIX + "stale.csv"), "old");
+
+        jobService = new ReportJobService();
+        ReflectionTestUtils.setField(jobService, "reportService", reportService);
+        ReflectionTestUtils.setField(jobService, "workers", 1);
+        ReflectionTestUtils.setField(jobService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(jobService, "artifactDirectory", artifactDirectory.toString());
+        ReflectionTestUtils.setField(jobService, "retentionMinutes", 60L);
+        ReflectionTestUtils.setField(jobService, "shutdownTimeoutSeconds", 5L);
+        jobService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobService.stop();
+    }
+
+    @Test
+    void testIdenticalRequestsShareOneJobAndProduceOneArtifact() throws Exception {
+        assertFalse(Files.exists(artifactDirectory.resolve(ReportJobService.ARTIFACT_PREFIX + "stale.csv")));
+
+        CountDownLatch notified = new CountDownLatch(2);
+        ReportJob first = jobService.submit(request("csv", "Wedding"), 5L, finished -> notified.countDown());
+        // Same export once normalised: format case differs and the revenue report ignores event type filters
+        ReportJob second = jobService.submit(request("CSV", "Wedding"), 6L, finished -> notified.countDown());
+        assertSame(first, second);
+        assertEquals("revenue_report.csv", first.getFilename());
+
+        release.countDown();
+        ReportJob job = awaitFinished(first);
+        // Both submitters hear about the shared job
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+
+        assertEquals(ReportJob.Status.COMPLETED, job.getStatus());
+        assertEquals("Event Date,Revenue\n", Files.readString(job.getArtifact()));
+        assertEquals(job.getArtifactSize(), Files.size(job.getArtifact()));
+        verify(reportService, times(1)).exportReport(eq("CSV"), eq(ReportService.ReportType.REVENUE_REPORT), eq(START), eq(END),
+                isNull(), isNull(), eq(ReportService.ReportPeriod.MONTH), eq(ExportCompression.NONE), any());
+
+        // Once finished the same request starts a fresh job
+        ReportJob fresh = jobService.submit(request("CSV", null), 5L);
+        assertNotSame(first, fresh);
+        assertEquals(ReportJob.Status.COMPLETED, awaitFinished(fresh).getStatus());
+    }
+
+    @Test
+    void testFullQueueAndUnknownFormatAreRefused() throws Exception {
+        ReportJob running = jobService.submit(request("CSV", null), 5L);
+        ReportJob queued = jobService.submit(new ReportJob.Request("CSV", ReportService.ReportType.VENUE_UTILIZATION,
+                START, END, null, null, null, ExportCompression.NONE), 5L);
+        waitUntilRunning();
+
+        // One worker busy and one job queued: a third distinct request does not fit
+        assertThrows(IllegalStateException.class, () -> jobService.submit(new ReportJob.Request("CSV",
+                ReportService.ReportType.EVENT_TYPE_TRENDS, START, END, null, null, null, ExportCompression.GZIP), 5L));
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(request("XML", null), 5L));
+        assertEquals(2, jobService.getJobs().size());
+
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+    }
+
+    @Test
+    void testFailedJobKeepsErrorAndLeavesNoPartialFile() throws Exception {
+        doThrow(new IOException("Connection reset")).when(reportService)
+                .exportReport(anyString(), any(), any(), any(), any(), any(), any(), any(ExportCompression.class), any());
+
+        ReportJob job = awaitFinished(jobService.submit(request("CSV", null), 5L));
+
+        assertEquals(ReportJob.Status.FAILED, job.getStatus());
+        assertEquals("Connection reset", job.getErrorMessage());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void testExpiredJobsArePurgedWithTheirArtifacts() throws Exception {
+        release.countDown();
+        ReportJob job = awaitFinished(jobService.submit(request("CSV", null), 5L));
+        assertEquals(0, jobService.purgeExpiredJobs());
+
+        ReflectionTestUtils.setField(jobService, "retentionMinutes", -1L);
+        assertEquals(1, jobService.purgeExpiredJobs());
+
+        assertTrue(jobService.getJob(job.getJobId()).isEmpty());
+        assertFalse(Files.exists(job.getArtifact()));
+    }
+
+    @Test
+    void testStopInterruptsRunningJobsAndRemovesTheirPartialFiles() throws Exception {
+        ReportJob job = jobService.submit(request("CSV", null), 5L);
+        assertTrue(exporting.await(5, TimeUnit.SECONDS));
+        assertEquals(1, countFiles());
+
+        jobService.stop();
+
+        assertTrue(job.isFinished());
+        assertEquals(ReportJob.Status.FAILED, job.getStatus());
+        assertEquals(0, countFiles());
+    }
+
+    private long countFiles() throws IOException {
+        try (var files = Files.list(artifactDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static ReportJob.Request request(String format, String eventType) {
+        return new ReportJob.Request(format, ReportService.ReportType.REVENUE_REPORT, START, END, eventType, null, null, null);
+    }
+
+    private void waitUntilRunning() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jobService.getJobs().stream().noneMatch(job -> job.getStatus() == ReportJob.Status.RUNNING)) {
+            assertTrue(System.currentTimeMillis() < deadline, "No job started");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static ReportJob awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Job did not finish");
+            Thread.sleep(10);
+        }
+        return job;
+    }
+}
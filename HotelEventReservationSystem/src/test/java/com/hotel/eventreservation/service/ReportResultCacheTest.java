@@ -0,0 +1,102 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.strategy.ReportSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportResultCacheTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2026, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2026, 4, 1);
+
+    private ReportResultCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReportResultCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "maxRows", 100);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 30L);
+    }
+
+    @Test
+    void testEquivalentParametersShareOneEntry() {
+        ReportKey viewed = new ReportKey(ReportService.ReportType.REVENUE_REPORT, MARCH, MARCH.plusDays(30), "Wedding",
+                Booking.BookingStatus.CONFIRMED, null);
+        ReportKey exported = ReportKey.of(ReportService.ReportType.REVENUE_REPORT, MARCH, MARCH.plusDays(30));
+
+        ReportResult first = cache.get(viewed, this::load);
+        ReportResult second = cache.get(exported, this::load);
+
+        assertEquals(viewed, exported);
+        assertEquals(ReportService.ReportPeriod.MONTH, exported.period());
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(List.of("Label"), second.schema().getColumnNames());
+        assertEquals("row 1", second.toMaps().get(0).get("Label"));
+    }
+
+    @Test
+    void testChangedBookingDropsEntriesForItsOldAndNewDates() {
+        ReportKey march = ReportKey.of(ReportService.ReportType.VENUE_UTILIZATION, MARCH, MARCH.plusDays(30));
+        ReportKey april = ReportKey.of(ReportService.ReportType.VENUE_UTILIZATION, APRIL, APRIL.plusDays(29));
+        cache.get(march, this::load);
+        cache.get(april, this::load);
+
+        Booking booking = new Booking(new User(), new Venue("Terrace", Venue.VenueType.ROOM, 80, BigDecimal.TEN),
+                "Gala", LocalDate.of(2026, 3, 20), LocalTime.of(19, 0), LocalTime.of(23, 0), 60, new BigDecimal("900.00"));
+        booking.setReportedState(booking.currentReportedState());
+        booking.setEventDate(LocalDate.of(2026, 5, 2));
+        cache.onBookingChanged(booking, Booking.BookingStatus.CONFIRMED);
+
+        // Moved out of March: the March report changes, April's does not
+        assertTrue(cache.getIfPresent(march).isEmpty());
+        assertTrue(cache.getIfPresent(april).isPresent());
+
+        // Changed without its loaded state the old date is unknown, so nothing is kept
+        cache.onBookingChanged(new Booking(new User(), booking.getVenue(), "Gala", LocalDate.of(2027, 1, 1),
+                LocalTime.of(19, 0), LocalTime.of(23, 0), 60, BigDecimal.TEN), Booking.BookingStatus.PENDING);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testResultLoadedAcrossAnInvalidationIsNotStored() {
+        ReportKey key = ReportKey.of(ReportService.ReportType.EVENT_TYPE_TRENDS, MARCH, MARCH.plusDays(30));
+
+        ReportResult result = cache.get(key, () -> {
+            cache.invalidate(Set.of(LocalDate.of(2030, 1, 1)));
+            return load();
+        });
+
+        assertNotNull(result);
+        assertEquals(0, cache.size());
+        cache.get(key, this::load);
+        cache.get(ReportKey.of(ReportService.ReportType.VENUE_UTILIZATION, MARCH, MARCH), this::load);
+        cache.get(ReportKey.of(ReportService.ReportType.REVENUE_REPORT, MARCH, MARCH), this::load);
+        // Bounded to two entries, least recently used first out
+        assertEquals(2, cache.size());
+        assertTrue(cache.getIfPresent(key).isEmpty());
+    }
+
+    private ReportResult load() {
+        int load = loads.incrementAndGet();
+        ReportSchema<String> schema = ReportSchema.<String>builder().text("Label", row -> row).build();
+        return ReportResult.of(schema, List.of("row " + load));
+    }
+}
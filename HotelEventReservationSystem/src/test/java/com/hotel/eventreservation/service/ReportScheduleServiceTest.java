@@ -0,0 +1,175 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.Notification;
+import com.hotel.eventreservation.model.ReportSchedule;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.ReportScheduleRepository;
+import com.hotel.eventreservation.strategy.CSVExportStrategy;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReportScheduleServiceTest {
+
+    // A Sunday evening; the schedules below fire on Monday at 05:00
+    private static final LocalDateTime SUNDAY = LocalDateTime.of(2026, 10, 18, 20, 0);
+    private static final LocalDateTime MONDAY_FIVE = LocalDateTime.of(2026, 10, 19, 5, 0);
+
+    private ReportScheduleRepository scheduleRepository;
+    private ReportJobService reportJobService;
+    private NotificationService notificationService;
+    private RoleDirectoryService roleDirectoryService;
+    private ReportScheduleService scheduleService;
+    private final List<ReportSchedule> planned = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        scheduleRepository = mock(ReportScheduleRepository.class);
+        reportJobService = mock(ReportJobService.class);
+        notificationService = mock(NotificationService.class);
+        roleDirectoryService = mock(RoleDirectoryService.class);
+        ReportService reportService = mock(ReportService.class);
+        when(reportService.getExportStrategy(anyString())).thenReturn(new CSVExportStrategy());
+        NotificationTemplateService templateService = mock(NotificationTemplateService.class);
+        when(templateService.render(anyString(), any(User.class), anyMap()))
+                .thenAnswer(invocation -> invocation.getArgument(0) + " " + invocation.getArgument(2));
+        when(scheduleRepository.findPlannedBetween(any(), any())).thenAnswer(invocation -> planned.stream()
+                .filter(s -> !s.getNextRunAt().isBefore(invocation.getArgument(0))
+                          && !s.getNextRunAt().isAfter(invocation.getArgument(1)))
+                .toList());
+        when(scheduleRepository.moveNextRun(anyLong(), any(), any())).thenReturn(1);
+
+        scheduleService = new ReportScheduleService();
+        ReflectionTestUtils.setField(scheduleService, "reportScheduleRepository", scheduleRepository);
+        ReflectionTestUtils.setField(scheduleService, "reportJobService", reportJobService);
+        ReflectionTestUtils.setField(scheduleService, "reportService", reportService);
+        ReflectionTestUtils.setField(scheduleService, "notificationService", notificationService);
+        ReflectionTestUtils.setField(scheduleService, "notificationTemplateService", templateService);
+        ReflectionTestUtils.setField(scheduleService, "roleDirectoryService", roleDirectoryService);
+        ReflectionTestUtils.setField(scheduleService, "schedulesEnabled", true);
+        ReflectionTestUtils.setField(scheduleService, "staggerSpacingSeconds", 300L);
+        ReflectionTestUtils.setField(scheduleService, "staggerWindowMinutes", 15L);
+        ReflectionTestUtils.setField(scheduleService, "maxLookbackDays", 366);
+    }
+
+    @Test
+    void testSchedulesOnTheSameCronAreStaggered() {
+        List<LocalDateTime> runs = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            ReportSchedule schedule = schedule(id, "0 0 5 * * MON");
+            schedule.setNextRunAt(scheduleService.planNextRun(schedule, SUNDAY));
+            planned.add(schedule);
+            runs.add(schedule.getNextRunAt());
+        }
+
+        assertEquals(List.of(MONDAY_FIVE, MONDAY_FIVE.plusMinutes(5), MONDAY_FIVE.plusMinutes(10),
+                             // The 15-minute window holds three slots; the fourth shares one by id
+                             MONDAY_FIVE.plusMinutes(5)), runs);
+        // Re-planning a schedule keeps its own slot rather than dodging itself
+        assertEquals(MONDAY_FIVE.plusMinutes(10), scheduleService.planNextRun(planned.get(2), SUNDAY));
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createSchedule("Weekly", "Revenue Report",
+                "CSV", "WEEK", "every monday", 7, null, new User()));
+        // Managers cannot open /marketing download links
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createSchedule("Weekly", "Revenue Report",
+                "CSV", "WEEK", "0 0 5 * * MON", 7, "GENERAL_MANAGER", new User()));
+    }
+
+    @Test
+    void testDueScheduleExportsTheWeekBeforeAndNotifiesRecipients() {
+        User owner = user(7L);
+        ReportSchedule schedule = schedule(1L, "0 0 5 * * MON");
+        schedule.setOwner(owner);
+        schedule.setRecipientRole("MARKETING_EXECUTIVE");
+        schedule.setNextRunAt(MONDAY_FIVE);
+        when(scheduleRepository.findDue(any())).thenReturn(List.of(schedule));
+        when(roleDirectoryService.getRecipientUsers("MARKETING_EXECUTIVE")).thenReturn(List.of(user(2L), user(7L)));
+        ReportJob.Request expected = new ReportJob.Request("CSV", ReportService.ReportType.REVENUE_REPORT,
+                LocalDate.of(2026, 10, 12), LocalDate.of(2026, 10, 18), null, null, ReportService.ReportPeriod.WEEK,
+                ExportCompression.NONE);
+        ReportJob job = new ReportJob("job-1", expected, 7L, "revenue_report.csv", "text/csv");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<ReportJob>> whenFinished = ArgumentCaptor.forClass(Consumer.class);
+        when(reportJobService.submit(eq(expected), eq(7L), whenFinished.capture())).thenReturn(job);
+
+        assertEquals(1, scheduleService.runDueSchedules());
+
+        assertEquals("job-1", schedule.getLastJobId());
+        assertTrue(schedule.getNextRunAt().isAfter(LocalDateTime.now()));
+        verify(scheduleRepository).moveNextRun(1L, MONDAY_FIVE, schedule.getNextRunAt());
+        verify(scheduleRepository).save(schedule);
+
+        job.markCompleted(Path.of("report-job-1-revenue_report.csv"), 42);
+        when(reportJobService.getExpiresAt(job)).thenReturn(LocalDateTime.of(2026, 10, 20, 5, 1, 30));
+        whenFinished.getValue().accept(job);
+        // Owner and the one other marketing executive, each once
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(notificationService, times(2)).sendNotification(any(User.class), message.capture(),
+                eq(Notification.AlertType.COORDINATION_ALERT));
+        assertTrue(message.getValue().startsWith("report.scheduled.ready"));
+        assertTrue(message.getValue().contains("/marketing/report-jobs/job-1/download"));
+        assertTrue(message.getValue().contains("expiresAt=2026-10-20 05:01"));
+    }
+
+    @Test
+    void testScheduleClaimedByAnotherNodeIsNotRunAgain() {
+        ReportSchedule schedule = schedule(1L, "0 0 5 * * MON");
+        schedule.setOwner(user(7L));
+        schedule.setNextRunAt(MONDAY_FIVE);
+        when(scheduleRepository.findDue(any())).thenReturn(List.of(schedule));
+        when(scheduleRepository.moveNextRun(eq(1L), eq(MONDAY_FIVE), any())).thenReturn(0);
+
+        assertEquals(0, scheduleService.runDueSchedules());
+
+        verifyNoInteractions(reportJobService);
+        verify(scheduleRepository, never()).save(any());
+    }
+
+    @Test
+    void testFullJobQueueLeavesTheScheduleDue() {
+        ReportSchedule schedule = schedule(1L, "0 0 5 * * MON");
+        schedule.setOwner(user(7L));
+        schedule.setNextRunAt(MONDAY_FIVE);
+        when(scheduleRepository.findDue(any())).thenReturn(List.of(schedule));
+        when(reportJobService.submit(any(), any(), any())).thenThrow(new IllegalStateException("Too many reports"));
+
+        assertEquals(0, scheduleService.runDueSchedules());
+
+        assertEquals(MONDAY_FIVE, schedule.getNextRunAt());
+        // The claimed run is handed back so the next poll finds it due
+        ArgumentCaptor<LocalDateTime> claimedRun = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(scheduleRepository).moveNextRun(eq(1L), eq(MONDAY_FIVE), claimedRun.capture());
+        verify(scheduleRepository).moveNextRun(1L, claimedRun.getValue(), MONDAY_FIVE);
+        verify(scheduleRepository, never()).save(any());
+    }
+
+    private static ReportSchedule schedule(long id, String cron) {
+        ReportSchedule schedule = new ReportSchedule();
+        schedule.setScheduleId(id);
+        schedule.setName("Weekly revenue " + id);
+        schedule.setReportType(ReportService.ReportType.REVENUE_REPORT.name());
+        schedule.setExportFormat("CSV");
+        schedule.setPeriod(ReportService.ReportPeriod.WEEK.name());
+        schedule.setCronExpression(cron);
+        schedule.setLookbackDays(7);
+        return schedule;
+    }
+
+    private static User user(long userId) {
+        User user = new User();
+        user.setUserId(userId);
+        return user;
+    }
+}
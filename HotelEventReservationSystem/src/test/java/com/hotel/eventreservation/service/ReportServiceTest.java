@@ -0,0 +1,276 @@
+package com.hotel.eventreservation.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.eventreservation.dto.BookingKpiDTO;
+import com.hotel.eventreservation.dto.DailyBookingTotalsDTO;
+import com.hotel.eventreservation.dto.VenueUtilizationDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingDailyRollupRepository;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.strategy.ExportCompression;
+import com.hotel.eventreservation.strategy.JSONExportStrategy;
+import com.hotel.eventreservation.strategy.ReportExportStrategy;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReportServiceTest {
+
+    private BookingRepository bookingRepository;
+    private BookingDailyRollupRepository rollupRepository;
+    private BookingRollupService bookingRollupService;
+    private EntityManager entityManager;
+    private ReportExportStrategy fallbackStrategy;
+    private ReportResultCache reportResultCache;
+    private ReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        rollupRepository = mock(BookingDailyRollupRepository.class);
+        bookingRollupService = mock(BookingRollupService.class);
+        entityManager = mock(EntityManager.class);
+        fallbackStrategy = mock(ReportExportStrategy.class);
+        when(fallbackStrategy.getStrategyType()).thenReturn("LEGACY");
+
+        Map<String, ReportExportStrategy> strategies = new HashMap<>();
+        strategies.put("jsonExportStrategy", new JSONExportStrategy());
+        strategies.put("legacyExportStrategy", fallbackStrategy);
+
+        reportResultCache = new ReportResultCache();
+        ReflectionTestUtils.setField(reportResultCache, "enabled", true);
+        ReflectionTestUtils.setField(reportResultCache, "maxEntries", 10);
+        ReflectionTestUtils.setField(reportResultCache, "maxRows", 1000);
+        ReflectionTestUtils.setField(reportResultCache, "ttlMinutes", 30L);
+
+        reportService = new ReportService();
+        ReflectionTestUtils.setField(reportService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(reportService, "rollupRepository", rollupRepository);
+        ReflectionTestUtils.setField(reportService, "bookingRollupService", bookingRollupService);
+        ReflectionTestUtils.setField(reportService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(reportService, "reportExportStrategies", strategies);
+        ReflectionTestUtils.setField(reportService, "reportResultCache", reportResultCache);
+    }
+
+    @Test
+    void testStreamingExportWritesEveryRowInColumnOrder() throws Exception {
+        when(bookingRepository.streamForExport(any(), any(), isNull(), isNull())).thenReturn(bookings(1200));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reportService.exportReport("JSON", ReportService.ReportType.BOOKING_ANALYTICS,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2026, 12, 31), " ", null, out);
+
+        JsonNode rows = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(1200, rows.size());
+        List<String> fields = new ArrayList<>();
+        Iterator<String> names = rows.get(0).fieldNames();
+        names.forEachRemaining(fields::add);
+        assertEquals(List.of("Booking ID", "Reference Code", "Guest Name", "Event Type", "Event Date", "Start Time",
+                "End Time", "Guest Count", "Venue", "Total Cost", "Status", "Created At"), fields);
+        assertEquals("Hall 7", rows.get(7).get("Venue").asText());
+        // A blank event type is no filter; the persistence context is cleared as rows are written
+        verify(bookingRepository).streamForExport(any(), any(), isNull(), isNull());
+        verify(entityManager, times(2)).clear();
+        // Too large a range to have been viewed first: streamed, not cached
+        assertEquals(0, reportResultCache.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testNonStreamingStrategyReceivesCollectedRows() throws Exception {
+        when(bookingRepository.streamForExport(any(), any(), eq("Wedding"), isNull())).thenReturn(bookings(3));
+        when(fallbackStrategy.exportData(anyList(), eq("booking_analytics"))).thenReturn(new byte[] {1, 2, 3});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reportService.exportReport("legacy", ReportService.ReportType.BOOKING_ANALYTICS,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31), "Wedding", null, out);
+
+        assertArrayEquals(new byte[] {1, 2, 3}, out.toByteArray());
+        verify(fallbackStrategy).exportData(argThat(data -> data.size() == 3
+                && data.get(0).keySet().iterator().next().equals("Booking ID")), eq("booking_analytics"));
+    }
+
+    @Test
+    void testCompressedExportIsFinishedBeforeReturning() throws Exception {
+        when(bookingRepository.streamForExport(any(), any(), isNull(), isNull())).thenReturn(bookings(20));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reportService.exportReport("JSON", ReportService.ReportType.BOOKING_ANALYTICS, LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), null, null, ExportCompression.GZIP, out);
+
+        JsonNode rows = new ObjectMapper().readTree(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals(20, rows.size());
+    }
+
+    @Test
+    void testUnknownFormatIsRejectedBeforeQuerying() {
+        assertThrows(IllegalArgumentException.class, () -> reportService.exportReport("XML",
+                ReportService.ReportType.REVENUE_REPORT, LocalDate.now(), LocalDate.now(), null, null, new ByteArrayOutputStream()));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testRevenueReportRollsDailyTotalsIntoWeeks() {
+        // 2026-03-02 is a Monday
+        when(bookingRepository.findDailyTotals(any(), any())).thenReturn(List.of(
+                daily(LocalDate.of(2026, 3, 2), "Wedding", Booking.BookingStatus.CONFIRMED, 2, 300, "5000.00"),
+                daily(LocalDate.of(2026, 3, 8), "Conference", Booking.BookingStatus.PENDING, 1, 80, "1000.00"),
+                daily(LocalDate.of(2026, 3, 8), "Wedding", Booking.BookingStatus.CANCELLED, 1, 150, "2500.00"),
+                daily(LocalDate.of(2026, 3, 9), "Wedding", Booking.BookingStatus.CONFIRMED, 1, 100, "3000.00")));
+
+        List<Map<String, Object>> rows = reportService.generateRevenueReport(LocalDate.of(2026, 3, 1),
+                LocalDate.of(2026, 3, 31), ReportService.ReportPeriod.WEEK);
+
+        assertEquals(2, rows.size());
+        Map<String, Object> firstWeek = rows.get(0);
+        assertEquals(LocalDate.of(2026, 3, 2), firstWeek.get("Period"));
+        assertEquals(4L, firstWeek.get("Bookings"));
+        assertEquals(1L, firstWeek.get("Cancelled"));
+        assertEquals(380L, firstWeek.get("Guests"));
+        assertEquals(new BigDecimal("6000.00"), firstWeek.get("Revenue"));
+        assertEquals(new BigDecimal("2000.00"), firstWeek.get("Average Booking Value"));
+        assertEquals(LocalDate.of(2026, 3, 9), rows.get(1).get("Period"));
+    }
+
+    @Test
+    void testEventTypeTrendsGroupByMonthAndTypeWithoutCancellations() {
+        when(bookingRepository.findDailyTotals(any(), any())).thenReturn(List.of(
+                daily(LocalDate.of(2026, 3, 2), "Wedding", Booking.BookingStatus.CONFIRMED, 2, 300, "5000.00"),
+                daily(LocalDate.of(2026, 3, 20), "Wedding", Booking.BookingStatus.COMPLETED, 1, 100, "2000.00"),
+                daily(LocalDate.of(2026, 3, 21), "Gala", Booking.BookingStatus.CANCELLED, 1, 90, "900.00"),
+                daily(LocalDate.of(2026, 4, 1), "Conference", Booking.BookingStatus.PENDING, 1, 80, "1000.00")));
+
+        List<Map<String, Object>> rows = reportService.generateEventTypeTrendsReport(LocalDate.of(2026, 3, 1),
+                LocalDate.of(2026, 4, 30), ReportService.ReportPeriod.MONTH);
+
+        assertEquals(2, rows.size());
+        assertEquals(List.of("Period", "Event Type", "Bookings", "Guests", "Average Guests", "Revenue"),
+                new ArrayList<>(rows.get(0).keySet()));
+        assertEquals(LocalDate.of(2026, 3, 1), rows.get(0).get("Period"));
+        assertEquals("Wedding", rows.get(0).get("Event Type"));
+        assertEquals(3L, rows.get(0).get("Bookings"));
+        assertEquals(133.3, rows.get(0).get("Average Guests"));
+        assertEquals("Conference", rows.get(1).get("Event Type"));
+    }
+
+    @Test
+    void testVenueReportAndKpisComeFromAggregateQueries() {
+        when(bookingRepository.findVenueUtilization(any(), any())).thenReturn(List.of(new VenueUtilizationDTO(1L,
+                "Grand Hall", Venue.VenueType.HALL, 200, 4L, 600L, 150.0, new BigDecimal("12000.00"))));
+        when(bookingRepository.findKpis(any(), any())).thenReturn(new BookingKpiDTO(0L, null, null, null));
+
+        List<Map<String, Object>> venues = reportService.generateVenueUtilizationReport(LocalDate.now(), LocalDate.now());
+
+        assertEquals(75.0, venues.get(0).get("Utilization %"));
+        assertEquals(4L, venues.get(0).get("Bookings"));
+        assertSame(BookingKpiDTO.EMPTY, reportService.getDashboardKpis(LocalDate.now(), LocalDate.now()));
+        assertEquals(25.0, new BookingKpiDTO(8L, 2L, BigDecimal.TEN, 50.0).cancellationRate());
+        verify(bookingRepository, never()).findByEventDateBetween(any(), any());
+        verify(bookingRepository, never()).findAll();
+    }
+
+    @Test
+    void testAggregateReportsReadRollupsOnceTheyAreReady() {
+        when(bookingRollupService.isReady()).thenReturn(true);
+        when(rollupRepository.findDailyTotals(any(), any())).thenReturn(List.of(
+                daily(LocalDate.of(2026, 3, 2), "Wedding", Booking.BookingStatus.CONFIRMED, 2, 300, "5000.00")));
+        when(rollupRepository.findKpis(any(), any())).thenReturn(new BookingKpiDTO(2L, 0L, new BigDecimal("5000.00"), 75.0));
+
+        List<Map<String, Object>> rows = reportService.generateRevenueReport(LocalDate.of(2026, 3, 1),
+                LocalDate.of(2026, 3, 31), ReportService.ReportPeriod.MONTH);
+        BookingKpiDTO kpis = reportService.getDashboardKpis(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+
+        assertEquals(2L, rows.get(0).get("Bookings"));
+        assertEquals(75.0, kpis.averageUtilization());
+        verify(bookingRepository, never()).findDailyTotals(any(), any());
+        verify(bookingRepository, never()).findKpis(any(), any());
+    }
+
+    @Test
+    void testExportingAViewedReportReusesItsRows() throws Exception {
+        when(bookingRepository.findDailyTotals(any(), any())).thenReturn(List.of(
+                daily(LocalDate.of(2026, 3, 2), "Wedding", Booking.BookingStatus.CONFIRMED, 2, 300, "5000.00")));
+        when(bookingRepository.findForReport(any(), any(), eq("Wedding"), isNull())).thenReturn(bookings(3).toList());
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        LocalDate end = LocalDate.of(2026, 3, 31);
+
+        List<Map<String, Object>> revenue = reportService.generateRevenueReport(start, end, ReportService.ReportPeriod.WEEK);
+        ByteArrayOutputStream revenueOut = new ByteArrayOutputStream();
+        reportService.exportReport("JSON", ReportService.ReportType.REVENUE_REPORT, start, end, "Wedding", null,
+                ReportService.ReportPeriod.WEEK, ExportCompression.NONE, revenueOut);
+
+        JsonNode exported = new ObjectMapper().readTree(revenueOut.toByteArray());
+        assertEquals(revenue.size(), exported.size());
+        assertEquals("2026-03-02", exported.get(0).get("Period").asText());
+        assertEquals(5000.00, exported.get(0).get("Revenue").asDouble());
+
+        reportService.generateBookingAnalytics(start, end, "Wedding ", null);
+        ByteArrayOutputStream analyticsOut = new ByteArrayOutputStream();
+        reportService.exportReport("JSON", ReportService.ReportType.BOOKING_ANALYTICS, start, end, "Wedding", null, analyticsOut);
+
+        assertEquals(3, new ObjectMapper().readTree(analyticsOut.toByteArray()).size());
+        verify(bookingRepository, times(1)).findDailyTotals(any(), any());
+        verify(bookingRepository, times(1)).findForReport(any(), any(), any(), any());
+        verify(bookingRepository, never()).streamForExport(any(), any(), any(), any());
+    }
+
+    @Test
+    void testBookingChangeRecomputesOnlyReportsCoveringItsDate() {
+        when(bookingRepository.findDailyTotals(any(), any())).thenReturn(List.of());
+        when(bookingRepository.findVenueUtilization(any(), any())).thenReturn(List.of());
+        LocalDate march = LocalDate.of(2026, 3, 1);
+        LocalDate january = LocalDate.of(2026, 1, 1);
+        reportService.generateRevenueReport(march, march.plusMonths(1).minusDays(1));
+        reportService.generateVenueUtilizationReport(january, january.plusMonths(1).minusDays(1));
+
+        Booking moved = bookings(1).findFirst().orElseThrow();
+        moved.setEventDate(LocalDate.of(2026, 3, 10));
+        reportResultCache.onBookingChanged(moved, null);
+        reportService.generateRevenueReport(march, march.plusMonths(1).minusDays(1));
+        reportService.generateVenueUtilizationReport(january, january.plusMonths(1).minusDays(1));
+
+        verify(bookingRepository, times(2)).findDailyTotals(any(), any());
+        verify(bookingRepository, times(1)).findVenueUtilization(any(), any());
+    }
+
+    private static DailyBookingTotalsDTO daily(LocalDate date, String eventType, Booking.BookingStatus status,
+                                               long bookings, long guests, String revenue) {
+        return new DailyBookingTotalsDTO(date, eventType, status, bookings, guests, new BigDecimal(revenue));
+    }
+
+    private static Stream<Booking> bookings(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            User guest = new User();
+            guest.setFirstName("Guest");
+            guest.setLastName(String.valueOf(i));
+            Venue venue = new Venue("Hall " + i, Venue.VenueType.HALL, 200, new BigDecimal("150.00"));
+            Booking booking = new Booking(guest, venue, "Wedding", LocalDate.of(2025, 1, 1).plusDays(i),
+                    LocalTime.of(18, 0), LocalTime.of(23, 0), 120, new BigDecimal("2500.00"));
+            booking.setBookingId((long) i);
+            booking.setBookingStatus(Booking.BookingStatus.CONFIRMED);
+            return booking;
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.RecipientDTO;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RoleDirectoryServiceTest {
+
+    private UserRepository userRepository;
+    private RoleDirectoryService roleDirectoryService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findActiveRoleMemberships()).thenReturn(List.of(
+                new RecipientDTO(1L, "manager", "manager@hotel.com", "555-0001", "Maria", "Lopez", "GENERAL_MANAGER"),
+                new RecipientDTO(2L, "coordinator", "coord@hotel.com", null, "Sam", "Lee", "EVENT_COORDINATOR"),
+                new RecipientDTO(3L, "lead", "lead@hotel.com", "555-0003", "Alex", "Kim", "EVENT_COORDINATOR")));
+
+        roleDirectoryService = new RoleDirectoryService();
+        ReflectionTestUtils.setField(roleDirectoryService, "userRepository", userRepository);
+    }
+
+    @Test
+    void testDirectoryIsLoadedOnceAndGroupedByRole() {
+        assertEquals(2, roleDirectoryService.getRecipients("EVENT_COORDINATOR").size());
+        assertEquals(1, roleDirectoryService.getRecipients("GENERAL_MANAGER").size());
+        assertTrue(roleDirectoryService.getRecipients("RECEPTIONIST").isEmpty());
+
+        verify(userRepository, times(1)).findActiveRoleMemberships();
+    }
+
+    @Test
+    void testRecipientUsersCarryContactFields() {
+        User manager = roleDirectoryService.getRecipientUsers("GENERAL_MANAGER").get(0);
+
+        assertEquals(1L, manager.getUserId());
+        assertEquals("manager@hotel.com", manager.getEmail());
+        assertEquals("555-0001", manager.getPhone());
+        assertEquals("Maria", manager.getFirstName());
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        roleDirectoryService.getRecipients("GENERAL_MANAGER");
+        roleDirectoryService.invalidate();
+        roleDirectoryService.getRecipients("GENERAL_MANAGER");
+
+        verify(userRepository, times(2)).findActiveRoleMemberships();
+    }
+}
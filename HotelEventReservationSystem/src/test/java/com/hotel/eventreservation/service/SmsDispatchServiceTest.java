@@ -0,0 +1,174 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.model.SmsOutboxMessage;
+import com.hotel.eventreservation.repository.SmsOutboxRepository;
+import com.hotel.eventreservation.strategy.SmsProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SmsDispatchServiceTest {
+
+    private SmsOutboxRepository repository;
+    private SmsProvider provider;
+    private SmsDispatchService dispatchService;
+    private List<SmsOutboxMessage> outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new ArrayList<>();
+        repository = mock(SmsOutboxRepository.class);
+        when(repository.findDueMessages(eq("testProvider"), any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    LocalDateTime now = invocation.getArgument(1);
+                    Pageable page = invocation.getArgument(2);
+                    return outbox.stream()
+                            .filter(SmsDispatchServiceTest::claimable)
+                            .filter(m -> !m.getNextAttemptAt().isAfter(now))
+                            .limit(page.getPageSize())
+                            .toList();
+                });
+        when(repository.claim(anyCollection(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> claim(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3)));
+        when(repository.findClaimed(anyString())).thenAnswer(invocation -> outbox.stream()
+                .filter(m -> m.getStatus() == SmsOutboxMessage.SmsStatus.SENDING)
+                .filter(m -> invocation.getArgument(0).equals(m.getClaimToken()))
+                .toList());
+        when(repository.save(any(SmsOutboxMessage.class))).thenAnswer(invocation -> {
+            SmsOutboxMessage message = invocation.getArgument(0);
+            if (message.getSmsId() == null) {
+                message.setSmsId((long) outbox.size() + 1);
+                outbox.add(message);
+            }
+            return message;
+        });
+
+        provider = mock(SmsProvider.class);
+        when(provider.getRateLimitPerSecond()).thenReturn(0.001);
+        when(provider.getBurstCapacity()).thenReturn(3);
+        when(provider.getProviderName()).thenReturn("TEST");
+
+        dispatchService = new SmsDispatchService();
+        ReflectionTestUtils.setField(dispatchService, "smsOutboxRepository", repository);
+        ReflectionTestUtils.setField(dispatchService, "smsProviders", Map.of("testProvider", provider));
+        ReflectionTestUtils.setField(dispatchService, "activeProvider", "testProvider");
+        ReflectionTestUtils.setField(dispatchService, "batchSize", 2);
+        ReflectionTestUtils.setField(dispatchService, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatchService, "initialBackoffMillis", 60_000L);
+        ReflectionTestUtils.setField(dispatchService, "maxBackoffMillis", 60_000L);
+        ReflectionTestUtils.setField(dispatchService, "leaseSeconds", 60L);
+    }
+
+    private int claim(Collection<Long> ids, String claimToken, LocalDateTime now, LocalDateTime leaseUntil) {
+        int claimed = 0;
+        for (SmsOutboxMessage message : outbox) {
+            if (ids.contains(message.getSmsId()) && claimable(message) && !message.getNextAttemptAt().isAfter(now)) {
+                message.setStatus(SmsOutboxMessage.SmsStatus.SENDING);
+                message.setClaimToken(claimToken);
+                message.setNextAttemptAt(leaseUntil);
+                claimed++;
+            }
+        }
+        return claimed;
+    }
+
+    private static boolean claimable(SmsOutboxMessage message) {
+        return message.getStatus() == SmsOutboxMessage.SmsStatus.QUEUED
+                || message.getStatus() == SmsOutboxMessage.SmsStatus.SENDING;
+    }
+
+    @Test
+    void testDispatchStopsWhenRateLimitIsExhausted() {
+        when(provider.sendMessage(anyString(), anyString())).thenReturn(true);
+        for (int i = 0; i < 10; i++) {
+            dispatchService.enqueue("+1555000" + i, "Message " + i);
+        }
+
+        assertEquals(3, dispatchService.dispatchPending());
+
+        verify(provider, times(3)).sendMessage(anyString(), anyString());
+        assertEquals(3, outbox.stream().filter(m -> m.getStatus() == SmsOutboxMessage.SmsStatus.DELIVERED).count());
+        assertEquals(7, outbox.stream().filter(m -> m.getStatus() == SmsOutboxMessage.SmsStatus.QUEUED).count());
+        assertEquals(0, dispatchService.dispatchPending());
+    }
+
+    @Test
+    void testTransientFailureIsRescheduledAndRejectionFails() {
+        when(provider.sendMessage(eq("+15550001"), anyString())).thenThrow(new IllegalStateException("provider timeout"));
+        when(provider.sendMessage(eq("+15550002"), anyString())).thenReturn(false);
+        dispatchService.enqueue("+15550001", "Retry me");
+        dispatchService.enqueue("+15550002", "Reject me");
+
+        assertEquals(0, dispatchService.dispatchPending());
+
+        SmsOutboxMessage retried = outbox.get(0);
+        assertEquals(SmsOutboxMessage.SmsStatus.QUEUED, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(30)));
+        assertEquals("provider timeout", retried.getLastError());
+        assertEquals(SmsOutboxMessage.SmsStatus.FAILED, outbox.get(1).getStatus());
+        assertNull(retried.getClaimToken());
+    }
+
+    @Test
+    void testMessagesClaimedByAnotherDispatcherAreNotSent() {
+        when(provider.sendMessage(anyString(), anyString())).thenReturn(true);
+        dispatchService.enqueue("+15550001", "First");
+        dispatchService.enqueue("+15550002", "Second");
+        // Another node claims the first message between our read and our claim
+        when(repository.claim(anyCollection(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    LocalDateTime now = invocation.getArgument(2);
+                    claim(List.of(outbox.get(0).getSmsId()), "other-node", now, now.plusSeconds(60));
+                    return claim(invocation.getArgument(0), invocation.getArgument(1), now, invocation.getArgument(3));
+                });
+
+        assertEquals(1, dispatchService.dispatchPending());
+
+        verify(provider, never()).sendMessage(eq("+15550001"), anyString());
+        verify(provider).sendMessage("+15550002", "Second");
+        assertEquals(SmsOutboxMessage.SmsStatus.SENDING, outbox.get(0).getStatus());
+        assertEquals("other-node", outbox.get(0).getClaimToken());
+        assertEquals(SmsOutboxMessage.SmsStatus.DELIVERED, outbox.get(1).getStatus());
+    }
+
+    @Test
+    void testEachResultIsSavedBeforeTheNextSend() {
+        AtomicInteger sends = new AtomicInteger();
+        when(provider.sendMessage(anyString(), anyString())).thenAnswer(invocation -> {
+            if (sends.incrementAndGet() == 2) {
+                // The node stops while the second message is in flight
+                throw new Error("node stopped");
+            }
+            return true;
+        });
+        dispatchService.enqueue("+15550001", "First");
+        dispatchService.enqueue("+15550002", "Second");
+
+        assertThrows(Error.class, () -> dispatchService.dispatchPending());
+
+        var order = inOrder(provider, repository);
+        order.verify(provider).sendMessage("+15550001", "First");
+        order.verify(repository).save(outbox.get(0));
+        order.verify(provider).sendMessage("+15550002", "Second");
+        assertEquals(SmsOutboxMessage.SmsStatus.DELIVERED, outbox.get(0).getStatus());
+        // The in-flight message keeps its claim until the lease lapses, then it is due again
+        SmsOutboxMessage inFlight = outbox.get(1);
+        assertEquals(SmsOutboxMessage.SmsStatus.SENDING, inFlight.getStatus());
+        assertTrue(inFlight.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(30)));
+        verify(repository, never()).saveAll(any());
+    }
+}
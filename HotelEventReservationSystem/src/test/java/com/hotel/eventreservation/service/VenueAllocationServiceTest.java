@@ -0,0 +1,124 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingSlotDTO;
+import com.hotel.eventreservation.dto.VenueAllocationDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.VenueAvailabilityRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class VenueAllocationServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 9, 1);
+    private static final LocalDate END = START.plusDays(30);
+
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+    private VenueAllocationService allocationService;
+    private Venue hall;
+    private Venue room;
+    private Booking birthday;
+    private Booking wedding;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        VenueRepository venueRepository = mock(VenueRepository.class);
+        VenueAvailabilityRepository availabilityRepository = mock(VenueAvailabilityRepository.class);
+        bookingService = mock(BookingService.class);
+
+        hall = new Venue("Grand Hall", Venue.VenueType.HALL, 200, new BigDecimal("150.00"));
+        hall.setVenueId(1L);
+        room = new Venue("Garden Room", Venue.VenueType.ROOM, 40, new BigDecimal("60.00"));
+        room.setVenueId(2L);
+        when(venueRepository.findByIsActiveTrue()).thenReturn(List.of(hall, room));
+
+        LocalDate date = START.plusDays(5);
+        User guest = new User("guest", "guest@example.com", "secret", "Ada", "Guest");
+        birthday = new Booking(guest, hall, "Birthday", date, LocalTime.of(18, 0), LocalTime.of(22, 0), 30,
+                new BigDecimal("600.00"));
+        birthday.setBookingId(10L);
+        birthday.setReferenceCode("EVT-10");
+        wedding = new Booking(guest, hall, "Wedding", date, LocalTime.of(16, 0), LocalTime.of(23, 0), 150,
+                new BigDecimal("1050.00"));
+        wedding.setBookingId(11L);
+        wedding.setReferenceCode("EVT-11");
+        when(bookingRepository.findPendingWithDetailsByEventDateBetween(START, END)).thenReturn(List.of(birthday, wedding));
+        when(availabilityRepository.findTimeBlocks(any(), any(), any())).thenReturn(List.of());
+
+        allocationService = new VenueAllocationService();
+        ReflectionTestUtils.setField(allocationService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(allocationService, "venueRepository", venueRepository);
+        ReflectionTestUtils.setField(allocationService, "venueAvailabilityRepository", availabilityRepository);
+        ReflectionTestUtils.setField(allocationService, "bookingService", bookingService);
+        ReflectionTestUtils.setField(allocationService, "timeBudgetMs", 500L);
+        ReflectionTestUtils.setField(allocationService, "maxRangeDays", 92);
+    }
+
+    @Test
+    void testPreviewMovesTheSmallPartyAndAppliesInOneBatch() {
+        when(bookingRepository.findActiveSlotsByEventDateBetween(START, END)).thenReturn(List.of());
+
+        VenueAllocationDTO allocation = allocationService.preview(START, END);
+
+        assertEquals(2, allocation.proposed().confirmedCount());
+        assertEquals(new BigDecimal("1650.00"), allocation.proposed().revenue());
+        assertEquals(1, allocation.firstComeFirstServed().confirmedCount());
+        assertEquals(1, allocation.movedCount());
+        VenueAllocationDTO.Proposal moved = allocation.proposals().get(0);
+        assertEquals("EVT-10", moved.referenceCode());
+        assertEquals(2L, moved.proposedVenueId());
+        assertTrue(moved.isMoved());
+        assertEquals(1L, allocation.proposals().get(1).proposedVenueId());
+
+        assertEquals(2, allocationService.apply(START, END, List.of(10L, 11L), List.of(2L, 1L)));
+        verify(bookingService).confirmInVenue(10L, room);
+        verify(bookingService).confirmInVenue(11L, hall);
+    }
+
+    @Test
+    void testStaleBatchIsRejectedWhole() {
+        // Since the preview the hall was confirmed for another party that evening
+        when(bookingRepository.findActiveSlotsByEventDateBetween(START, END)).thenReturn(List.of(
+                new BookingSlotDTO(12L, 1L, START.plusDays(5), LocalTime.of(19, 0), LocalTime.of(21, 0),
+                        Booking.BookingStatus.CONFIRMED, null)));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> allocationService.apply(START, END, List.of(10L, 11L), List.of(2L, 1L)));
+
+        assertTrue(error.getMessage().contains("EVT-11"));
+        verify(bookingService, never()).confirmInVenue(any(), any());
+        assertThrows(IllegalStateException.class,
+                () -> allocationService.apply(START, END, List.of(99L), List.of(1L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> allocationService.preview(START, START.plusDays(200)));
+    }
+
+    @Test
+    void testPartialBatchLeavesOtherPendingBookingsTheirVenue() {
+        when(bookingRepository.findActiveSlotsByEventDateBetween(START, END)).thenReturn(List.of());
+
+        // The wedding stays pending in the hall, so the birthday cannot be confirmed over it
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> allocationService.apply(START, END, List.of(10L), List.of(1L)));
+
+        assertTrue(error.getMessage().contains("EVT-10"));
+        verify(bookingService, never()).confirmInVenue(any(), any());
+        assertEquals(1, allocationService.apply(START, END, List.of(10L), List.of(2L)));
+        verify(bookingService).confirmInVenue(10L, room);
+    }
+}
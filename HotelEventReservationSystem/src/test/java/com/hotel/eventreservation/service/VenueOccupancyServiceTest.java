@@ -0,0 +1,157 @@
+package com.hotel.eventreservation.service;
+
+import com.hotel.eventreservation.dto.BookingSlotDTO;
+import com.hotel.eventreservation.dto.OccupancyHeatmapDTO;
+import com.hotel.eventreservation.dto.VenueTimeBlockDTO;
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.repository.BookingRepository;
+import com.hotel.eventreservation.repository.VenueAvailabilityRepository;
+import com.hotel.eventreservation.repository.VenueRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class VenueOccupancyServiceTest {
+
+    private BookingRepository bookingRepository;
+    private VenueAvailabilityRepository availabilityRepository;
+    private VenueOccupancyService occupancyService;
+    private Venue hall;
+    // A window of one week either side of today holds each weekday twice
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        availabilityRepository = mock(VenueAvailabilityRepository.class);
+        VenueRepository venueRepository = mock(VenueRepository.class);
+        hall = new Venue("Grand Hall", Venue.VenueType.HALL, 200, new BigDecimal("150.00"));
+        hall.setVenueId(3L);
+        when(venueRepository.findByIsActiveTrue()).thenReturn(List.of(hall));
+        monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        occupancyService = new VenueOccupancyService();
+        ReflectionTestUtils.setField(occupancyService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(occupancyService, "venueAvailabilityRepository", availabilityRepository);
+        ReflectionTestUtils.setField(occupancyService, "venueRepository", venueRepository);
+        ReflectionTestUtils.setField(occupancyService, "occupancyEnabled", true);
+        ReflectionTestUtils.setField(occupancyService, "openHour", 8);
+        ReflectionTestUtils.setField(occupancyService, "closeHour", 24);
+        ReflectionTestUtils.setField(occupancyService, "pastWeeks", 1);
+        ReflectionTestUtils.setField(occupancyService, "futureWeeks", 1);
+        occupancyService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        occupancyService.stop();
+    }
+
+    @Test
+    void testHeatmapIsBookedOverAvailableTimeByHourOfWeek() {
+        LocalDate tuesday = monday.plusDays(1);
+        when(bookingRepository.findActiveSlotsByEventDateBetween(any(), any())).thenReturn(List.of(
+                slot(1L, monday, 18, 22),
+                slot(2L, monday, 20, 23)));
+        when(availabilityRepository.findTimeBlocks(any(), any(), any())).thenReturn(List.of(
+                new VenueTimeBlockDTO(3L, tuesday, LocalTime.of(8, 0), LocalTime.of(12, 0))));
+
+        OccupancyHeatmapDTO heatmap = occupancyService.getHeatmap();
+
+        assertEquals(LocalDate.now().minusWeeks(1), heatmap.windowStart());
+        OccupancyHeatmapDTO.VenueHeatmap grandHall = heatmap.venues().get(0);
+        assertEquals("Grand Hall", grandHall.venueName());
+        // Two Mondays at 8pm, one booked twice over: half the available time
+        assertEquals(50.0, grandHall.occupancy()[0][20]);
+        assertEquals(50.0, grandHall.occupancy()[0][18]);
+        assertEquals(0.0, grandHall.occupancy()[0][23]);
+        assertEquals(0.0, grandHall.occupancy()[1][9], "one Tuesday morning is still available");
+        assertNull(grandHall.occupancy()[1][3]);
+        assertEquals(5.0, grandHall.bookedHours());
+        assertEquals(14 * 16 - 4, grandHall.availableHours());
+        assertSame(heatmap, occupancyService.getHeatmap());
+        verify(bookingRepository, never()).findActiveSlotsByVenueAndEventDate(any(), any());
+    }
+
+    @Test
+    void testMovedBookingUpdatesOnlyItsDaysAndTheVersion() {
+        LocalDate wednesday = monday.plusDays(2);
+        when(bookingRepository.findActiveSlotsByEventDateBetween(any(), any())).thenReturn(List.of(slot(1L, monday, 18, 22)));
+        OccupancyHeatmapDTO before = occupancyService.getHeatmap();
+        assertEquals(50.0, before.venues().get(0).occupancy()[0][19]);
+
+        Booking booking = new Booking(new User(), hall, "Gala", monday, LocalTime.of(18, 0), LocalTime.of(22, 0),
+                120, new BigDecimal("2400.00"));
+        booking.setBookingId(1L);
+        booking.postLoad();
+        booking.setEventDate(wednesday);
+        when(bookingRepository.findActiveSlotsByVenueAndEventDate(3L, monday)).thenReturn(List.of());
+        when(bookingRepository.findActiveSlotsByVenueAndEventDate(3L, wednesday)).thenReturn(List.of(slot(1L, wednesday, 18, 22)));
+
+        occupancyService.onBookingChanged(booking, Booking.BookingStatus.CONFIRMED);
+        awaitRefreshes();
+        OccupancyHeatmapDTO after = occupancyService.getHeatmap();
+
+        assertTrue(after.version() > before.version());
+        assertEquals(0.0, after.venues().get(0).occupancy()[0][19]);
+        assertEquals(50.0, after.venues().get(0).occupancy()[2][19]);
+        assertEquals(4.0, after.venues().get(0).bookedHours());
+        verify(bookingRepository, times(1)).findActiveSlotsByEventDateBetween(any(), any());
+
+        // Sweeping a day to the same figures leaves the cached heatmap alone
+        occupancyService.onAvailabilityChanged(3L, wednesday);
+        awaitRefreshes();
+        assertSame(after, occupancyService.getHeatmap());
+    }
+
+    @Test
+    void testReadersAreNotHeldUpByARefreshQuery() throws Exception {
+        LocalDate wednesday = monday.plusDays(2);
+        OccupancyHeatmapDTO before = occupancyService.getHeatmap();
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingRepository.findActiveSlotsByVenueAndEventDate(3L, wednesday)).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await();
+            return List.of(slot(1L, wednesday, 18, 22));
+        });
+
+        // Handed to the background thread: the booking thread returns while the sweep is still querying
+        occupancyService.onAvailabilityChanged(3L, wednesday);
+        assertTrue(querying.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> assertSame(before, occupancyService.getHeatmap()));
+        release.countDown();
+        awaitRefreshes();
+        assertEquals(50.0, occupancyService.getHeatmap().venues().get(0).occupancy()[2][19]);
+    }
+
+    private void awaitRefreshes() {
+        // Single-threaded, so an empty task finishes after every refresh submitted before it
+        ExecutorService refresher = (ExecutorService) ReflectionTestUtils.getField(occupancyService, "refresher");
+        assertDoesNotThrow(() -> refresher.submit(() -> { }).get(5, TimeUnit.SECONDS));
+    }
+
+    private static BookingSlotDTO slot(Long bookingId, LocalDate date, int startHour, int endHour) {
+        return new BookingSlotDTO(bookingId, 3L, date, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0),
+                Booking.BookingStatus.CONFIRMED, null);
+    }
+}
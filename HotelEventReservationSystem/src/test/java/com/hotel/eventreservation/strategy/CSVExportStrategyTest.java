@@ -0,0 +1,46 @@
+package com.hotel.eventreservation.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CSVExportStrategyTest {
+
+    private final CSVExportStrategy csvExportStrategy = new CSVExportStrategy();
+
+    @Test
+    void testFieldsAreQuotedPerRfc4180() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Object[]> rows = List.of(
+                new Object[] {"BK-1", "Smith, John", "Said \"hi\"", new BigDecimal("1E+3"), LocalDate.of(2026, 5, 1)},
+                new Object[] {"BK-2", "Line\nbreak", null, 12, LocalDate.of(2026, 5, 2)});
+
+        csvExportStrategy.writeData(List.of("Reference", "Guest", "Note", "Total", "Date"), rows.iterator(), out);
+
+        assertEquals("Reference,Guest,Note,Total,Date\r\n"
+                + "BK-1,\"Smith, John\",\"Said \"\"hi\"\"\",1000,2026-05-01\r\n"
+                + "BK-2,\"Line\nbreak\",,12,2026-05-02\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testByteExportKeepsMapColumnOrder() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("Zeta", "z");
+        row.put("Alpha", "a");
+
+        String csv = new String(csvExportStrategy.exportData(List.of(row), "report"), StandardCharsets.UTF_8);
+
+        assertEquals("Zeta,Alpha\r\nz,a\r\n", csv);
+        assertEquals("", new String(csvExportStrategy.exportData(List.of(), "report"), StandardCharsets.UTF_8));
+        assertEquals("text/csv", csvExportStrategy.getMimeType());
+        assertEquals(".csv", csvExportStrategy.getFileExtension());
+    }
+}
@@ -0,0 +1,188 @@
+package com.hotel.eventreservation.strategy;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.util.ColumnarWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarExportStrategyTest {
+
+    private static final List<String> COLUMNS = List.of("Booking ID", "Event Type", "Event Date", "Start Time",
+            "Total Cost", "Status", "Created At", "Utilization %");
+
+    private ColumnarExportStrategy columnarExportStrategy;
+
+    @BeforeEach
+    void setUp() {
+        columnarExportStrategy = new ColumnarExportStrategy();
+        ReflectionTestUtils.setField(columnarExportStrategy, "rowGroupSize", 4);
+    }
+
+    @Test
+    void testRowsRoundTripAcrossRowGroups() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(new Object[] {(long) i, i % 2 == 0 ? "Wedding" : "Conference", LocalDate.of(2026, 5, 1 + i % 3),
+                    i == 3 ? null : LocalTime.of(9 + i, 15), new BigDecimal("1500.25").add(BigDecimal.valueOf(i)),
+                    Booking.BookingStatus.values()[i % 2], LocalDateTime.of(2026, 1, 1, 8, 0, 0, 5000).plusHours(i),
+                    i * 12.5});
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        columnarExportStrategy.writeData(COLUMNS, rows.iterator(), out);
+
+        Decoded decoded = decode(out.toByteArray());
+        assertEquals(COLUMNS, decoded.columns);
+        assertEquals(10, decoded.rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] expected = rows.get(i).clone();
+            // Enums come back by name
+            expected[5] = ((Enum<?>) expected[5]).name();
+            assertArrayEquals(expected, decoded.rows.get(i), "row " + i);
+        }
+        // Three row groups; dictionary entries are only sent once per file
+        assertEquals(List.of((byte) ColumnarWriter.TYPE_STRING_DICT, ColumnarWriter.TYPE_DATE, ColumnarWriter.TYPE_ENUM),
+                List.of(decoded.types.get(1), decoded.types.get(2), decoded.types.get(5)));
+        assertEquals(List.of("Wedding", "Conference"), decoded.dictionaries.get(1));
+        assertEquals(3, decoded.dictionaries.get(2).size());
+        assertEquals(2, decoded.dictionaries.get(5).size());
+    }
+
+    @Test
+    void testDistinctStringsAreWrittenInline() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Object[]> rows = List.of(new Object[] {"BK-1"}, new Object[] {"BK-2"}, new Object[] {null});
+
+        columnarExportStrategy.writeData(List.of("Reference Code"), rows.iterator(), out);
+
+        Decoded decoded = decode(out.toByteArray());
+        assertEquals(ColumnarWriter.TYPE_STRING, decoded.types.get(0));
+        assertArrayEquals(new Object[] {null}, decoded.rows.get(2));
+        assertTrue(decoded.dictionaries.get(0).isEmpty());
+    }
+
+    @Test
+    void testByteExportKeepsMapColumnOrder() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("Zeta", 1);
+        row.put("Alpha", "a");
+
+        Decoded decoded = decode(columnarExportStrategy.exportData(List.of(row), "report"));
+
+        assertEquals(List.of("Zeta", "Alpha"), decoded.columns);
+        assertArrayEquals(new Object[] {1L, "a"}, decoded.rows.get(0));
+        assertEquals(List.of(), decode(columnarExportStrategy.exportData(List.of(), "report")).rows);
+    }
+
+    /**
+     * Reference decoder for the format documented on ColumnarWriter
+     */
+    private static Decoded decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte[] magic = new byte[4];
+        in.readFully(magic);
+        assertArrayEquals(ColumnarWriter.MAGIC, magic);
+        assertEquals(ColumnarWriter.VERSION, in.readUnsignedByte());
+
+        Decoded decoded = new Decoded();
+        int columnCount = (int) readVarLong(in);
+        for (int i = 0; i < columnCount; i++) {
+            decoded.columns.add(readString(in));
+            decoded.dictionaries.add(new ArrayList<>());
+            decoded.types.add(ColumnarWriter.TYPE_NULL);
+        }
+        int rowCount;
+        while ((rowCount = (int) readVarLong(in)) != 0) {
+            Object[][] group = new Object[rowCount][columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                byte type = in.readByte();
+                if (decoded.types.get(column) == ColumnarWriter.TYPE_NULL) {
+                    decoded.types.set(column, type);
+                }
+                byte[] nulls = new byte[(rowCount + 7) / 8];
+                in.readFully(nulls);
+                List<Object> dictionary = decoded.dictionaries.get(column);
+                boolean dictionaryEncoded = type == ColumnarWriter.TYPE_ENUM || type == ColumnarWriter.TYPE_DATE
+                        || type == ColumnarWriter.TYPE_STRING_DICT;
+                if (dictionaryEncoded) {
+                    long added = readVarLong(in);
+                    for (long i = 0; i < added; i++) {
+                        dictionary.add(type == ColumnarWriter.TYPE_DATE ? LocalDate.ofEpochDay(readZigZag(in)) : readString(in));
+                    }
+                }
+                for (int row = 0; row < rowCount; row++) {
+                    if ((nulls[row >> 3] & (1 << (row & 7))) != 0) {
+                        continue;
+                    }
+                    group[row][column] = dictionaryEncoded ? dictionary.get((int) readVarLong(in)) : switch (type) {
+                        case ColumnarWriter.TYPE_LONG -> readZigZag(in);
+                        case ColumnarWriter.TYPE_DOUBLE -> in.readDouble();
+                        case ColumnarWriter.TYPE_BOOLEAN -> in.readBoolean();
+                        case ColumnarWriter.TYPE_DECIMAL -> {
+                            int scale = (int) readVarLong(in);
+                            yield new BigDecimal(new BigInteger(readString(in)), scale);
+                        }
+                        case ColumnarWriter.TYPE_TIME -> LocalTime.ofSecondOfDay(readVarLong(in));
+                        case ColumnarWriter.TYPE_DATETIME -> LocalDateTime.ofEpochSecond(readZigZag(in),
+                                (int) readVarLong(in), ZoneOffset.UTC);
+                        default -> readString(in);
+                    };
+                }
+            }
+            decoded.rows.addAll(Arrays.asList(group));
+        }
+        assertEquals(-1, in.read(), "nothing follows the end marker");
+        return decoded;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readZigZag(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static final class Decoded {
+        private final List<String> columns = new ArrayList<>();
+        // Column types as chosen for the first row group
+        private final List<Byte> types = new ArrayList<>();
+        private final List<List<Object>> dictionaries = new ArrayList<>();
+        private final List<Object[]> rows = new ArrayList<>();
+    }
+}
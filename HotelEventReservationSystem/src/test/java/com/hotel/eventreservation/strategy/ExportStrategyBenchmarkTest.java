@@ -0,0 +1,237 @@
+package com.hotel.eventreservation.strategy;
+
+import com.hotel.eventreservation.model.Booking;
+import com.hotel.eventreservation.model.Booking.BookingStatus;
+import com.hotel.eventreservation.model.User;
+import com.hotel.eventreservation.model.Venue;
+import com.hotel.eventreservation.service.ReportService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * Export throughput at 10k, 100k and 1M rows. Rows are generated on the fly and written to a
+ * counting sink, so the numbers reflect the writers only. Run with -Dbenchmarks=true.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class ExportStrategyBenchmarkTest {
+
+    private static final List<String> COLUMNS = List.of("Booking ID", "Reference Code", "Guest Name", "Event Type",
+            "Event Date", "Start Time", "End Time", "Guest Count", "Venue", "Total Cost", "Status", "Created At");
+    private static final int[] ROW_COUNTS = {10_000, 100_000, 1_000_000};
+
+    @Test
+    void benchmarkCsv() throws IOException {
+        CSVExportStrategy csv = new CSVExportStrategy();
+        for (int rows : ROW_COUNTS) {
+            run("CSV", rows, out -> csv.writeData(COLUMNS, new GeneratedRows(rows), out));
+        }
+    }
+
+    @Test
+    void benchmarkAnalyticsFormats() throws IOException {
+        JSONExportStrategy json = new JSONExportStrategy();
+        NDJSONExportStrategy ndjson = new NDJSONExportStrategy();
+        ColumnarExportStrategy columnar = new ColumnarExportStrategy();
+        ReflectionTestUtils.setField(columnar, "rowGroupSize", 8192);
+        for (int rows : ROW_COUNTS) {
+            run("JSON", rows, out -> json.writeData(COLUMNS, new GeneratedRows(rows), out));
+            run("NDJSON", rows, out -> ndjson.writeData(COLUMNS, new GeneratedRows(rows), out));
+            run("NDJSON gzip", rows, out -> compressed(ExportCompression.GZIP, out,
+                    target -> ndjson.writeData(COLUMNS, new GeneratedRows(rows), target)));
+            run("Columnar", rows, out -> columnar.writeData(COLUMNS, new GeneratedRows(rows), out));
+            run("Columnar gzip", rows, out -> compressed(ExportCompression.GZIP, out,
+                    target -> columnar.writeData(COLUMNS, new GeneratedRows(rows), target)));
+            run("Columnar deflate", rows, out -> compressed(ExportCompression.DEFLATE, out,
+                    target -> columnar.writeData(COLUMNS, new GeneratedRows(rows), target)));
+        }
+    }
+
+    /**
+     * Typed schema read straight from the bookings, against the previous path that built a HashMap per
+     * booking and then an Object[] per map. Both write CSV to a counting sink; 200k in-memory bookings.
+     */
+    @Test
+    void benchmarkSchemaRowsAgainstMapRows() throws IOException {
+        List<Booking> bookings = IntStream.range(0, 200_000).mapToObj(ExportStrategyBenchmarkTest::booking).toList();
+        ReportSchema<Booking> schema = ReportService.BOOKING_ANALYTICS_SCHEMA;
+        CSVExportStrategy csv = new CSVExportStrategy();
+
+        Export mapRows = out -> {
+            List<Map<String, Object>> data = bookings.stream().map(booking -> {
+                Map<String, Object> row = new HashMap<>();
+                for (ReportSchema.Column<Booking> column : schema.getColumns()) {
+                    row.put(column.name(), column.valueOf(booking));
+                }
+                return row;
+            }).toList();
+            List<String> columns = new ArrayList<>(data.get(0).keySet());
+            csv.writeData(columns, data.stream().map(row -> columns.stream().map(row::get).toArray()).iterator(), out);
+        };
+        Export schemaRows = out -> csv.writeData(schema, bookings.iterator(), out);
+
+        for (int round = 0; round < 3; round++) {
+            perRow("Map rows (HashMap)", bookings.size(), mapRows);
+            perRow("Typed schema rows", bookings.size(), schemaRows);
+        }
+    }
+
+    @Test
+    void benchmarkXlsx() throws IOException {
+        XLSXExportStrategy xlsx = new XLSXExportStrategy();
+        ReflectionTestUtils.setField(xlsx, "rowWindow", 100);
+        ReflectionTestUtils.setField(xlsx, "widthSampleRows", 200);
+        for (int rows : ROW_COUNTS) {
+            run("XLSX (SXSSF)", rows, out -> xlsx.writeData(COLUMNS, new GeneratedRows(rows), out));
+        }
+    }
+
+    @Test
+    void benchmarkPdf() throws IOException {
+        PDFExportStrategy pdf = new PDFExportStrategy();
+        ReflectionTestUtils.setField(pdf, "flushRows", 50);
+        for (int rows : new int[] {10_000, 100_000}) {
+            run("PDF (large table)", rows, out -> pdf.writeData(COLUMNS, new GeneratedRows(rows), out));
+        }
+    }
+
+    /**
+     * The previous in-memory XSSF workbook with autoSizeColumn, for comparison; 10k rows only
+     */
+    @Test
+    void benchmarkInMemoryXssfBaseline() throws IOException {
+        run("XLSX (XSSF + autoSize)", 10_000, out -> {
+            try (Workbook workbook = new XSSFWorkbook()) {
+                Sheet sheet = workbook.createSheet("Report Data");
+                Row header = sheet.createRow(0);
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    header.createCell(i).setCellValue(COLUMNS.get(i));
+                }
+                Iterator<Object[]> rows = new GeneratedRows(10_000);
+                int rowIndex = 1;
+                while (rows.hasNext()) {
+                    Object[] values = rows.next();
+                    Row row = sheet.createRow(rowIndex++);
+                    for (int i = 0; i < values.length; i++) {
+                        row.createCell(i).setCellValue(values[i].toString());
+                    }
+                }
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    sheet.autoSizeColumn(i);
+                }
+                workbook.write(out);
+            }
+        });
+    }
+
+    private static void run(String label, int rows, Export export) throws IOException {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        export.write(out);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%-24s %,10d rows: %,7d ms, %,12d bytes, heap delta %,d KB%n",
+                label, rows, millis, out.count, (heapAfter - heapBefore) / 1024);
+    }
+
+    /**
+     * Time and bytes allocated per row on the calling thread
+     */
+    private static void perRow(String label, int rows, Export export) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        export.write(new CountingOutputStream());
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-24s %,10d rows: %,7d ns/row, %,7d bytes allocated/row%n",
+                label, rows, nanos / rows, allocated / rows);
+    }
+
+    private static Booking booking(int i) {
+        User guest = new User();
+        guest.setFirstName("Guest");
+        guest.setLastName("Number " + i);
+        Venue venue = new Venue("Grand Hall " + i % 12, Venue.VenueType.HALL, 250, new BigDecimal("150.00"));
+        Booking booking = new Booking(guest, venue, i % 3 == 0 ? "Wedding" : "Conference",
+                LocalDate.of(2020, 1, 1).plusDays(i % 2000), LocalTime.of(9 + i % 8, 0), LocalTime.of(18, 30),
+                50 + i % 200, BigDecimal.valueOf(150_000 + i % 9_000, 2));
+        booking.setBookingId((long) i);
+        booking.setReferenceCode("BK-" + (100000 + i));
+        booking.setBookingStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setCreatedAt(LocalDateTime.of(2019, 6, 1, 10, 15).plusMinutes(i));
+        return booking;
+    }
+
+    private static void compressed(ExportCompression compression, OutputStream out, Export export) throws IOException {
+        try (OutputStream target = compression.wrap(out)) {
+            export.write(target);
+        }
+    }
+
+    private interface Export {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static final class GeneratedRows implements Iterator<Object[]> {
+        private final int total;
+        private int next;
+
+        private GeneratedRows(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < total;
+        }
+
+        @Override
+        public Object[] next() {
+            if (next >= total) {
+                throw new NoSuchElementException();
+            }
+            int i = next++;
+            return new Object[] {(long) i, "BK-" + (100000 + i), "Guest Number " + i, i % 3 == 0 ? "Wedding" : "Conference",
+                    LocalDate.of(2020, 1, 1).plusDays(i % 2000), LocalTime.of(9 + i % 8, 0), LocalTime.of(18, 30),
+                    50 + i % 200, "Grand Hall " + i % 12, BigDecimal.valueOf(150_000 + i % 9_000, 2), BookingStatus.CONFIRMED,
+                    LocalDateTime.of(2019, 6, 1, 10, 15).plusMinutes(i)};
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hotel.eventreservation.strategy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.eventreservation.model.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NDJSONExportStrategyTest {
+
+    private static final List<String> COLUMNS = List.of("Reference", "Event Date", "Start Time", "Total", "Status");
+
+    private final NDJSONExportStrategy ndjsonExportStrategy = new NDJSONExportStrategy();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testOneCompactObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ndjsonExportStrategy.writeData(COLUMNS, rows().iterator(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2], "every record, including the last, ends with a newline");
+        assertEquals("{\"Reference\":\"BK-1\",\"Event Date\":\"2026-05-01\",\"Start Time\":\"18:30:00\","
+                + "\"Total\":2500.00,\"Status\":\"CONFIRMED\"}", lines[0]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertTrue(second.get("Total").isNull());
+    }
+
+    @Test
+    void testByteExportWritesMapsAsLines() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("Event Type", "Wedding");
+        row.put("Guests", 120);
+
+        String ndjson = new String(ndjsonExportStrategy.exportData(List.of(row, row), "report"), StandardCharsets.UTF_8);
+
+        assertEquals("{\"Event Type\":\"Wedding\",\"Guests\":120}\n{\"Event Type\":\"Wedding\",\"Guests\":120}\n", ndjson);
+        assertEquals(0, ndjsonExportStrategy.exportData(List.of(), "report").length);
+    }
+
+    @Test
+    void testCompressedOutputRoundTripsAndLeavesDestinationOpen() throws Exception {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ndjsonExportStrategy.writeData(COLUMNS, rows().iterator(), plain);
+
+        for (ExportCompression compression : List.of(ExportCompression.GZIP, ExportCompression.DEFLATE)) {
+            ByteArrayOutputStream destination = new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    fail("destination must not be closed");
+                }
+            };
+            try (OutputStream compressed = compression.wrap(destination)) {
+                ndjsonExportStrategy.writeData(COLUMNS, rows().iterator(), compressed);
+            }
+            byte[] inflated = compression == ExportCompression.GZIP
+                    ? new GZIPInputStream(new ByteArrayInputStream(destination.toByteArray())).readAllBytes()
+                    : new InflaterInputStream(new ByteArrayInputStream(destination.toByteArray())).readAllBytes();
+            assertArrayEquals(plain.toByteArray(), inflated, compression.name());
+        }
+    }
+
+    @Test
+    void testCompressionParameter() {
+        assertEquals(ExportCompression.NONE, ExportCompression.fromParameter(null));
+        assertEquals(ExportCompression.NONE, ExportCompression.fromParameter("none"));
+        assertEquals(ExportCompression.GZIP, ExportCompression.fromParameter("gzip"));
+        assertEquals("application/gzip", ExportCompression.GZIP.getMimeType(ndjsonExportStrategy.getMimeType()));
+        assertEquals("application/x-ndjson", ExportCompression.NONE.getMimeType(ndjsonExportStrategy.getMimeType()));
+        assertThrows(IllegalArgumentException.class, () -> ExportCompression.fromParameter("brotli"));
+    }
+
+    private static List<Object[]> rows() {
+        return List.of(
+                new Object[] {"BK-1", LocalDate.of(2026, 5, 1), LocalTime.of(18, 30), new BigDecimal("2500.00"),
+                        Booking.BookingStatus.CONFIRMED},
+                new Object[] {"BK-2", LocalDate.of(2026, 5, 2), null, null, Booking.BookingStatus.PENDING});
+    }
+}
@@ -0,0 +1,134 @@
+package com.hotel.eventreservation.strategy;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PDFExportStrategyTest {
+
+    private static final ReportSchema<Object[]> COLUMNS = ReportSchema.forArrays(List.of("Code", "Venue"));
+
+    private PDFExportStrategy pdfExportStrategy;
+
+    @BeforeEach
+    void setUp() {
+        pdfExportStrategy = new PDFExportStrategy();
+        ReflectionTestUtils.setField(pdfExportStrategy, "flushRows", 20);
+        ReflectionTestUtils.setField(pdfExportStrategy, "sectionThreads", 2);
+        pdfExportStrategy.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pdfExportStrategy.stop();
+    }
+
+    @Test
+    void testLargeTableRepeatsHeaderOnEveryPage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        pdfExportStrategy.writeData(List.of("Reference Code", "Venue"), rows("BK-", 400), out);
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            assertTrue(pdf.getNumberOfPages() > 3);
+            for (int page = 1; page <= pdf.getNumberOfPages(); page++) {
+                assertTrue(PdfTextExtractor.getTextFromPage(pdf.getPage(page)).contains("Reference Code"));
+            }
+            assertTrue(PdfTextExtractor.getTextFromPage(pdf.getPage(pdf.getNumberOfPages())).contains("BK-399"));
+        }
+    }
+
+    @Test
+    void testParallelSectionsKeepTheirOrder() throws IOException {
+        ReflectionTestUtils.setField(pdfExportStrategy, "parallelSections", true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        pdfExportStrategy.writeSections(List.of(
+                new PDFExportStrategy.Section<>("First Section", COLUMNS, writer -> writer.write(rows("A-", 150))),
+                new PDFExportStrategy.Section<>("Second Section", COLUMNS, writer -> writer.write(rows("B-", 10))),
+                new PDFExportStrategy.Section<>("Empty Section", COLUMNS, writer -> writer.write(rows("C-", 0)))), out);
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= pdf.getNumberOfPages(); page++) {
+                text.append(PdfTextExtractor.getTextFromPage(pdf.getPage(page)));
+            }
+            int first = text.indexOf("First Section");
+            int second = text.indexOf("Second Section");
+            int empty = text.indexOf("Empty Section");
+            assertTrue(first >= 0 && first < text.indexOf("A-149") && text.indexOf("A-149") < second && second < empty);
+            assertTrue(text.indexOf("No data available") > empty);
+        }
+    }
+
+    @Test
+    void testFailedSectionLeavesNoTemporaryFiles(@TempDir Path tempDir) throws Exception {
+        ReflectionTestUtils.setField(pdfExportStrategy, "parallelSections", true);
+        ReflectionTestUtils.setField(pdfExportStrategy, "tempDirectory", tempDir.toString());
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        CountDownLatch secondFinished = new CountDownLatch(1);
+
+        IOException error = assertThrows(IOException.class, () -> pdfExportStrategy.writeSections(List.of(
+                new PDFExportStrategy.Section<>("Broken Section", COLUMNS, writer -> {
+                    // Fail only once the second section is rendering into its file
+                    awaitQuietly(secondStarted);
+                    throw new IOException("cursor closed");
+                }),
+                new PDFExportStrategy.Section<>("Slow Section", COLUMNS, writer -> {
+                    try {
+                        secondStarted.countDown();
+                        writer.write(rows("B-", 2_000));
+                    } finally {
+                        secondFinished.countDown();
+                    }
+                }),
+                new PDFExportStrategy.Section<>("Queued Section", COLUMNS, writer -> writer.write(rows("C-", 10)))),
+                new ByteArrayOutputStream()));
+
+        assertEquals("cursor closed", error.getMessage());
+        assertTrue(secondFinished.await(30, TimeUnit.SECONDS));
+        // The slow section may still be closing its file; it must not survive that
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (countFiles(tempDir) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, countFiles(tempDir));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static Iterator<Object[]> rows(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> new Object[] {prefix + i, "Grand Hall"}).iterator();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotel.eventreservation.strategy;
+
+import com.hotel.eventreservation.model.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportSchemaTest {
+
+    private record Line(String code, int guests, BigDecimal total, LocalDate date, Booking.BookingStatus status) {
+    }
+
+    private static final ReportSchema<Line> SCHEMA = ReportSchema.<Line>builder()
+            .text("Code", Line::code)
+            .integer("Guests", Line::guests)
+            .decimal("Total", Line::total)
+            .date("Date", Line::date)
+            .enumValue("Status", Line::status)
+            .build();
+
+    @Test
+    void testColumnsKeepDeclarationOrderAndTypes() {
+        assertEquals(List.of("Code", "Guests", "Total", "Date", "Status"), SCHEMA.getColumnNames());
+        assertEquals(ReportSchema.ColumnType.DECIMAL, SCHEMA.getColumn(2).type());
+        assertTrue(SCHEMA.getColumn(1).type().isNumeric());
+
+        Map<String, Object> row = SCHEMA.toMap(new Line("BK-1", 80, new BigDecimal("99.50"), LocalDate.of(2026, 6, 1), null));
+        assertEquals(List.of("Code", "Guests", "Total", "Date", "Status"), new ArrayList<>(row.keySet()));
+        assertEquals(80, row.get("Guests"));
+        assertNull(row.get("Status"));
+    }
+
+    @Test
+    void testEveryStrategyWritesSchemaOrder() throws Exception {
+        List<Line> lines = List.of(new Line("BK-1", 80, new BigDecimal("99.50"), LocalDate.of(2026, 6, 1),
+                Booking.BookingStatus.CONFIRMED));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        new CSVExportStrategy().writeData(SCHEMA, lines.iterator(), csv);
+        assertEquals("Code,Guests,Total,Date,Status\r\nBK-1,80,99.50,2026-06-01,CONFIRMED\r\n",
+                csv.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new JSONExportStrategy().writeData(SCHEMA, lines.iterator(), json);
+        assertEquals("[{\"Code\":\"BK-1\",\"Guests\":80,\"Total\":99.50,\"Date\":\"2026-06-01\",\"Status\":\"CONFIRMED\"}]",
+                json.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testMapSchemaFollowsFirstRow() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("Venue", "Grand Hall");
+        first.put("Revenue", new BigDecimal("10.00"));
+        first.put("Missing", null);
+        Map<String, Object> second = new HashMap<>(first);
+        second.put("Venue", "Terrace");
+
+        ReportSchema<Map<String, Object>> schema = ReportSchema.forMaps(List.of(first, second));
+
+        assertEquals(List.of("Venue", "Revenue", "Missing"), schema.getColumnNames());
+        assertEquals(ReportSchema.ColumnType.DECIMAL, schema.getColumn(1).type());
+        assertEquals(ReportSchema.ColumnType.OBJECT, schema.getColumn(2).type());
+        assertEquals("Terrace", schema.valueAt(second, 0));
+        assertTrue(ReportSchema.forMaps(List.of()).isEmpty());
+    }
+}
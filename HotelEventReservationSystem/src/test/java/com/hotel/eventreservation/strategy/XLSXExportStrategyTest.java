@@ -0,0 +1,51 @@
+package com.hotel.eventreservation.strategy;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XLSXExportStrategyTest {
+
+    private XLSXExportStrategy xlsxExportStrategy;
+
+    @BeforeEach
+    void setUp() {
+        xlsxExportStrategy = new XLSXExportStrategy();
+        ReflectionTestUtils.setField(xlsxExportStrategy, "rowWindow", 10);
+        ReflectionTestUtils.setField(xlsxExportStrategy, "widthSampleRows", 5);
+    }
+
+    @Test
+    void testRowsBeyondTheWindowAreWrittenWithTypedCells() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Object[]> rows = IntStream.range(0, 250)
+                .mapToObj(i -> new Object[] {"BK-" + i, LocalDate.of(2026, 1, 1).plusDays(i), new BigDecimal("99.50")})
+                .toList();
+
+        xlsxExportStrategy.writeData(List.of("Reference Code", "Event Date", "Revenue"), rows.iterator(), out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(250, sheet.getLastRowNum());
+            assertEquals("Reference Code", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("BK-249", sheet.getRow(250).getCell(0).getStringCellValue());
+            assertEquals(CellType.NUMERIC, sheet.getRow(250).getCell(2).getCellType());
+            assertEquals(99.5, sheet.getRow(250).getCell(2).getNumericCellValue());
+            assertEquals(LocalDate.of(2026, 1, 1), sheet.getRow(1).getCell(1).getLocalDateTimeCellValue().toLocalDate());
+            // "Reference Code" is the widest value in the sample
+            assertEquals(16 * 256, sheet.getColumnWidth(0));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DemandSimulationTest {
+
+    @Test
+    void testResultsDoNotDependOnParallelism() {
+        Random random = new Random(5);
+        DemandSimulation.Demand.Builder builder = new DemandSimulation.Demand.Builder();
+        for (int i = 0; i < 500; i++) {
+            int start = 9 + random.nextInt(10);
+            builder.add(i % 3 == 0 ? "Wedding" : "Conference", DayOfWeek.of(1 + random.nextInt(7)),
+                        LocalTime.of(start, 0), LocalTime.of(start + 1 + random.nextInt(5), 30),
+                        20 + random.nextInt(200), random.nextInt(120));
+        }
+        DemandSimulation simulation = new DemandSimulation(builder.build(6.0), new int[] {250, 80, 40, 120}, 13, 8, 24);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            DemandSimulation.Result serial = simulation.run(single, 100, 1.0, 42L);
+            DemandSimulation.Result parallel = simulation.run(several, 100, 1.0, 42L);
+            assertArrayEquals(serial.rejectionRates(), parallel.rejectionRates());
+            assertArrayEquals(serial.utilizations(), parallel.utilizations());
+            assertArrayEquals(serial.venueBookedSlots(), parallel.venueBookedSlots());
+            assertArrayEquals(serial.rejectionsByType(), parallel.rejectionsByType());
+            // About six requests a day over 91 days
+            assertEquals(546.0, (double) (serial.requestsByType()[0] + serial.requestsByType()[1]) / 100, 10.0);
+            assertTrue(serial.rejectionRates()[0] > 0 && serial.rejectionRates()[0] < 1);
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    void testRequestsTakeTheSmallestFreeVenueThatFits() {
+        // Saturday evening parties of 30 guests, 1.4 a week on average
+        DemandSimulation.Demand demand = new DemandSimulation.Demand.Builder()
+                .add("Birthday", DayOfWeek.SATURDAY, LocalTime.of(18, 0), LocalTime.of(22, 0), 30, 60)
+                .build(0.2);
+        int[] capacities = {200, 50};
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            DemandSimulation.Result result = new DemandSimulation(demand, capacities, 4, 8, 24).run(pool, 50, 1.0, 7L);
+            // The room takes the first party of an evening (75% of Saturdays), the hall only a second (41%)
+            assertEquals(0.75 * 16, (double) result.venueBookedSlots()[1] / (50 * 4), 1.5);
+            assertEquals(0.41 * 16, (double) result.venueBookedSlots()[0] / (50 * 4), 1.5);
+            // A booked evening is 4 of the 16 open hours on one of seven days
+            assertEquals(0.75 * 4 / (7 * 16), result.venueUtilization(1), 0.004);
+            assertTrue(result.rejectionsByType()[0] > 0, "a third party in one evening is turned away");
+
+            DemandSimulation.Demand wedding = new DemandSimulation.Demand.Builder()
+                    .add("Wedding", DayOfWeek.SATURDAY, LocalTime.of(12, 0), LocalTime.MIDNIGHT, 150, 300)
+                    .build(0.5);
+            DemandSimulation.Result tooSmall = new DemandSimulation(wedding, new int[] {50, 120}, 4, 8, 24).run(pool, 10, 1.0, 7L);
+            assertEquals(1.0, tooSmall.rejectionRates()[0]);
+            assertEquals(0.0, tooSmall.utilizations()[0]);
+            assertEquals(tooSmall.requestsByType()[0], tooSmall.rejectionsByType()[0]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
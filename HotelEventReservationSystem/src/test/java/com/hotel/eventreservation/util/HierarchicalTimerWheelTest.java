@@ -0,0 +1,70 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimerWheelTest {
+
+    private static final long TICK = 1000L;
+
+    @Test
+    void testItemsFireOnTheirTickAcrossLevels() {
+        long start = 1_700_000_000_000L;
+        HierarchicalTimerWheel<Integer> wheel = new HierarchicalTimerWheel<>(TICK, 3, start);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Up to ~4 levels deep so some items land in the overflow list
+            long deadline = start + (long) (random.nextDouble() * 300_000L * TICK);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+        assertEquals(20_000, wheel.size());
+
+        Set<Integer> fired = new HashSet<>();
+        long now = start;
+        while (fired.size() < deadlines.size()) {
+            now += (1 + random.nextInt(5_000)) * TICK;
+            long processedUpTo = (now / TICK) * TICK;
+            for (Integer item : wheel.advance(now)) {
+                assertTrue(deadlines.get(item) <= now, "fired early: " + item);
+                assertTrue(fired.add(item), "fired twice: " + item);
+            }
+            for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+                if (entry.getValue() <= processedUpTo - TICK) {
+                    assertTrue(fired.contains(entry.getKey()), "missed: " + entry.getKey());
+                }
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testOverdueItemFiresOnNextAdvance() {
+        long start = 5_000_000L;
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 2, start);
+        wheel.advance(start + 10 * TICK);
+
+        wheel.schedule("late", start);
+
+        assertEquals(List.of("late"), wheel.advance(start + 11 * TICK));
+    }
+
+    @Test
+    void testItemDoesNotFireBeforeDeadlineTick() {
+        long start = 0L;
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 2, start);
+        wheel.schedule("a", 4_500L);
+
+        assertTrue(wheel.advance(4_999L).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(5_000L));
+    }
+}
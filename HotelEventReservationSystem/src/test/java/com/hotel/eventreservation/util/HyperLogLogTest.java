@@ -0,0 +1,55 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    void testEstimatesStayWithinThreeStandardErrors() {
+        double bound = 3 * HyperLogLog.standardError(HyperLogLog.DEFAULT_PRECISION);
+        for (int distinct : new int[] {10, 1_000, 10_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long id = 0; id < distinct; id++) {
+                sketch.add(id);
+                // Repeats must not count again
+                sketch.add(id);
+            }
+            double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+            assertTrue(error < bound, distinct + " distinct estimated as " + sketch.estimate());
+        }
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void testMergedDailySketchesEqualOneSketchOfTheRange() {
+        HyperLogLog range = new HyperLogLog();
+        HyperLogLog merged = new HyperLogLog();
+        for (int day = 0; day < 90; day++) {
+            HyperLogLog daily = new HyperLogLog();
+            // Overlapping guests between days: 500 per day out of 20,000
+            for (long i = 0; i < 500; i++) {
+                long guest = (day * 211L + i * 37L) % 20_000;
+                daily.add(guest);
+                range.add(guest);
+            }
+            merged.merge(HyperLogLog.fromBytes(daily.toBytes()));
+        }
+        assertEquals(range.estimate(), merged.estimate());
+        assertArrayEquals(range.toBytes(), merged.toBytes());
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void testSmallSketchesSerializeSparsely() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 40; id++) {
+            sketch.add(id);
+        }
+        byte[] bytes = sketch.toBytes();
+        assertTrue(bytes.length < 200, "serialized to " + bytes.length + " bytes");
+        assertEquals(sketch.estimate(), HyperLogLog.fromBytes(bytes).estimate());
+        assertEquals(40, sketch.estimate(), 2);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KllSketchTest {
+
+    private static final double[] FRACTIONS = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+
+    @Test
+    void testQuantilesStayWithinTheRankErrorBound() {
+        Random random = new Random(7);
+        double[] values = new double[100_000];
+        KllSketch sketch = new KllSketch(KllSketch.DEFAULT_K, 11L);
+        for (int i = 0; i < values.length; i++) {
+            // Skewed like booking revenue: many small events, a long tail of large ones
+            values[i] = Math.exp(random.nextGaussian()) * 1000;
+            sketch.update(values[i]);
+        }
+        assertRankErrorWithinBound(sketch, values);
+        assertEquals(values.length, sketch.getCount());
+        assertEquals(Arrays.stream(values).min().getAsDouble(), sketch.quantile(0));
+        assertEquals(Arrays.stream(values).max().getAsDouble(), sketch.quantile(1));
+        assertTrue(sketch.toBytes().length < 8 * 3 * KllSketch.DEFAULT_K + 200, "sketch is not bounded");
+    }
+
+    @Test
+    void testMergedDailySketchesKeepTheBound() {
+        Random random = new Random(3);
+        double[] values = new double[365 * 200];
+        KllSketch merged = new KllSketch(KllSketch.DEFAULT_K, 5L);
+        int next = 0;
+        for (int day = 0; day < 365; day++) {
+            KllSketch daily = new KllSketch(KllSketch.DEFAULT_K, day);
+            for (int i = 0; i < 200; i++) {
+                values[next] = 20 + random.nextInt(300) + day;
+                daily.update(values[next++]);
+            }
+            merged.merge(KllSketch.fromBytes(daily.toBytes()));
+        }
+        assertRankErrorWithinBound(merged, values);
+        assertEquals(values.length, merged.getCount());
+    }
+
+    @Test
+    void testSmallSketchesAreExact() {
+        KllSketch sketch = new KllSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        for (int guests = 1; guests <= 99; guests++) {
+            sketch.update(guests);
+        }
+        KllSketch copy = KllSketch.fromBytes(sketch.toBytes());
+        assertEquals(50.0, copy.quantile(0.5));
+        assertEquals(90.0, copy.quantile(0.9), 1.0);
+        assertEquals(0.5, copy.rank(49.5), 0.01);
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new KllSketch(100)));
+    }
+
+    private static void assertRankErrorWithinBound(KllSketch sketch, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double[] estimates = sketch.quantiles(FRACTIONS);
+        for (int i = 0; i < FRACTIONS.length; i++) {
+            // True rank of the estimated value, against the rank asked for
+            int below = upperBound(sorted, estimates[i]);
+            double rankError = Math.abs((double) below / sorted.length - FRACTIONS[i]);
+            assertTrue(rankError <= KllSketch.normalizedRankError(KllSketch.DEFAULT_K),
+                       "p" + FRACTIONS[i] + " off by " + rankError + " in rank");
+        }
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
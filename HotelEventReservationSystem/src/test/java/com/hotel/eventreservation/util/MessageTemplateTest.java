@@ -0,0 +1,35 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageTemplateTest {
+
+    @Test
+    void testPlaceholdersAreSubstituted() {
+        MessageTemplate template = MessageTemplate.compile("Booking {reference} on {date}: {{literal}}");
+
+        assertEquals(List.of("reference", "date"), template.getPlaceholders());
+        assertEquals("Booking BK-1 on 2026-05-01: {literal}",
+                template.render(Map.of("reference", "BK-1", "date", java.time.LocalDate.of(2026, 5, 1))));
+        assertEquals("Booking  on : {literal}", template.render(Map.of()));
+    }
+
+    @Test
+    void testHtmlRenderingEscapesOnlyValues() {
+        MessageTemplate template = MessageTemplate.compile("<p>{message}</p>");
+
+        assertEquals("<p>Tom &amp; Jerry&#39;s &lt;party&gt;<br>Hall A</p>",
+                template.renderHtml(Map.of("message", "Tom & Jerry's <party>\nHall A")));
+    }
+
+    @Test
+    void testMalformedTemplatesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Booking {reference"));
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Booking {}"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancySweepTest {
+
+    private static final int OPEN = 8 * 60;
+    private static final int CLOSE = 24 * 60;
+
+    @Test
+    void testOverlapsCountOnceAndBlocksRemoveAvailableTime() {
+        List<OccupancySweep.Interval> bookings = List.of(
+                interval(18, 30, 21, 0),
+                interval(20, 0, 22, 15),
+                // Double-booked into maintenance: not available, so not booked either
+                interval(9, 0, 11, 0));
+        List<OccupancySweep.Interval> blocks = List.of(interval(10, 0, 12, 0));
+
+        OccupancySweep.DayProfile day = OccupancySweep.sweep(bookings, blocks, OPEN, CLOSE);
+
+        assertEquals(0, day.availableMinutes(7), "closed before opening");
+        assertEquals(60, day.availableMinutes(8));
+        assertEquals(60, day.bookedMinutes(9));
+        assertEquals(0, day.availableMinutes(10));
+        assertEquals(0, day.bookedMinutes(10));
+        assertEquals(0, day.availableMinutes(11));
+        assertEquals(0, day.bookedMinutes(17));
+        assertEquals(30, day.bookedMinutes(18));
+        assertEquals(60, day.bookedMinutes(20), "overlapping bookings are one booked hour");
+        assertEquals(15, day.bookedMinutes(22));
+        assertEquals(60, day.availableMinutes(23));
+    }
+
+    @Test
+    void testMatrixTracksChangedDaysByDifference() {
+        OccupancySweep.DayProfile open = OccupancySweep.sweep(List.of(), List.of(), OPEN, CLOSE);
+        OccupancySweep.DayProfile lateEvent = OccupancySweep.sweep(
+                List.of(OccupancySweep.Interval.of(LocalTime.of(22, 0), LocalTime.MIDNIGHT)), List.of(), OPEN, CLOSE);
+        assertEquals(60, lateEvent.bookedMinutes(23), "an end at midnight runs to the end of the day");
+
+        OccupancyMatrix matrix = new OccupancyMatrix();
+        matrix.add(DayOfWeek.FRIDAY, lateEvent);
+        matrix.add(DayOfWeek.FRIDAY, open);
+        int friday23 = 4 * 24 + 23;
+        assertEquals(0.5, matrix.occupancy(friday23));
+        assertTrue(Double.isNaN(matrix.occupancy(4 * 24 + 3)), "never available at 3am");
+
+        matrix.subtract(DayOfWeek.FRIDAY, lateEvent);
+        matrix.add(DayOfWeek.FRIDAY, open);
+        assertEquals(0.0, matrix.occupancy(friday23));
+        assertEquals(0, matrix.totalBookedMinutes());
+        assertEquals(2 * 16 * 60, matrix.totalAvailableMinutes());
+    }
+
+    private static OccupancySweep.Interval interval(int startHour, int startMinute, int endHour, int endMinute) {
+        return OccupancySweep.Interval.of(LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute));
+    }
+}
@@ -0,0 +1,42 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionCallbacksTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRunsRightAwayWithoutATransaction() {
+        List<String> calls = new ArrayList<>();
+
+        TransactionCallbacks.afterCommit(() -> calls.add("run"));
+
+        assertEquals(List.of("run"), calls);
+    }
+
+    @Test
+    void testWaitsForTheTransactionToCommit() {
+        List<String> calls = new ArrayList<>();
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionCallbacks.afterCommit(() -> calls.add("committed"));
+
+        assertTrue(calls.isEmpty());
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertEquals(List.of("committed"), calls);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hotel.eventreservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VenueAllocatorTest {
+
+    private static final int HALL = 0;
+    private static final int ROOM = 1;
+
+    @Test
+    void testSmallPartyNoLongerStrandsTheHall() {
+        VenueAllocator allocator = new VenueAllocator(new int[] {200, 40});
+        // A birthday asked for the hall first; a wedding wants it the same evening
+        int birthday = allocator.addRequest(0, 18 * 60, 22 * 60, 30, 100_000, HALL);
+        int wedding = allocator.addRequest(0, 17 * 60, 23 * 60, 150, 500_000, HALL);
+
+        VenueAllocator.Plan arrivalOrder = allocator.firstComeFirstServed();
+        assertEquals(1, arrivalOrder.assigned());
+        assertEquals(100_000, arrivalOrder.revenue());
+
+        VenueAllocator.Plan plan = allocator.allocate(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(HALL, plan.venueOf()[wedding]);
+        assertEquals(ROOM, plan.venueOf()[birthday]);
+        assertEquals(600_000, plan.revenue());
+        assertEquals((150 / 200.0 + 30 / 40.0) / 2, plan.fit(), 1e-9);
+    }
+
+    @Test
+    void testUnplacedRequestMovesABlockerAside() {
+        VenueAllocator allocator = new VenueAllocator(new int[] {50, 100});
+        allocator.block(1, 0, 9 * 60, 11 * 60);
+        int dinner = allocator.addRequest(0, 18 * 60, 20 * 60, 30, 90_000, VenueAllocator.UNASSIGNED);
+        int conference = allocator.addRequest(0, 12 * 60, 17 * 60, 80, 80_000, VenueAllocator.UNASSIGNED);
+        // Greedy leaves this one out: the dinner took the small room, the conference the large one
+        int reception = allocator.addRequest(0, 16 * 60, 19 * 60, 40, 50_000, VenueAllocator.UNASSIGNED);
+        // Overlaps fixed time in the large venue and the dinner in the small one: stays out
+        int breakfast = allocator.addRequest(0, 8 * 60, 10 * 60, 90, 70_000, VenueAllocator.UNASSIGNED);
+
+        VenueAllocator.Plan plan = allocator.allocate(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, plan.venueOf()[reception]);
+        assertEquals(1, plan.venueOf()[dinner]);
+        assertEquals(1, plan.venueOf()[conference]);
+        assertEquals(VenueAllocator.UNASSIGNED, plan.venueOf()[breakfast]);
+        assertEquals(220_000, plan.revenue());
+        assertTrue(plan.moves() >= 1);
+        assertFalse(plan.budgetExhausted());
+    }
+
+    @Test
+    void testThousandsOfRequestsStayValidAndBeatArrivalOrder() {
+        Random random = new Random(17);
+        int[] capacities = {20, 30, 40, 50, 60, 80, 100, 120, 150, 200, 250, 400};
+        VenueAllocator allocator = new VenueAllocator(capacities);
+        VenueAllocator checker = new VenueAllocator(capacities);
+        for (int day = 0; day < 60; day++) {
+            // A morning of maintenance somewhere every day
+            int venue = random.nextInt(capacities.length);
+            allocator.block(venue, day, 8 * 60, 12 * 60);
+            checker.block(venue, day, 8 * 60, 12 * 60);
+        }
+        int requests = 5_000;
+        for (int r = 0; r < requests; r++) {
+            int day = random.nextInt(60);
+            int start = (8 + random.nextInt(12)) * 60 + 30 * random.nextInt(2);
+            int end = Math.min(24 * 60, start + 60 * (1 + random.nextInt(6)));
+            int guests = 10 + random.nextInt(random.nextBoolean() ? 60 : 350);
+            int requested = random.nextInt(capacities.length);
+            long revenue = guests * 1_500L + random.nextInt(50_000);
+            allocator.addRequest(day, start, end, guests, revenue, requested);
+            checker.addRequest(day, start, end, guests, revenue, requested);
+        }
+
+        long startNanos = System.nanoTime();
+        VenueAllocator.Plan plan = allocator.allocate(TimeUnit.MILLISECONDS.toNanos(500));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        VenueAllocator.Plan arrivalOrder = allocator.firstComeFirstServed();
+
+        assertTrue(elapsedMillis < 5_000, "allocation took " + elapsedMillis + " ms");
+        assertTrue(plan.revenue() > arrivalOrder.revenue());
+        assertTrue(plan.fit() > arrivalOrder.fit());
+        // Every placement fits its venue and overlaps nothing placed before it
+        for (int r = 0; r < requests; r++) {
+            if (plan.venueOf()[r] != VenueAllocator.UNASSIGNED) {
+                assertTrue(checker.tryAssign(r, plan.venueOf()[r]), "request " + r + " overlaps or does not fit");
+            }
+        }
+    }
+}